@@ -0,0 +1,94 @@
+package io.github.cshunsinger.japplicator.builder;
+
+import io.github.cshunsinger.japplicator.Applicator;
+import io.github.cshunsinger.japplicator.annotation.FieldIdentifier;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares calling a generated applicator through the erased {@link Applicator#apply(Object, Object)} method, which
+ * casts both of its parameters, against calling the static entry point of the same applicator through a constant
+ * method handle, which takes the exact model types and can be inlined into the caller.
+ *
+ * The "polymorphic" benchmarks call several applicators from the same call site, which is what a shared mapping
+ * utility sees, and where the erased call can no longer be inlined.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TypedEntryPointBenchmark {
+    @FieldIdentifier
+    public static class Source {
+        private String name = "name";
+        private Integer count = 42;
+        private Long total = 4200L;
+        public String getName() { return name; }
+        public Integer getCount() { return count; }
+        public Long getTotal() { return total; }
+    }
+
+    @FieldIdentifier
+    public static class Destination {
+        private String name;
+        private Integer count;
+        private Long total;
+        public void setName(String name) { this.name = name; }
+        public void setCount(Integer count) { this.count = count; }
+        public void setTotal(Long total) { this.total = total; }
+    }
+
+    @FieldIdentifier
+    public static class OtherDestination {
+        private String name;
+        public void setName(String name) { this.name = name; }
+    }
+
+    private static final Applicator<Source, Destination> APPLICATOR = new ApplicatorBuilder<>(Source.class, Destination.class).build();
+    private static final Applicator<Source, OtherDestination> OTHER_APPLICATOR = new ApplicatorBuilder<>(Source.class, OtherDestination.class).build();
+    private static final Applicator<Source, Source> COPY_APPLICATOR = new ApplicatorBuilder<>(Source.class, Source.class).build();
+
+    private static final MethodHandle STATIC_APPLY = ApplicatorBuilder.findStaticApplyMethod(APPLICATOR);
+    private static final MethodHandle OTHER_STATIC_APPLY = ApplicatorBuilder.findStaticApplyMethod(OTHER_APPLICATOR);
+    private static final MethodHandle COPY_STATIC_APPLY = ApplicatorBuilder.findStaticApplyMethod(COPY_APPLICATOR);
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final Applicator<Object, Object>[] APPLICATORS = new Applicator[] { APPLICATOR, OTHER_APPLICATOR, COPY_APPLICATOR };
+
+    private final Source source = new Source();
+    private final Destination destination = new Destination();
+    private final OtherDestination otherDestination = new OtherDestination();
+    private final Source copy = new Source();
+    private final Object[] destinations = { destination, otherDestination, copy };
+    private int next;
+
+    @Benchmark
+    public Destination erasedApply() {
+        return APPLICATOR.apply(source, destination);
+    }
+
+    @Benchmark
+    public Destination staticApply() throws Throwable {
+        return (Destination)STATIC_APPLY.invokeExact(source, destination);
+    }
+
+    @Benchmark
+    public Object erasedApplyPolymorphic() {
+        int index = next++ % APPLICATORS.length;
+        return APPLICATORS[index].apply(source, destinations[index]);
+    }
+
+    @Benchmark
+    public Object staticApplyPolymorphic() throws Throwable {
+        //Code calling the static entry points has a separate call site for each pair, and none of them casts
+        switch(next++ % 3) {
+            case 0: return (Destination)STATIC_APPLY.invokeExact(source, destination);
+            case 1: return (OtherDestination)OTHER_STATIC_APPLY.invokeExact(source, otherDestination);
+            default: return (Source)COPY_STATIC_APPLY.invokeExact(source, copy);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.cshunsinger.japplicator.cache;
+
+import io.github.cshunsinger.japplicator.Applicator;
+import io.github.cshunsinger.japplicator.annotation.FieldIdentifier;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the shared ClassValue cache table against the previous two-tier design, where every thread had its own
+ * ApplicatorCacheTable kept inside of a ThreadLocal and backed by the parent cache.
+ *
+ * The "hit" benchmarks measure the cost of a lookup which is already cached. The "freshThread" benchmarks measure what
+ * a brand-new thread pays to look up every known pair: the two-tier design has to fill a new table from the parent
+ * cache, while the shared table has already been filled by whichever thread got there first.
+ *
+ * Run with more threads (for example -t 8) to compare the designs under contention.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApplicatorCacheBenchmark {
+    @FieldIdentifier
+    public static class ModelA {
+        private String value;
+        public String getValue() { return value; }
+        public void setValue(String value) { this.value = value; }
+    }
+
+    @FieldIdentifier
+    public static class ModelB {
+        private String value;
+        public String getValue() { return value; }
+        public void setValue(String value) { this.value = value; }
+    }
+
+    @FieldIdentifier
+    public static class ModelC {
+        private String value;
+        public String getValue() { return value; }
+        public void setValue(String value) { this.value = value; }
+    }
+
+    @FieldIdentifier
+    public static class ModelD {
+        private String value;
+        public String getValue() { return value; }
+        public void setValue(String value) { this.value = value; }
+    }
+
+    private static final Class<?>[] MODELS = { ModelA.class, ModelB.class, ModelC.class, ModelD.class };
+
+    private ParentApplicatorCacheTable parentCache;
+    private ThreadLocal<ApplicatorCacheTable> threadCache;
+    private ClassValueApplicatorCacheTable sharedCache;
+
+    @Setup
+    public void setup() {
+        parentCache = new ParentApplicatorCacheTable();
+        threadCache = ThreadLocal.withInitial(() -> new ApplicatorCacheTable(parentCache));
+        sharedCache = new ClassValueApplicatorCacheTable(parentCache, new ApplicatorStatistics());
+
+        //Generate every applicator up front so that no benchmark measures bytecode generation
+        for(Class<?> srcType: MODELS) {
+            for(Class<?> destType: MODELS) {
+                sharedCache.getApplicator(srcType, destType);
+            }
+        }
+    }
+
+    @Benchmark
+    public Applicator<ModelA, ModelB> threadLocalTableHit() {
+        return threadCache.get().getApplicator(ModelA.class, ModelB.class);
+    }
+
+    @Benchmark
+    public Applicator<ModelA, ModelB> classValueTableHit() {
+        return sharedCache.getApplicator(ModelA.class, ModelB.class);
+    }
+
+    @Benchmark
+    public void threadLocalTableFreshThread(Blackhole blackhole) {
+        //This is the table a brand-new thread would start out with
+        ApplicatorCacheTable newThreadTable = new ApplicatorCacheTable(parentCache);
+        for(Class<?> srcType: MODELS) {
+            for(Class<?> destType: MODELS) {
+                blackhole.consume(newThreadTable.getApplicator(srcType, destType));
+            }
+        }
+    }
+
+    @Benchmark
+    public void classValueTableFreshThread(Blackhole blackhole) {
+        for(Class<?> srcType: MODELS) {
+            for(Class<?> destType: MODELS) {
+                blackhole.consume(sharedCache.getApplicator(srcType, destType));
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package io.github.cshunsinger.japplicator.converters;
+
+import io.github.cshunsinger.japplicator.Applicator;
+import io.github.cshunsinger.japplicator.annotation.FieldIdentifier;
+import io.github.cshunsinger.japplicator.builder.ApplicatorBuilder;
+import io.github.cshunsinger.japplicator.builder.ReflectiveApplicator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares how arrays whose elements are not converted are copied by applicators. Generated and reflective applicators
+ * copy them with System.arraycopy, and the "elementLoop" benchmark copies them the way generated applicators used to,
+ * one element at a time in a loop which converts each element.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArrayCopyBenchmark {
+    @FieldIdentifier
+    public static class Payload {
+        private byte[] bytes;
+        private long[] longs;
+        private String[] strings;
+        public byte[] getBytes() { return bytes; }
+        public void setBytes(byte[] bytes) { this.bytes = bytes; }
+        public long[] getLongs() { return longs; }
+        public void setLongs(long[] longs) { this.longs = longs; }
+        public String[] getStrings() { return strings; }
+        public void setStrings(String[] strings) { this.strings = strings; }
+    }
+
+    private static final Applicator<Payload, Payload> APPLICATOR = new ApplicatorBuilder<>(Payload.class, Payload.class).build();
+    private static final Applicator<Payload, Payload> REFLECTIVE_APPLICATOR = new ReflectiveApplicator<>(Payload.class, Payload.class);
+
+    @Param({"16", "1024", "65536", "1048576"})
+    public int length;
+
+    private final Payload source = new Payload();
+
+    @Setup
+    public void createPayload() {
+        byte[] bytes = new byte[length];
+        long[] longs = new long[length];
+        String[] strings = new String[length];
+        for(int i = 0; i < length; i++) {
+            bytes[i] = (byte)i;
+            longs[i] = i;
+        }
+        Arrays.fill(strings, "value");
+
+        source.setBytes(bytes);
+        source.setLongs(longs);
+        source.setStrings(strings);
+    }
+
+    @Benchmark
+    public Payload generatedApplicator() {
+        return APPLICATOR.apply(source, new Payload());
+    }
+
+    @Benchmark
+    public Payload reflectiveApplicator() {
+        return REFLECTIVE_APPLICATOR.apply(source, new Payload());
+    }
+
+    @Benchmark
+    public Payload elementLoop() {
+        Payload destination = new Payload();
+
+        byte[] bytes = source.getBytes();
+        byte[] bytesCopy = new byte[bytes.length];
+        for(int i = 0; i < bytes.length; i++)
+            bytesCopy[i] = bytes[i];
+        destination.setBytes(bytesCopy);
+
+        long[] longs = source.getLongs();
+        long[] longsCopy = new long[longs.length];
+        for(int i = 0; i < longs.length; i++)
+            longsCopy[i] = longs[i];
+        destination.setLongs(longsCopy);
+
+        String[] strings = source.getStrings();
+        String[] stringsCopy = new String[strings.length];
+        for(int i = 0; i < strings.length; i++)
+            stringsCopy[i] = strings[i];
+        destination.setStrings(stringsCopy);
+
+        return destination;
+    }
+}
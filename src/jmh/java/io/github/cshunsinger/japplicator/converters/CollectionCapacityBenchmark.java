@@ -0,0 +1,79 @@
+package io.github.cshunsinger.japplicator.converters;
+
+import io.github.cshunsinger.japplicator.Applicator;
+import io.github.cshunsinger.japplicator.annotation.FieldIdentifier;
+import io.github.cshunsinger.japplicator.builder.ApplicatorBuilder;
+import io.github.cshunsinger.japplicator.builder.ReflectiveApplicator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares how collections are created by applicators. Generated and reflective applicators create the destination
+ * collections with the capacity of the source collection, and the "unsizedCollections" benchmark creates them the way
+ * generated applicators used to, with the no-args constructor, so they grow while the elements are added. Run with
+ * <code>-prof gc</code> to compare the memory allocated by each.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CollectionCapacityBenchmark {
+    @FieldIdentifier
+    public static class Payload {
+        private List<Integer> list;
+        private Set<Integer> set;
+        public List<Integer> getList() { return list; }
+        public void setList(List<Integer> list) { this.list = list; }
+        public Set<Integer> getSet() { return set; }
+        public void setSet(Set<Integer> set) { this.set = set; }
+    }
+
+    private static final Applicator<Payload, Payload> APPLICATOR = new ApplicatorBuilder<>(Payload.class, Payload.class).build();
+    private static final Applicator<Payload, Payload> REFLECTIVE_APPLICATOR = new ReflectiveApplicator<>(Payload.class, Payload.class);
+
+    @Param({"10", "1000", "100000", "1000000"})
+    public int size;
+
+    private final Payload source = new Payload();
+
+    @Setup
+    public void createPayload() {
+        List<Integer> list = new ArrayList<>(size);
+        for(int i = 0; i < size; i++)
+            list.add(i);
+
+        source.setList(list);
+        source.setSet(new HashSet<>(list));
+    }
+
+    @Benchmark
+    public Payload generatedApplicator() {
+        return APPLICATOR.apply(source, new Payload());
+    }
+
+    @Benchmark
+    public Payload reflectiveApplicator() {
+        return REFLECTIVE_APPLICATOR.apply(source, new Payload());
+    }
+
+    @Benchmark
+    public Payload unsizedCollections() {
+        Payload destination = new Payload();
+
+        List<Integer> list = new ArrayList<>();
+        for(Integer value: source.getList())
+            list.add(value);
+        destination.setList(list);
+
+        Set<Integer> set = new HashSet<>();
+        for(Integer value: source.getSet())
+            set.add(value);
+        destination.setSet(set);
+
+        return destination;
+    }
+}
@@ -1,10 +1,19 @@
 package io.github.cshunsinger.japplicator;
 
 import io.github.cshunsinger.japplicator.cache.ApplicatorCache;
+import io.github.cshunsinger.japplicator.cache.ModelTypeResolver;
 import lombok.NonNull;
 
 /**
  * This is the head interface. This interface will be implemented with freshly generated classes.
+ *
+ * Besides {@link #apply(Object, Object)}, generated and precompiled applicator classes declare a strongly typed
+ * <code>applyTyped(Src, Dest)</code> method and a static <code>applyStatic(Src, Dest)</code> method, which do not cast
+ * their parameters. Code which knows the applicator class can call them directly, and other code can find the static
+ * method with {@link io.github.cshunsinger.japplicator.builder.ApplicatorBuilder#findStaticApplyMethod(Applicator)}.
+ *
+ * Generating an applicator logs nothing about the members it maps. Which values a pair maps, and which members it skips
+ * and why, can be inspected with {@link io.github.cshunsinger.japplicator.builder.MappingPlan#of(Class, Class)}.
  * @param <Src> The type of object that will be containing data to apply onto a destination object.
  * @param <Dest> The type of object that will have data values applied to it.
  */
@@ -40,15 +49,17 @@ public abstract class Applicator<Src, Dest> {
      * to get the class of the passed-in objects and then lookup the applicator instance from a cache and create a new
      * applicator instance of none already exist in the cache. This method is great for quick use, but for code that needs
      * to perform a lot of these operations, it is recommended to fetch dedicated applicator instances and call them separately.
+     *
+     * Objects whose class is a runtime subclass of a model type, such as a proxy, and which declares no identified members
+     * of its own, are mapped with the applicator of that model type rather than a new applicator for the subclass.
      * @param from Source object containing data.
      * @param to Destination object to apply data onto.
      * @param <Src> Source object type.
      * @param <Dest> Destination object type.
      * @return the destination object instance.
      */
-    @SuppressWarnings("unchecked")
     public static <Src, Dest> Dest applyValues(@NonNull Src from, @NonNull Dest to) {
-        Applicator<Src, Dest> applicator = getInstance((Class<Src>)from.getClass(), (Class<Dest>)to.getClass());
+        Applicator<Src, Dest> applicator = getInstance(modelTypeOf(from), modelTypeOf(to));
         return applicator.apply(from, to);
     }
 
@@ -66,9 +77,8 @@ public abstract class Applicator<Src, Dest> {
      * @return a new instance of the destination class with values applied onto it, or null if the destination class could
      * not be instantiated due to lacking an accessible constructor with zero parameters.
      */
-    @SuppressWarnings("unchecked")
     public static <Src, Dest> Dest applyValues(@NonNull Src from, Class<Dest> destClass) {
-        Applicator<Src, Dest> applicator = getInstance((Class<Src>)from.getClass(), destClass);
+        Applicator<Src, Dest> applicator = getInstance(modelTypeOf(from), destClass);
         return applicator.apply(from);
     }
 
@@ -76,6 +86,10 @@ public abstract class Applicator<Src, Dest> {
      * This method fetches an Applicator instance which can automatically map data from an instance of one class onto
      * an instance of another class. This method utilizes the cache which means calling this method repeatedly will
      * not generate infinite new applicator classes and instances of those classes.
+     *
+     * If an applicator was generated for the pair at compile time (see
+     * {@link io.github.cshunsinger.japplicator.annotation.GenerateApplicator}), that applicator is used, and no bytecode
+     * is generated for the pair at runtime.
      * @param srcClass Source class.
      * @param destClass Destination class.
      * @param <Src> Source type.
@@ -85,4 +99,14 @@ public abstract class Applicator<Src, Dest> {
     public static <Src, Dest> Applicator<Src, Dest> getInstance(Class<Src> srcClass, Class<Dest> destClass) {
         return ApplicatorCache.instance.getApplicator(srcClass, destClass);
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets the model type of an object, which is the type its applicators are generated for. Runtime subclasses, such as
+     * proxies, which add no identified members of their own share the applicators of the model type they extend.
+     * @see ModelTypeResolver
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Class<T> modelTypeOf(T object) {
+        return (Class<T>)ModelTypeResolver.resolve(object.getClass());
+    }
+}
@@ -0,0 +1,29 @@
+package io.github.cshunsinger.japplicator.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Repeatable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares a source/destination pair whose applicator is generated at compile time by the J-Applicator annotation
+ * processor, rather than at runtime. This annotation can be placed on any type, and can be repeated to declare several
+ * pairs. Precompiled applicators are found by {@link io.github.cshunsinger.japplicator.Applicator#getInstance(Class, Class)}
+ * before any bytecode would be generated for the pair. The annotation processor only runs when it is enabled, see
+ * {@link io.github.cshunsinger.japplicator.processor.ApplicatorProcessor}.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.SOURCE)
+@Repeatable(GenerateApplicators.class)
+public @interface GenerateApplicator {
+    /**
+     * The source type of the applicator.
+     */
+    Class<?> source();
+
+    /**
+     * The destination type of the applicator.
+     */
+    Class<?> destination();
+}
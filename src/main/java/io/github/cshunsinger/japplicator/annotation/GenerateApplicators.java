@@ -0,0 +1,15 @@
+package io.github.cshunsinger.japplicator.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The container of repeated {@link GenerateApplicator} annotations.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.SOURCE)
+public @interface GenerateApplicators {
+    GenerateApplicator[] value();
+}
@@ -0,0 +1,17 @@
+package io.github.cshunsinger.japplicator.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a destination field or setter method which receives the source value itself rather than a copy of it. By default
+ * applicators copy collections and arrays into new collections and arrays, so the source and destination objects never
+ * share them. A member annotated with this annotation receives the same collection, array, or model object as the source
+ * whenever the source value can be assigned to the member as it is, which avoids copying values which are known to be
+ * immutable, such as the lists of List.of. Values which need converting are still converted.
+ */
+@Target({ElementType.FIELD, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ShareReference {}
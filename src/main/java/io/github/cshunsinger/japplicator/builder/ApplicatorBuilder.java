@@ -1,46 +1,112 @@
 package io.github.cshunsinger.japplicator.builder;
 
 import io.github.cshunsinger.asmsauce.AsmClassBuilder;
+import io.github.cshunsinger.asmsauce.MethodNode;
+import io.github.cshunsinger.asmsauce.ThisClass;
 import io.github.cshunsinger.asmsauce.code.CodeInsnBuilderLike;
 import io.github.cshunsinger.japplicator.Applicator;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static io.github.cshunsinger.asmsauce.DefinitionBuilders.*;
 import static io.github.cshunsinger.asmsauce.MethodNode.method;
 import static io.github.cshunsinger.asmsauce.code.CodeBuilders.*;
 import static io.github.cshunsinger.asmsauce.modifiers.AccessModifiers.publicOnly;
+import static io.github.cshunsinger.asmsauce.modifiers.AccessModifiers.publicStatic;
 
 public class ApplicatorBuilder<Src, Dest> {
     private static final String APPLICATOR_METHOD_NAME = Applicator.class.getMethods()[0].getName();
 
+    /**
+     * The name of the strongly typed instance method of generated applicators, <code>Dest applyTyped(Src, Dest)</code>.
+     */
+    public static final String TYPED_METHOD_NAME = "applyTyped";
+
+    /**
+     * The name of the strongly typed static method of generated applicators, <code>static Dest applyStatic(Src, Dest)</code>.
+     * The mapping itself is generated into this method, and the other entry points only delegate to it. The values of
+     * @Nested source objects are mapped by static methods which are shared by every place that reads them, and so are
+     * model values which are converted into model objects of another type.
+     */
+    public static final String STATIC_METHOD_NAME = "applyStatic";
+
+    /**
+     * The prefix of the names of the static methods which a mapping is split into when it is too large to be compiled
+     * as one method, <code>static Dest applyPartN(Src, Dest)</code>.
+     */
+    static final String PART_METHOD_NAME_PREFIX = "applyPart";
+
     @SuppressWarnings("rawtypes")
     private final AsmClassBuilder<Applicator> builder;
+    private final ClassLoader parentClassLoader;
+    private final Class<Src> sourceClass;
+    private final Class<Dest> destinationClass;
+    private final ClassDefinitionMode definitionMode;
+    private final List<SourceNode> sources;
+    //The number of mapping steps of each mapping method of the unsplit class, by method name
+    private final Map<String, Integer> mappingStepCounts = new HashMap<>();
+    private byte[] bytecode;
 
     public ApplicatorBuilder(Class<Src> sourceClass, Class<Dest> destinationClass) {
-        this(ApplicatorBuilder.class.getClassLoader(), sourceClass, destinationClass);
+        this(ApplicatorClassLoader.forTypes(sourceClass, destinationClass), sourceClass, destinationClass);
     }
 
     public ApplicatorBuilder(ClassLoader parentClassLoader, Class<Src> sourceClass, Class<Dest> destinationClass) {
-        List<SourceNode> sources = SourceNode.createSources(sourceClass);
+        this(parentClassLoader, sourceClass, destinationClass, ClassDefinitionMode.CLASS_LOADER);
+    }
+
+    public ApplicatorBuilder(ClassLoader parentClassLoader, Class<Src> sourceClass, Class<Dest> destinationClass, ClassDefinitionMode definitionMode) {
+        this.parentClassLoader = parentClassLoader;
+        this.definitionMode = definitionMode;
+        this.sourceClass = sourceClass;
+        this.destinationClass = destinationClass;
+        this.sources = SourceNode.createSources(sourceClass);
+        this.builder = createClassBuilder(Integer.MAX_VALUE);
+    }
 
+    /**
+     * Creates the class builder of the applicator.
+     * @param sourceNodesPerMethod The number of source nodes to map in each mapping method. If applyStatic, or any of
+     *                             the shared nested and model value methods, maps more source nodes than this, its
+     *                             mapping is split into static part methods which it calls in order.
+     */
+    @SuppressWarnings("rawtypes")
+    private AsmClassBuilder<Applicator> createClassBuilder(int sourceNodesPerMethod) {
         final String source = "source";
         final String destination = "destination";
 
+        //Nested source objects and model values are mapped by shared static methods, which are generated along with the source nodes
+        NestedMappingMethods nestedMethods = new NestedMappingMethods(sourceNodesPerMethod);
         List<CodeInsnBuilderLike> sourceBuildersList = sources.stream()
-            .map(node -> node.buildSource(destinationClass, source, destination))
+            .map(node -> node.buildSource(destinationClass, source, destination, nestedMethods))
             .filter(Objects::nonNull)
             .collect(Collectors.toList());
+        if(mappingStepCounts.isEmpty()) {
+            mappingStepCounts.put(STATIC_METHOD_NAME, sourceBuildersList.size());
+            mappingStepCounts.putAll(nestedMethods.getStepCounts());
+        }
 
-        builder = new AsmClassBuilder<>(parentClassLoader, Applicator.class)
-            .withMethod(method(publicOnly(), name(APPLICATOR_METHOD_NAME), parameters(p(source, Object.class), p(destination, Object.class)), type(Object.class),
+        List<MethodNode> partMethods = new ArrayList<>();
+        List<CodeInsnBuilderLike> mappingSteps = splitIntoPartMethods(sourceBuildersList, sourceNodesPerMethod, PART_METHOD_NAME_PREFIX,
+            source, sourceClass, destination, destinationClass, partMethods);
+
+        AsmClassBuilder<Applicator> classBuilder = new AsmClassBuilder<>(parentClassLoader, Applicator.class)
+            .withMethod(method(publicStatic(), name(STATIC_METHOD_NAME), parameters(p(source, sourceClass), p(destination, destinationClass)), type(destinationClass),
                 /*
-                 * public Object applyDirectlyToTheForehead(Object source, Object destination) {
+                 * public static Dest applyStatic(Src source, Dest destination) {
                  *     if(destination == null) {
                  *         //This statement is ONLY if the destination object can be constructed
-                 *         destination = new Object();
+                 *         destination = new Dest();
                  *         //This return statement is ONLY if the destination object cannot be constructed
                  *         return null;
                  *     }
@@ -48,20 +114,16 @@ public class ApplicatorBuilder<Src, Dest> {
                  *     if(source == null)
                  *         return destination;
                  *
-                 *     ... next steps provided by source nodes ...
+                 *     ... next steps provided by source nodes, or calls to the part methods ...
                  *
                  *    return destination;
                  * }
                  */
 
-                //Just come casting
-                setVar(source, cast(sourceClass, getVar(source))),
-                setVar(destination, cast(destinationClass, getVar(destination))),
-
                 //if(destination == null)
                 if_(getVar(destination).isNull()).then(
                     AsmUtils.canBeConstructed(destinationClass) ?
-                        //destination = new Object();
+                        //destination = new Dest();
                         setVar(destination, instantiate(destinationClass, noParameters())) :
                         //return null;
                         returnValue(stackNull())
@@ -73,16 +135,200 @@ public class ApplicatorBuilder<Src, Dest> {
                     returnValue(getVar(destination))
                 ),
 
-                //... next steps provided by source nodes ...
-                block(sourceBuildersList.toArray(CodeInsnBuilderLike[]::new)),
+                //... next steps provided by source nodes, or calls to the part methods ...
+                block(mappingSteps.toArray(CodeInsnBuilderLike[]::new)),
 
                 //return destination;
                 returnValue(getVar(destination))
+            ))
+            .withMethod(method(publicOnly(), name(TYPED_METHOD_NAME), parameters(p(source, sourceClass), p(destination, destinationClass)), type(destinationClass),
+                //return applyStatic(source, destination);
+                returnValue(invokeStatic(ThisClass.class, name(STATIC_METHOD_NAME), parameters(sourceClass, destinationClass), type(destinationClass),
+                    getVar(source),
+                    getVar(destination)
+                ))
+            ))
+            .withMethod(method(publicOnly(), name(APPLICATOR_METHOD_NAME), parameters(p(source, Object.class), p(destination, Object.class)), type(Object.class),
+                //return applyStatic((Src)source, (Dest)destination);
+                returnValue(invokeStatic(ThisClass.class, name(STATIC_METHOD_NAME), parameters(sourceClass, destinationClass), type(destinationClass),
+                    cast(sourceClass, getVar(source)),
+                    cast(destinationClass, getVar(destination))
+                ))
             ));
+        partMethods.forEach(classBuilder::withMethod);
+        nestedMethods.getMethods().forEach(classBuilder::withMethod);
+        return classBuilder;
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * Splits the steps of a mapping method into static part methods of at most the given number of steps each.
+     * <pre>
+     * public static Dest partNamePrefixN(Src source, Dest destination) {
+     *     ... next steps ...
+     *     return destination;
+     * }
+     * </pre>
+     * @param steps The steps of the mapping method.
+     * @param stepsPerMethod The largest number of steps to keep in one method.
+     * @param partNamePrefix The prefix of the names of the part methods, which are numbered from 0.
+     * @param partMethods The list to add the part methods to.
+     * @return The steps of the mapping method itself. These are the steps unchanged if there are no more of them than
+     * stepsPerMethod, and otherwise a call of each part method in order.
+     */
+    static List<CodeInsnBuilderLike> splitIntoPartMethods(List<CodeInsnBuilderLike> steps, int stepsPerMethod, String partNamePrefix,
+                                                          String source, Class<?> sourceClass, String destination, Class<?> destinationClass,
+                                                          List<MethodNode> partMethods) {
+        if(steps.size() <= stepsPerMethod)
+            return steps;
+
+        List<CodeInsnBuilderLike> partCalls = new ArrayList<>();
+        for(int i = 0; i < steps.size(); i += stepsPerMethod) {
+            String partName = partNamePrefix + partCalls.size();
+            List<CodeInsnBuilderLike> partSteps = steps.subList(i, Math.min(i + stepsPerMethod, steps.size()));
+            partMethods.add(method(publicStatic(), name(partName), parameters(p(source, sourceClass), p(destination, destinationClass)), type(destinationClass),
+                block(partSteps.toArray(CodeInsnBuilderLike[]::new)),
+                returnValue(getVar(destination))
+            ));
+
+            //partNamePrefixN(source, destination);
+            partCalls.add(invokeStatic(ThisClass.class, name(partName), parameters(sourceClass, destinationClass), type(destinationClass),
+                getVar(source),
+                getVar(destination)
+            ));
+        }
+        return partCalls;
+    }
+
+    /**
+     * Finds the static entry point of an applicator, which takes and returns the exact source and destination types of
+     * the applicator and does not go through the erased {@link Applicator#apply(Object, Object)} method. Calling it
+     * through a constant method handle lets the JIT compiler inline the mapping into the caller.
+     * @param applicator The applicator.
+     * @return A method handle of type <code>(Src, Dest)Dest</code>, or null if the applicator was not generated by this
+     * builder or by the annotation processor, such as a reflective or stand-in applicator.
+     */
+    public static MethodHandle findStaticApplyMethod(Applicator<?, ?> applicator) {
+        Class<?> applicatorClass = applicator.getClass();
+        Method staticMethod = Stream.of(applicatorClass.getMethods())
+            .filter(method -> method.getName().equals(STATIC_METHOD_NAME) && Modifier.isStatic(method.getModifiers()))
+            .filter(method -> method.getDeclaringClass() == applicatorClass && method.getParameterCount() == 2)
+            .findFirst()
+            .orElse(null);
+        if(staticMethod == null)
+            return null;
+
+        try {
+            return MethodHandles.publicLookup().unreflect(staticMethod);
+        }
+        catch(IllegalAccessException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Generates the bytecode of the applicator class. The bytecode is only generated once by each builder.
+     *
+     * HotSpot never compiles a method with more bytecode than {@link JitThreshold#HUGE_METHOD_LIMIT}. If any mapping
+     * method of a wide model is larger than that, whether applyStatic or one of the shared nested and model value
+     * methods, the class is generated again with the mapping methods split into static part methods, each aimed at
+     * {@link JitThreshold#FREQ_INLINE_SIZE} so that it can be inlined back into its caller when it is hot. Both limits
+     * are read from the running virtual machine.
+     * @return The bytes of the applicator class file.
+     * @throws IllegalStateException If asmsauce does not produce a class file.
+     */
+    public byte[] generateBytecode() {
+        if(bytecode != null)
+            return bytecode;
+
+        bytecode = generateBytecode(builder);
+        int sourceNodesPerMethod = Integer.MAX_VALUE;
+        for(Map.Entry<String, Integer> method: mappingMethodSizes(bytecode).entrySet()) {
+            int mappingSize = method.getValue();
+            if(JitThreshold.HUGE_METHOD_LIMIT.isExceededBy(mappingSize)) {
+                int steps = mappingStepCounts.getOrDefault(method.getKey(), 1);
+                sourceNodesPerMethod = Math.min(sourceNodesPerMethod, Math.max(1, (int)((long)steps * JitThreshold.FREQ_INLINE_SIZE.getLimit() / mappingSize)));
+            }
+        }
+
+        if(sourceNodesPerMethod != Integer.MAX_VALUE) {
+            //Source nodes differ in size, so parts which still turn out too large are split further
+            bytecode = generateBytecode(createClassBuilder(sourceNodesPerMethod));
+            while(sourceNodesPerMethod > 1 && JitThreshold.HUGE_METHOD_LIMIT.isExceededBy(largestMappingMethodSize(bytecode))) {
+                sourceNodesPerMethod /= 2;
+                bytecode = generateBytecode(createClassBuilder(sourceNodesPerMethod));
+            }
+        }
+        return bytecode;
+    }
+
+    @SuppressWarnings("rawtypes")
+    private byte[] generateBytecode(AsmClassBuilder<Applicator> classBuilder) {
+        byte[] classFile = classBuilder.generateBytecode();
+        if(classFile == null || classFile.length == 0)
+            throw new IllegalStateException("Failed to generate the applicator class of " + sourceClass.getName() + " -> " + destinationClass.getName() + ".");
+        return classFile;
+    }
+
+    private static int largestMappingMethodSize(byte[] bytecode) {
+        return mappingMethodSizes(bytecode).values().stream()
+            .mapToInt(Integer::intValue)
+            .max()
+            .orElse(0);
+    }
+
+    /**
+     * Measures the methods of an applicator class which map values: applyStatic, the shared nested and model value
+     * methods, and the part methods of any of them.
+     */
+    static Map<String, Integer> mappingMethodSizes(byte[] bytecode) {
+        Map<String, Integer> sizes = AsmUtils.methodCodeSizes(bytecode);
+        sizes.keySet().removeIf(method -> !method.equals(STATIC_METHOD_NAME)
+            && !method.startsWith(PART_METHOD_NAME_PREFIX)
+            && !method.startsWith(NestedMappingMethods.METHOD_NAME_PREFIX)
+            && !method.startsWith(NestedMappingMethods.BEAN_METHOD_NAME_PREFIX));
+        return sizes;
+    }
+
+    /**
+     * Defines the applicator class and creates an instance of it. By default the class is defined under a class loader
+     * of its own which delegates to the parent class loader of this builder, so that the class can be unloaded as soon
+     * as the applicator is no longer used. If this builder was created with a hidden class definition mode, the class is
+     * defined as a hidden class instead whenever possible, see {@link ClassDefinitionMode}.
+     * @return A new applicator instance.
+     * @throws IllegalStateException If the applicator class cannot be generated or defined.
+     */
     public Applicator<Src, Dest> build() {
-        return (Applicator<Src, Dest>)builder.buildInstance();
+        return defineApplicator(generateBytecode(), parentClassLoader, sourceClass, destinationClass, definitionMode);
+    }
+
+    /**
+     * Defines an applicator class from bytecode which was generated earlier, and creates an instance of it. The class is
+     * defined the same way as by {@link #build()}, however the model classes are not introspected again.
+     * @param bytecode The bytecode of an applicator class generated for the same source and destination types.
+     * @param parentClassLoader The class loader to define the class under, if it is not defined as a hidden class.
+     * @param sourceClass The source type.
+     * @param destinationClass The destination type.
+     * @param definitionMode How to define the class.
+     * @param <Src> The source type.
+     * @param <Dest> The destination type.
+     * @return A new applicator instance.
+     */
+    @SuppressWarnings("unchecked")
+    public static <Src, Dest> Applicator<Src, Dest> defineApplicator(byte[] bytecode, ClassLoader parentClassLoader, Class<Src> sourceClass,
+                                                                     Class<Dest> destinationClass, ClassDefinitionMode definitionMode) {
+        Class<?> applicatorClass = null;
+        if(definitionMode != ClassDefinitionMode.CLASS_LOADER) {
+            boolean nestmate = definitionMode == ClassDefinitionMode.HIDDEN_NESTMATE;
+            applicatorClass = HiddenApplicatorClassDefiner.defineHiddenApplicatorClass(bytecode, sourceClass, destinationClass, nestmate);
+        }
+        if(applicatorClass == null)
+            applicatorClass = new SingleApplicatorClassLoader(parentClassLoader).defineApplicatorClass(bytecode);
+
+        try {
+            return (Applicator<Src, Dest>)applicatorClass.getConstructor().newInstance();
+        }
+        catch(ReflectiveOperationException ex) {
+            throw new IllegalStateException("Failed to instantiate generated applicator class " + applicatorClass.getName() + ".", ex);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,207 @@
+package io.github.cshunsinger.japplicator.builder;
+
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * A directory on disk which holds the bytecode of generated applicator classes, so that applicators generated by one
+ * run can be loaded by the next run without introspecting the model classes or generating any bytecode.
+ *
+ * Every source/destination pair has at most one entry, named after the pair and the {@link ModelStructureHash} of the
+ * pair. An entry is only used if the structural hash of the pair is still the same, so entries written before a model
+ * class changed are never loaded. Such stale entries are deleted when the pair is stored again.
+ *
+ * The directory can be shared by several JVMs on the same host. Entries are written to a temporary file first and then
+ * moved into place, and reading or writing the entries of a pair holds a lock on the lock file of that pair. Failing to
+ * read or write the directory never fails an applicator lookup, the applicator is generated instead.
+ */
+@Slf4j
+public class ApplicatorBytecodeCache {
+    private static final int ENTRY_MAGIC = 0x4A415043; //JAPC
+    private static final String ENTRY_SUFFIX = ".applicator";
+    private static final String LOCK_SUFFIX = ".lock";
+
+    /**
+     * File locks are held by the whole JVM, so threads of the same JVM also have to take turns on each lock file.
+     */
+    private static final ConcurrentMap<Path, ReentrantLock> localLocks = new ConcurrentHashMap<>();
+
+    @Getter
+    private final Path directory;
+
+    /**
+     * Creates a bytecode cache in a directory. The directory is created if it does not exist.
+     * @param directory The cache directory.
+     * @throws UncheckedIOException If the directory cannot be created.
+     */
+    public ApplicatorBytecodeCache(@NonNull Path directory) {
+        this.directory = directory.toAbsolutePath().normalize();
+        try {
+            Files.createDirectories(this.directory);
+        }
+        catch(IOException ex) {
+            throw new UncheckedIOException("Cannot create applicator bytecode cache directory " + this.directory + ".", ex);
+        }
+    }
+
+    /**
+     * Loads the bytecode of the applicator of a pair.
+     * @param sourceClass The source type.
+     * @param destinationClass The destination type.
+     * @param structuralHash The structural hash of the pair, see {@link ModelStructureHash#of(Class, Class)}.
+     * @return The bytecode, or null if there is no entry for the pair with the given structural hash.
+     */
+    public byte[] load(Class<?> sourceClass, Class<?> destinationClass, String structuralHash) {
+        String pairKey = pairKey(sourceClass, destinationClass);
+        Path entry = directory.resolve(pairKey + "-" + structuralHash + ENTRY_SUFFIX);
+        if(!Files.exists(entry))
+            return null;
+
+        try {
+            return withLock(pairKey, true, () -> readEntry(entry, sourceClass, destinationClass, structuralHash));
+        }
+        catch(IOException ex) {
+            log.warn("Cannot read applicator bytecode cache entry {}.", entry, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Stores the bytecode of the applicator of a pair, replacing any stale entries of the pair.
+     * @param sourceClass The source type.
+     * @param destinationClass The destination type.
+     * @param structuralHash The structural hash of the pair, see {@link ModelStructureHash#of(Class, Class)}.
+     * @param bytecode The bytecode of the applicator class.
+     */
+    public void store(Class<?> sourceClass, Class<?> destinationClass, String structuralHash, byte[] bytecode) {
+        String pairKey = pairKey(sourceClass, destinationClass);
+        Path entry = directory.resolve(pairKey + "-" + structuralHash + ENTRY_SUFFIX);
+        try {
+            withLock(pairKey, false, () -> {
+                writeEntry(entry, sourceClass, destinationClass, structuralHash, bytecode);
+                deleteStaleEntries(pairKey, entry);
+                return null;
+            });
+        }
+        catch(IOException ex) {
+            log.warn("Cannot write applicator bytecode cache entry {}.", entry, ex);
+        }
+    }
+
+    private byte[] readEntry(Path entry, Class<?> sourceClass, Class<?> destinationClass, String structuralHash) throws IOException {
+        try(DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(entry)))) {
+            boolean valid = in.readInt() == ENTRY_MAGIC
+                && in.readUTF().equals(structuralHash)
+                && in.readUTF().equals(sourceClass.getName())
+                && in.readUTF().equals(destinationClass.getName());
+            if(!valid) {
+                log.warn("Ignoring applicator bytecode cache entry {} because it does not belong to {} -> {}.",
+                    entry, sourceClass.getName(), destinationClass.getName());
+                return null;
+            }
+
+            byte[] bytecode = new byte[in.readInt()];
+            in.readFully(bytecode);
+            return bytecode;
+        }
+        catch(NoSuchFileException ex) {
+            return null; //Deleted by another JVM since it was found
+        }
+        catch(EOFException ex) {
+            log.warn("Ignoring truncated applicator bytecode cache entry {}.", entry);
+            return null;
+        }
+    }
+
+    private void writeEntry(Path entry, Class<?> sourceClass, Class<?> destinationClass, String structuralHash, byte[] bytecode) throws IOException {
+        Path temporary = Files.createTempFile(directory, entry.getFileName().toString(), ".tmp");
+        try {
+            try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(ENTRY_MAGIC);
+                out.writeUTF(structuralHash);
+                out.writeUTF(sourceClass.getName());
+                out.writeUTF(destinationClass.getName());
+                out.writeInt(bytecode.length);
+                out.write(bytecode);
+            }
+
+            try {
+                Files.move(temporary, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch(AtomicMoveNotSupportedException ex) {
+                Files.move(temporary, entry, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    private void deleteStaleEntries(String pairKey, Path currentEntry) throws IOException {
+        try(Stream<Path> entries = Files.list(directory)) {
+            for(Path entry: (Iterable<Path>)entries::iterator) {
+                String fileName = entry.getFileName().toString();
+                if(fileName.startsWith(pairKey + "-") && fileName.endsWith(ENTRY_SUFFIX) && !entry.equals(currentEntry)) {
+                    log.info("Deleting stale applicator bytecode cache entry {}.", entry);
+                    Files.deleteIfExists(entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs an action while holding the lock of a pair, both within this JVM and across JVMs sharing the directory.
+     * @param shared True to take a shared lock for reading, false to take an exclusive lock for writing.
+     */
+    private <T> T withLock(String pairKey, boolean shared, IOAction<T> action) throws IOException {
+        Path lockFile = directory.resolve(pairKey + LOCK_SUFFIX);
+        ReentrantLock localLock = localLocks.computeIfAbsent(lockFile, path -> new ReentrantLock());
+        localLock.lock();
+        try(FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            FileLock fileLock = channel.lock(0, Long.MAX_VALUE, shared);
+            try {
+                return action.run();
+            }
+            finally {
+                fileLock.release();
+            }
+        }
+        finally {
+            localLock.unlock();
+        }
+    }
+
+    /**
+     * Names the entries of a pair. Class names can be longer than a file name may be, so the pair is named by a hash of
+     * the two class names.
+     */
+    private static String pairKey(Class<?> sourceClass, Class<?> destinationClass) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                .digest((sourceClass.getName() + "->" + destinationClass.getName()).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        }
+        catch(NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not supported by this Java runtime.", ex);
+        }
+    }
+
+    @FunctionalInterface
+    private interface IOAction<T> {
+        T run() throws IOException;
+    }
+}
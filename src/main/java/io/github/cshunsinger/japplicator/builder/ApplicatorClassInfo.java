@@ -0,0 +1,129 @@
+package io.github.cshunsinger.japplicator.builder;
+
+import lombok.NonNull;
+import lombok.Value;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.commons.CodeSizeEvaluator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The size of a generated applicator class, read from its bytecode: how large each of its methods is, and what it costs
+ * in metaspace. Like the statistics of the applicator cache, it refers to the applicator class and the model classes
+ * by name only, so keeping it never keeps a class loader alive.
+ */
+@Value
+public class ApplicatorClassInfo {
+    String className;
+    String sourceTypeName;
+    String destinationTypeName;
+
+    /**
+     * A description of the class loader which defined the applicator class.
+     */
+    String definingLoader;
+
+    /**
+     * Whether the applicator class was defined as a hidden class, see {@link ClassDefinitionMode}.
+     */
+    boolean hidden;
+
+    /**
+     * The size of the class file in bytes.
+     */
+    int bytecodeLength;
+
+    /**
+     * The number of slots of the constant pool of the class file, which is its <code>constant_pool_count</code>.
+     */
+    int constantPoolSize;
+
+    /**
+     * The methods of the class, in the order they are declared in the class file.
+     */
+    List<MethodInfo> methods;
+
+    /**
+     * Reads the class info of an applicator class.
+     * @param applicatorClass The applicator class.
+     * @param bytecode The class file the applicator class was defined from.
+     * @param sourceType The source type of the applicator.
+     * @param destinationType The destination type of the applicator.
+     * @return The class info.
+     */
+    public static ApplicatorClassInfo of(@NonNull Class<?> applicatorClass, @NonNull byte[] bytecode,
+                                         @NonNull Class<?> sourceType, @NonNull Class<?> destinationType) {
+        ClassReader reader = new ClassReader(bytecode);
+        return new ApplicatorClassInfo(
+            applicatorClass.getName(),
+            sourceType.getName(),
+            destinationType.getName(),
+            String.valueOf(applicatorClass.getClassLoader()),
+            applicatorClass.isHidden(),
+            bytecode.length,
+            reader.getItemCount(),
+            List.copyOf(readMethods(reader))
+        );
+    }
+
+    /**
+     * Finds the methods of this class which cross a JIT threshold.
+     * @param threshold The threshold.
+     * @return The methods larger than the limit of the threshold.
+     */
+    public List<MethodInfo> methodsExceeding(@NonNull JitThreshold threshold) {
+        List<MethodInfo> exceeding = new ArrayList<>();
+        for(MethodInfo method: methods) {
+            if(threshold.isExceededBy(method.getCodeSize()))
+                exceeding.add(method);
+        }
+        return exceeding;
+    }
+
+    /**
+     * Reads the methods of a class file.
+     */
+    static List<MethodInfo> readMethods(ClassReader reader) {
+        List<MethodInfo> methods = new ArrayList<>();
+        reader.accept(new ClassVisitor(Opcodes.ASM9) {
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String descriptor, String signature, String[] exceptions) {
+                return new CodeSizeEvaluator(Opcodes.ASM9, null) {
+                    private int maxStack;
+                    private int maxLocals;
+
+                    @Override
+                    public void visitMaxs(int maxStack, int maxLocals) {
+                        this.maxStack = maxStack;
+                        this.maxLocals = maxLocals;
+                    }
+
+                    @Override
+                    public void visitEnd() {
+                        methods.add(new MethodInfo(name, descriptor, getMaxSize(), maxLocals, maxStack));
+                    }
+                };
+            }
+        }, ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+        return methods;
+    }
+
+    /**
+     * The size of a method of an applicator class.
+     */
+    @Value
+    public static class MethodInfo {
+        String name;
+        String descriptor;
+        /**
+         * The number of bytes of bytecode of the method, which is what the JIT thresholds are measured in.
+         */
+        int codeSize;
+        int maxLocals;
+        int maxStack;
+    }
+}
@@ -0,0 +1,106 @@
+package io.github.cshunsinger.japplicator.builder;
+
+import io.github.cshunsinger.japplicator.Applicator;
+
+import java.security.CodeSource;
+import java.util.Objects;
+
+/**
+ * This is the class loader that generated applicator classes are defined under. An applicator class has to see three
+ * sets of classes: the J-Applicator classes themselves, the source model classes, and the destination model classes.
+ * Each of those may belong to a different class loader, for example when J-Applicator is shared by a container and the
+ * models belong to a deployed application.
+ *
+ * J-Applicator classes are always loaded from the loader which loaded J-Applicator, so that generated classes extend the
+ * same {@link Applicator} class that the rest of the library uses, even if a model class loader has its own copy. Any
+ * other class is loaded from the source loader, then the destination loader, and then the J-Applicator loader.
+ *
+ * Generated classes are not defined under this loader directly. Each one is defined under a child loader of its own,
+ * so that it can be unloaded on its own. Nothing in J-Applicator holds an instance of this loader strongly. It is only
+ * kept alive by those child loaders, which means it can be collected along with the generated classes once the source
+ * and destination loaders are discarded.
+ */
+public class ApplicatorClassLoader extends ClassLoader {
+    private static final String LIBRARY_PACKAGE = Applicator.class.getPackageName() + ".";
+    private static final CodeSource LIBRARY_CODE_SOURCE = codeSource(Applicator.class);
+
+    static {
+        registerAsParallelCapable();
+    }
+
+    private final ClassLoader sourceLoader;
+    private final ClassLoader destinationLoader;
+
+    /**
+     * Creates a class loader for applicators which map data from classes of the source loader onto classes of the
+     * destination loader.
+     * @param sourceLoader The class loader of the source type. May be null for the bootstrap class loader.
+     * @param destinationLoader The class loader of the destination type. May be null for the bootstrap class loader.
+     */
+    public ApplicatorClassLoader(ClassLoader sourceLoader, ClassLoader destinationLoader) {
+        super(ApplicatorClassLoader.class.getClassLoader());
+        this.sourceLoader = sourceLoader;
+        this.destinationLoader = destinationLoader;
+    }
+
+    /**
+     * Creates a class loader for applicators which map data from objects of the source type onto objects of the
+     * destination type.
+     * @param sourceType The source type.
+     * @param destinationType The destination type.
+     * @return A new class loader which can see the source type, the destination type, and J-Applicator.
+     */
+    public static ApplicatorClassLoader forTypes(Class<?> sourceType, Class<?> destinationType) {
+        return new ApplicatorClassLoader(sourceType.getClassLoader(), destinationType.getClassLoader());
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        synchronized(getClassLoadingLock(name)) {
+            Class<?> type = findLoadedClass(name);
+            if(type == null)
+                type = loadFromLibrary(name);
+            if(type == null)
+                type = loadFromModelLoaders(name);
+            if(type == null)
+                return super.loadClass(name, resolve);
+
+            if(resolve)
+                resolveClass(type);
+            return type;
+        }
+    }
+
+    /**
+     * Loads a class from the J-Applicator loader, but only if it is one of J-Applicator's own classes. Model classes
+     * may live in the same packages as J-Applicator without being part of it, so the class has to come from the same
+     * code source as J-Applicator.
+     */
+    private Class<?> loadFromLibrary(String name) {
+        if(!name.startsWith(LIBRARY_PACKAGE))
+            return null;
+
+        Class<?> type = loadFrom(getParent(), name);
+        return type != null && Objects.equals(codeSource(type), LIBRARY_CODE_SOURCE) ? type : null;
+    }
+
+    private Class<?> loadFromModelLoaders(String name) {
+        Class<?> type = loadFrom(sourceLoader, name);
+        if(type == null && destinationLoader != sourceLoader)
+            type = loadFrom(destinationLoader, name);
+        return type;
+    }
+
+    private static CodeSource codeSource(Class<?> type) {
+        return type.getProtectionDomain().getCodeSource();
+    }
+
+    private static Class<?> loadFrom(ClassLoader loader, String name) {
+        try {
+            return Class.forName(name, false, loader);
+        }
+        catch(ClassNotFoundException ex) {
+            return null;
+        }
+    }
+}
@@ -1,25 +1,23 @@
 package io.github.cshunsinger.japplicator.builder;
 
 import io.github.cshunsinger.japplicator.annotation.FieldIdentifier;
+import io.github.cshunsinger.japplicator.annotation.Nested;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import org.apache.commons.lang3.reflect.ConstructorUtils;
+import org.objectweb.asm.ClassReader;
 
-import java.lang.reflect.AccessibleObject;
-import java.lang.reflect.Member;
+import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Modifier;
-import java.util.Set;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Utility class with some Java ASM-related utilities.
  */
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class AsmUtils {
-    /**
-     * Illegal package name prefixes because they are used by the Java standard library.
-     */
-    public static final Set<String> ILLEGAL_PREFIXES = Set.of("java", "javax", "com.sun", "sun");
-
     /**
      * Returns whether or not a class contains an accessible empty constructor (constructor with 0 parameters).
      * @param type The class to search within for a no-args constructor.
@@ -45,30 +43,32 @@ public class AsmUtils {
     }
 
     /**
-     * Determines the field identifier name. A field is either identified by the value of the @FieldIdentifier annotation
-     * on the field, or by the name of the field itself. If a member is not annotated with the @FieldIdentifier annotation,
-     * then the name of the member itself is returned. If a member is annotated with the @FieldIdentifier annotation, then
-     * the "value" of that annotation is returned instead. If the "value" of the @FieldIdentifier annotation is an empty
-     * or blank String, then the name of the member is used instead. If the member cannot be counted as an identified
-     * field, then null is returned.
-     * @param fieldOrMethod The Java member object representing the field or method being checked.
-     * @param defaults The @FieldIdentifier annotation at the class level of the member's containing class.
-     * @return The String name of the member, or the value of a @FieldIdentifier annotation if one is present. If no
-     * annotation exists on the member or on the member's containing class, then null is returned.
+     * Determines whether a class declares any members of its own which the J-Applicator bytecode generation code maps.
+     * This is the case if the class is annotated with @FieldIdentifier, or if any field or method it declares is
+     * annotated with @FieldIdentifier or @Nested. Members inherited from a superclass are not counted.
+     * @param type The class to test.
+     * @return True if the class declares identified or nested members.
      */
-    public static String memberIdentifierName(Member fieldOrMethod, FieldIdentifier defaults) {
-        FieldIdentifier fieldAnnotation = ((AccessibleObject)fieldOrMethod).getAnnotation(FieldIdentifier.class);
+    public static boolean declaresIdentifiedMembers(Class<?> type) {
+        return type.isAnnotationPresent(FieldIdentifier.class)
+            || Stream.of(type.getDeclaredFields()).anyMatch(AsmUtils::isIdentified)
+            || Stream.of(type.getDeclaredMethods()).anyMatch(AsmUtils::isIdentified);
+    }
 
-        if(fieldAnnotation != null) { //Field is annotated
-            String name = fieldAnnotation.value();
-            if(name.isEmpty()) //Name not specified in the @FieldIdentifier annotation, use field name instead
-                return fieldOrMethod.getName();
-            else
-                return name; //Return the custom name specified in the @FieldIdentifier annotation
-        }
-        else if(defaults != null) //Field not annotated, class is annotated, use field name
-            return fieldOrMethod.getName();
-        else
-            return null; //Field is not counted because it is not annotated and it's class is not annotated
+    private static boolean isIdentified(AnnotatedElement member) {
+        return member.isAnnotationPresent(FieldIdentifier.class) || member.isAnnotationPresent(Nested.class);
+    }
+
+    /**
+     * Measures the bytecode of the methods of a class file.
+     * @param bytecode The bytes of a class file.
+     * @return The number of bytes of bytecode of each method, by method name. If several methods share a name then the
+     * size of the largest is returned.
+     */
+    public static Map<String, Integer> methodCodeSizes(byte[] bytecode) {
+        Map<String, Integer> sizes = new HashMap<>();
+        for(ApplicatorClassInfo.MethodInfo method: ApplicatorClassInfo.readMethods(new ClassReader(bytecode)))
+            sizes.merge(method.getName(), method.getCodeSize(), Math::max);
+        return sizes;
     }
-}
\ No newline at end of file
+}
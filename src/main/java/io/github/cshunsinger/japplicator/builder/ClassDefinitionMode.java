@@ -0,0 +1,29 @@
+package io.github.cshunsinger.japplicator.builder;
+
+/**
+ * Controls how {@link ApplicatorBuilder} defines generated applicator classes.
+ */
+public enum ClassDefinitionMode {
+    /**
+     * Every applicator class is defined under a class loader of its own, so that it can be unloaded on its own. This is
+     * the default mode.
+     */
+    CLASS_LOADER,
+
+    /**
+     * Applicator classes are defined as hidden classes (see {@link java.lang.invoke.MethodHandles.Lookup#defineHiddenClass})
+     * in the package of the source or destination model. Hidden classes can be unloaded on their own without a class
+     * loader for each of them, cannot be found by name, and can use classes of the model package which are not public.
+     *
+     * A hidden class can only be defined in the package of a model class whose package is open to J-Applicator, and whose
+     * class loader can see both the other model class and J-Applicator. Applicators which cannot be defined as hidden
+     * classes are defined as in {@link #CLASS_LOADER} mode instead.
+     */
+    HIDDEN_CLASS,
+
+    /**
+     * Applicator classes are defined like in {@link #HIDDEN_CLASS} mode, and also join the nest of the model class they
+     * are defined next to, which gives them the same access as the model class itself.
+     */
+    HIDDEN_NESTMATE
+}
@@ -1,8 +1,8 @@
 package io.github.cshunsinger.japplicator.builder;
 
+import io.github.cshunsinger.asmsauce.ThisClass;
 import io.github.cshunsinger.asmsauce.code.CodeInsnBuilderLike;
-import io.github.cshunsinger.japplicator.annotation.FieldIdentifier;
-import io.github.cshunsinger.japplicator.annotation.Nested;
+import io.github.cshunsinger.japplicator.converters.ConverterKind;
 import io.github.cshunsinger.japplicator.converters.ValueConverters;
 import io.github.cshunsinger.japplicator.exception.TypeConversionException;
 import io.github.cshunsinger.japplicator.exception.TypeVariableUnsupportedException;
@@ -10,32 +10,46 @@ import io.github.cshunsinger.japplicator.exception.WildcardTypeUnsupportedExcept
 import io.github.cshunsinger.japplicator.util.ReflectionsUtils;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.reflect.ConstructorUtils;
+import org.apache.commons.lang3.reflect.TypeUtils;
 
-import java.lang.reflect.Field;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
-import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static io.github.cshunsinger.asmsauce.DefinitionBuilders.*;
 import static io.github.cshunsinger.asmsauce.code.CodeBuilders.*;
-import static io.github.cshunsinger.japplicator.builder.AsmUtils.ILLEGAL_PREFIXES;
-import static io.github.cshunsinger.japplicator.builder.AsmUtils.memberIdentifierName;
 import static io.github.cshunsinger.japplicator.util.ReflectionsUtils.fieldNameFromMethodName;
 import static org.apache.commons.lang3.StringUtils.capitalize;
 
-@Slf4j
 @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
 public class DestinationNode {
+    private static final MappingTrees.DestinationNodes<Method, DestinationNode> NODES = new MappingTrees.DestinationNodes<>() {
+        @Override
+        public DestinationNode value(Method setter, boolean sharesReference) {
+            return new DestinationNode(setter, sharesReference);
+        }
+
+        @Override
+        public DestinationNode nested(Method getter, Method setter, List<DestinationNode> nestedNodes) {
+            return new DestinationNode(setter, getter, nestedNodes, false);
+        }
+    };
+
     private final Method setter;
     private final Method getter; //Only non-null when nestedDestinations is non-null
     private final List<DestinationNode> nestedDestinations; //If non-null, there is nesting
+    private final boolean sharesReference; //The setter receives source values themselves, see @ShareReference
 
-    private DestinationNode(Method setter) {
-        this(setter, null, null);
+    private DestinationNode(Method setter, boolean sharesReference) {
+        this(setter, null, null, sharesReference);
     }
 
     /**
@@ -48,6 +62,18 @@ public class DestinationNode {
      * @return The code to set destination object values.
      */
     public CodeInsnBuilderLike buildDestination(Type fromType, String toVar, String fromVar) {
+        return buildDestination(fromType, toVar, fromVar, null);
+    }
+
+    /**
+     * Builds the asm code for setting values on the destination object, see {@link #buildDestination(Type, String, String)}.
+     * Nested destination objects which are created when they are missing are read by calling the shared static methods
+     * of the applicator, see {@link NestedMappingMethods}.
+     * @param nestedMethods The methods of the class being generated which read nested destination objects and convert
+     *                      model values into model objects of another type, or null to read nested destination objects
+     *                      inline and leave model values unconverted.
+     */
+    CodeInsnBuilderLike buildDestination(Type fromType, String toVar, String fromVar, NestedMappingMethods nestedMethods) {
         if(nestedDestinations != null) {
             //Nested situation
             String nextToVar = toVar + capitalize(fieldNameFromMethodName(getter));
@@ -55,14 +81,32 @@ public class DestinationNode {
             boolean constructable = AsmUtils.canBeConstructed(getter.getReturnType()) && setter != null;
 
             List<CodeInsnBuilderLike> nextSteps = nestedDestinations.stream()
-                .map(nestedDestination -> nestedDestination.buildDestination(fromType, nextToVar, fromVar))
+                .map(nestedDestination -> nestedDestination.buildDestination(fromType, nextToVar, fromVar, nestedMethods))
                 .filter(Objects::nonNull)
                 .collect(Collectors.toList());
 
             if(nextSteps.isEmpty())
                 return null;
 
-            if(constructable) {
+            if(constructable && nestedMethods != null) {
+                /*
+                 * toVar2 = nestedDestinationN(toVar);
+                 * ... do the next steps ...
+                 */
+                //The getter and setter are both members of the type of toVar, which is the more specific of their declaring classes
+                Class<?> holderType = getter.getDeclaringClass().isAssignableFrom(setter.getDeclaringClass()) ?
+                    setter.getDeclaringClass() : getter.getDeclaringClass();
+                String methodName = nestedMethods.destinationMethodFor(holderType, getter, setter);
+                Stream<CodeInsnBuilderLike> currentSteps = Stream.of(
+                    //toVar2 = nestedDestinationN(toVar);
+                    setVar(nextToVar, invokeStatic(ThisClass.class, name(methodName), parameters(holderType), type(getter.getReturnType()),
+                        getVar(toVar)
+                    ))
+                );
+
+                return block(Stream.concat(currentSteps, nextSteps.stream()).toArray(CodeInsnBuilderLike[]::new));
+            }
+            else if(constructable) {
                 /*
                  * toVar2 = toVar.getNestedValue();
                  * if(toVar2 == null) {
@@ -106,8 +150,11 @@ public class DestinationNode {
             //Non-nested situation
             //toVar.setSomeValue((cast/autoboxed)fromVar);
             Type destType = setter.getGenericParameterTypes()[0];
+            if(sharesReferenceOf(fromType, destType))
+                return getVar(toVar).invoke(setter.getDeclaringClass(), setter, getVar(fromVar)); //toVar.setSomeValue(fromVar);
+
             try {
-                CodeInsnBuilderLike convertedSourceValue = ValueConverters.createValueConverter(fromVar, fromType, destType);
+                CodeInsnBuilderLike convertedSourceValue = ValueConverters.createValueConverter(fromVar, fromType, destType, nestedMethods);
                 if(convertedSourceValue == null)
                     throw new TypeConversionException(fromType, destType);
 
@@ -122,158 +169,146 @@ public class DestinationNode {
         }
     }
 
-    public static List<DestinationNode> createDestinationsForField(String fieldName, Class<?> type) {
-        log.info("Scanning for identified fields identified as {}.", fieldName);
-
-        //The class-level defaults (whether or not all fields are counted)
-        FieldIdentifier defaults = type.getAnnotation(FieldIdentifier.class);
-
-        //The methods for accessing fields identified by `fieldName`
-        Set<Method> fieldSetters = findFieldSetterMethods(fieldName, type, defaults);
-        //The methods annotated as direct accessor methods
-        Stream<Method> setterMethods = findIdentifiedSetterMethods(fieldName, type, fieldSetters);
-
-        //Build all of the nodes that directly set a value
-        Stream<DestinationNode> directNodes = Stream.concat(fieldSetters.stream(), setterMethods).map(DestinationNode::new);
-
-        //Build all of the nodes that have to call an underlying nested node
-        Stream<DestinationNode> nestedNodes = generateNestedNodes(fieldName, type);
-
-        return Stream.concat(directNodes, nestedNodes).collect(Collectors.toList());
-    }
+    /**
+     * Builds a step which sets a source value on a destination object using reflection. The step does the same thing as
+     * the bytecode built by {@link #buildDestination(Type, String, String)}, and is called with the current destination
+     * object (at whatever the current level of nesting) and a non-null source value.
+     * @param fromType The type of the source value.
+     * @return The step, or null if nothing in this node receives the source value.
+     */
+    public BiConsumer<Object, Object> buildReflectiveDestination(Type fromType) {
+        if(nestedDestinations != null) {
+            //Nested situation
+            List<BiConsumer<Object, Object>> nextSteps = nestedDestinations.stream()
+                .map(nestedDestination -> nestedDestination.buildReflectiveDestination(fromType))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
 
-    private static Set<Method> findFieldSetterMethods(String fieldName, Class<?> type, FieldIdentifier defaults) {
-        return Set.of(type.getDeclaredFields())
-            .stream()
-            .filter(field -> fieldName.equals(memberIdentifierName(field, defaults)))
-            .map(field -> {
-                Method fieldAccessor = ReflectionsUtils.findSetterMethodForField(type, field);
-                if(fieldAccessor != null)
-                    log.info("Found field {} with setter method {}.", field.getName(), fieldAccessor.getName());
-                return fieldAccessor;
-            })
-            .filter(Objects::nonNull)
-            .collect(Collectors.toSet());
-    }
+            if(nextSteps.isEmpty())
+                return null;
 
-    private static Stream<Method> findIdentifiedSetterMethods(String fieldName, Class<?> type, Set<Method> fieldSetters) {
-        return Stream.of(type.getMethods())
-            .filter(method -> fieldName.equals(memberIdentifierName(method, null))) //Defaults do not apply to methods, only fields
-            .filter(method -> {
-                boolean valid = ReflectionsUtils.isValidSetterMethod(method);
-                if(!valid)
-                    log.info("Skipping method {} because it is not a valid setter method.", method.getName());
-                return valid;
-            })
-            .filter(method -> !fieldSetters.contains(method)); //Skip method if it was already included as a field accessor
-    }
+            boolean constructable = AsmUtils.canBeConstructed(getter.getReturnType()) && setter != null;
+            Constructor<?> nestedConstructor = constructable ? ConstructorUtils.getAccessibleConstructor(getter.getReturnType()) : null;
 
-    private static Stream<DestinationNode> generateNestedNodes(String fieldName, Class<?> type) {
-        Stream<DestinationNode> nestedFieldNodes = Stream.of(type.getDeclaredFields())
-            .filter(field -> field.isAnnotationPresent(Nested.class))
-            .map(field -> {
-                Nested annotation = field.getAnnotation(Nested.class);
-                //Source field name must start with the prefix of the @Nested annotation otherwise none of the nested
-                //members could possibly be the destination members.
-                String nestedPrefix = annotation.prefix();
-                return fieldName.startsWith(nestedPrefix) ?
-                    generateNestedNode(fieldName.substring(nestedPrefix.length()), type, field)
-                    : null;
-            })
-            .filter(Objects::nonNull);
-
-        Stream<DestinationNode> nestedMethodNodes = findNestedMethods(type)
-            .filter(method -> ReflectionsUtils.getInvalidGetterMethodReason(method) == null)
-            .map(method -> {
-                Nested annotation = method.getAnnotation(Nested.class);
-                //Source field name must start with the prefix of the @Nested annotation otherwise none of the nested
-                //members could possibly be the destination members.
-                String nestedPrefix = annotation.prefix();
-                return fieldName.startsWith(nestedPrefix) ?
-                    generateNestedNode(fieldName.substring(nestedPrefix.length()), type, method)
-                    : null;
-            })
-            .filter(Objects::nonNull);
-
-        return Stream.concat(nestedFieldNodes, nestedMethodNodes);
-    }
+            return (to, value) -> {
+                Object nestedTo = ReflectionsUtils.invoke(getter, to);
+                if(nestedTo == null) {
+                    if(nestedConstructor == null)
+                        return;
 
-    private static DestinationNode generateNestedNode(String fieldName, Class<?> type, Method getter) {
-        Class<?> nestedType = getter.getReturnType();
-        log.info("Found a @Nested getter method named {}. Nested type: {}", getter.getName(), nestedType.getName());
+                    nestedTo = ReflectionsUtils.newInstance(nestedConstructor);
+                    ReflectionsUtils.invoke(setter, to, nestedTo);
+                }
 
-        //Attempt to find a setter method to complement the getter method
-        Method setter = findComplimentarySetterMethod(type, getter);
-        String setterName = setter != null ? setter.getName() : "null";
+                for(BiConsumer<Object, Object> step: nextSteps)
+                    step.accept(nestedTo, value);
+            };
+        }
+        else {
+            //Non-nested situation
+            Type destType = setter.getGenericParameterTypes()[0];
+            if(sharesReferenceOf(fromType, destType))
+                return (to, value) -> ReflectionsUtils.invoke(setter, to, value);
 
-        if(setter != null)
-            log.info("Found @Nested setter method named {} which complements {}", setterName, getter.getName());
-        else
-            log.info("No @Nested setter method found to complement {}", getter.getName());
+            try {
+                UnaryOperator<Object> converter = ValueConverters.createReflectiveValueConverter(fromType, destType);
+                if(converter == null)
+                    throw new TypeConversionException(fromType, destType);
 
-        List<DestinationNode> nestedDestinations = createDestinationsForField(fieldName, nestedType);
-        return nestedDestinations == null ? null : new DestinationNode(setter, getter, nestedDestinations);
+                return (to, value) -> ReflectionsUtils.invoke(setter, to, converter.apply(value));
+            }
+            catch(WildcardTypeUnsupportedException ex) {
+                throw new TypeConversionException("Wildcard generic types are unsupported", fromType, destType, ex);
+            }
+            catch(TypeVariableUnsupportedException ex) {
+                throw new TypeConversionException("Type variable generic types are unsupported", fromType, destType, ex);
+            }
+        }
     }
 
-    private static DestinationNode generateNestedNode(String fieldName, Class<?> type, Field field) {
-        //Attempt to find getter method for field. Skip field if getter method not found
-        Method getter = ReflectionsUtils.findGetterMethodForField(type, field);
-        if(getter == null) {
-            log.info("Skipping @Nested field named {} because no getter method was found.", field.getName());
-            return null;
+    /**
+     * Adds the destination members of this node which receive a source value to a mapping plan. A member which cannot
+     * receive the value because it cannot be converted is added as a skipped member.
+     * @param identifierName The identifier name of the source value.
+     * @param sourcePath The getters which the source value is read through.
+     * @param fromType The type of the source value.
+     * @param toPath The getters which the current destination object was read through.
+     * @param planner The plan being collected.
+     * @return The number of destination members reached, whether or not the value could be converted for them.
+     */
+    int plan(String identifierName, String sourcePath, Type fromType, String toPath, MappingPlan.Planner planner) {
+        if(nestedDestinations != null) {
+            planner.visitDestination(getter.getReturnType());
+            String nestedPath = toPath + getter.getName() + "().";
+            int receivers = 0;
+            for(DestinationNode nestedDestination: nestedDestinations)
+                receivers += nestedDestination.plan(identifierName, sourcePath, fromType, nestedPath, planner);
+            return receivers;
         }
 
-        //Grab the setter method if it exists
-        Method setter = ReflectionsUtils.findSetterMethodForField(type, field);
-        String setterName = setter != null ? setter.getName() : "null";
-
-        //Log the discovery of the nested field
-        log.info("Found an @Nested field named {} with getter method {} and setter method {}. Nested type: {}",
-            field.getName(), getter.getName(), setterName, getter.getReturnType().getName()
-        );
-
-        //Validate that the nested object isn't in the Java standard library
-        String packageName = getter.getReturnType().getPackageName();
-        if(ILLEGAL_PREFIXES.stream().anyMatch(packageName::startsWith)) {
-            log.info("Skipping nested field named {} with getter method {} and setter method {} because {} is part of the Java library.",
-                field.getName(), getter.getName(), setterName, getter.getReturnType().getName()
-            );
-            return null;
+        Type destType = setter.getGenericParameterTypes()[0];
+        String reason;
+        try {
+            ConverterKind converter = sharesReferenceOf(fromType, destType) ? ConverterKind.SHARED_REFERENCE : ValueConverters.findConverterKind(fromType, destType);
+            if(converter != null) {
+                planner.mapped(new MappingPlan.Mapping(identifierName, sourcePath, toPath + setter.getName() + "()", fromType, destType, converter));
+                return 1;
+            }
+            reason = "Cannot convert " + fromType.getTypeName() + " to " + destType.getTypeName() + ".";
+        }
+        catch(WildcardTypeUnsupportedException ex) {
+            reason = "Wildcard generic types are unsupported.";
+        }
+        catch(TypeVariableUnsupportedException ex) {
+            reason = "Type variable generic types are unsupported.";
         }
 
-        List<DestinationNode> nestedDestinations = createDestinationsForField(fieldName, field.getType());
-        return nestedDestinations == null ? null : new DestinationNode(setter, getter, nestedDestinations);
+        planner.skipped(new MappingPlan.SkippedMember(setter.getDeclaringClass(), setter.getName(),
+            reason + " The value of " + sourcePath + " cannot be applied, and generating the applicator fails."));
+        return 1;
     }
 
-    private static Method findComplimentarySetterMethod(Class<?> type, Method getterMethod) {
-        Nested nested = getterMethod.getAnnotation(Nested.class);
+    /**
+     * Determines whether the setter of this node receives a source value itself rather than a converted copy of it. The
+     * setter must be annotated with {@link io.github.cshunsinger.japplicator.annotation.ShareReference}, and the source
+     * value must be assignable to the setter without boxing, unboxing or any other conversion. Neither type may be a
+     * primitive, since TypeUtils counts a wrapper as assignable to its primitive, and passing an Integer to an int
+     * setter without unboxing it would not verify.
+     */
+    private boolean sharesReferenceOf(Type fromType, Type destType) {
+        if(!sharesReference || isPrimitive(fromType) || isPrimitive(destType))
+            return false;
+        return TypeUtils.isAssignable(fromType, destType);
+    }
 
-        String setterName = getterMethod.getName();
-        if(setterName.startsWith("get"))
-            setterName = "set" + setterName.substring(3);
-        else if(setterName.startsWith("is"))
-            setterName = "set" + setterName.substring(2);
+    private static boolean isPrimitive(Type type) {
+        return type instanceof Class && ((Class<?>)type).isPrimitive();
+    }
 
-        return findNestedMethods(type, getterMethod, setterName, nested.value())
-            .filter(method -> ReflectionsUtils.getInvalidSetterMethodReason(method) == null)
-            .findFirst()
-            .orElse(null);
+    /**
+     * Determines whether a value identified by the given name can be applied to the given type, using the same rules
+     * as {@link #createDestinationsForField(String, Class)}.
+     * @param fieldName The identifier name of a source value.
+     * @param type The destination type.
+     * @return True if at least one member of the destination type, directly or through nesting, receives the value.
+     */
+    public static boolean hasDestinationsForField(String fieldName, Class<?> type) {
+        return createDestinationsForField(fieldName, type).stream().anyMatch(DestinationNode::receivesValue);
     }
 
-    private static Stream<Method> findNestedMethods(Class<?> type, Method exclude, String methodName, String nestedValue) {
-        return findNestedMethods(type)
-            .filter(method -> method != exclude)
-            .filter(method -> {
-                Nested nested = method.getAnnotation(Nested.class);
-                if(nested.value().isBlank())
-                    return method.getName().equals(methodName);
-                else
-                    return nestedValue.equals(nested.value());
-            });
+    private boolean receivesValue() {
+        return nestedDestinations == null || nestedDestinations.stream().anyMatch(DestinationNode::receivesValue);
     }
 
-    private static Stream<Method> findNestedMethods(Class<?> type) {
-        return Stream.of(type.getDeclaredMethods())
-            .filter(method -> method.isAnnotationPresent(Nested.class));
+    /**
+     * Creates the destination nodes of a source value in a type. A @Nested member is not written through if its type is
+     * already receiving the same value through an enclosing @Nested member, which happens when @Nested members form a
+     * cycle without prefixes, because its nested members would be nested indefinitely, see {@link MappingTrees}.
+     * @param fieldName The identifier name of the source value.
+     * @param type The destination type.
+     * @return The destination nodes.
+     */
+    public static List<DestinationNode> createDestinationsForField(String fieldName, Class<?> type) {
+        return MappingTrees.<Class<?>, Method, DestinationNode>destinations(IntrospectedModel::of, fieldName, type, new HashSet<>(), NODES);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,99 @@
+package io.github.cshunsinger.japplicator.builder;
+
+import io.github.cshunsinger.japplicator.Applicator;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.commons.ClassRemapper;
+import org.objectweb.asm.commons.SimpleRemapper;
+
+import java.lang.invoke.MethodHandles;
+
+import static io.github.cshunsinger.japplicator.util.ReflectionsUtils.jvmClassname;
+
+/**
+ * Defines generated applicator classes as hidden classes next to one of their model classes.
+ * @see ClassDefinitionMode#HIDDEN_CLASS
+ * @see ClassDefinitionMode#HIDDEN_NESTMATE
+ */
+@Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+class HiddenApplicatorClassDefiner {
+    private static final String APPLICATOR_CLASS_SUFFIX = "$$Applicator";
+
+    /**
+     * Defines an applicator class as a hidden class in the package of the source or destination type.
+     * @param bytecode The bytes of the generated applicator class.
+     * @param sourceClass The source type of the applicator.
+     * @param destinationClass The destination type of the applicator.
+     * @param nestmate True to add the hidden class to the nest of the model class it is defined next to.
+     * @return The hidden class, or null if neither model class can host the applicator class.
+     */
+    static Class<?> defineHiddenApplicatorClass(byte[] bytecode, Class<?> sourceClass, Class<?> destinationClass, boolean nestmate) {
+        MethodHandles.Lookup hostLookup = hostLookup(sourceClass, destinationClass);
+        if(hostLookup == null)
+            hostLookup = hostLookup(destinationClass, sourceClass);
+        if(hostLookup == null)
+            return null;
+
+        byte[] hostedBytecode = renameInto(bytecode, jvmClassname(hostLookup.lookupClass()) + APPLICATOR_CLASS_SUFFIX);
+        try {
+            return nestmate ?
+                hostLookup.defineHiddenClass(hostedBytecode, true, MethodHandles.Lookup.ClassOption.NESTMATE).lookupClass() :
+                hostLookup.defineHiddenClass(hostedBytecode, true).lookupClass();
+        }
+        catch(IllegalAccessException | LinkageError ex) {
+            //This happens for every applicator of the same host, so it is not worth more than a debug message
+            log.debug("Cannot define the applicator class as a hidden class next to {}, defining it under a class loader instead: {}", hostLookup.lookupClass().getName(), ex.toString());
+            return null;
+        }
+    }
+
+    /**
+     * Finds a lookup with full access to a model class, if the applicator class can be defined next to it. The loader of
+     * the host class has to see the other model class and J-Applicator, because the hidden class resolves every class
+     * it uses through that loader.
+     * @return A lookup in the host class, or null if the applicator class cannot be defined next to it.
+     */
+    private static MethodHandles.Lookup hostLookup(Class<?> hostClass, Class<?> otherClass) {
+        if(hostClass.isPrimitive() || hostClass.isArray() || hostClass.isHidden())
+            return null;
+        if(!isVisible(otherClass, hostClass.getClassLoader()) || !isVisible(Applicator.class, hostClass.getClassLoader()))
+            return null;
+
+        try {
+            return MethodHandles.privateLookupIn(hostClass, MethodHandles.lookup());
+        }
+        catch(IllegalAccessException | SecurityException ex) {
+            //The package of the host class is not open to J-Applicator
+            return null;
+        }
+    }
+
+    private static boolean isVisible(Class<?> type, ClassLoader loader) {
+        while(type.isArray())
+            type = type.getComponentType();
+        if(type.isPrimitive())
+            return true;
+
+        try {
+            return Class.forName(type.getName(), false, loader) == type;
+        }
+        catch(ClassNotFoundException | LinkageError ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Renames a class, including every reference the class makes to itself. A hidden class has to be named after the
+     * package of the class which defines it.
+     */
+    private static byte[] renameInto(byte[] bytecode, String className) {
+        ClassReader reader = new ClassReader(bytecode);
+        ClassWriter writer = new ClassWriter(0);
+        reader.accept(new ClassRemapper(writer, new SimpleRemapper(reader.getClassName(), className)), 0);
+        return writer.toByteArray();
+    }
+}
@@ -0,0 +1,461 @@
+package io.github.cshunsinger.japplicator.builder;
+
+import io.github.cshunsinger.japplicator.annotation.FieldIdentifier;
+import io.github.cshunsinger.japplicator.annotation.Nested;
+import io.github.cshunsinger.japplicator.annotation.ShareReference;
+import io.github.cshunsinger.japplicator.util.ReflectionsUtils;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Value;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * The members of a model class which applicators read and write, found once per class and then shared by every
+ * applicator generated for that class, whether the class is the source type, the destination type, or a {@link Nested}
+ * type of either. {@link SourceNode} and {@link DestinationNode} build their nodes from this model rather than from the
+ * class itself, so looking up the destinations of a source value is an index lookup rather than a scan of every member
+ * of the destination type.
+ *
+ * The rules of which members are mapped are applied here and nowhere else. Models of classes are read with reflection,
+ * see {@link #of(Class)}, and the annotation processor introspects the compiler's model of the same types with these
+ * rules when it precompiles applicators, see {@link ModelElements} and {@link MappingTrees}.
+ *
+ * Introspecting a model logs nothing. Members which are not mapped are kept in the model along with the reason they are
+ * skipped, and reported by {@link MappingPlan}.
+ *
+ * Models of classes are attached to their class with a ClassValue, so a model never keeps the class loader of its class
+ * alive.
+ * @param <T> The representation of a model type, which is Class for models read with reflection.
+ * @param <M> The representation of a method, which is Method for models read with reflection.
+ */
+@Getter(AccessLevel.PACKAGE)
+public class IntrospectedModel<T, M> {
+    /**
+     * Package names used by the Java standard library, whose types are never written to as @Nested objects.
+     */
+    private static final Set<String> JAVA_LIBRARY_PACKAGES = Set.of("java", "javax", "com.sun", "sun");
+
+    private static final ClassValue<IntrospectedModel<Class<?>, Method>> models = new ClassValue<>() {
+        @Override
+        protected IntrospectedModel<Class<?>, Method> computeValue(Class<?> type) {
+            return new IntrospectedModel<>(type, ReflectionElements.INSTANCE);
+        }
+    };
+
+    /**
+     * The binary name of the model type.
+     */
+    private final String typeName;
+
+    /**
+     * The identified getters of the model, which identified fields are read through first followed by identified
+     * getter methods.
+     */
+    private final List<IdentifiedGetter<M>> identifiedGetters;
+
+    /**
+     * The @Nested members of the model which have a getter, and whose nested values are read from.
+     */
+    private final List<NestedMember<T, M>> nestedSources;
+
+    /**
+     * The @Nested members of the model whose nested values are written to. Unlike nested sources, nested fields whose
+     * type belongs to the Java standard library are left out.
+     */
+    private final List<NestedMember<T, M>> nestedDestinations;
+
+    /**
+     * The members of the model which are not read from, and why.
+     */
+    private final List<Skip<T>> sourceSkips;
+
+    /**
+     * The members of the model which are not written to, and why.
+     */
+    private final List<Skip<T>> destinationSkips;
+
+    @Getter(AccessLevel.NONE)
+    private final Map<String, List<M>> settersByIdentifier;
+
+    @Getter(AccessLevel.NONE)
+    private final Set<M> sharedReferenceSetters;
+
+    @Getter(AccessLevel.NONE)
+    private final Function<M, String> methodNames;
+
+    /**
+     * Introspects a model type. Models of classes are introspected once and shared, see {@link #of(Class)}.
+     * @param type The model type.
+     * @param elements Reads the members of the model type.
+     * @param <F> The representation of a field.
+     */
+    public <F> IntrospectedModel(@NonNull T type, @NonNull ModelElements<T, F, M> elements) {
+        List<Skip<T>> sourceSkips = new ArrayList<>();
+        List<Skip<T>> destinationSkips = new ArrayList<>();
+        FieldIdentifier defaults = elements.typeAnnotation(type, FieldIdentifier.class);
+        List<F> declaredFields = elements.declaredFields(type);
+        List<M> declaredMethods = elements.declaredMethods(type);
+
+        this.typeName = elements.typeName(type);
+        this.methodNames = elements::methodName;
+        this.identifiedGetters = List.copyOf(findIdentifiedGetters(elements, type, defaults, declaredFields, declaredMethods, sourceSkips));
+        Set<M> sharedReferenceSetters = new HashSet<>();
+        this.settersByIdentifier = Map.copyOf(findIdentifiedSetters(elements, type, defaults, declaredFields, sharedReferenceSetters, destinationSkips));
+        this.sharedReferenceSetters = Set.copyOf(sharedReferenceSetters);
+
+        List<NestedMember<T, M>> nestedSources = new ArrayList<>();
+        List<NestedMember<T, M>> nestedDestinations = new ArrayList<>();
+        findNestedMembers(elements, type, declaredFields, declaredMethods, nestedSources, nestedDestinations, sourceSkips, destinationSkips);
+        this.nestedSources = List.copyOf(nestedSources);
+        this.nestedDestinations = List.copyOf(nestedDestinations);
+        this.sourceSkips = List.copyOf(sourceSkips);
+        this.destinationSkips = List.copyOf(destinationSkips);
+    }
+
+    /**
+     * Gets the introspected model of a class, introspecting the class if it has not been introspected yet.
+     * @param type The model class.
+     * @return The introspected model of the class.
+     */
+    public static IntrospectedModel<Class<?>, Method> of(Class<?> type) {
+        return models.get(type);
+    }
+
+    /**
+     * Determines whether a package belongs to the Java standard library. Types of the standard library are never
+     * written to as @Nested objects, and their structure never changes between builds of a project.
+     * @param packageName The name of a package.
+     * @return True if the package is a standard library package or a subpackage of one.
+     */
+    public static boolean isJavaLibraryPackage(String packageName) {
+        return JAVA_LIBRARY_PACKAGES.stream().anyMatch(prefix -> packageName.equals(prefix) || packageName.startsWith(prefix + "."));
+    }
+
+    /**
+     * Gets the setters which a value with the given identifier name is written through, which are the setters of the
+     * identified fields followed by identified setter methods.
+     * @param identifierName The identifier name of a value.
+     * @return The setters of the identifier, or an empty list if nothing in this model is identified by that name.
+     */
+    List<M> settersFor(String identifierName) {
+        return settersByIdentifier.getOrDefault(identifierName, List.of());
+    }
+
+    /**
+     * Determines whether a setter of this model receives source values themselves rather than copies of them, which is
+     * the case when the setter or the field it sets is annotated with {@link ShareReference}.
+     * @param setter A setter of this model, see {@link #settersFor(String)}.
+     * @return True if the setter shares the reference of source values.
+     */
+    boolean sharesReference(M setter) {
+        return sharedReferenceSetters.contains(setter);
+    }
+
+    /**
+     * Gets the name of a method of this model.
+     */
+    String methodName(M method) {
+        return methodNames.apply(method);
+    }
+
+    private static <T, F, M> List<IdentifiedGetter<M>> findIdentifiedGetters(ModelElements<T, F, M> elements, T type, FieldIdentifier defaults,
+                                                                          List<F> declaredFields, List<M> declaredMethods, List<Skip<T>> skips) {
+        List<IdentifiedGetter<M>> getters = new ArrayList<>();
+        for(F field: declaredFields) {
+            String identifierName = identifierName(elements.fieldName(field), elements.fieldAnnotation(field, FieldIdentifier.class), defaults);
+            if(identifierName == null)
+                continue;
+
+            M getterMethod = elements.findGetter(type, field);
+            if(getterMethod == null) {
+                skips.add(new Skip<>(type, elements.fieldName(field), "No getter method was found for the field identified as " + identifierName + "."));
+                continue;
+            }
+
+            getters.add(new IdentifiedGetter<>(identifierName, getterMethod));
+        }
+
+        for(M method: declaredMethods) {
+            if(elements.invalidGetterReason(method) != null)
+                continue;
+
+            //Defaults do not apply to methods, only fields
+            String identifierName = identifierName(elements.methodName(method), elements.methodAnnotation(method, FieldIdentifier.class), null);
+            if(identifierName != null)
+                getters.add(new IdentifiedGetter<>(identifierName, method));
+        }
+        return getters;
+    }
+
+    private static <T, F, M> Map<String, List<M>> findIdentifiedSetters(ModelElements<T, F, M> elements, T type, FieldIdentifier defaults, List<F> declaredFields,
+                                                                     Set<M> sharedReferenceSetters, List<Skip<T>> skips) {
+        Map<String, List<M>> setters = new HashMap<>();
+        for(F field: declaredFields) {
+            String identifierName = identifierName(elements.fieldName(field), elements.fieldAnnotation(field, FieldIdentifier.class), defaults);
+            if(identifierName == null)
+                continue;
+
+            M fieldAccessor = elements.findSetter(type, field);
+            if(fieldAccessor != null) {
+                addSetter(setters, identifierName, fieldAccessor);
+                if(elements.fieldAnnotation(field, ShareReference.class) != null || elements.methodAnnotation(fieldAccessor, ShareReference.class) != null)
+                    sharedReferenceSetters.add(fieldAccessor);
+            }
+            else
+                skips.add(new Skip<>(type, elements.fieldName(field), "No setter method was found for the field identified as " + identifierName + "."));
+        }
+
+        for(M method: elements.publicMethods(type)) {
+            //Defaults do not apply to methods, only fields
+            String identifierName = identifierName(elements.methodName(method), elements.methodAnnotation(method, FieldIdentifier.class), null);
+            if(identifierName == null)
+                continue;
+
+            String invalidSetterReason = elements.invalidSetterReason(method);
+            if(invalidSetterReason == null) {
+                addSetter(setters, identifierName, method); //Skipped if it was already included as a field accessor
+                if(elements.methodAnnotation(method, ShareReference.class) != null)
+                    sharedReferenceSetters.add(method);
+            }
+            else if(elements.invalidGetterReason(method) != null) //Identified getters are read instead
+                skips.add(new Skip<>(type, elements.methodName(method), invalidSetterReason));
+        }
+
+        setters.replaceAll((identifierName, methods) -> List.copyOf(methods));
+        return setters;
+    }
+
+    private static <M> void addSetter(Map<String, List<M>> setters, String identifierName, M setter) {
+        List<M> identifierSetters = setters.computeIfAbsent(identifierName, name -> new ArrayList<>());
+        if(!identifierSetters.contains(setter))
+            identifierSetters.add(setter);
+    }
+
+    private static <T, F, M> void findNestedMembers(ModelElements<T, F, M> elements, T type, List<F> declaredFields, List<M> declaredMethods,
+                                                    List<NestedMember<T, M>> nestedSources, List<NestedMember<T, M>> nestedDestinations,
+                                                    List<Skip<T>> sourceSkips, List<Skip<T>> destinationSkips) {
+        for(F field: declaredFields) {
+            Nested nested = elements.fieldAnnotation(field, Nested.class);
+            if(nested == null)
+                continue;
+
+            //Attempt to find getter method for field. Skip field if getter method not found
+            M getter = elements.findGetter(type, field);
+            T nestedType = elements.fieldType(field);
+            if(getter == null || nestedType == null) {
+                Skip<T> skip = new Skip<>(type, elements.fieldName(field), getter == null ?
+                    "No getter method was found for the @Nested field." :
+                    "The type of the @Nested field declares no members.");
+                sourceSkips.add(skip);
+                destinationSkips.add(skip);
+                continue;
+            }
+
+            //Grab the setter method if it exists
+            M setter = elements.findSetter(type, field);
+            NestedMember<T, M> nestedMember = new NestedMember<>(nested.prefix(), getter, setter, nestedType);
+            nestedSources.add(nestedMember);
+
+            //Nested objects in the Java standard library are never written to
+            T getterType = elements.returnType(getter);
+            if(getterType == null || isJavaLibraryPackage(elements.packageName(getterType))) {
+                destinationSkips.add(new Skip<>(type, elements.fieldName(field),
+                    "The @Nested type " + (getterType == null ? elements.typeName(nestedType) : elements.typeName(getterType)) + " is part of the Java library."));
+            }
+            else
+                nestedDestinations.add(nestedMember);
+        }
+
+        for(M method: declaredMethods) {
+            Nested nested = elements.methodAnnotation(method, Nested.class);
+            if(nested == null || elements.invalidGetterReason(method) != null)
+                continue;
+
+            T nestedType = elements.returnType(method);
+            if(nestedType == null) {
+                Skip<T> skip = new Skip<>(type, elements.methodName(method), "The type of the @Nested method declares no members.");
+                sourceSkips.add(skip);
+                destinationSkips.add(skip);
+                continue;
+            }
+
+            //Attempt to find a setter method to complement the getter method
+            M setter = findComplimentarySetterMethod(elements, declaredMethods, method, nested);
+            NestedMember<T, M> nestedMember = new NestedMember<>(nested.prefix(), method, setter, nestedType);
+            nestedSources.add(nestedMember);
+            nestedDestinations.add(nestedMember);
+        }
+    }
+
+    private static <T, F, M> M findComplimentarySetterMethod(ModelElements<T, F, M> elements, List<M> declaredMethods, M getterMethod, Nested nested) {
+        String setterName = elements.methodName(getterMethod);
+        if(setterName.startsWith("get"))
+            setterName = "set" + setterName.substring(3);
+        else if(setterName.startsWith("is"))
+            setterName = "set" + setterName.substring(2);
+
+        for(M method: declaredMethods) {
+            Nested candidate = elements.methodAnnotation(method, Nested.class);
+            if(method.equals(getterMethod) || candidate == null)
+                continue;
+
+            boolean complements = candidate.value().isBlank() ?
+                elements.methodName(method).equals(setterName) :
+                nested.value().equals(candidate.value());
+            if(complements && elements.invalidSetterReason(method) == null)
+                return method;
+        }
+        return null;
+    }
+
+    /**
+     * Determines the identifier name of a field or method. A member annotated with @FieldIdentifier is identified by
+     * the value of the annotation, or by its own name if the value is empty. A member which is not annotated is
+     * identified by its own name if its class is annotated with @FieldIdentifier, and is not identified otherwise.
+     * @param memberName The name of the member.
+     * @param annotation The @FieldIdentifier annotation of the member, or null if it is not annotated.
+     * @param defaults The @FieldIdentifier annotation of the class of the member, or null if it does not apply.
+     * @return The identifier name, or null if the member is not identified.
+     */
+    private static String identifierName(String memberName, FieldIdentifier annotation, FieldIdentifier defaults) {
+        if(annotation != null) //Member is annotated, use the custom name of the annotation unless it is empty
+            return annotation.value().isEmpty() ? memberName : annotation.value();
+        else if(defaults != null) //Member not annotated, class is annotated, use member name
+            return memberName;
+        else
+            return null; //Member is not counted because it is not annotated and its class is not annotated
+    }
+
+    /**
+     * A getter of a model, and the identifier name of the value it reads.
+     */
+    @Value
+    static class IdentifiedGetter<M> {
+        String identifierName;
+        M getter;
+    }
+
+    /**
+     * A @Nested member of a model.
+     */
+    @Value
+    static class NestedMember<T, M> {
+        /**
+         * The prefix of the identifier names of the nested values, see {@link Nested#prefix()}.
+         */
+        String prefix;
+        M getter;
+        /**
+         * The setter to set a newly created nested object with, or null if the member cannot be set.
+         */
+        M setter;
+        T nestedType;
+    }
+
+    /**
+     * A member of a model which is not mapped, and why, see {@link MappingPlan.SkippedMember}.
+     */
+    @Value
+    public static class Skip<T> {
+        T declaringType;
+        String member;
+        String reason;
+    }
+
+    /**
+     * Reads the members of model classes with reflection.
+     */
+    private static class ReflectionElements implements ModelElements<Class<?>, Field, Method> {
+        static final ReflectionElements INSTANCE = new ReflectionElements();
+
+        @Override
+        public String typeName(Class<?> type) {
+            return type.getName();
+        }
+
+        @Override
+        public String packageName(Class<?> type) {
+            return type.getPackageName();
+        }
+
+        @Override
+        public <A extends Annotation> A typeAnnotation(Class<?> type, Class<A> annotationType) {
+            return type.getAnnotation(annotationType);
+        }
+
+        @Override
+        public List<Field> declaredFields(Class<?> type) {
+            return List.of(type.getDeclaredFields());
+        }
+
+        @Override
+        public List<Method> declaredMethods(Class<?> type) {
+            return List.of(type.getDeclaredMethods());
+        }
+
+        @Override
+        public List<Method> publicMethods(Class<?> type) {
+            return List.of(type.getMethods());
+        }
+
+        @Override
+        public String fieldName(Field field) {
+            return field.getName();
+        }
+
+        @Override
+        public <A extends Annotation> A fieldAnnotation(Field field, Class<A> annotationType) {
+            return field.getAnnotation(annotationType);
+        }
+
+        @Override
+        public Class<?> fieldType(Field field) {
+            return memberType(field.getType());
+        }
+
+        @Override
+        public Method findGetter(Class<?> type, Field field) {
+            return ReflectionsUtils.findGetterMethodForField(type, field);
+        }
+
+        @Override
+        public Method findSetter(Class<?> type, Field field) {
+            return ReflectionsUtils.findSetterMethodForField(type, field);
+        }
+
+        @Override
+        public String methodName(Method method) {
+            return method.getName();
+        }
+
+        @Override
+        public <A extends Annotation> A methodAnnotation(Method method, Class<A> annotationType) {
+            return method.getAnnotation(annotationType);
+        }
+
+        @Override
+        public Class<?> returnType(Method method) {
+            return memberType(method.getReturnType());
+        }
+
+        @Override
+        public String invalidGetterReason(Method method) {
+            return ReflectionsUtils.getInvalidGetterMethodReason(method);
+        }
+
+        @Override
+        public String invalidSetterReason(Method method) {
+            return ReflectionsUtils.getInvalidSetterMethodReason(method);
+        }
+
+        private static Class<?> memberType(Class<?> type) {
+            return type.isPrimitive() || type.isArray() ? null : type;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package io.github.cshunsinger.japplicator.builder;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * The sizes of bytecode at which the HotSpot JIT compiler treats a method differently. The limits are read from the
+ * options of the running virtual machine, and fall back to the HotSpot defaults if they cannot be read, for example on
+ * a virtual machine which is not HotSpot.
+ */
+public enum JitThreshold {
+    /**
+     * The largest method HotSpot inlines into a frequently called method (<code>-XX:FreqInlineSize</code>). A larger
+     * method is still compiled, however it is always called rather than inlined into its caller.
+     */
+    FREQ_INLINE_SIZE("FreqInlineSize", 325),
+
+    /**
+     * The largest method HotSpot compiles (<code>-XX:HugeMethodLimit</code>). A larger method is always interpreted,
+     * unless the virtual machine runs with <code>-XX:-DontCompileHugeMethods</code>.
+     */
+    HUGE_METHOD_LIMIT("HugeMethodLimit", 8000);
+
+    private final String vmOption;
+    private final int defaultLimit;
+    private volatile int limit = -1;
+
+    JitThreshold(String vmOption, int defaultLimit) {
+        this.vmOption = vmOption;
+        this.defaultLimit = defaultLimit;
+    }
+
+    /**
+     * Gets the limit of this threshold in the running virtual machine.
+     * @return The largest number of bytes of bytecode a method can have without crossing this threshold.
+     */
+    public int getLimit() {
+        if(limit < 0)
+            limit = readLimit();
+        return limit;
+    }
+
+    /**
+     * Determines whether a method crosses this threshold.
+     * @param codeSize The number of bytes of bytecode of the method.
+     * @return True if the method is larger than the limit of this threshold.
+     */
+    public boolean isExceededBy(int codeSize) {
+        return codeSize > getLimit();
+    }
+
+    private int readLimit() {
+        try {
+            HotSpotDiagnosticMXBean diagnostics = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+            return diagnostics == null ? defaultLimit : Integer.parseInt(diagnostics.getVMOption(vmOption).getValue());
+        }
+        catch(RuntimeException | LinkageError ex) {
+            //Not a HotSpot virtual machine, or one without this option
+            return defaultLimit;
+        }
+    }
+}
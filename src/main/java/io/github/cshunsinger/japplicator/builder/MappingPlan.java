@@ -0,0 +1,137 @@
+package io.github.cshunsinger.japplicator.builder;
+
+import io.github.cshunsinger.japplicator.converters.ConverterKind;
+import lombok.NonNull;
+import lombok.Value;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A report of how the applicator of a source/destination pair maps values: which source value is written to which
+ * destination member and with which kind of conversion, and which members are skipped and why. Generating an
+ * applicator does not log anything about the members it maps, so this report is how a mapping is inspected. It is built
+ * on demand, from the same introspected models that generated applicators are built from.
+ */
+@Value
+public class MappingPlan {
+    Class<?> sourceType;
+    Class<?> destinationType;
+
+    /**
+     * The values which are mapped, in the order they are mapped.
+     */
+    List<Mapping> mappings;
+
+    /**
+     * The members of the source type, the destination type, and their @Nested types which are not mapped.
+     */
+    List<SkippedMember> skippedMembers;
+
+    /**
+     * Builds the mapping plan of a source/destination pair. This introspects the source and destination types if they
+     * have not been introspected yet, however it does not generate an applicator.
+     * @param sourceType The source type.
+     * @param destinationType The destination type.
+     * @return The mapping plan of the pair.
+     */
+    public static MappingPlan of(@NonNull Class<?> sourceType, @NonNull Class<?> destinationType) {
+        Planner planner = new Planner();
+        planner.visitSource(sourceType);
+        planner.visitDestination(destinationType);
+        for(SourceNode node: SourceNode.createSources(sourceType, "", new HashMap<>(), planner::skipped))
+            node.plan(destinationType, "", planner);
+
+        //A type which is both read and written can skip the same member for both reasons
+        Set<SkippedMember> skippedMembers = new LinkedHashSet<>();
+        planner.sourceTypes.forEach(type -> IntrospectedModel.of(type).getSourceSkips().forEach(skip -> skippedMembers.add(SkippedMember.of(skip))));
+        planner.destinationTypes.forEach(type -> IntrospectedModel.of(type).getDestinationSkips().forEach(skip -> skippedMembers.add(SkippedMember.of(skip))));
+        skippedMembers.addAll(planner.skippedMembers);
+        return new MappingPlan(sourceType, destinationType, List.copyOf(planner.mappings), List.copyOf(skippedMembers));
+    }
+
+    /**
+     * Describes this plan as text, with one line per mapped value and one line per skipped member.
+     * @return The description.
+     */
+    public String describe() {
+        StringBuilder description = new StringBuilder("Mapping plan for ")
+            .append(sourceType.getName()).append(" -> ").append(destinationType.getName()).append('\n');
+        for(Mapping mapping: mappings) {
+            description.append("  mapped ").append(mapping.getIdentifierName()).append(": ")
+                .append(mapping.getSourcePath()).append(" -> ").append(mapping.getDestinationPath())
+                .append(" (").append(mapping.getConverter()).append(")\n");
+        }
+        for(SkippedMember skippedMember: skippedMembers) {
+            description.append("  skipped ").append(skippedMember.getDeclaringType().getName()).append('.')
+                .append(skippedMember.getMember()).append(": ").append(skippedMember.getReason()).append('\n');
+        }
+        return description.toString();
+    }
+
+    /**
+     * A source value which is written to a destination member.
+     */
+    @Value
+    public static class Mapping {
+        /**
+         * The identifier name of the value, including the prefixes of any @Nested members it is read through.
+         */
+        String identifierName;
+        /**
+         * The getters which the value is read through, such as <code>getAddress().getCity()</code>.
+         */
+        String sourcePath;
+        /**
+         * The getters and the setter which the value is written through, such as <code>getAddress().setCity()</code>.
+         */
+        String destinationPath;
+        Type sourceValueType;
+        Type destinationValueType;
+        ConverterKind converter;
+    }
+
+    /**
+     * A member which is not mapped.
+     */
+    @Value
+    public static class SkippedMember {
+        Class<?> declaringType;
+        String member;
+        String reason;
+
+        static SkippedMember of(IntrospectedModel.Skip<Class<?>> skip) {
+            return new SkippedMember(skip.getDeclaringType(), skip.getMember(), skip.getReason());
+        }
+    }
+
+    /**
+     * Collects a plan while the source and destination nodes of a pair are walked.
+     */
+    static class Planner {
+        private final Set<Class<?>> sourceTypes = new LinkedHashSet<>();
+        private final Set<Class<?>> destinationTypes = new LinkedHashSet<>();
+        private final List<Mapping> mappings = new ArrayList<>();
+        private final List<SkippedMember> skippedMembers = new ArrayList<>();
+
+        void visitSource(Class<?> type) {
+            sourceTypes.add(type);
+        }
+
+        void visitDestination(Class<?> type) {
+            destinationTypes.add(type);
+        }
+
+        void mapped(Mapping mapping) {
+            mappings.add(mapping);
+        }
+
+        void skipped(SkippedMember skippedMember) {
+            skippedMembers.add(skippedMember);
+        }
+    }
+}
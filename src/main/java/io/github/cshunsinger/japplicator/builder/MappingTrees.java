@@ -0,0 +1,172 @@
+package io.github.cshunsinger.japplicator.builder;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Builds the trees of members which a mapping reads from and writes to, from the introspected models of the source and
+ * destination types. {@link SourceNode} and {@link DestinationNode} build the nodes of generated applicators with these
+ * trees, and the annotation processor builds the nodes of precompiled applicators with them, so both map exactly the
+ * same members. Each caller creates its own kind of node for each member of a tree.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class MappingTrees {
+    /**
+     * Creates the nodes of the source members of a tree.
+     * @param <T> The representation of a model type.
+     * @param <M> The representation of a method.
+     * @param <N> The node type.
+     */
+    public interface SourceNodes<T, M, N> {
+        /**
+         * Creates the node of a source value.
+         * @param identifierName The identifier name of the value, including the prefixes of its enclosing @Nested members.
+         * @param getter The getter the value is read through.
+         */
+        N value(String identifierName, M getter);
+
+        /**
+         * Creates the node of a @Nested source member, whose nested nodes read the values of the nested object.
+         * @param getter The getter the nested object is read through.
+         * @param nestedType The type of the nested object.
+         * @param nestedPrefix The prefix of the identifier names of the nested values, including the prefixes of any
+         *                     enclosing @Nested members.
+         * @param nestedNodes The nodes of the nested values, which is never empty.
+         */
+        N nested(M getter, T nestedType, String nestedPrefix, List<N> nestedNodes);
+
+        /**
+         * Creates the node of a @Nested source member whose type is already read from, with the same identifier prefix,
+         * by an enclosing @Nested member or by the source type itself. Its values are mapped the same way as the values
+         * of the enclosing member, so the node maps them by calling the same shared method, which calls itself for each
+         * level of nested source objects.
+         * @param getter The getter the nested object is read through.
+         * @param nestedType The type of the nested object.
+         * @param nestedPrefix The prefix of the identifier names of the nested values, including the prefixes of any
+         *                     enclosing @Nested members.
+         */
+        N recursive(M getter, T nestedType, String nestedPrefix);
+    }
+
+    /**
+     * Creates the nodes of the destination members of a tree.
+     * @param <M> The representation of a method.
+     * @param <N> The node type.
+     */
+    public interface DestinationNodes<M, N> {
+        /**
+         * Creates the node of a destination member which receives a source value.
+         * @param setter The setter the value is written through.
+         * @param sharesReference Whether the setter receives the source value itself rather than a copy of it.
+         */
+        N value(M setter, boolean sharesReference);
+
+        /**
+         * Creates the node of a @Nested destination member, whose nested nodes receive the source value.
+         * @param getter The getter the nested object is read through.
+         * @param setter The setter a newly created nested object is set with, or null if the member cannot be set.
+         * @param nestedNodes The nodes of the nested members which receive the value.
+         */
+        N nested(M getter, M setter, List<N> nestedNodes);
+    }
+
+    /**
+     * Creates the source nodes of a type. A @Nested member whose type is already being read from by an enclosing
+     * @Nested member, or which has the type itself, would be nested indefinitely. If its values have the same identifier
+     * names as the values of the enclosing member, because every @Nested member of the cycle is unprefixed, it becomes a
+     * recursive node, see {@link SourceNodes#recursive(Object, Object, String)}. Otherwise it is not read from, since
+     * each level of nesting would map onto other identifier names.
+     * @param models Gets the introspected model of a type.
+     * @param type The source type.
+     * @param fieldIdentifiedPrefix The prefix of the identifier names of the values of the type.
+     * @param enclosingPrefixes The types being read from by enclosing @Nested members, with the identifier prefix each
+     *                          of them is read with.
+     * @param cycleSkips Receives the @Nested members which are not read from because of a cycle, may be null.
+     * @param nodes Creates the nodes.
+     * @return The source nodes.
+     */
+    public static <T, M, N> List<N> sources(Function<T, IntrospectedModel<T, M>> models, T type, String fieldIdentifiedPrefix,
+                                            Map<T, String> enclosingPrefixes, Consumer<IntrospectedModel.Skip<T>> cycleSkips, SourceNodes<T, M, N> nodes) {
+        IntrospectedModel<T, M> model = models.apply(type);
+        List<N> sources = new ArrayList<>();
+        for(IntrospectedModel.IdentifiedGetter<M> getter: model.getIdentifiedGetters())
+            sources.add(nodes.value(fieldIdentifiedPrefix + getter.getIdentifierName(), getter.getGetter()));
+
+        enclosingPrefixes.put(type, fieldIdentifiedPrefix);
+        for(IntrospectedModel.NestedMember<T, M> nested: model.getNestedSources()) {
+            String nestedPrefix = fieldIdentifiedPrefix + nested.getPrefix();
+            String enclosingPrefix = enclosingPrefixes.get(nested.getNestedType());
+            if(nestedPrefix.equals(enclosingPrefix)) {
+                sources.add(nodes.recursive(nested.getGetter(), nested.getNestedType(), nestedPrefix));
+                continue;
+            }
+            if(enclosingPrefix != null) {
+                if(cycleSkips != null) {
+                    String nestedTypeName = models.apply(nested.getNestedType()).getTypeName();
+                    cycleSkips.accept(new IntrospectedModel.Skip<>(type, model.methodName(nested.getGetter()),
+                        "The @Nested type " + nestedTypeName + " is already read from by an enclosing @Nested member, with the prefix \""
+                            + enclosingPrefix + "\" rather than \"" + nestedPrefix + "\"."));
+                }
+                continue;
+            }
+
+            List<N> nestedSources = sources(models, nested.getNestedType(), nestedPrefix, enclosingPrefixes, cycleSkips, nodes);
+            if(!nestedSources.isEmpty())
+                sources.add(nodes.nested(nested.getGetter(), nested.getNestedType(), nestedPrefix, nestedSources));
+        }
+        enclosingPrefixes.remove(type);
+
+        return sources;
+    }
+
+    /**
+     * Creates the destination nodes of a source value in a type. A @Nested member is not written through if its type is
+     * already receiving the same value through an enclosing @Nested member, which happens when @Nested members form a
+     * cycle without prefixes, because its nested members would be nested indefinitely.
+     * @param models Gets the introspected model of a type.
+     * @param identifierName The identifier name of the source value.
+     * @param type The destination type.
+     * @param enclosingDestinations The types and identifier names already receiving the value through enclosing @Nested
+     *                              members.
+     * @param nodes Creates the nodes.
+     * @return The destination nodes.
+     */
+    public static <T, M, N> List<N> destinations(Function<T, IntrospectedModel<T, M>> models, String identifierName, T type,
+                                                 Set<String> enclosingDestinations, DestinationNodes<M, N> nodes) {
+        IntrospectedModel<T, M> model = models.apply(type);
+
+        //Build all of the nodes that directly set a value
+        List<N> destinations = new ArrayList<>();
+        for(M setter: model.settersFor(identifierName))
+            destinations.add(nodes.value(setter, model.sharesReference(setter)));
+
+        //Build all of the nodes that have to call an underlying nested node. Source field name must start with the
+        //prefix of the @Nested annotation otherwise none of the nested members could possibly be the destination members.
+        String destination = model.getTypeName() + ' ' + identifierName;
+        enclosingDestinations.add(destination);
+        for(IntrospectedModel.NestedMember<T, M> nested: model.getNestedDestinations()) {
+            if(!identifierName.startsWith(nested.getPrefix()))
+                continue;
+
+            String nestedIdentifierName = identifierName.substring(nested.getPrefix().length());
+            if(enclosingDestinations.contains(models.apply(nested.getNestedType()).getTypeName() + ' ' + nestedIdentifierName))
+                continue;
+
+            destinations.add(nodes.nested(
+                nested.getGetter(),
+                nested.getSetter(),
+                destinations(models, nestedIdentifierName, nested.getNestedType(), enclosingDestinations, nodes)
+            ));
+        }
+        enclosingDestinations.remove(destination);
+
+        return destinations;
+    }
+}
@@ -0,0 +1,91 @@
+package io.github.cshunsinger.japplicator.builder;
+
+import java.lang.annotation.Annotation;
+import java.util.List;
+
+/**
+ * Reads the members of model types for {@link IntrospectedModel}. Models are read with reflection when applicators are
+ * generated at runtime, and from the compiler's model of the types when applicators are precompiled, see
+ * {@link io.github.cshunsinger.japplicator.processor.ApplicatorProcessor}. Either way the same rules decide which members
+ * are mapped, since they are applied by the introspected model rather than by the implementations of this interface.
+ *
+ * Implementations must not depend on the bytecode generation libraries, because the annotation processor runs without
+ * them.
+ * @param <T> The representation of a model type.
+ * @param <F> The representation of a field.
+ * @param <M> The representation of a method.
+ */
+public interface ModelElements<T, F, M> {
+    /**
+     * Gets the binary name of a type, such as "com.example.Outer$Model".
+     */
+    String typeName(T type);
+
+    /**
+     * Gets the name of the package of a type.
+     */
+    String packageName(T type);
+
+    <A extends Annotation> A typeAnnotation(T type, Class<A> annotationType);
+
+    /**
+     * Gets the fields declared by a type itself, in declaration order.
+     */
+    List<F> declaredFields(T type);
+
+    /**
+     * Gets the methods declared by a type itself.
+     */
+    List<M> declaredMethods(T type);
+
+    /**
+     * Gets the public methods of a type, including the methods it inherits.
+     */
+    List<M> publicMethods(T type);
+
+    String fieldName(F field);
+
+    <A extends Annotation> A fieldAnnotation(F field, Class<A> annotationType);
+
+    /**
+     * Gets the type of a field.
+     * @return The type, or null if it is a primitive or an array type, which declare no members to map.
+     */
+    T fieldType(F field);
+
+    /**
+     * Finds the getter method of a field, see {@link io.github.cshunsinger.japplicator.util.ReflectionsUtils#findGetterMethodForField}.
+     * @return The getter method, or null if the field has no valid getter method.
+     */
+    M findGetter(T type, F field);
+
+    /**
+     * Finds the setter method of a field, see {@link io.github.cshunsinger.japplicator.util.ReflectionsUtils#findSetterMethodForField}.
+     * @return The setter method, or null if the field has no valid setter method.
+     */
+    M findSetter(T type, F field);
+
+    String methodName(M method);
+
+    <A extends Annotation> A methodAnnotation(M method, Class<A> annotationType);
+
+    /**
+     * Gets the return type of a method.
+     * @return The type, or null if it is a primitive, void, or an array type, which declare no members to map.
+     */
+    T returnType(M method);
+
+    /**
+     * Determines why a method is not a valid getter method, see
+     * {@link io.github.cshunsinger.japplicator.util.ReflectionsUtils#getInvalidGetterMethodReason(String, boolean, boolean, boolean, int)}.
+     * @return The reason, or null if the method is a valid getter method.
+     */
+    String invalidGetterReason(M method);
+
+    /**
+     * Determines why a method is not a valid setter method, see
+     * {@link io.github.cshunsinger.japplicator.util.ReflectionsUtils#getInvalidSetterMethodReason(String, boolean, boolean, boolean, int)}.
+     * @return The reason, or null if the method is a valid setter method.
+     */
+    String invalidSetterReason(M method);
+}
@@ -0,0 +1,154 @@
+package io.github.cshunsinger.japplicator.builder;
+
+import io.github.cshunsinger.japplicator.Applicator;
+import io.github.cshunsinger.japplicator.annotation.Nested;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Computes a hash of everything the generated applicator of a source/destination pair depends on: the declared members
+ * of the source and destination types, their annotations, and their generic signatures. The same goes for the
+ * superclasses and interfaces of those types, and for every type reached through the type of a member, including the
+ * type arguments and array component types of that type. Those are the {@link Nested} types and the model types whose
+ * values are converted, on their own or as the elements of collections, maps and arrays, so their members are mapped
+ * as well. The hash also covers the version of J-Applicator and of the Java runtime, and the JIT limits which wide
+ * mappings are split by, see {@link JitThreshold}, since all of them affect the generated bytecode.
+ *
+ * Two pairs with the same hash produce the same applicator bytecode, so the hash tells whether bytecode generated for a
+ * pair in an earlier run can still be used. Classes of the Java standard library are not walked.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ModelStructureHash {
+    /**
+     * The version of the bytecode generation logic. Increase this in every change which changes the generated bytecode,
+     * so that bytecode generated before the change is no longer used. The library version alone does not tell, because
+     * every build of the same version, such as the "dev" builds of a working copy, has the same Implementation-Version.
+     */
+    private static final int GENERATOR_VERSION = 4;
+    private static final String LIBRARY_VERSION = Optional.ofNullable(Applicator.class.getPackage().getImplementationVersion())
+        .orElse("unversioned");
+
+    /**
+     * Computes the structural hash of a source/destination pair.
+     * @param sourceClass The source type.
+     * @param destinationClass The destination type.
+     * @return The hash, as a string of hexadecimal digits.
+     */
+    public static String of(Class<?> sourceClass, Class<?> destinationClass) {
+        StringBuilder structure = new StringBuilder()
+            .append("generator ").append(GENERATOR_VERSION).append('\n')
+            .append("library ").append(LIBRARY_VERSION).append('\n')
+            .append("java ").append(Runtime.version().feature()).append('\n')
+            .append("jit ").append(JitThreshold.HUGE_METHOD_LIMIT.getLimit()).append(' ').append(JitThreshold.FREQ_INLINE_SIZE.getLimit()).append('\n')
+            .append("source ").append(sourceClass.getName()).append('\n')
+            .append("destination ").append(destinationClass.getName()).append('\n');
+
+        Set<Object> described = new HashSet<>();
+        describe(sourceClass, structure, described);
+        describe(destinationClass, structure, described);
+        return sha256(structure.toString());
+    }
+
+    private static void describe(Class<?> type, StringBuilder structure, Set<Object> described) {
+        while(type.isArray())
+            type = type.getComponentType();
+        if(type.isPrimitive() || isStandardLibrary(type) || !described.add(type))
+            return;
+
+        structure.append("class ").append(Modifier.toString(type.getModifiers())).append(' ').append(type.getName())
+            .append(" extends ").append(type.getGenericSuperclass())
+            .append(" implements ").append(Arrays.toString(type.getGenericInterfaces()))
+            .append(' ').append(annotations(type.getDeclaredAnnotations())).append('\n');
+
+        sorted(Stream.of(type.getDeclaredFields()).map(field -> "field " + field.toGenericString() + ' ' + annotations(field.getDeclaredAnnotations())))
+            .forEach(line -> structure.append(line).append('\n'));
+        sorted(Stream.of(type.getDeclaredMethods()).map(method -> "method " + method.toGenericString() + ' ' + annotations(method.getDeclaredAnnotations())))
+            .forEach(line -> structure.append(line).append('\n'));
+        sorted(Stream.of(type.getDeclaredConstructors()).map(Constructor::toGenericString).map(constructor -> "constructor " + constructor))
+            .forEach(line -> structure.append(line).append('\n'));
+
+        //Inherited accessors, nested types and converted model types are mapped as well
+        if(type.getSuperclass() != null)
+            describe(type.getSuperclass(), structure, described);
+        for(Class<?> interfaceType: type.getInterfaces())
+            describe(interfaceType, structure, described);
+        for(Field field: type.getDeclaredFields())
+            describeTypesOf(field.getGenericType(), structure, described);
+        for(Method method: type.getDeclaredMethods()) {
+            describeTypesOf(method.getGenericReturnType(), structure, described);
+            for(Type parameterType: method.getGenericParameterTypes())
+                describeTypesOf(parameterType, structure, described);
+        }
+    }
+
+    /**
+     * Describes every class which a member type refers to, such as the element type of a List or the value type of a
+     * Map, rather than only the class of the member itself.
+     */
+    private static void describeTypesOf(Type type, StringBuilder structure, Set<Object> described) {
+        if(type instanceof Class) {
+            describe((Class<?>)type, structure, described);
+        }
+        else if(type instanceof ParameterizedType) {
+            ParameterizedType parameterizedType = (ParameterizedType)type;
+            describeTypesOf(parameterizedType.getRawType(), structure, described);
+            for(Type typeArgument: parameterizedType.getActualTypeArguments())
+                describeTypesOf(typeArgument, structure, described);
+        }
+        else if(type instanceof GenericArrayType) {
+            describeTypesOf(((GenericArrayType)type).getGenericComponentType(), structure, described);
+        }
+        else if(type instanceof WildcardType) {
+            WildcardType wildcardType = (WildcardType)type;
+            Stream.concat(Stream.of(wildcardType.getUpperBounds()), Stream.of(wildcardType.getLowerBounds()))
+                .forEach(bound -> describeTypesOf(bound, structure, described));
+        }
+        else if(type instanceof TypeVariable && described.add(type)) {
+            //A type variable can be bounded by itself, as in T extends Comparable<T>, so each one is only walked once
+            for(Type bound: ((TypeVariable<?>)type).getBounds())
+                describeTypesOf(bound, structure, described);
+        }
+    }
+
+    private static boolean isStandardLibrary(Class<?> type) {
+        return IntrospectedModel.isJavaLibraryPackage(type.getPackageName());
+    }
+
+    private static String annotations(Annotation[] annotations) {
+        return sorted(Stream.of(annotations).map(Annotation::toString)).collect(Collectors.joining(" ", "[", "]"));
+    }
+
+    /**
+     * The order of members returned by reflection is unspecified, so members are described in sorted order.
+     */
+    private static Stream<String> sorted(Stream<String> lines) {
+        return lines.sorted();
+    }
+
+    private static String sha256(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        }
+        catch(NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not supported by this Java runtime.", ex);
+        }
+    }
+}
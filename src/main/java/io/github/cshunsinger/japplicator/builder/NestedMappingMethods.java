@@ -0,0 +1,207 @@
+package io.github.cshunsinger.japplicator.builder;
+
+import io.github.cshunsinger.asmsauce.MethodNode;
+import io.github.cshunsinger.asmsauce.code.CodeInsnBuilderLike;
+import io.github.cshunsinger.japplicator.converters.BeanConversionMethods;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import static io.github.cshunsinger.asmsauce.DefinitionBuilders.*;
+import static io.github.cshunsinger.asmsauce.MethodNode.method;
+import static io.github.cshunsinger.asmsauce.code.CodeBuilders.*;
+import static io.github.cshunsinger.asmsauce.modifiers.AccessModifiers.publicStatic;
+
+/**
+ * The static methods which a generated applicator maps the values of its @Nested source objects with. The values of a
+ * nested source object are mapped by one method per nested type and identifier prefix, and every place in the
+ * applicator which reads a nested object of that type with that prefix calls the same method, rather than repeating the
+ * code which maps it.
+ *
+ * Each method is generated the first time it is needed, as
+ * <code>public static Dest applyNestedN(Nested source, Dest destination)</code>, and returns the destination object.
+ *
+ * The model values which are converted into model objects of another type, on their own or as the elements of
+ * collections and arrays, are converted by one method per pair of types, generated as
+ * <code>public static Dest convertBeanN(Src source)</code>. These are embedded sub-applicators: the pair is mapped
+ * into the class of the applicator itself, so converting a value calls the mapping directly instead of looking up the
+ * applicator of the pair. A pair which holds values of its own types calls its own method.
+ *
+ * The nested destination objects which are created when they are missing are read by one method per @Nested
+ * destination member, generated as <code>public static Nested nestedDestinationN(Dest destination)</code>, which gets the
+ * nested object of the destination object, creating and setting it first if it is null. Every value written into the
+ * nested object calls the same method, rather than repeating the code which creates it.
+ *
+ * A method which maps more source nodes than the limit it was created with is split into static part methods, named
+ * after the method with the suffix <code>PartN</code>, the same way as applyStatic, see
+ * {@link ApplicatorBuilder#generateBytecode()}.
+ */
+class NestedMappingMethods implements BeanConversionMethods {
+    static final String METHOD_NAME_PREFIX = "applyNested";
+    static final String BEAN_METHOD_NAME_PREFIX = "convertBean";
+    static final String DESTINATION_METHOD_NAME_PREFIX = "nestedDestination";
+
+    private static final String SOURCE = "source";
+    private static final String DESTINATION = "destination";
+    private static final String PART_METHOD_NAME_SUFFIX = "Part";
+
+    private final int sourceNodesPerMethod;
+    private final Map<String, String> methodNames = new HashMap<>();
+    private final Map<String, String> beanMethodNames = new HashMap<>();
+    private final Map<String, String> destinationMethodNames = new HashMap<>();
+    private final Map<String, Integer> stepCounts = new HashMap<>();
+    private final List<MethodNode> methods = new ArrayList<>();
+
+    /**
+     * @param sourceNodesPerMethod The number of source nodes to map in each method before splitting it into parts.
+     */
+    NestedMappingMethods(int sourceNodesPerMethod) {
+        this.sourceNodesPerMethod = sourceNodesPerMethod;
+    }
+
+    /**
+     * Creates shared methods which are never split.
+     */
+    NestedMappingMethods() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Gets the name of the method which maps the values of a nested source object, generating the method if it has not
+     * been generated yet.
+     * @param nestedType The type of the nested source object.
+     * @param identifierPrefix The prefix of the identifier names of the nested values, including the prefixes of any
+     *                         enclosing @Nested members.
+     * @param nestedNodes The source nodes of the nested values.
+     * @param destinationClass The destination type which the nested values are mapped onto.
+     * @return The name of the static method.
+     */
+    String methodFor(Class<?> nestedType, String identifierPrefix, List<SourceNode> nestedNodes, Class<?> destinationClass) {
+        String key = nestedType.getName() + ' ' + identifierPrefix + ' ' + destinationClass.getName();
+        String methodName = methodNames.get(key);
+        if(methodName != null)
+            return methodName;
+
+        //The name is reserved before the body is built, because the body can need methods of its own
+        methodName = METHOD_NAME_PREFIX + methodNames.size();
+        methodNames.put(key, methodName);
+
+        List<CodeInsnBuilderLike> steps = nestedNodes.stream()
+            .map(node -> node.buildSource(destinationClass, SOURCE, DESTINATION, this))
+            .collect(Collectors.toList());
+        methods.add(method(publicStatic(), name(methodName), parameters(p(SOURCE, nestedType), p(DESTINATION, destinationClass)), type(destinationClass),
+            /*
+             * public static Dest applyNestedN(Nested source, Dest destination) {
+             *     ... next steps provided by the nested source nodes, or calls to the part methods ...
+             *     return destination;
+             * }
+             */
+            block(splitIntoParts(methodName, steps, nestedType, destinationClass)),
+            returnValue(getVar(DESTINATION))
+        ));
+        return methodName;
+    }
+
+    @Override
+    public String methodFor(Class<?> sourceClass, Class<?> destinationClass) {
+        String key = sourceClass.getName() + ' ' + destinationClass.getName();
+        String methodName = beanMethodNames.get(key);
+        if(methodName != null)
+            return methodName;
+
+        //The name is reserved before the body is built, because the pair can hold values of its own types
+        methodName = BEAN_METHOD_NAME_PREFIX + beanMethodNames.size();
+        beanMethodNames.put(key, methodName);
+
+        List<CodeInsnBuilderLike> steps = SourceNode.createSources(sourceClass).stream()
+            .map(node -> node.buildSource(destinationClass, SOURCE, DESTINATION, this))
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+        methods.add(method(publicStatic(), name(methodName), parameters(p(SOURCE, sourceClass)), type(destinationClass),
+            /*
+             * public static Dest convertBeanN(Src source) {
+             *     if(source == null)
+             *         return null;
+             *
+             *     Dest destination = new Dest();
+             *     ... next steps provided by the source nodes of the source type, or calls to the part methods ...
+             *     return destination;
+             * }
+             */
+            if_(getVar(SOURCE).isNull()).then(
+                returnValue(stackNull())
+            ),
+            setVar(DESTINATION, instantiate(destinationClass, noParameters())),
+            block(splitIntoParts(methodName, steps, sourceClass, destinationClass)),
+            returnValue(getVar(DESTINATION))
+        ));
+        return methodName;
+    }
+
+    /**
+     * Gets the name of the method which gets a nested destination object, creating and setting it if it is null,
+     * generating the method if it has not been generated yet.
+     * @param destinationClass The type of the destination object which holds the nested object. Both the getter and
+     *                         the setter must be members of this type.
+     * @param getter The getter of the nested object.
+     * @param setter The setter of the nested object.
+     * @return The name of the static method, which takes the destination object and returns the nested object.
+     */
+    String destinationMethodFor(Class<?> destinationClass, Method getter, Method setter) {
+        String key = destinationClass.getName() + ' ' + getter.getName() + ' ' + setter.getName();
+        String methodName = destinationMethodNames.get(key);
+        if(methodName != null)
+            return methodName;
+
+        methodName = DESTINATION_METHOD_NAME_PREFIX + destinationMethodNames.size();
+        destinationMethodNames.put(key, methodName);
+
+        final String nested = "nested";
+        Class<?> nestedType = getter.getReturnType();
+        methods.add(method(publicStatic(), name(methodName), parameters(p(DESTINATION, destinationClass)), type(nestedType),
+            /*
+             * public static Nested nestedDestinationN(Dest destination) {
+             *     Nested nested = destination.getNestedValue();
+             *     if(nested == null) {
+             *         nested = new Nested();
+             *         destination.setNestedValue(nested);
+             *     }
+             *     return nested;
+             * }
+             */
+            setVar(nested, getVar(DESTINATION).invoke(getter.getDeclaringClass(), getter)),
+            if_(getVar(nested).isNull()).then(
+                setVar(nested, instantiate(nestedType)),
+                getVar(DESTINATION).invoke(setter.getDeclaringClass(), setter, getVar(nested))
+            ),
+            returnValue(getVar(nested))
+        ));
+        return methodName;
+    }
+
+    private CodeInsnBuilderLike[] splitIntoParts(String methodName, List<CodeInsnBuilderLike> steps, Class<?> sourceClass, Class<?> destinationClass) {
+        stepCounts.put(methodName, steps.size());
+        return ApplicatorBuilder.splitIntoPartMethods(steps, sourceNodesPerMethod, methodName + PART_METHOD_NAME_SUFFIX,
+            SOURCE, sourceClass, DESTINATION, destinationClass, methods
+        ).toArray(CodeInsnBuilderLike[]::new);
+    }
+
+    /**
+     * Gets the methods generated so far, in the order they were generated.
+     */
+    List<MethodNode> getMethods() {
+        return methods;
+    }
+
+    /**
+     * Gets the number of source nodes mapped by each method generated so far, before any splitting.
+     */
+    Map<String, Integer> getStepCounts() {
+        return stepCounts;
+    }
+}
@@ -0,0 +1,83 @@
+package io.github.cshunsinger.japplicator.builder;
+
+import io.github.cshunsinger.japplicator.Applicator;
+import io.github.cshunsinger.japplicator.annotation.GenerateApplicator;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Finds applicators which were generated at compile time for pairs declared with {@link GenerateApplicator}.
+ *
+ * A precompiled applicator class is named after its source and destination types (see
+ * {@link #precompiledClassName(String, String)}) and lives in the package of its source type, so it can be found
+ * without scanning anything.
+ */
+@Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class PrecompiledApplicators {
+    private static final String CLASS_NAME_SEPARATOR = "$$";
+    private static final String CLASS_NAME_SUFFIX = "$$Applicator";
+
+    /**
+     * Gets the binary name of the precompiled applicator class of a pair.
+     * @param sourceTypeName The binary name of the source type, such as "com.example.Outer$Source".
+     * @param destinationTypeName The binary name of the destination type.
+     * @return The binary name of the precompiled applicator class.
+     */
+    public static String precompiledClassName(String sourceTypeName, String destinationTypeName) {
+        return sourceTypeName + CLASS_NAME_SEPARATOR + destinationTypeName.replace('.', '_') + CLASS_NAME_SUFFIX;
+    }
+
+    /**
+     * Finds the precompiled applicator class of a pair. The class is looked up through the class loaders of the source
+     * and destination types.
+     * @param srcType The source type.
+     * @param destType The destination type.
+     * @return The precompiled applicator class, or null if the pair was not precompiled.
+     */
+    public static Class<?> findPrecompiledClass(Class<?> srcType, Class<?> destType) {
+        if(srcType.isPrimitive() || srcType.isArray())
+            return null;
+
+        String className = precompiledClassName(srcType.getName(), destType.getName());
+        for(ClassLoader loader: new ClassLoader[] {srcType.getClassLoader(), destType.getClassLoader()}) {
+            try {
+                Class<?> precompiledClass = Class.forName(className, false, loader);
+                if(Applicator.class.isAssignableFrom(precompiledClass))
+                    return precompiledClass;
+            }
+            catch(ClassNotFoundException ex) {
+                //Not precompiled, or not visible to this loader
+            }
+            catch(LinkageError ex) {
+                log.warn("Could not load precompiled applicator class " + className + ".", ex);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Creates an instance of the precompiled applicator of a pair.
+     * @param srcType The source type.
+     * @param destType The destination type.
+     * @param <Src> Source type.
+     * @param <Dest> Destination type.
+     * @return A new applicator instance, or null if the pair was not precompiled or its applicator could not be
+     * instantiated. In that case, an applicator should be generated for the pair instead.
+     */
+    @SuppressWarnings("unchecked")
+    public static <Src, Dest> Applicator<Src, Dest> createPrecompiledApplicator(Class<Src> srcType, Class<Dest> destType) {
+        Class<?> precompiledClass = findPrecompiledClass(srcType, destType);
+        if(precompiledClass == null)
+            return null;
+
+        try {
+            return (Applicator<Src, Dest>)precompiledClass.getConstructor().newInstance();
+        }
+        catch(ReflectiveOperationException | LinkageError ex) {
+            log.warn("Could not instantiate precompiled applicator class " + precompiledClass.getName() + ".", ex);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.cshunsinger.japplicator.builder;
+
+import io.github.cshunsinger.japplicator.Applicator;
+import io.github.cshunsinger.japplicator.util.ReflectionsUtils;
+import org.apache.commons.lang3.reflect.ConstructorUtils;
+
+import java.lang.reflect.Constructor;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * An applicator which copies values with reflection instead of generated bytecode. It is built from the same
+ * {@link SourceNode} and {@link DestinationNode} plan as {@link ApplicatorBuilder}, and applies values exactly like the
+ * applicator generated for the same pair would. It is slower to call than a generated applicator, however it is
+ * available right away without defining any classes.
+ * @param <Src> The source type.
+ * @param <Dest> The destination type.
+ */
+public class ReflectiveApplicator<Src, Dest> extends Applicator<Src, Dest> {
+    private final Class<Src> sourceClass;
+    private final Class<Dest> destinationClass;
+    private final Constructor<Dest> destinationConstructor;
+    private final List<BiConsumer<Object, Object>> sourceSteps;
+
+    public ReflectiveApplicator(Class<Src> sourceClass, Class<Dest> destinationClass) {
+        this.sourceClass = sourceClass;
+        this.destinationClass = destinationClass;
+        this.destinationConstructor = AsmUtils.canBeConstructed(destinationClass) ?
+            ConstructorUtils.getAccessibleConstructor(destinationClass) :
+            null;
+        this.sourceSteps = SourceNode.createSources(sourceClass).stream()
+            .map(node -> node.buildReflectiveSource(destinationClass))
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public Dest apply(Src from, Dest to) {
+        //Just some casting, to fail the same way as a generated applicator
+        sourceClass.cast(from);
+        destinationClass.cast(to);
+
+        if(to == null) {
+            if(destinationConstructor == null)
+                return null;
+            to = ReflectionsUtils.newInstance(destinationConstructor);
+        }
+
+        if(from == null)
+            return to;
+
+        for(BiConsumer<Object, Object> step: sourceSteps)
+            step.accept(from, to);
+
+        return to;
+    }
+}
@@ -0,0 +1,26 @@
+package io.github.cshunsinger.japplicator.builder;
+
+/**
+ * The class loader which a single generated applicator class is defined under. A class can only be unloaded together
+ * with the loader that defined it, so giving every applicator class its own loader lets an applicator class be unloaded
+ * as soon as its applicator is no longer used, even while other applicators sharing the same parent loader are still
+ * in use. Every other class is loaded through the parent loader.
+ */
+class SingleApplicatorClassLoader extends ClassLoader {
+    static {
+        registerAsParallelCapable();
+    }
+
+    SingleApplicatorClassLoader(ClassLoader parent) {
+        super(parent);
+    }
+
+    /**
+     * Defines the generated applicator class.
+     * @param bytecode The bytes of the class file.
+     * @return The defined class.
+     */
+    Class<?> defineApplicatorClass(byte[] bytecode) {
+        return defineClass(null, bytecode, 0, bytecode.length);
+    }
+}
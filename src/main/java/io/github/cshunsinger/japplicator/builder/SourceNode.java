@@ -1,45 +1,106 @@
 package io.github.cshunsinger.japplicator.builder;
 
+import io.github.cshunsinger.asmsauce.ThisClass;
 import io.github.cshunsinger.asmsauce.code.CodeInsnBuilderLike;
-import io.github.cshunsinger.japplicator.annotation.FieldIdentifier;
-import io.github.cshunsinger.japplicator.annotation.Nested;
 import io.github.cshunsinger.japplicator.util.ReflectionsUtils;
+import lombok.AccessLevel;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 
 import java.lang.reflect.Method;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static io.github.cshunsinger.asmsauce.DefinitionBuilders.*;
 import static io.github.cshunsinger.asmsauce.code.CodeBuilders.*;
-import static io.github.cshunsinger.japplicator.builder.AsmUtils.memberIdentifierName;
-import static io.github.cshunsinger.japplicator.util.ReflectionsUtils.findGetterMethodForField;
 import static org.apache.commons.lang3.StringUtils.capitalize;
 
-@Slf4j
-@RequiredArgsConstructor
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
 public class SourceNode {
+    private static final MappingTrees.SourceNodes<Class<?>, Method, SourceNode> NODES = new MappingTrees.SourceNodes<>() {
+        @Override
+        public SourceNode value(String identifierName, Method getter) {
+            return new SourceNode(identifierName, getter);
+        }
+
+        @Override
+        public SourceNode nested(Method getter, Class<?> nestedType, String nestedPrefix, List<SourceNode> nestedNodes) {
+            return new SourceNode(null, getter, nestedNodes, nestedPrefix);
+        }
+
+        @Override
+        public SourceNode recursive(Method getter, Class<?> nestedType, String nestedPrefix) {
+            return new SourceNode(null, getter, null, nestedPrefix);
+        }
+    };
+
     private final String fieldName;
     private final Method getter;
-    private final List<SourceNode> nestedNodes;
+    private final List<SourceNode> nestedNodes; //Null for a recursive nested node, see MappingTrees.SourceNodes#recursive
+    private final String nestedPrefix; //The identifier prefix of the nested values, only non-null for a nested node
 
     private SourceNode(String fieldName, Method getter) {
-        this(fieldName, getter, null);
+        this(fieldName, getter, null, null);
     }
 
     /**
-     * Builds the bytecode to access values from a source object.
+     * Builds the bytecode to access values from a source object. The values of nested source objects are mapped inline,
+     * and model values cannot be converted into model objects of another type. A recursive @Nested member, which reads
+     * the type of an enclosing @Nested member again, is not mapped, because it would be inlined indefinitely.
      *
      * @param fromVar The index of the local variable that holds the current source object (at whatever the current level of nesting)
      * @param toParam The index of the destination parameter of the method being generated.
      */
     public CodeInsnBuilderLike buildSource(Class<?> destinationClass, String fromVar, String toParam) {
+        return buildSource(destinationClass, fromVar, toParam, null);
+    }
+
+    /**
+     * Builds the bytecode to access values from a source object. The values of nested source objects are mapped, and
+     * model values are converted, by calling the shared static methods of the applicator, see {@link NestedMappingMethods}.
+     *
+     * @param fromVar The index of the local variable that holds the current source object (at whatever the current level of nesting)
+     * @param toParam The index of the destination parameter of the method being generated.
+     * @param nestedMethods The methods of the applicator which map nested source objects and convert model values, or
+     *                      null to map nested source objects inline.
+     */
+    CodeInsnBuilderLike buildSource(Class<?> destinationClass, String fromVar, String toParam, NestedMappingMethods nestedMethods) {
         String nextFromVar = fromVar + capitalize(fieldName);
 
-        if(fieldName == null) {
+        if(fieldName == null && nestedMethods != null) {
+            //This is a nested step which calls a shared method
+            /*
+             * //Assume that fromVar has already been null-checked
+             * var fromVar2 = fromVar.getNestedValue();
+             * if(fromVar2 != null)
+             *     applyNestedN(fromVar2, toParam);
+             */
+            Class<?> nestedType = getter.getReturnType();
+            String methodName = nestedMethods.methodFor(nestedType, nestedPrefix, nestedNodes(), destinationClass);
+            return block(
+                //var fromVar2 = fromVar.getNestedValue();
+                setVar(nextFromVar, getVar(fromVar).invoke(getter.getDeclaringClass(), getter)),
+                //if(fromVar2 != null)
+                if_(getVar(nextFromVar).isNotNull()).then(
+                    //applyNestedN(fromVar2, toParam);
+                    invokeStatic(ThisClass.class, name(methodName), parameters(nestedType, destinationClass), type(destinationClass),
+                        getVar(nextFromVar),
+                        getVar(toParam)
+                    )
+                )
+            );
+        }
+        else if(fieldName == null && nestedNodes == null) {
+            //This is a recursive nested step, which can only call a shared method
+            return block();
+        }
+        else if(fieldName == null) {
             //This is a nested step
             /*
              * //Assume that fromVar has already been null-checked
@@ -59,7 +120,7 @@ public class SourceNode {
                 if_(getVar(nextFromVar).isNotNull()).then(
                     //... next code steps ...
                     nestedNodes.stream()
-                        .map(node -> node.buildSource(destinationClass, nextFromVar, toParam))
+                        .map(node -> node.buildSource(destinationClass, nextFromVar, toParam, null))
                         .toArray(CodeInsnBuilderLike[]::new)
                 )
             );
@@ -70,7 +131,7 @@ public class SourceNode {
             //... destination code steps ...
             List<CodeInsnBuilderLike> destinationCodeBuilders = DestinationNode.createDestinationsForField(fieldName, destinationClass)
                 .stream()
-                .map(node -> node.buildDestination(getter.getGenericReturnType(), toParam, nextFromVar))
+                .map(node -> node.buildDestination(getter.getGenericReturnType(), toParam, nextFromVar, nestedMethods))
                 .filter(Objects::nonNull)
                 .collect(Collectors.toList());
 
@@ -109,69 +170,143 @@ public class SourceNode {
         }
     }
 
+    /**
+     * Builds a step which copies values from a source object onto a destination object using reflection. The step does
+     * the same thing as the bytecode built by {@link #buildSource(Class, String, String)}, and is called with the current
+     * source object (at whatever the current level of nesting) and the destination object.
+     * @param destinationClass The destination type.
+     * @return The step, or null if this node has no destinations in the destination type.
+     */
+    public BiConsumer<Object, Object> buildReflectiveSource(Class<?> destinationClass) {
+        if(fieldName == null && nestedNodes == null) {
+            //This is a recursive nested step. Its steps contain this step again, so they are built when it is first used.
+            return new BiConsumer<>() {
+                private BiConsumer<Object, Object> nestedStep;
+
+                @Override
+                public void accept(Object from, Object to) {
+                    if(nestedStep == null) {
+                        BiConsumer<Object, Object> step = new SourceNode(null, getter, nestedNodes(), nestedPrefix).buildReflectiveSource(destinationClass);
+                        nestedStep = step == null ? (nestedFrom, nestedTo) -> {} : step;
+                    }
+                    nestedStep.accept(from, to);
+                }
+            };
+        }
+        else if(fieldName == null) {
+            //This is a nested step
+            List<BiConsumer<Object, Object>> nestedSteps = nestedNodes.stream()
+                .map(node -> node.buildReflectiveSource(destinationClass))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+            if(nestedSteps.isEmpty())
+                return null;
+
+            return (from, to) -> {
+                Object nestedFrom = ReflectionsUtils.invoke(getter, from);
+                if(nestedFrom != null) {
+                    for(BiConsumer<Object, Object> step: nestedSteps)
+                        step.accept(nestedFrom, to);
+                }
+            };
+        }
+        else {
+            //This is not a nested step
+            List<BiConsumer<Object, Object>> destinationSteps = DestinationNode.createDestinationsForField(fieldName, destinationClass)
+                .stream()
+                .map(node -> node.buildReflectiveDestination(getter.getGenericReturnType()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+            if(destinationSteps.isEmpty())
+                return null;
+
+            //Primitive values are boxed by reflection, so they are never null
+            return (from, to) -> {
+                Object value = ReflectionsUtils.invoke(getter, from);
+                if(value != null) {
+                    for(BiConsumer<Object, Object> step: destinationSteps)
+                        step.accept(to, value);
+                }
+            };
+        }
+    }
+
+    /**
+     * Adds the values this node maps onto the destination type to a mapping plan. A source value which no destination
+     * member receives is added as a skipped member.
+     * @param destinationClass The destination type.
+     * @param fromPath The getters which the current source object was read through.
+     * @param planner The plan being collected.
+     */
+    void plan(Class<?> destinationClass, String fromPath, MappingPlan.Planner planner) {
+        String path = fromPath + getter.getName() + "()";
+        if(fieldName == null) {
+            //The values of a recursive node are planned once, by the enclosing node which reads the same type
+            planner.visitSource(getter.getReturnType());
+            if(nestedNodes == null)
+                return;
+            for(SourceNode node: nestedNodes)
+                node.plan(destinationClass, path + ".", planner);
+            return;
+        }
+
+        int receivers = 0;
+        for(DestinationNode node: DestinationNode.createDestinationsForField(fieldName, destinationClass))
+            receivers += node.plan(fieldName, path, getter.getGenericReturnType(), "", planner);
+
+        if(receivers == 0) {
+            planner.skipped(new MappingPlan.SkippedMember(getter.getDeclaringClass(), getter.getName(),
+                "No member of " + destinationClass.getName() + " is identified as " + fieldName + "."));
+        }
+    }
+
+    /**
+     * Gets the identifier names of every source value this node reads, including the values read by nested nodes.
+     * @return The identifier names of this node.
+     */
+    public Stream<String> identifierNames() {
+        if(fieldName == null && nestedNodes == null)
+            return Stream.empty(); //The enclosing node which reads the same type has the same identifier names
+        if(fieldName == null)
+            return nestedNodes.stream().flatMap(SourceNode::identifierNames);
+        return Stream.of(fieldName);
+    }
+
     public static List<SourceNode> createSources(@NonNull Class<?> type) {
         return createSources(type, "");
     }
 
-    public static List<SourceNode> createSources(@NonNull Class<?> type, @NonNull String fieldIdentifiedPrefix) {
-        FieldIdentifier defaults = type.getAnnotation(FieldIdentifier.class);
-        Stream<SourceNode> fieldNodes = Stream.of(type.getDeclaredFields())
-            .map(field -> {
-                String identifierName = memberIdentifierName(field, defaults);
-                if(identifierName == null)
-                    return null;
-                else
-                    identifierName = fieldIdentifiedPrefix + identifierName;
-
-                Method getterMethod = findGetterMethodForField(type, field);
-                if(getterMethod == null) {
-                    log.info("Skipping field {} identified as {} because no accessor method was found.", field.getName(), identifierName);
-                    return null;
-                }
+    /**
+     * Gets the nodes of the nested values, which are created again for a recursive node, the same as they were created
+     * for the enclosing node which reads the same type.
+     */
+    private List<SourceNode> nestedNodes() {
+        return nestedNodes != null ? nestedNodes : createSources(getter.getReturnType(), nestedPrefix);
+    }
 
-                log.info("Found field {} identified as {}.", field.getName(), identifierName);
-                return new SourceNode(identifierName, getterMethod);
-            });
-        Stream<SourceNode> methodNodes = Stream.of(type.getDeclaredMethods())
-            .filter(method -> ReflectionsUtils.getInvalidGetterMethodReason(method) == null)
-            .map(method -> {
-                String identifierName = memberIdentifierName(method, null);
-                if(identifierName == null)
-                    return null;
-                else
-                    identifierName = fieldIdentifiedPrefix + identifierName;
-
-                log.info("Found getter method {} identified as {}.", method.getName(), identifierName);
-                return new SourceNode(identifierName, method);
-            });
-
-        Stream<SourceNode> nestedFields = Stream.of(type.getDeclaredFields())
-            .filter(field -> field.isAnnotationPresent(Nested.class))
-            .map(field -> {
-                Method getterMethod = findGetterMethodForField(type, field);
-                if(getterMethod == null) {
-                    log.info("Skipping nested field {} because no accessor method was found.", field.getName());
-                    return null;
-                }
+    /**
+     * Creates the source nodes of a type. A @Nested member whose type is already being read from by an enclosing
+     * @Nested member, or which has the type itself, would be nested indefinitely. It is read from by a recursive node if
+     * its values have the same identifier names as the values of the enclosing member, and is not read from otherwise,
+     * see {@link MappingTrees#sources}.
+     * @param type The source type.
+     * @param fieldIdentifiedPrefix The prefix of the identifier names of the values of the type.
+     * @return The source nodes.
+     */
+    public static List<SourceNode> createSources(@NonNull Class<?> type, @NonNull String fieldIdentifiedPrefix) {
+        return createSources(type, fieldIdentifiedPrefix, new HashMap<>(), null);
+    }
 
-                log.info("Found @Nested field {}.", field.getName());
-                Class<?> nestedType = field.getType();
-                String nestedPrefix = field.getAnnotation(Nested.class).prefix();
-                List<SourceNode> nestedSources = createSources(nestedType, fieldIdentifiedPrefix + nestedPrefix);
-                return nestedSources.isEmpty() ? null : new SourceNode(null, getterMethod, nestedSources);
-            });
-        Stream<SourceNode> nestedMethods = Stream.of(type.getDeclaredMethods())
-            .filter(method -> method.isAnnotationPresent(Nested.class))
-            .filter(method -> ReflectionsUtils.getInvalidGetterMethodReason(method) == null)
-            .map(method -> {
-                Class<?> nestedType = method.getReturnType();
-                String nestedPrefix = method.getAnnotation(Nested.class).prefix();
-                List<SourceNode> nestedSources = createSources(nestedType, fieldIdentifiedPrefix + nestedPrefix);
-                return nestedSources.isEmpty() ? null : new SourceNode(null, method, nestedSources);
-            });
-
-        return Stream.of(fieldNodes, methodNodes, nestedFields, nestedMethods)
-            .flatMap(nodes -> nodes.filter(Objects::nonNull))
-            .collect(Collectors.toList());
+    /**
+     * Creates the source nodes of a type, see {@link #createSources(Class, String)} and {@link MappingTrees}.
+     * @param enclosingPrefixes The types being read from by enclosing @Nested members, with their identifier prefixes.
+     * @param cycleSkips Receives the @Nested members which are not read from because of a cycle, may be null.
+     */
+    static List<SourceNode> createSources(Class<?> type, String fieldIdentifiedPrefix, Map<Class<?>, String> enclosingPrefixes,
+                                          Consumer<MappingPlan.SkippedMember> cycleSkips) {
+        return MappingTrees.<Class<?>, Method, SourceNode>sources(IntrospectedModel::of, type, fieldIdentifiedPrefix, enclosingPrefixes,
+            cycleSkips == null ? null : skip -> cycleSkips.accept(MappingPlan.SkippedMember.of(skip)), NODES);
     }
-}
\ No newline at end of file
+}
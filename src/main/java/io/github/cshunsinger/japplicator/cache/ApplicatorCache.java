@@ -1,30 +1,80 @@
 package io.github.cshunsinger.japplicator.cache;
 
 import io.github.cshunsinger.japplicator.Applicator;
+import io.github.cshunsinger.japplicator.builder.ApplicatorBytecodeCache;
+import io.github.cshunsinger.japplicator.builder.ApplicatorClassInfo;
+import io.github.cshunsinger.japplicator.builder.ClassDefinitionMode;
+import io.github.cshunsinger.japplicator.builder.JitThreshold;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * This class simply contains a cache of applicator instances to help reduce the number of applicator classes generated
  * as well as to allow applicators to be fetched in static calls.
  *
- * This cache is a thread-safe multi-level cache. At the first level, every thread gets it's own applicator cache
- * which is stored in a ThreadLocal object to avoid any "synchronized" code. At the second level, a parent cache exists
- * which is only called if the thread-specific cache misses. The parent cache has "synchronized" code to obtain a
- * cached applicator or create and cache a new applicator. Any time a thread-specific cache receives an Applicator
- * instance from the parent cache, it caches that result to avoid any synchronized code being executed the next time
- * that Applicator needs to be fetched from cache.
+ * This cache is a thread-safe multi-level cache. At the first level, a single shared table keyed by ClassValue on the
+ * source and destination classes is read without any locking. Because that table is shared by every thread, its memory
+ * does not grow with the number of threads. At the second level, a parent cache exists which is only called if the
+ * shared table misses. The parent cache is a concurrent table which obtains a cached applicator or creates and caches
+ * a new applicator. Applicators for different source/destination pairs are built in parallel, and threads asking for
+ * the same pair share a single build.
+ *
+ * By default this cache holds every applicator it has ever created. It can be bounded with
+ * {@link #setMaximumSize(long)}, in which case the least recently used applicators are evicted.
+ *
+ * By default a new applicator is generated by the first thread which asks for it. Applicators can instead be obtained
+ * without waiting with {@link #getApplicatorAsync(Class, Class)}, or the whole cache can be switched to hand out
+ * stand-in applicators while generating in the background with {@link #setGenerationMode(GenerationMode)}. In
+ * {@link GenerationMode#TIERED} mode, classes are only generated for pairs which are applied often enough. Generated
+ * bytecode can also be kept on disk across runs with {@link #setBytecodeCacheDirectory(Path)}. The pairs used by one run
+ * can be recorded with {@link #startRecordingProfile()} and generated up front by the next run with
+ * {@link #replayProfile(Path, ClassLoader, Executor)}.
+ *
+ * This cache records hits, misses, and the cost of every applicator it generates, both in total and per
+ * source/destination pair. A cache can publish these statistics through the platform MBean server once it is registered
+ * with {@link #registerMBean()}. The size of every generated class is listed by {@link #getApplicatorClasses()}, and
+ * methods which the JIT compiler will not compile or inline are reported to a {@link JitThresholdListener}.
  */
-public class ApplicatorCache {
+@Slf4j
+public class ApplicatorCache implements ApplicatorCacheMXBean {
+    /**
+     * The domain and type that applicator caches are registered under in the platform MBean server, see
+     * {@link #registerMBean()}. The name of a registered cache adds a <code>loader</code> key with the identity of the
+     * class loader which loaded J-Applicator, so copies of J-Applicator in different class loaders never clash.
+     */
+    public static final String OBJECT_NAME = "io.github.cshunsinger.japplicator:type=ApplicatorCache";
+
     /**
      * The available instance of this applicator cache.
      */
     public static final ApplicatorCache instance = new ApplicatorCache();
 
+    final ApplicatorStatistics statistics;
     final ParentApplicatorCacheTable parentCache;
-    final ThreadLocal<ApplicatorCacheTable> threadCache;
+    final ClassValueApplicatorCacheTable sharedCache;
+    //The name this cache is registered under in the platform MBean server, or null, guarded by this cache
+    private ObjectName registeredName;
 
-    private ApplicatorCache() {
-        this.parentCache = new ParentApplicatorCacheTable();
-        this.threadCache = ThreadLocal.withInitial(() -> new ApplicatorCacheTable(this.parentCache));
+    ApplicatorCache() {
+        this.statistics = new ApplicatorStatistics();
+        this.parentCache = new ParentApplicatorCacheTable(this.statistics);
+        this.sharedCache = new ClassValueApplicatorCacheTable(this.parentCache, this.statistics);
     }
 
     /**
@@ -38,6 +88,455 @@ public class ApplicatorCache {
      * @return An applicator instance.
      */
     public <Src, Dest> Applicator<Src, Dest> getApplicator(Class<Src> srcType, Class<Dest> destType) {
-        return threadCache.get().getApplicator(srcType, destType);
+        return sharedCache.getApplicator(srcType, destType);
+    }
+
+    /**
+     * Obtains an applicator instance without waiting for it to be generated. If no applicator instance exists in the
+     * cache, a new one is generated on the generation executor (see {@link #setGenerationExecutor(Executor)}).
+     * @param srcType Class of source type.
+     * @param destType Class of destination type.
+     * @param <Src> Source type.
+     * @param <Dest> Destination type.
+     * @return A future which completes with the applicator instance, or exceptionally if it could not be generated.
+     */
+    public <Src, Dest> CompletableFuture<Applicator<Src, Dest>> getApplicatorAsync(Class<Src> srcType, Class<Dest> destType) {
+        return getApplicatorAsync(srcType, destType, parentCache.getGenerationExecutor());
+    }
+
+    /**
+     * Obtains an applicator instance without waiting for it to be generated. If no applicator instance exists in the
+     * cache, a new one is generated on the given executor. If the same applicator is already being generated, that
+     * generation is shared rather than started again.
+     * @param srcType Class of source type.
+     * @param destType Class of destination type.
+     * @param executor The executor to generate the applicator on.
+     * @param <Src> Source type.
+     * @param <Dest> Destination type.
+     * @return A future which completes with the applicator instance, or exceptionally if it could not be generated.
+     */
+    public <Src, Dest> CompletableFuture<Applicator<Src, Dest>> getApplicatorAsync(Class<Src> srcType, Class<Dest> destType, Executor executor) {
+        parentCache.recordProfile(srcType, destType);
+        return parentCache.getApplicatorAsync(srcType, destType, executor);
+    }
+
+    /**
+     * Gets when this cache generates the bytecode of new applicators.
+     * @return The generation mode of this cache. This is {@link GenerationMode#SYNCHRONOUS} by default.
+     */
+    public GenerationMode getGenerationMode() {
+        return parentCache.getGenerationMode();
+    }
+
+    /**
+     * Sets when this cache generates the bytecode of new applicators. In {@link GenerationMode#STAND_IN} mode,
+     * {@link #getApplicator(Class, Class)} never waits for a class to be generated, which keeps class generation off
+     * of latency-sensitive threads.
+     * @param generationMode The generation mode.
+     */
+    public void setGenerationMode(GenerationMode generationMode) {
+        parentCache.setGenerationMode(generationMode);
+    }
+
+    /**
+     * Gets how this cache defines the classes of the applicators it generates.
+     * @return The class definition mode, which is {@link ClassDefinitionMode#CLASS_LOADER} by default.
+     */
+    public ClassDefinitionMode getDefinitionMode() {
+        return parentCache.getDefinitionMode();
+    }
+
+    /**
+     * Sets how this cache defines the classes of the applicators it generates. This only affects applicators generated
+     * after the mode is changed.
+     * @param definitionMode The class definition mode.
+     */
+    public void setDefinitionMode(ClassDefinitionMode definitionMode) {
+        parentCache.setDefinitionMode(definitionMode);
+    }
+
+    /**
+     * Gets the directory which the bytecode of generated applicators is cached in across runs.
+     * @return The bytecode cache directory, or null if bytecode is not cached on disk. Bytecode is not cached on disk
+     * by default.
+     */
+    public Path getBytecodeCacheDirectory() {
+        return parentCache.getBytecodeCacheDirectory();
+    }
+
+    /**
+     * Sets a directory to cache the bytecode of generated applicators in across runs. Applicators whose bytecode was
+     * cached by an earlier run, or by another JVM sharing the directory, are loaded from the directory without
+     * generating them again, as long as none of their model classes changed since. See {@link ApplicatorBytecodeCache}.
+     * @param directory The bytecode cache directory, which is created if it does not exist. Null to stop caching
+     *                  bytecode on disk.
+     * @throws java.io.UncheckedIOException If the directory cannot be created.
+     */
+    public void setBytecodeCacheDirectory(Path directory) {
+        parentCache.setBytecodeCache(directory == null ? null : new ApplicatorBytecodeCache(directory));
+    }
+
+    /**
+     * Gets the number of times a tiered applicator is applied before its class is generated.
+     * @return The promotion threshold, which is {@link ParentApplicatorCacheTable#DEFAULT_PROMOTION_THRESHOLD} by
+     * default.
+     * @see GenerationMode#TIERED
+     */
+    public int getPromotionThreshold() {
+        return parentCache.getPromotionThreshold();
+    }
+
+    /**
+     * Sets the number of times a tiered applicator is applied before its class is generated. This only affects tiered
+     * applicators created after the threshold is changed.
+     * @param promotionThreshold The promotion threshold.
+     * @throws IllegalArgumentException If the promotion threshold is less than 1.
+     * @see GenerationMode#TIERED
+     */
+    public void setPromotionThreshold(int promotionThreshold) {
+        parentCache.setPromotionThreshold(promotionThreshold);
+    }
+
+    /**
+     * Sets the executor which applicators are generated on in the background, both by
+     * {@link #getApplicatorAsync(Class, Class)} and in the {@link GenerationMode#STAND_IN} and
+     * {@link GenerationMode#TIERED} modes. This is the common fork-join
+     * pool by default.
+     * @param executor The executor to generate applicators on.
+     */
+    public void setGenerationExecutor(Executor executor) {
+        parentCache.setGenerationExecutor(executor);
+    }
+
+    /**
+     * Generates and caches the applicators of the given source/destination pairs in parallel on the common fork-join
+     * pool. See {@link #warmUp(Collection, Executor)}.
+     * @param pairs The source/destination pairs to generate applicators for.
+     * @return A future which completes once every pair has either been cached or failed to build.
+     */
+    public CompletableFuture<WarmUpResult> warmUp(Collection<ApplicatorPair> pairs) {
+        return warmUp(pairs, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Generates and caches the applicators of the given source/destination pairs in parallel on the given executor,
+     * so that the first real lookup of each pair does not pay for generating its applicator. Pairs which are already
+     * cached are not generated again. Warmed up pairs are always generated, whatever the generation mode of this cache.
+     *
+     * A pair which fails to build does not stop the other pairs from being built. The returned future completes
+     * normally once every pair has either been cached or failed, and the failures are reported in its result.
+     * @param pairs The source/destination pairs to generate applicators for.
+     * @param executor The executor to generate applicators on.
+     * @return A future which completes once every pair has either been cached or failed to build.
+     */
+    public CompletableFuture<WarmUpResult> warmUp(Collection<ApplicatorPair> pairs, Executor executor) {
+        return warmUp(pairs, executor, System.nanoTime());
+    }
+
+    /**
+     * Scans packages for source/destination pairs and generates their applicators in the background, so that they are
+     * cached before they are first used. Pairs are found by {@link ApplicatorPairScanner}, on the given executor, and
+     * then generated in parallel on the same executor just like {@link #warmUp(Collection, Executor)}. The elapsed
+     * time of the result includes scanning.
+     * @param loader The class loader to find and load model types with.
+     * @param packageNames The packages to scan, including their sub-packages.
+     * @param executor The executor to scan packages and generate applicators on.
+     * @return A future which completes once every pair found has either been cached or failed to build. The future
+     * completes exceptionally only if the packages could not be scanned.
+     */
+    public CompletableFuture<WarmUpResult> preGenerate(ClassLoader loader, Collection<String> packageNames, Executor executor) {
+        long startTime = System.nanoTime();
+        return CompletableFuture
+            .supplyAsync(() -> ApplicatorPairScanner.findCompatiblePairs(loader, packageNames), executor)
+            .thenCompose(pairs -> warmUp(pairs, executor, startTime));
+    }
+
+    /**
+     * Starts recording every source/destination pair resolved through this cache into a new profile. Each pair is
+     * recorded by the first lookup of it after recording starts, whether or not its applicator is cached already, and
+     * later lookups of the same pair only check that it was recorded. A profile which was being recorded already is
+     * replaced.
+     *
+     * Pairs resolved by a warm-up, by {@link #preGenerate} or by {@link #replayProfile} are not recorded, since they
+     * say nothing about the traffic of this run. Recording can therefore be started before or after replaying the
+     * profile of an earlier run: the new profile holds exactly the pairs the application looked up while it was being
+     * recorded, and pairs which it stopped using are dropped.
+     * @return The profile being recorded. Write it to a training file with {@link ApplicatorProfile#write(Path)}, for
+     * example once the application has served its typical traffic or when it shuts down.
+     */
+    public ApplicatorProfile startRecordingProfile() {
+        ApplicatorProfile profile = new ApplicatorProfile();
+        parentCache.setProfile(profile);
+        return profile;
+    }
+
+    /**
+     * Stops recording pairs into the profile started by {@link #startRecordingProfile()}.
+     * @return The profile which was being recorded, or null if no profile was being recorded.
+     */
+    public ApplicatorProfile stopRecordingProfile() {
+        ApplicatorProfile profile = parentCache.getProfile();
+        parentCache.setProfile(null);
+        return profile;
+    }
+
+    /**
+     * Generates and caches the applicators of exactly the pairs recorded in a training file, in parallel on the given
+     * executor, just like {@link #warmUp(Collection, Executor)}. This is meant to be called at startup, with the file
+     * recorded by an earlier run, and waited on before the application takes traffic. Pairs whose classes cannot be
+     * loaded anymore are skipped. The elapsed time of the result includes reading the file.
+     * @param file The training file, written by {@link ApplicatorProfile#write(Path)}.
+     * @param loader The class loader to load the recorded model types with.
+     * @param executor The executor to read the file and generate applicators on.
+     * @return A future which completes once every recorded pair has either been cached or failed to build. The future
+     * completes exceptionally with an {@link UncheckedIOException} only if the file could not be read.
+     */
+    public CompletableFuture<WarmUpResult> replayProfile(Path file, ClassLoader loader, Executor executor) {
+        long startTime = System.nanoTime();
+        return CompletableFuture
+            .supplyAsync(() -> {
+                try {
+                    return ApplicatorProfile.read(file, loader);
+                }
+                catch(IOException ex) {
+                    throw new UncheckedIOException("Cannot read applicator profile " + file + ".", ex);
+                }
+            }, executor)
+            .thenCompose(pairs -> warmUp(pairs, executor, startTime));
+    }
+
+    private CompletableFuture<WarmUpResult> warmUp(Collection<ApplicatorPair> pairs, Executor executor, long startTime) {
+        Set<ApplicatorPair> uniquePairs = new LinkedHashSet<>(pairs);
+        Map<ApplicatorPair, Throwable> failedPairs = new ConcurrentHashMap<>();
+
+        CompletableFuture<?>[] builds = uniquePairs.stream()
+            .map(pair -> warmUp(pair, executor).exceptionally(ex -> {
+                failedPairs.put(pair, ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+                return null;
+            }))
+            .toArray(CompletableFuture[]::new);
+
+        return CompletableFuture.allOf(builds).thenApply(done -> {
+            List<ApplicatorPair> cachedPairs = new ArrayList<>(uniquePairs);
+            cachedPairs.removeAll(failedPairs.keySet());
+            Duration elapsedTime = Duration.ofNanos(System.nanoTime() - startTime);
+            log.info("Warmed up {} of {} applicators in {} ms.", cachedPairs.size(), uniquePairs.size(), elapsedTime.toMillis());
+            return new WarmUpResult(cachedPairs, new HashMap<>(failedPairs), elapsedTime);
+        });
+    }
+
+    private CompletableFuture<Void> warmUp(ApplicatorPair pair, Executor executor) {
+        try {
+            return CompletableFuture.runAsync(() -> {
+                //The applicator is generated even if this cache would otherwise hand out a stand-in or tiered applicator
+                parentCache.getApplicatorAsync(pair.getSourceType(), pair.getDestinationType(), Runnable::run).join();
+                sharedCache.warmUp(pair.getSourceType(), pair.getDestinationType());
+            }, executor);
+        }
+        catch(RejectedExecutionException ex) {
+            //An executor which rejects one pair should fail that pair rather than the whole warm-up
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    /**
+     * Gets the maximum number of applicators this cache holds before it starts evicting the least recently used ones.
+     * @return The maximum size of this cache, or {@link ClassValueApplicatorCacheTable#UNBOUNDED} if this cache never
+     * evicts anything. This cache is unbounded by default.
+     */
+    @Override
+    public long getMaximumSize() {
+        return sharedCache.getMaximumSize();
+    }
+
+    /**
+     * Sets the maximum number of applicators this cache holds before it starts evicting the least recently used ones.
+     * An evicted applicator keeps working for anyone still holding it, and its generated class is unloaded once
+     * nothing is using it anymore. If the same applicator is needed again later, a new one is generated.
+     * @param maximumSize The maximum size of this cache, or {@link ClassValueApplicatorCacheTable#UNBOUNDED}.
+     * @throws IllegalArgumentException If the maximum size is less than 1.
+     */
+    @Override
+    public void setMaximumSize(long maximumSize) {
+        sharedCache.setMaximumSize(maximumSize);
+    }
+
+    /**
+     * Gets the number of applicators currently held by this cache.
+     * @return The number of cached applicators.
+     */
+    @Override
+    public long getSize() {
+        return sharedCache.getSize();
+    }
+
+    /**
+     * Gets the maximum total size of the generated classes of the applicators in this cache before it starts evicting
+     * the least recently used ones.
+     * @return The maximum bytecode size of this cache in bytes, or {@link ClassValueApplicatorCacheTable#UNBOUNDED} if
+     * this cache never evicts anything because of it. This cache is unbounded by default.
+     */
+    @Override
+    public long getMaximumBytecodeSize() {
+        return sharedCache.getMaximumBytecodeSize();
+    }
+
+    /**
+     * Sets the maximum total size of the generated classes of the applicators in this cache before it starts evicting
+     * the least recently used ones. This bounds the metaspace used by applicator classes more closely than
+     * {@link #setMaximumSize(long)} when the model classes differ a lot in size. Applicators which were not generated
+     * count as 0 bytes.
+     * @param maximumBytecodeSize The maximum bytecode size of this cache in bytes, or
+     *                            {@link ClassValueApplicatorCacheTable#UNBOUNDED}.
+     * @throws IllegalArgumentException If the maximum bytecode size is less than 1.
+     */
+    @Override
+    public void setMaximumBytecodeSize(long maximumBytecodeSize) {
+        sharedCache.setMaximumBytecodeSize(maximumBytecodeSize);
+    }
+
+    /**
+     * Gets the total size of the generated classes of the applicators currently held by this cache.
+     * @return The bytecode size of the cached applicators in bytes.
+     */
+    @Override
+    public long getBytecodeSize() {
+        return sharedCache.getBytecodeSize();
+    }
+
+    /**
+     * Gets the number of applicators which have been evicted from this cache because it grew past its maximum size or
+     * maximum bytecode size. This can be compared with the number of cached applicators to size the cache.
+     * @return The total number of evictions.
+     */
+    @Override
+    public long getEvictionCount() {
+        return sharedCache.getEvictionCount();
+    }
+
+    @Override
+    public long getSharedHitCount() {
+        return statistics.getSharedHitCount();
+    }
+
+    @Override
+    public long getParentHitCount() {
+        return statistics.getParentHitCount();
+    }
+
+    @Override
+    public long getMissCount() {
+        return statistics.getMissCount();
+    }
+
+    @Override
+    public long getGeneratedClassCount() {
+        return statistics.getGeneratedClassCount();
+    }
+
+    @Override
+    public long getGeneratedBytecodeSize() {
+        return statistics.getGeneratedBytecodeSize();
+    }
+
+    @Override
+    public long getBytecodeCacheLoadCount() {
+        return statistics.getBytecodeCacheLoadCount();
+    }
+
+    @Override
+    public List<BuildTimeBucket> getBuildTimeHistogram() {
+        return statistics.getBuildTimeHistogram();
+    }
+
+    @Override
+    public List<PairStatistics> getPairStatistics() {
+        return statistics.getPairStatistics();
+    }
+
+    /**
+     * Lists the applicator classes this cache has generated or loaded from the bytecode cache directory, with the size
+     * of each of their methods and their constant pool, and the class loader which defined them. This shows which
+     * pairs have methods that cross a JIT threshold, see {@link JitThreshold}. Only the latest class of each
+     * source/destination pair is listed, and precompiled applicators are not listed.
+     * @return The class info of each pair, ordered by pair.
+     */
+    @Override
+    public List<ApplicatorClassInfo> getApplicatorClasses() {
+        return statistics.getApplicatorClasses();
+    }
+
+    /**
+     * Gets the listener which is told about the methods of generated applicator classes that cross a JIT threshold.
+     * @return The listener, or null if there is none.
+     */
+    public JitThresholdListener getJitThresholdListener() {
+        return parentCache.getJitThresholdListener();
+    }
+
+    /**
+     * Sets the listener which is told about the methods of generated applicator classes that cross a JIT threshold.
+     * By default a warning is logged for each method above the {@link JitThreshold#HUGE_METHOD_LIMIT}, which is never
+     * JIT compiled.
+     * @param listener The listener, or null to not check generated classes against the JIT thresholds.
+     */
+    public void setJitThresholdListener(JitThresholdListener listener) {
+        parentCache.setJitThresholdListener(listener);
+    }
+
+    /**
+     * Registers this cache with the platform MBean server, so that its statistics can be read and its limits changed
+     * over JMX. No cache is registered unless this is called. The MBean server holds on to a registered cache, and with
+     * it the class loader of J-Applicator, so an application which is undeployed without the JVM exiting should call
+     * {@link #unregisterMBean()} when it shuts down. Failing to register, for example because another cache loaded by
+     * the same class loader is already registered, never prevents this cache from being used.
+     * @return The name this cache is registered under, or null if it could not be registered.
+     */
+    public synchronized ObjectName registerMBean() {
+        if(registeredName != null)
+            return registeredName;
+
+        ObjectName name = mbeanName();
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+            registeredName = name;
+        }
+        catch(JMException | SecurityException ex) {
+            log.warn("Could not register the applicator cache MBean as {}.", name, ex);
+        }
+        return registeredName;
+    }
+
+    /**
+     * Unregisters this cache from the platform MBean server if it was registered with {@link #registerMBean()}.
+     */
+    public synchronized void unregisterMBean() {
+        if(registeredName == null)
+            return;
+
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(registeredName);
+        }
+        catch(InstanceNotFoundException ex) {
+            //Someone else already unregistered it, which leaves nothing to do
+        }
+        catch(JMException | SecurityException ex) {
+            log.warn("Could not unregister the applicator cache MBean {}.", registeredName, ex);
+        }
+        registeredName = null;
+    }
+
+    /**
+     * Names the MBean of an applicator cache after the class loader which loaded J-Applicator.
+     */
+    private static ObjectName mbeanName() {
+        ClassLoader loader = ApplicatorCache.class.getClassLoader();
+        String loaderIdentity = loader == null ? "bootstrap" : loader.getClass().getName() + "@" + Integer.toHexString(System.identityHashCode(loader));
+        try {
+            return new ObjectName(OBJECT_NAME + ",loader=" + ObjectName.quote(loaderIdentity));
+        }
+        catch(MalformedObjectNameException ex) {
+            throw new IllegalStateException(ex);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,93 @@
+package io.github.cshunsinger.japplicator.cache;
+
+import io.github.cshunsinger.japplicator.builder.ApplicatorClassInfo;
+
+import java.util.List;
+
+/**
+ * The management interface of an {@link ApplicatorCache}. A cache is only registered with the platform MBean server
+ * once {@link ApplicatorCache#registerMBean()} is called.
+ */
+public interface ApplicatorCacheMXBean {
+    /**
+     * @return The number of applicators currently held by the cache.
+     */
+    long getSize();
+
+    /**
+     * @return The maximum number of applicators the cache holds before evicting the least recently used ones.
+     */
+    long getMaximumSize();
+
+    /**
+     * @param maximumSize The maximum number of applicators the cache holds before evicting the least recently used ones.
+     */
+    void setMaximumSize(long maximumSize);
+
+    /**
+     * @return The total size in bytes of the generated classes of the applicators currently held by the cache.
+     */
+    long getBytecodeSize();
+
+    /**
+     * @return The maximum total size in bytes of the generated classes of the cached applicators before the least
+     * recently used ones are evicted.
+     */
+    long getMaximumBytecodeSize();
+
+    /**
+     * @param maximumBytecodeSize The maximum total size in bytes of the generated classes of the cached applicators
+     *                            before the least recently used ones are evicted.
+     */
+    void setMaximumBytecodeSize(long maximumBytecodeSize);
+
+    /**
+     * @return The number of applicators evicted because the cache grew past its maximum size or maximum bytecode size.
+     */
+    long getEvictionCount();
+
+    /**
+     * @return The number of lookups answered by the shared table without going to the parent cache.
+     */
+    long getSharedHitCount();
+
+    /**
+     * @return The number of lookups which missed the shared table but found an applicator in the parent cache.
+     */
+    long getParentHitCount();
+
+    /**
+     * @return The number of lookups which found no cached applicator at all.
+     */
+    long getMissCount();
+
+    /**
+     * @return The number of applicator classes generated.
+     */
+    long getGeneratedClassCount();
+
+    /**
+     * @return The total size in bytes of all generated applicator classes.
+     */
+    long getGeneratedBytecodeSize();
+
+    /**
+     * @return The number of applicator classes loaded from the bytecode cache directory rather than generated.
+     */
+    long getBytecodeCacheLoadCount();
+
+    /**
+     * @return A histogram of the wall time spent building each applicator.
+     */
+    List<BuildTimeBucket> getBuildTimeHistogram();
+
+    /**
+     * @return The statistics of every source/destination pair the cache has been asked for, sorted by pair.
+     */
+    List<PairStatistics> getPairStatistics();
+
+    /**
+     * @return The bytecode sizes of the latest applicator class of every pair, sorted by pair.
+     */
+    List<ApplicatorClassInfo> getApplicatorClasses();
+}
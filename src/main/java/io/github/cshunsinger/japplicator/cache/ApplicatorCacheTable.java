@@ -7,9 +7,10 @@ import java.util.Map;
 
 /**
  * This cache table is a table of in-memory mappings of values which is also capable of searching through a parent table.
- * This class is NOT thread-safe. Instances of this class are intended to be kept inside of ThreadLocal objects, while
- * the ParentApplicatorCacheTable is intended to be thread safe.
+ * This class is NOT thread-safe. Instances of this class are intended to be confined to a single thread, while
+ * the ParentApplicatorCacheTable and the ClassValueApplicatorCacheTable are intended to be thread safe.
  * @see ApplicatorCache
+ * @see ClassValueApplicatorCacheTable
  */
 public class ApplicatorCacheTable {
     private final ParentApplicatorCacheTable parent;
@@ -45,6 +46,8 @@ public class ApplicatorCacheTable {
      * be stored in this cache without any new classes or objects being instantiated. If the parent cache does not
      * find an already-existing applicator instance, it will create a new one by making a new Java class and instantiating
      * it and returning that instance instead.
+     * The parent cache is thread-safe and does not need to be synchronized on. Threads missing on different pairs do not
+     * wait on each other.
      * @param srcType The source type.
      * @param destType The destination type.
      * @param <Src> Source.
@@ -52,11 +55,7 @@ public class ApplicatorCacheTable {
      * @return An instance of an Applicator which will apply values from a source object onto a destination object.
      */
     <Src, Dest> Applicator<Src, Dest> createApplicator(Class<Src> srcType, Class<Dest> destType) {
-        Applicator<Src, Dest> applicator;
-        synchronized(parent) {
-            applicator = parent.getApplicator(srcType, destType);
-        }
-        return applicator;
+        return parent.getApplicator(srcType, destType);
     }
 
     @SuppressWarnings("unchecked")
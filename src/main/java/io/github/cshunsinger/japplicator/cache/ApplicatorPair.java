@@ -0,0 +1,25 @@
+package io.github.cshunsinger.japplicator.cache;
+
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * A source type and a destination type which an applicator maps data between.
+ */
+@Value
+public class ApplicatorPair {
+    /**
+     * The type of object that data is applied from.
+     */
+    @NonNull Class<?> sourceType;
+
+    /**
+     * The type of object that data is applied onto.
+     */
+    @NonNull Class<?> destinationType;
+
+    @Override
+    public String toString() {
+        return sourceType.getName() + " -> " + destinationType.getName();
+    }
+}
@@ -0,0 +1,95 @@
+package io.github.cshunsinger.japplicator.cache;
+
+import io.github.cshunsinger.japplicator.annotation.FieldIdentifier;
+import io.github.cshunsinger.japplicator.annotation.Nested;
+import io.github.cshunsinger.japplicator.builder.AsmUtils;
+import io.github.cshunsinger.japplicator.builder.DestinationNode;
+import io.github.cshunsinger.japplicator.builder.SourceNode;
+import io.github.cshunsinger.japplicator.util.ClasspathScanner;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Finds the source/destination pairs that applicators can be generated for by scanning packages for model types.
+ *
+ * A model type is any class which is annotated with {@link FieldIdentifier}, or which declares a field or method
+ * annotated with {@link FieldIdentifier} or {@link Nested}. Two model types form a pair when at least one value
+ * identified in the source type has a destination in the destination type. This is decided with the same rules the
+ * applicator builder uses, {@link SourceNode#createSources(Class)} and
+ * {@link DestinationNode#createDestinationsForField(String, Class)}, so a pair is found exactly when its applicator
+ * would copy at least one value. A model type paired with itself is included as well.
+ */
+@Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ApplicatorPairScanner {
+    /**
+     * Scans packages for model types and finds every pair of them which shares at least one identified value.
+     * @param loader The class loader to find and load model types with.
+     * @param packageNames The packages to scan, including their sub-packages.
+     * @return The source/destination pairs that applicators can be generated for.
+     */
+    public static List<ApplicatorPair> findCompatiblePairs(ClassLoader loader, Collection<String> packageNames) {
+        List<Class<?>> modelTypes = packageNames.stream()
+            .flatMap(packageName -> ClasspathScanner.findClasses(loader, packageName).stream())
+            .distinct()
+            .filter(ApplicatorPairScanner::isModelType)
+            .collect(Collectors.toList());
+
+        //The identified values of each source type are only worked out once, rather than once for each pair
+        Map<Class<?>, Set<String>> sourceIdentifiers = new LinkedHashMap<>();
+        for(Class<?> modelType: modelTypes) {
+            Set<String> identifiers = sourceIdentifierNames(modelType);
+            if(!identifiers.isEmpty())
+                sourceIdentifiers.put(modelType, identifiers);
+        }
+
+        List<ApplicatorPair> pairs = new ArrayList<>();
+        sourceIdentifiers.forEach((srcType, identifiers) -> {
+            for(Class<?> destType: modelTypes) {
+                if(identifiers.stream().anyMatch(identifier -> hasDestinations(identifier, destType)))
+                    pairs.add(new ApplicatorPair(srcType, destType));
+            }
+        });
+        return pairs;
+    }
+
+    private static boolean isModelType(Class<?> type) {
+        if(type.isAnnotation() || type.isSynthetic() || type.isAnonymousClass() || type.isLocalClass())
+            return false;
+
+        try {
+            return AsmUtils.declaresIdentifiedMembers(type);
+        }
+        catch(LinkageError ex) {
+            //The members of a type can refer to classes which are not on the classpath
+            log.info("Skipping class {} because its members could not be loaded: {}", type.getName(), ex.toString());
+            return false;
+        }
+    }
+
+    private static Set<String> sourceIdentifierNames(Class<?> type) {
+        try {
+            return SourceNode.createSources(type).stream()
+                .flatMap(SourceNode::identifierNames)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        }
+        catch(RuntimeException | LinkageError ex) {
+            log.info("Skipping class {} as a source type: {}", type.getName(), ex.toString());
+            return Set.of();
+        }
+    }
+
+    private static boolean hasDestinations(String identifier, Class<?> destType) {
+        try {
+            return DestinationNode.hasDestinationsForField(identifier, destType);
+        }
+        catch(RuntimeException | LinkageError ex) {
+            log.info("Skipping class {} as a destination type: {}", destType.getName(), ex.toString());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package io.github.cshunsinger.japplicator.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * A record of the source/destination pairs an {@link ApplicatorCache} resolved during a run, in the order they were
+ * first resolved. A profile is written to a small training file, which a later run replays to generate exactly those
+ * applicators before it takes traffic, see {@link ApplicatorCache#replayProfile(Path, ClassLoader, java.util.concurrent.Executor)}.
+ *
+ * Pairs are recorded by the names of their classes, so recording a profile never keeps a class loader alive. The
+ * training file is a text file with a header line followed by the binary names of the source and destination type of
+ * one pair per line.
+ */
+@Slf4j
+public class ApplicatorProfile {
+    private static final String HEADER = "# J-Applicator profile 1";
+
+    private final Set<String> recordedPairs = ConcurrentHashMap.newKeySet();
+    private final Queue<String> pairsInOrder = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Records that a pair was resolved. Recording the same pair again does nothing.
+     * @param srcType The source type.
+     * @param destType The destination type.
+     */
+    void record(Class<?> srcType, Class<?> destType) {
+        String pair = srcType.getName() + ' ' + destType.getName();
+        if(recordedPairs.add(pair))
+            pairsInOrder.add(pair);
+    }
+
+    /**
+     * @return The number of distinct pairs recorded.
+     */
+    public int size() {
+        return recordedPairs.size();
+    }
+
+    /**
+     * Writes the recorded pairs to a training file, replacing the file if it exists. The file is written completely
+     * before it replaces the previous file, so a run replaying the file never reads half of it.
+     * @param file The training file.
+     * @throws IOException If the file cannot be written.
+     */
+    public void write(Path file) throws IOException {
+        Path absoluteFile = file.toAbsolutePath();
+        Path temporary = Files.createTempFile(absoluteFile.getParent(), absoluteFile.getFileName().toString(), ".tmp");
+        try {
+            try(BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                writer.write(HEADER);
+                writer.newLine();
+                for(String pair: pairsInOrder) {
+                    writer.write(pair);
+                    writer.newLine();
+                }
+            }
+
+            try {
+                Files.move(temporary, absoluteFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            catch(AtomicMoveNotSupportedException ex) {
+                Files.move(temporary, absoluteFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Reads the pairs of a training file. Pairs whose classes cannot be loaded, for example because a model class was
+     * removed since the file was recorded, are skipped.
+     * @param file The training file.
+     * @param loader The class loader to load the source and destination types with.
+     * @return The pairs of the training file, in the order they were first resolved when the file was recorded.
+     * @throws IOException If the file cannot be read, or is not a training file.
+     */
+    public static List<ApplicatorPair> read(Path file, ClassLoader loader) throws IOException {
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        if(lines.isEmpty() || !lines.get(0).equals(HEADER))
+            throw new IOException(file + " is not a J-Applicator profile.");
+
+        List<ApplicatorPair> pairs = new ArrayList<>(lines.size() - 1);
+        for(String line: lines.subList(1, lines.size())) {
+            String[] classNames = line.trim().split(" ");
+            if(classNames.length != 2) {
+                log.warn("Skipping malformed line '{}' of profile {}.", line, file);
+                continue;
+            }
+
+            try {
+                pairs.add(new ApplicatorPair(Class.forName(classNames[0], false, loader), Class.forName(classNames[1], false, loader)));
+            }
+            catch(ClassNotFoundException | LinkageError ex) {
+                log.info("Skipping pair {} -> {} of profile {} because it cannot be loaded: {}", classNames[0], classNames[1], file, ex.toString());
+            }
+        }
+        return pairs;
+    }
+}
@@ -0,0 +1,244 @@
+package io.github.cshunsinger.japplicator.cache;
+
+import io.github.cshunsinger.japplicator.builder.ApplicatorClassInfo;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Collects statistics about the lookups of an {@link ApplicatorCache} and the applicators it generates.
+ *
+ * Statistics are kept per source/destination pair, keyed by the names of the two classes, and only hold the classes
+ * weakly, so collecting statistics never keeps a class loader alive. Only pairs which are still cached are tracked:
+ * the counters of a pair are retired once its applicator is evicted or collected, or once its classes are unloaded,
+ * so the number of pairs tracked never grows past the number of live pairs. Retiring a pair folds its counters into
+ * the totals of the cache, so the totals keep counting every pair the cache has ever seen.
+ */
+class ApplicatorStatistics {
+    /**
+     * The exclusive upper bounds of the build time histogram buckets, in milliseconds.
+     */
+    static final long[] BUILD_TIME_BUCKET_BOUNDS_MILLIS = {1, 5, 10, 50, 100, 500, 1000, Long.MAX_VALUE};
+
+    //Pairs are only checked for unloaded classes once the map has grown past this size, which then doubles
+    private static final int MINIMUM_PURGE_SIZE = 64;
+
+    private final ConcurrentMap<String, PairCounters> pairCounters = new ConcurrentHashMap<>();
+    private final PairCounters retiredCounters = new PairCounters("retired", null, null);
+    private final AtomicInteger purgeSize = new AtomicInteger(MINIMUM_PURGE_SIZE);
+    private final LongAdder[] buildTimeBuckets = new LongAdder[BUILD_TIME_BUCKET_BOUNDS_MILLIS.length];
+
+    ApplicatorStatistics() {
+        for(int i = 0; i < buildTimeBuckets.length; i++)
+            buildTimeBuckets[i] = new LongAdder();
+    }
+
+    /**
+     * Gets the counters of a source/destination pair. The counters are meant to be looked up once and then held by the
+     * cache entry of the pair, rather than looked up on every cache hit. If the pair was last counted for classes which
+     * have since been unloaded, those counters are retired and the pair starts over with new counters.
+     * @param srcType The source type.
+     * @param destType The destination type.
+     * @return The counters of the pair.
+     */
+    PairCounters countersFor(Class<?> srcType, Class<?> destType) {
+        String pair = new ApplicatorPair(srcType, destType).toString();
+        PairCounters counters = pairCounters.get(pair);
+        while(counters == null || counters.isUnloaded()) {
+            if(counters != null)
+                retire(counters);
+
+            PairCounters newCounters = new PairCounters(pair, srcType, destType);
+            counters = pairCounters.putIfAbsent(pair, newCounters);
+            if(counters == null) {
+                counters = newCounters;
+                purgeUnloadedPairsIfGrown();
+            }
+        }
+        return counters;
+    }
+
+    /**
+     * Stops tracking the counters of a pair which is no longer cached, and adds them to the totals of the cache. Nothing
+     * is retired if the pair is tracked with different counters by now. Counts added to the counters by a thread which
+     * is still holding on to them after they were retired are not counted anymore.
+     * @param counters The counters of the pair.
+     */
+    void retire(PairCounters counters) {
+        if(!pairCounters.remove(counters.pair, counters))
+            return;
+
+        retiredCounters.sharedHits.add(counters.sharedHits.sum());
+        retiredCounters.parentHits.add(counters.parentHits.sum());
+        retiredCounters.misses.add(counters.misses.sum());
+        retiredCounters.generatedClasses.add(counters.generatedClasses.sum());
+        retiredCounters.generatedBytecodeSize.add(counters.generatedBytecodeSize.sum());
+        retiredCounters.bytecodeCacheLoads.add(counters.bytecodeCacheLoads.sum());
+    }
+
+    /**
+     * Retires the pairs whose classes were unloaded without their applicators ever being evicted or collected, such as
+     * pairs which were only ever looked up in the parent cache. The pairs are only checked each time the number of
+     * tracked pairs doubles, so tracking a new pair costs no more than a constant amount of checks on average.
+     */
+    private void purgeUnloadedPairsIfGrown() {
+        int size = pairCounters.size();
+        int purgeSize = this.purgeSize.get();
+        if(size < purgeSize || !this.purgeSize.compareAndSet(purgeSize, Integer.MAX_VALUE))
+            return;
+
+        pairCounters.values().stream().filter(PairCounters::isUnloaded).forEach(this::retire);
+        this.purgeSize.set(Math.max(MINIMUM_PURGE_SIZE, 2 * pairCounters.size()));
+    }
+
+    /**
+     * Records a newly generated applicator class.
+     * @param counters The counters of the pair the applicator was generated for.
+     * @param buildTimeNanos The wall time it took to generate, define, and instantiate the applicator class.
+     * @param bytecodeSize The size of the generated class file in bytes.
+     */
+    void recordBuild(PairCounters counters, long buildTimeNanos, int bytecodeSize) {
+        counters.generatedClasses.increment();
+        counters.generatedBytecodeSize.add(bytecodeSize);
+        counters.totalBuildTimeNanos.add(buildTimeNanos);
+        counters.maxBuildTimeNanos.accumulate(buildTimeNanos);
+
+        long buildTimeMillis = TimeUnit.NANOSECONDS.toMillis(buildTimeNanos);
+        int bucket = 0;
+        while(buildTimeMillis >= BUILD_TIME_BUCKET_BOUNDS_MILLIS[bucket])
+            bucket++;
+        buildTimeBuckets[bucket].increment();
+    }
+
+    /**
+     * Records the class info of an applicator class which was generated or loaded from the bytecode cache directory.
+     * Only the latest class of each pair is kept.
+     * @param counters The counters of the pair the applicator class was defined for.
+     * @param classInfo The class info.
+     */
+    void recordClass(PairCounters counters, ApplicatorClassInfo classInfo) {
+        counters.latestClass = classInfo;
+    }
+
+    /**
+     * Records an applicator class which was loaded from the bytecode cache directory instead of being generated.
+     * @param counters The counters of the pair the applicator class was loaded for.
+     */
+    void recordBytecodeCacheLoad(PairCounters counters) {
+        counters.bytecodeCacheLoads.increment();
+    }
+
+    long getSharedHitCount() {
+        return sum(counters -> counters.sharedHits.sum());
+    }
+
+    long getParentHitCount() {
+        return sum(counters -> counters.parentHits.sum());
+    }
+
+    long getMissCount() {
+        return sum(counters -> counters.misses.sum());
+    }
+
+    long getGeneratedClassCount() {
+        return sum(counters -> counters.generatedClasses.sum());
+    }
+
+    long getGeneratedBytecodeSize() {
+        return sum(counters -> counters.generatedBytecodeSize.sum());
+    }
+
+    long getBytecodeCacheLoadCount() {
+        return sum(counters -> counters.bytecodeCacheLoads.sum());
+    }
+
+    List<BuildTimeBucket> getBuildTimeHistogram() {
+        List<BuildTimeBucket> histogram = new ArrayList<>(buildTimeBuckets.length);
+        for(int i = 0; i < buildTimeBuckets.length; i++)
+            histogram.add(new BuildTimeBucket(BUILD_TIME_BUCKET_BOUNDS_MILLIS[i], buildTimeBuckets[i].sum()));
+        return histogram;
+    }
+
+    List<PairStatistics> getPairStatistics() {
+        return pairCounters.values().stream()
+            .map(PairCounters::snapshot)
+            .sorted(Comparator.comparing(PairStatistics::getPair))
+            .collect(Collectors.toList());
+    }
+
+    List<ApplicatorClassInfo> getApplicatorClasses() {
+        return pairCounters.values().stream()
+            .sorted(Comparator.comparing(counters -> counters.pair))
+            .map(counters -> counters.latestClass)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    }
+
+    private long sum(ToLongFunction<PairCounters> counter) {
+        return counter.applyAsLong(retiredCounters) + pairCounters.values().stream().mapToLong(counter).sum();
+    }
+
+    /**
+     * The live counters of a single source/destination pair.
+     */
+    static class PairCounters {
+        private final String pair;
+        private final WeakReference<Class<?>> sourceType;
+        private final WeakReference<Class<?>> destinationType;
+        final LongAdder sharedHits = new LongAdder();
+        final LongAdder parentHits = new LongAdder();
+        final LongAdder misses = new LongAdder();
+        private final LongAdder generatedClasses = new LongAdder();
+        private final LongAdder generatedBytecodeSize = new LongAdder();
+        private final LongAdder bytecodeCacheLoads = new LongAdder();
+        private final LongAdder totalBuildTimeNanos = new LongAdder();
+        private final LongAccumulator maxBuildTimeNanos = new LongAccumulator(Math::max, 0);
+        private volatile ApplicatorClassInfo latestClass;
+
+        private PairCounters(String pair, Class<?> sourceType, Class<?> destinationType) {
+            this.pair = pair;
+            this.sourceType = new WeakReference<>(sourceType);
+            this.destinationType = new WeakReference<>(destinationType);
+        }
+
+        /**
+         * @return True if either class of this pair has been unloaded.
+         */
+        private boolean isUnloaded() {
+            return sourceType.get() == null || destinationType.get() == null;
+        }
+
+        /**
+         * @return The size in bytes of the latest class generated or loaded for this pair, or 0 if it has none.
+         */
+        int latestBytecodeLength() {
+            ApplicatorClassInfo classInfo = latestClass;
+            return classInfo == null ? 0 : classInfo.getBytecodeLength();
+        }
+
+        private PairStatistics snapshot() {
+            return new PairStatistics(
+                pair,
+                sharedHits.sum(),
+                parentHits.sum(),
+                misses.sum(),
+                generatedClasses.sum(),
+                generatedBytecodeSize.sum(),
+                bytecodeCacheLoads.sum(),
+                TimeUnit.NANOSECONDS.toMicros(totalBuildTimeNanos.sum()),
+                TimeUnit.NANOSECONDS.toMicros(maxBuildTimeNanos.get())
+            );
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package io.github.cshunsinger.japplicator.cache;
+
+import lombok.Value;
+
+/**
+ * A single bucket of the histogram of applicator build times of an {@link ApplicatorCache}.
+ */
+@Value
+public class BuildTimeBucket {
+    /**
+     * The exclusive upper bound of this bucket in milliseconds. The last bucket has an upper bound of
+     * {@link Long#MAX_VALUE}. Each bucket starts where the previous one ends.
+     */
+    long upperBoundMillis;
+    /**
+     * The number of builds which took less time than the upper bound of this bucket and at least as long as the upper
+     * bound of the previous bucket.
+     */
+    long count;
+}
@@ -0,0 +1,366 @@
+package io.github.cshunsinger.japplicator.cache;
+
+import io.github.cshunsinger.japplicator.Applicator;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This cache table is a shared, thread-safe table of applicators which can be read without any locking.
+ * Applicators are keyed first by a ClassValue on the source class, and then by a ClassValue on the destination class.
+ * A ClassValue lookup which has already been computed is a lock-free read, which costs about as much as a lookup in
+ * the per-thread HashMap of an {@link ApplicatorCacheTable}, however only a single copy of this table exists no matter
+ * how many threads are reading from it.
+ *
+ * When a lookup misses, the applicator is obtained from the parent cache. ClassValue may compute the same value in
+ * more than one thread at a time, but only one of those values is ever kept, and the parent cache makes sure that
+ * only a single applicator is built for each pair.
+ *
+ * This table only holds applicators weakly. The values of the destination ClassValue are stored on the destination
+ * class, and a strong reference from there would keep the source class (and its class loader) alive for as long as the
+ * destination class lives. The parent cache holds the strong reference instead, attached to whichever class is
+ * expected to be discarded first.
+ *
+ * The number of cached applicators can be bounded with {@link #setMaximumSize(long)}, and the total size of their
+ * generated classes with {@link #setMaximumBytecodeSize(long)}. Once the table grows past either limit, applicators
+ * which have not been used recently are evicted from this table and from the parent cache. Recency is approximated
+ * with a clock rather than tracked exactly: a lookup marks its applicator as used, which is a single write at most, and
+ * eviction walks the applicators in the order they were added, giving each one which was used since the last walk a
+ * second chance instead of evicting it. Choosing an applicator to evict therefore never scans the whole table.
+ *
+ * A stand-in applicator (see {@link GenerationMode#STAND_IN}) is only cached until its generated applicator is ready.
+ * The next lookup after that replaces it with the generated applicator.
+ *
+ * Each cached applicator holds the statistics counters of its pair, so counting a cache hit never needs a lookup of
+ * its own. The counters of a pair are retired once its applicator is evicted or collected, so the statistics only keep
+ * tracking pairs which are still cached. It also remembers the last profile (see {@link ApplicatorCache#startRecordingProfile()}) its pair was
+ * recorded in, so only the first lookup of a pair while a profile is recorded adds the pair to the profile.
+ * @see ApplicatorCache
+ * @see ParentApplicatorCacheTable
+ */
+public class ClassValueApplicatorCacheTable extends ApplicatorCacheTable {
+    /**
+     * The maximum size of a table which does not evict anything.
+     */
+    public static final long UNBOUNDED = Long.MAX_VALUE;
+
+    private final ParentApplicatorCacheTable parent;
+    private final ApplicatorStatistics statistics;
+    private final ClassValue<DestinationApplicators> sourceApplicators = new ClassValue<>() {
+        @Override
+        protected DestinationApplicators computeValue(Class<?> srcType) {
+            return new DestinationApplicators(srcType);
+        }
+    };
+
+    private final Set<ApplicatorReference> cachedReferences = ConcurrentHashMap.newKeySet();
+    private final ReferenceQueue<Applicator<?, ?>> collectedReferences = new ReferenceQueue<>();
+    private final LongAdder cachedBytecodeSize = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final Object evictionLock = new Object();
+    //The clock of eviction candidates, guarded by the eviction lock. References which are no longer cached are only
+    //dropped from it once the clock hand reaches them.
+    private final Queue<ApplicatorReference> clock = new ArrayDeque<>();
+    private volatile long maximumSize = UNBOUNDED;
+    private volatile long maximumBytecodeSize = UNBOUNDED;
+
+    ClassValueApplicatorCacheTable(ParentApplicatorCacheTable parent, ApplicatorStatistics statistics) {
+        super(parent);
+        this.parent = parent;
+        this.statistics = statistics;
+    }
+
+    /**
+     * Gets an applicator instance from the cache which applies data from an object of the source type onto an object
+     * of the destination type. If no applicator instance is cached, one is obtained from the parent cache and stored
+     * in this cache.
+     * @param srcType Class of the source type.
+     * @param destType Class of the destination type.
+     * @param <Src> Source type.
+     * @param <Dest> Destination type.
+     * @return An applicator instance.
+     */
+    @Override
+    public <Src, Dest> Applicator<Src, Dest> getApplicator(Class<Src> srcType, Class<Dest> destType) {
+        return lookUp(srcType, destType, true);
+    }
+
+    /**
+     * Caches the applicator of a pair for a warm-up. Unlike {@link #getApplicator(Class, Class)}, this is not counted
+     * as a lookup by the application: it is neither counted as a hit nor recorded in a profile.
+     * @param srcType Class of the source type.
+     * @param destType Class of the destination type.
+     */
+    void warmUp(Class<?> srcType, Class<?> destType) {
+        lookUp(srcType, destType, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <Src, Dest> Applicator<Src, Dest> lookUp(Class<Src> srcType, Class<Dest> destType, boolean applicationLookup) {
+        DestinationApplicators destinationApplicators = sourceApplicators.get(srcType);
+
+        ApplicatorReference reference = destinationApplicators.get(destType);
+        Applicator<?, ?> applicator = reference.get();
+        while(applicator == null || isReplacedStandIn(applicator)) {
+            //The applicator was evicted, is no longer held by the parent cache, or was a stand-in for an applicator
+            //which has now been generated. Forget it and look it up again. Only the thread which marks this exact
+            //reference as stale removes it, so a newer reference computed by another thread is never removed.
+            if(reference.stale.compareAndSet(false, true)) {
+                destinationApplicators.remove(destType);
+                forget(reference);
+            }
+            else {
+                Thread.onSpinWait();
+            }
+            reference = destinationApplicators.get(destType);
+            applicator = reference.get();
+        }
+
+        if(!reference.registered) {
+            register(reference);
+        }
+        else if(applicationLookup) {
+            reference.counters.sharedHits.increment();
+            if(isBounded())
+                reference.markUsed();
+        }
+
+        if(applicationLookup) {
+            ApplicatorProfile profile = parent.getProfile();
+            if(profile != null && reference.recordedProfile != profile) {
+                profile.record(srcType, destType);
+                reference.recordedProfile = profile;
+            }
+        }
+
+        return (Applicator<Src, Dest>)applicator;
+    }
+
+    private static boolean isReplacedStandIn(Applicator<?, ?> applicator) {
+        return applicator instanceof StandInApplicator && ((StandInApplicator<?, ?>)applicator).isReplaced();
+    }
+
+    /**
+     * Gets the maximum number of applicators this table holds before it starts evicting the least recently used ones.
+     * @return The maximum size of this table, or {@link #UNBOUNDED}.
+     */
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Sets the maximum number of applicators this table holds before it starts evicting the least recently used ones.
+     * If the table is already larger than the new maximum size, applicators are evicted right away.
+     * @param maximumSize The maximum size of this table, or {@link #UNBOUNDED}.
+     * @throws IllegalArgumentException If the maximum size is less than 1.
+     */
+    public void setMaximumSize(long maximumSize) {
+        if(maximumSize < 1)
+            throw new IllegalArgumentException("Maximum cache size must be at least 1, but was " + maximumSize + ".");
+
+        this.maximumSize = maximumSize;
+        evictIfNecessary();
+    }
+
+    /**
+     * Gets the number of applicators currently held by this table.
+     * @return The number of cached applicators.
+     */
+    public long getSize() {
+        purgeCollectedReferences();
+        return cachedReferences.size();
+    }
+
+    /**
+     * Gets the maximum total size of the generated classes of the applicators in this table before it starts evicting
+     * the least recently used ones.
+     * @return The maximum bytecode size of this table in bytes, or {@link #UNBOUNDED}.
+     */
+    public long getMaximumBytecodeSize() {
+        return maximumBytecodeSize;
+    }
+
+    /**
+     * Sets the maximum total size of the generated classes of the applicators in this table before it starts evicting
+     * the least recently used ones. Applicators which were not generated, such as precompiled and reflective ones,
+     * count as 0 bytes. The most recently added applicator is never evicted to meet this limit, even if its own class
+     * is larger than the limit. If the table is already larger than the new maximum, applicators are evicted right away.
+     * @param maximumBytecodeSize The maximum bytecode size of this table in bytes, or {@link #UNBOUNDED}.
+     * @throws IllegalArgumentException If the maximum bytecode size is less than 1.
+     */
+    public void setMaximumBytecodeSize(long maximumBytecodeSize) {
+        if(maximumBytecodeSize < 1)
+            throw new IllegalArgumentException("Maximum cache bytecode size must be at least 1, but was " + maximumBytecodeSize + ".");
+
+        this.maximumBytecodeSize = maximumBytecodeSize;
+        evictIfNecessary();
+    }
+
+    /**
+     * Gets the total size of the generated classes of the applicators currently held by this table.
+     * @return The bytecode size of the cached applicators in bytes.
+     */
+    public long getBytecodeSize() {
+        purgeCollectedReferences();
+        return cachedBytecodeSize.sum();
+    }
+
+    /**
+     * Gets the number of applicators which have been evicted from this table because it grew past its maximum size or
+     * maximum bytecode size.
+     * @return The total number of evictions.
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * Records a newly cached applicator the first time it is looked up. Only a reference which was actually kept by
+     * the destination ClassValue is ever returned by a lookup, so references which lost a race to be computed are
+     * never recorded.
+     */
+    private void register(ApplicatorReference reference) {
+        synchronized(evictionLock) {
+            if(reference.registered)
+                return;
+
+            reference.registered = true;
+            reference.bytecodeSize = reference.counters.latestBytecodeLength();
+            if(cachedReferences.add(reference))
+                cachedBytecodeSize.add(reference.bytecodeSize);
+            clock.add(reference);
+            evictIfNecessary(reference);
+        }
+    }
+
+    private boolean isBounded() {
+        return maximumSize != UNBOUNDED || maximumBytecodeSize != UNBOUNDED;
+    }
+
+    private void evictIfNecessary() {
+        evictIfNecessary(null);
+    }
+
+    /**
+     * Evicts applicators until this table is within its limits again.
+     * @param newest The applicator which was just added, which is kept to meet the maximum bytecode size, or null.
+     */
+    private void evictIfNecessary(ApplicatorReference newest) {
+        synchronized(evictionLock) {
+            purgeCollectedReferences();
+
+            while(cachedReferences.size() > maximumSize || (cachedBytecodeSize.sum() > maximumBytecodeSize && cachedReferences.size() > 1)) {
+                ApplicatorReference candidate = clock.poll();
+                if(candidate == null)
+                    break;
+                if(!cachedReferences.contains(candidate))
+                    continue; //Already forgotten, the clock hand just drops it
+
+                if(candidate.used || (candidate == newest && cachedReferences.size() <= maximumSize)) {
+                    //Give an applicator which was used since the hand last passed it a second chance
+                    candidate.used = false;
+                    clock.add(candidate);
+                }
+                else {
+                    evict(candidate);
+                }
+            }
+
+            //Forgotten references wait in the clock until the hand reaches them, so drop them if they pile up
+            if(clock.size() > 2 * cachedReferences.size() + 16)
+                clock.removeIf(reference -> !cachedReferences.contains(reference));
+        }
+    }
+
+    private void evict(ApplicatorReference reference) {
+        forget(reference);
+        statistics.retire(reference.counters);
+
+        Class<?> srcType = reference.sourceType.get();
+        Class<?> destType = reference.destinationType.get();
+        Applicator<?, ?> applicator = reference.get();
+        if(srcType != null && destType != null && applicator != null)
+            parent.detachApplicator(srcType, destType, applicator);
+
+        //The reference is left in the destination ClassValue. Any thread looking it up sees it cleared and replaces it,
+        //which only ever removes this exact reference, so a newer applicator cached for the same pair is never dropped.
+        reference.clear();
+        evictionCount.increment();
+    }
+
+    /**
+     * Stops counting a reference towards the size of this table.
+     * @return True if the reference was still counted, or false if it had already been forgotten.
+     */
+    private boolean forget(ApplicatorReference reference) {
+        if(!cachedReferences.remove(reference))
+            return false;
+
+        cachedBytecodeSize.add(-reference.bytecodeSize);
+        return true;
+    }
+
+    private void purgeCollectedReferences() {
+        Reference<? extends Applicator<?, ?>> collected;
+        while((collected = collectedReferences.poll()) != null) {
+            //A reference which was already replaced by a lookup shares its counters with the reference replacing it
+            ApplicatorReference reference = (ApplicatorReference)collected;
+            if(forget(reference))
+                statistics.retire(reference.counters);
+        }
+    }
+
+    /**
+     * All of the applicators from a single source type, keyed by destination type.
+     */
+    private class DestinationApplicators extends ClassValue<ApplicatorReference> {
+        private final Class<?> srcType;
+
+        private DestinationApplicators(Class<?> srcType) {
+            this.srcType = srcType;
+        }
+
+        @Override
+        protected ApplicatorReference computeValue(Class<?> destType) {
+            Applicator<?, ?> applicator = createApplicator(srcType, destType);
+            return new ApplicatorReference(srcType, destType, applicator, statistics.countersFor(srcType, destType), collectedReferences);
+        }
+    }
+
+    /**
+     * A weak reference to a cached applicator. The reference is cleared once the applicator is evicted, or once the
+     * parent cache has let go of the applicator. The source and destination types are held weakly as well, so that
+     * tracking the applicator for eviction never keeps its classes alive.
+     */
+    private static class ApplicatorReference extends WeakReference<Applicator<?, ?>> {
+        private final WeakReference<Class<?>> sourceType;
+        private final WeakReference<Class<?>> destinationType;
+        private final ApplicatorStatistics.PairCounters counters;
+        private final AtomicBoolean stale = new AtomicBoolean();
+        private volatile boolean registered;
+        private volatile boolean used;
+        private volatile ApplicatorProfile recordedProfile;
+        private int bytecodeSize;
+
+        private ApplicatorReference(Class<?> sourceType, Class<?> destinationType, Applicator<?, ?> applicator,
+                                    ApplicatorStatistics.PairCounters counters, ReferenceQueue<Applicator<?, ?>> queue) {
+            super(applicator, queue);
+            this.sourceType = new WeakReference<>(sourceType);
+            this.destinationType = new WeakReference<>(destinationType);
+            this.counters = counters;
+        }
+
+        private void markUsed() {
+            //Only write when the flag changes, so hot applicators are not written to on every lookup
+            if(!used)
+                used = true;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package io.github.cshunsinger.japplicator.cache;
+
+import io.github.cshunsinger.japplicator.builder.ReflectiveApplicator;
+
+/**
+ * Controls when an {@link ApplicatorCache} generates the bytecode of a new applicator.
+ */
+public enum GenerationMode {
+    /**
+     * The applicator class is generated by the thread which first asks for it, and that thread waits until it is done.
+     * This is the default mode.
+     */
+    SYNCHRONOUS,
+
+    /**
+     * The applicator class is generated in the background. Until it is done, lookups return a stand-in applicator which
+     * copies values with reflection (see {@link ReflectiveApplicator}). The stand-in switches over to the generated
+     * applicator as soon as it is ready, and later lookups return the generated applicator itself. No lookup ever waits
+     * for a class to be generated.
+     */
+    STAND_IN,
+
+    /**
+     * New applicators start out interpreting their mapping plan with reflection, just like the stand-ins of
+     * {@link #STAND_IN}, and no class is generated for them at first. Once an applicator has been applied as many times
+     * as the promotion threshold of the cache, its class is generated in the background and replaces it. Pairs which are
+     * only used a few times never cost a generated class, while frequently used pairs still end up running generated
+     * code.
+     */
+    TIERED
+}
@@ -0,0 +1,20 @@
+package io.github.cshunsinger.japplicator.cache;
+
+import io.github.cshunsinger.japplicator.builder.ApplicatorClassInfo;
+import io.github.cshunsinger.japplicator.builder.JitThreshold;
+
+/**
+ * Is told about every method of a newly generated or loaded applicator class which crosses a JIT threshold, see
+ * {@link ApplicatorCache#setJitThresholdListener(JitThresholdListener)}. Applicators with methods which are never
+ * compiled or never inlined still work, however they quietly stay slower than the rest.
+ */
+@FunctionalInterface
+public interface JitThresholdListener {
+    /**
+     * Called once for each threshold a method crosses, on the thread which generated or loaded the applicator class.
+     * @param applicatorClass The applicator class.
+     * @param method The method which is larger than the limit of the threshold.
+     * @param threshold The threshold.
+     */
+    void methodExceedsThreshold(ApplicatorClassInfo applicatorClass, ApplicatorClassInfo.MethodInfo method, JitThreshold threshold);
+}
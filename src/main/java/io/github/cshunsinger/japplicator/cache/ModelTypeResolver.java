@@ -0,0 +1,45 @@
+package io.github.cshunsinger.japplicator.cache;
+
+import io.github.cshunsinger.japplicator.builder.AsmUtils;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resolves the runtime class of an object to the model type its applicator should be generated for.
+ *
+ * Frameworks such as Hibernate hand out instances of runtime subclasses of model types, such as
+ * <code>Order$HibernateProxy$xyz</code>, and a new such subclass may be generated at any time. The applicator builder
+ * only maps the members which a type declares itself, so an applicator generated for such a subclass would not map
+ * anything, and every new subclass would generate yet another applicator class. A subclass which does not declare any
+ * identified members of its own is resolved to the nearest superclass which does, so that all of those subclasses share
+ * the applicator of the model type they extend.
+ *
+ * Resolved types are cached on the runtime class with a ClassValue, so each class is only inspected once.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ModelTypeResolver {
+    private static final ClassValue<Class<?>> modelTypes = new ClassValue<>() {
+        @Override
+        protected Class<?> computeValue(Class<?> type) {
+            for(Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                if(AsmUtils.declaresIdentifiedMembers(current))
+                    return current;
+            }
+            //Nothing in the hierarchy is a model type, so there is nothing better to generate an applicator for
+            return type;
+        }
+    };
+
+    /**
+     * Resolves a runtime class to its model type. The model type is the class itself or its nearest superclass which
+     * declares identified members. If neither the class nor any of its superclasses declares identified members, then
+     * the class itself is returned.
+     * @param type The runtime class of an object.
+     * @param <T> The runtime type.
+     * @return The model type to generate an applicator for.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Class<? super T> resolve(Class<T> type) {
+        return (Class<? super T>)modelTypes.get(type);
+    }
+}
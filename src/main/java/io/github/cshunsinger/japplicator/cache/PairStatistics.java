@@ -0,0 +1,48 @@
+package io.github.cshunsinger.japplicator.cache;
+
+import lombok.Value;
+
+/**
+ * A snapshot of the statistics of a single source/destination pair of an {@link ApplicatorCache}.
+ */
+@Value
+public class PairStatistics {
+    /**
+     * The names of the source and destination types, as "source -> destination".
+     */
+    String pair;
+    /**
+     * The number of lookups answered by the shared table without going to the parent cache.
+     */
+    long sharedHitCount;
+    /**
+     * The number of lookups which missed the shared table but found an applicator in the parent cache.
+     */
+    long parentHitCount;
+    /**
+     * The number of lookups which found no cached applicator at all, and either built one or waited for another
+     * thread to build one.
+     */
+    long missCount;
+    /**
+     * The number of applicator classes generated for this pair. More than one means the pair was regenerated, either
+     * because it was evicted or because its classes were loaded again by a new class loader.
+     */
+    long generatedClassCount;
+    /**
+     * The total size in bytes of all applicator classes generated for this pair.
+     */
+    long generatedBytecodeSize;
+    /**
+     * The number of applicator classes of this pair loaded from the bytecode cache directory rather than generated.
+     */
+    long bytecodeCacheLoadCount;
+    /**
+     * The total wall time spent building applicators for this pair, in microseconds.
+     */
+    long totalBuildTimeMicros;
+    /**
+     * The longest wall time spent building a single applicator for this pair, in microseconds.
+     */
+    long maxBuildTimeMicros;
+}
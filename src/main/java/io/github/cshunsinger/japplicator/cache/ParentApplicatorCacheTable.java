@@ -2,22 +2,542 @@ package io.github.cshunsinger.japplicator.cache;
 
 import io.github.cshunsinger.japplicator.Applicator;
 import io.github.cshunsinger.japplicator.builder.ApplicatorBuilder;
+import io.github.cshunsinger.japplicator.builder.ApplicatorBytecodeCache;
+import io.github.cshunsinger.japplicator.builder.ApplicatorClassInfo;
+import io.github.cshunsinger.japplicator.builder.ApplicatorClassLoader;
+import io.github.cshunsinger.japplicator.builder.ClassDefinitionMode;
+import io.github.cshunsinger.japplicator.builder.JitThreshold;
+import io.github.cshunsinger.japplicator.builder.ModelStructureHash;
+import io.github.cshunsinger.japplicator.builder.PrecompiledApplicators;
+import io.github.cshunsinger.japplicator.builder.ReflectiveApplicator;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.ref.WeakReference;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * This cache table is a table of in-memory mappings of values which is also capable of searching through parent tables
  * if one exists.
+ *
+ * This table is thread-safe without a table-wide lock. Each source/destination pair is built by a single shared task:
+ * the first thread to miss on a pair runs the build, and any other thread asking for the same pair waits on that
+ * in-flight build. Threads asking for different pairs never wait on each other, so applicators for unrelated pairs
+ * are generated in parallel. Builds can also be started without waiting for them, see {@link GenerationMode}.
+ *
+ * Pairs which were precompiled by the annotation processor (see {@link PrecompiledApplicators}) are never generated.
+ * Their precompiled applicator is instantiated instead, right away, regardless of the generation mode.
+ *
+ * This table is partitioned by the class loaders of the source and destination types, and it never keeps a class
+ * loader alive on its own:
+ *  - Every pair of source and destination class loaders gets its own {@link ApplicatorClassLoader} which generated
+ *    classes are loaded through. This table only holds those loaders weakly. The builder then defines each generated
+ *    class under a loader of its own, so it can be unloaded as soon as its applicator is evicted.
+ *  - Built applicators are attached to the source or destination class with a ClassValue, rather than being kept in a
+ *    map with strong class keys. An applicator is attached to whichever of the two classes belongs to the shorter-lived
+ *    class loader, so that the applicator (and the generated class behind it) is collected along with that loader.
  */
+@Slf4j
 public class ParentApplicatorCacheTable extends ApplicatorCacheTable {
+    /**
+     * The number of calls after which a tiered applicator is promoted to a generated applicator by default.
+     */
+    public static final int DEFAULT_PROMOTION_THRESHOLD = 100;
+
+    private final ConcurrentMap<ApplicatorPair, CompletableFuture<Applicator<?, ?>>> applicatorBuilds = new ConcurrentHashMap<>();
+    private final ConcurrentMap<ApplicatorPair, StandInApplicator<?, ?>> standIns = new ConcurrentHashMap<>();
+    private final ClassValue<Map<Class<?>, Applicator<?, ?>>> applicatorsBySource = new AttachedApplicators();
+    private final ClassValue<Map<Class<?>, Applicator<?, ?>>> applicatorsByDestination = new AttachedApplicators();
+    private final Map<ClassLoader, Map<ClassLoader, WeakReference<ApplicatorClassLoader>>> partitionLoaders = new WeakHashMap<>();
+    private final ApplicatorStatistics statistics;
+    private volatile GenerationMode generationMode = GenerationMode.SYNCHRONOUS;
+    private volatile int promotionThreshold = DEFAULT_PROMOTION_THRESHOLD;
+    private volatile ClassDefinitionMode definitionMode = ClassDefinitionMode.CLASS_LOADER;
+    private volatile Executor generationExecutor = ForkJoinPool.commonPool();
+    private volatile ApplicatorBytecodeCache bytecodeCache;
+    private volatile ApplicatorProfile profile;
+    private volatile JitThresholdListener jitThresholdListener = ParentApplicatorCacheTable::warnOfHugeMethod;
+
     /**
      * Creates the parent cache. The intent is for a single parent cache to be shared among all thread-level caches.
      */
     ParentApplicatorCacheTable() {
+        this(new ApplicatorStatistics());
+    }
+
+    /**
+     * Creates the parent cache.
+     * @param statistics The statistics which parent cache hits, misses, and generated applicators are recorded in.
+     */
+    ParentApplicatorCacheTable(ApplicatorStatistics statistics) {
         super(null);
+        this.statistics = statistics;
+    }
+
+    /**
+     * Gets an applicator instance from the cache which applies data from an object of the source type onto an object
+     * of the destination type. If no applicator instance is cached, the calling thread either builds a new one, or
+     * waits for another thread which is already building the same applicator. In {@link GenerationMode#STAND_IN} mode
+     * the applicator is instead built in the background, and a stand-in applicator is returned right away.
+     * If the build fails, the failure is not cached and the next call for the same pair will attempt the build again.
+     * @param srcType Class of the source type.
+     * @param destType Class of the destination type.
+     * @param <Src> Source type.
+     * @param <Dest> Destination type.
+     * @return An applicator instance.
+     */
+    @Override
+    public <Src, Dest> Applicator<Src, Dest> getApplicator(Class<Src> srcType, Class<Dest> destType) {
+        ApplicatorStatistics.PairCounters counters = statistics.countersFor(srcType, destType);
+        Applicator<Src, Dest> applicator = findAttachedApplicator(srcType, destType);
+        if(applicator != null) {
+            counters.parentHits.increment();
+            return applicator;
+        }
+
+        counters.misses.increment();
+        ApplicatorPair pair = new ApplicatorPair(srcType, destType);
+        if(PrecompiledApplicators.findPrecompiledClass(srcType, destType) != null) {
+            //Instantiating a precompiled applicator is cheap, so there is nothing to defer
+            return awaitBuild(startBuild(pair, srcType, destType, Runnable::run));
+        }
+
+        if(generationMode == GenerationMode.STAND_IN) {
+            CompletableFuture<Applicator<?, ?>> build = startBuild(pair, srcType, destType, generationExecutor);
+            if(!build.isDone()) {
+                Applicator<Src, Dest> standIn = findOrCreateStandIn(pair, srcType, destType, build);
+                if(standIn != null)
+                    return standIn;
+            }
+            return awaitBuild(build);
+        }
+
+        if(generationMode == GenerationMode.TIERED) {
+            Applicator<Src, Dest> tieredApplicator = attachTieredApplicator(pair, srcType, destType);
+            if(tieredApplicator != null)
+                return tieredApplicator;
+        }
+
+        //The calling thread runs the build itself, unless another thread is already running it
+        return awaitBuild(startBuild(pair, srcType, destType, Runnable::run));
+    }
+
+    /**
+     * Gets an applicator instance from the cache without waiting for it to be built. If no applicator instance is
+     * cached, it is built on the given executor, or the build which is already in flight for the same pair is shared.
+     * @param srcType Class of the source type.
+     * @param destType Class of the destination type.
+     * @param executor The executor to build the applicator on.
+     * @param <Src> Source type.
+     * @param <Dest> Destination type.
+     * @return A future which completes with the applicator instance, or exceptionally if it could not be built.
+     */
+    @SuppressWarnings("unchecked")
+    <Src, Dest> CompletableFuture<Applicator<Src, Dest>> getApplicatorAsync(Class<Src> srcType, Class<Dest> destType, Executor executor) {
+        ApplicatorStatistics.PairCounters counters = statistics.countersFor(srcType, destType);
+        Applicator<Src, Dest> applicator = findAttachedApplicator(srcType, destType);
+        if(applicator != null && !(applicator instanceof StandInApplicator)) {
+            counters.parentHits.increment();
+            return CompletableFuture.completedFuture(applicator);
+        }
+
+        counters.misses.increment();
+        CompletableFuture<Applicator<?, ?>> build = startBuild(new ApplicatorPair(srcType, destType), srcType, destType, executor);
+        //Dependent stages are returned so that callers completing the future cannot complete the shared build
+        return build.thenApply(built -> (Applicator<Src, Dest>)built);
+    }
+
+    GenerationMode getGenerationMode() {
+        return generationMode;
+    }
+
+    void setGenerationMode(@NonNull GenerationMode generationMode) {
+        this.generationMode = generationMode;
+    }
+
+    int getPromotionThreshold() {
+        return promotionThreshold;
+    }
+
+    void setPromotionThreshold(int promotionThreshold) {
+        if(promotionThreshold < 1)
+            throw new IllegalArgumentException("Promotion threshold must be at least 1, but was " + promotionThreshold + ".");
+        this.promotionThreshold = promotionThreshold;
+    }
+
+    ClassDefinitionMode getDefinitionMode() {
+        return definitionMode;
+    }
+
+    void setDefinitionMode(@NonNull ClassDefinitionMode definitionMode) {
+        this.definitionMode = definitionMode;
+    }
+
+    Path getBytecodeCacheDirectory() {
+        ApplicatorBytecodeCache bytecodeCache = this.bytecodeCache;
+        return bytecodeCache == null ? null : bytecodeCache.getDirectory();
+    }
+
+    void setBytecodeCache(ApplicatorBytecodeCache bytecodeCache) {
+        this.bytecodeCache = bytecodeCache;
+    }
+
+    ApplicatorProfile getProfile() {
+        return profile;
+    }
+
+    void setProfile(ApplicatorProfile profile) {
+        this.profile = profile;
+    }
+
+    JitThresholdListener getJitThresholdListener() {
+        return jitThresholdListener;
+    }
+
+    void setJitThresholdListener(JitThresholdListener jitThresholdListener) {
+        this.jitThresholdListener = jitThresholdListener;
+    }
+
+    /**
+     * Records a pair in the profile being recorded, if any. Pairs are recorded by the shared table and by
+     * {@link ApplicatorCache#getApplicatorAsync(Class, Class, Executor)}, which are where the application resolves
+     * them. Lookups made by this table itself, such as those of a warm-up, are never recorded.
+     */
+    void recordProfile(Class<?> srcType, Class<?> destType) {
+        ApplicatorProfile profile = this.profile;
+        if(profile != null)
+            profile.record(srcType, destType);
+    }
+
+    Executor getGenerationExecutor() {
+        return generationExecutor;
+    }
+
+    void setGenerationExecutor(@NonNull Executor generationExecutor) {
+        this.generationExecutor = generationExecutor;
+    }
+
+    /**
+     * Gets the in-flight build of a pair, or starts a new build on the given executor if there is none. A build is
+     * forgotten once it completes: built applicators are attached to their classes, and failed builds are not kept so
+     * that a later call may retry. Either way, keeping the build would hold strong references to both classes.
+     */
+    private CompletableFuture<Applicator<?, ?>> startBuild(ApplicatorPair pair, Class<?> srcType, Class<?> destType, Executor executor) {
+        CompletableFuture<Applicator<?, ?>> build = applicatorBuilds.get(pair);
+        if(build != null)
+            return build;
+
+        CompletableFuture<Applicator<?, ?>> newBuild = new CompletableFuture<>();
+        build = applicatorBuilds.putIfAbsent(pair, newBuild);
+        if(build != null)
+            return build;
+
+        //This thread won the race for this pair, so this thread starts the build
+        newBuild.whenComplete((applicator, ex) -> applicatorBuilds.remove(pair, newBuild));
+        try {
+            executor.execute(() -> {
+                try {
+                    newBuild.complete(buildAndAttachApplicator(srcType, destType));
+                }
+                catch(Throwable ex) {
+                    newBuild.completeExceptionally(ex);
+                }
+            });
+        }
+        catch(RejectedExecutionException ex) {
+            newBuild.completeExceptionally(ex);
+        }
+        return newBuild;
+    }
+
+    /**
+     * Attaches a tiered applicator for a pair, which interprets the mapping plan of the pair until it has been applied
+     * {@link #getPromotionThreshold()} times, and then has its applicator generated in the background. The tiered
+     * applicator is attached to its classes just like a generated applicator, so that it keeps counting calls for as long
+     * as it is cached.
+     * @return The tiered applicator, or null if no tiered applicator could be created for the pair.
+     */
+    @SuppressWarnings("unchecked")
+    private <Src, Dest> Applicator<Src, Dest> attachTieredApplicator(ApplicatorPair pair, Class<Src> srcType, Class<Dest> destType) {
+        TieredApplicator<Src, Dest> tieredApplicator;
+        try {
+            tieredApplicator = new TieredApplicator<>(new ReflectiveApplicator<>(srcType, destType), promotionThreshold,
+                () -> startBuild(pair, srcType, destType, generationExecutor).whenComplete((applicator, ex) -> {
+                    //The tiered applicator keeps interpreting the pair if its applicator cannot be generated
+                    if(ex != null)
+                        log.warn("Failed to promote the tiered applicator of {}, it will be retried.", pair, ex);
+                })
+            );
+        }
+        catch(RuntimeException ex) {
+            //The generated applicator is built from the same plan, so its build reports the same failure
+            return null;
+        }
+
+        Applicator<?, ?> attached = attachApplicator(srcType, destType, tieredApplicator, true);
+        return attached == null ? tieredApplicator : (Applicator<Src, Dest>)attached;
+    }
+
+    /**
+     * Finds the stand-in handed out for a pair whose build is in flight, or creates one. The stand-in is held by this
+     * table until the build completes, and is then switched over to the built applicator.
+     * @return The stand-in, or null if no stand-in could be created for the pair.
+     */
+    @SuppressWarnings("unchecked")
+    private <Src, Dest> Applicator<Src, Dest> findOrCreateStandIn(ApplicatorPair pair, Class<Src> srcType, Class<Dest> destType,
+                                                                 CompletableFuture<Applicator<?, ?>> build) {
+        StandInApplicator<?, ?> standIn = standIns.get(pair);
+        if(standIn != null)
+            return (Applicator<Src, Dest>)standIn;
+
+        StandInApplicator<Src, Dest> newStandIn;
+        try {
+            newStandIn = new StandInApplicator<>(new ReflectiveApplicator<>(srcType, destType));
+        }
+        catch(RuntimeException ex) {
+            //The generated applicator is built from the same plan, so its build reports the same failure
+            return null;
+        }
+
+        standIn = standIns.putIfAbsent(pair, newStandIn);
+        if(standIn != null)
+            return (Applicator<Src, Dest>)standIn;
+
+        build.whenComplete((applicator, ex) -> {
+            if(ex == null)
+                newStandIn.replaceWith((Applicator<Src, Dest>)applicator);
+            else
+                newStandIn.abandon();
+            standIns.remove(pair, newStandIn);
+        });
+        return newStandIn;
     }
 
     @Override
     <Src, Dest> Applicator<Src, Dest> createApplicator(Class<Src> srcType, Class<Dest> destType) {
-        ApplicatorBuilder<Src, Dest> builder = new ApplicatorBuilder<>(srcType, destType);
-        return builder.build();
+        Applicator<Src, Dest> precompiled = PrecompiledApplicators.createPrecompiledApplicator(srcType, destType);
+        if(precompiled != null)
+            return precompiled;
+
+        ApplicatorClassLoader partitionLoader = partitionClassLoader(srcType, destType);
+        ApplicatorBytecodeCache bytecodeCache = this.bytecodeCache;
+        String structuralHash = bytecodeCache == null ? null : ModelStructureHash.of(srcType, destType);
+        if(bytecodeCache != null) {
+            Applicator<Src, Dest> cached = loadCachedApplicator(bytecodeCache, structuralHash, partitionLoader, srcType, destType);
+            if(cached != null)
+                return cached;
+        }
+
+        long buildStart = System.nanoTime();
+        ApplicatorBuilder<Src, Dest> builder = new ApplicatorBuilder<>(partitionLoader, srcType, destType, definitionMode);
+        Applicator<Src, Dest> applicator = builder.build();
+        long buildTime = System.nanoTime() - buildStart;
+
+        byte[] bytecode = builder.generateBytecode();
+        statistics.recordBuild(statistics.countersFor(srcType, destType), buildTime, bytecode.length);
+        recordClass(srcType, destType, applicator, bytecode);
+        if(bytecodeCache != null)
+            bytecodeCache.store(srcType, destType, structuralHash, bytecode);
+        return applicator;
+    }
+
+    /**
+     * Loads an applicator class from the bytecode cache directory, without introspecting the model classes.
+     * @return The applicator, or null if the bytecode cache has no usable entry for the pair.
+     */
+    private <Src, Dest> Applicator<Src, Dest> loadCachedApplicator(ApplicatorBytecodeCache bytecodeCache, String structuralHash,
+                                                                   ClassLoader partitionLoader, Class<Src> srcType, Class<Dest> destType) {
+        byte[] bytecode = bytecodeCache.load(srcType, destType, structuralHash);
+        if(bytecode == null)
+            return null;
+
+        try {
+            Applicator<Src, Dest> applicator = ApplicatorBuilder.defineApplicator(bytecode, partitionLoader, srcType, destType, definitionMode);
+            statistics.recordBytecodeCacheLoad(statistics.countersFor(srcType, destType));
+            recordClass(srcType, destType, applicator, bytecode);
+            return applicator;
+        }
+        catch(LinkageError | IllegalStateException ex) {
+            log.warn("Cannot load cached applicator bytecode of {} -> {}, generating it instead.", srcType.getName(), destType.getName(), ex);
+            return null;
+        }
+    }
+
+    /**
+     * Records the class info of a generated or loaded applicator class, and tells the JIT threshold listener about the
+     * methods of the class which cross a JIT threshold.
+     */
+    private void recordClass(Class<?> srcType, Class<?> destType, Applicator<?, ?> applicator, byte[] bytecode) {
+        ApplicatorClassInfo classInfo = ApplicatorClassInfo.of(applicator.getClass(), bytecode, srcType, destType);
+        statistics.recordClass(statistics.countersFor(srcType, destType), classInfo);
+
+        JitThresholdListener listener = this.jitThresholdListener;
+        if(listener != null)
+            notifyJitThresholds(classInfo, listener);
+    }
+
+    static void notifyJitThresholds(ApplicatorClassInfo classInfo, JitThresholdListener listener) {
+        for(JitThreshold threshold: JitThreshold.values()) {
+            for(ApplicatorClassInfo.MethodInfo method: classInfo.methodsExceeding(threshold)) {
+                try {
+                    listener.methodExceedsThreshold(classInfo, method, threshold);
+                }
+                catch(RuntimeException ex) {
+                    //A failing listener never fails the applicator it is told about
+                    log.warn("The JIT threshold listener failed for the applicator class {}.", classInfo.getClassName(), ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * The default JIT threshold listener, which warns of methods that are never compiled. Methods which are too large to
+     * be inlined are common in applicators of wide models, so they are not logged by default.
+     */
+    private static void warnOfHugeMethod(ApplicatorClassInfo classInfo, ApplicatorClassInfo.MethodInfo method, JitThreshold threshold) {
+        if(threshold == JitThreshold.HUGE_METHOD_LIMIT) {
+            log.warn("The method {} of the applicator of {} -> {} has {} bytes of bytecode, more than the HugeMethodLimit of {}, so it is never JIT compiled.",
+                method.getName(), classInfo.getSourceTypeName(), classInfo.getDestinationTypeName(), method.getCodeSize(), threshold.getLimit());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <Src, Dest> Applicator<Src, Dest> buildAndAttachApplicator(Class<Src> srcType, Class<Dest> destType) {
+        //Another thread may have finished building this pair between the first lookup and this build starting
+        Applicator<Src, Dest> applicator = findAttachedApplicator(srcType, destType);
+        if(applicator != null && !(applicator instanceof StandInApplicator))
+            return applicator;
+
+        applicator = createApplicator(srcType, destType);
+        Applicator<?, ?> previous = attachApplicator(srcType, destType, applicator, false);
+        if(previous instanceof StandInApplicator) {
+            //A tiered applicator was attached until now, so it is promoted to the generated applicator
+            ((StandInApplicator<Src, Dest>)previous).replaceWith(applicator);
+        }
+        return applicator;
+    }
+
+    /**
+     * Attaches an applicator to the class it should be attached to, see {@link #attachToSource(Class, Class)}.
+     * @param ifAbsent True to only attach the applicator if no applicator is attached for the pair yet.
+     * @return The applicator which was attached for the pair before, or null if there was none.
+     */
+    private Applicator<?, ?> attachApplicator(Class<?> srcType, Class<?> destType, Applicator<?, ?> applicator, boolean ifAbsent) {
+        boolean toSource = attachToSource(srcType, destType);
+        Map<Class<?>, Applicator<?, ?>> attachedApplicators = toSource ? applicatorsBySource.get(srcType) : applicatorsByDestination.get(destType);
+        Class<?> otherType = toSource ? destType : srcType;
+        return ifAbsent ? attachedApplicators.putIfAbsent(otherType, applicator) : attachedApplicators.put(otherType, applicator);
+    }
+
+    /**
+     * Removes an applicator from this cache, so that the applicator and its generated class can be collected once
+     * nothing else is using them. Nothing is removed if the pair is cached with a different applicator instance.
+     * @param srcType The source type.
+     * @param destType The destination type.
+     * @param applicator The applicator to remove.
+     */
+    void detachApplicator(Class<?> srcType, Class<?> destType, Applicator<?, ?> applicator) {
+        applicatorsBySource.get(srcType).remove(destType, applicator);
+        applicatorsByDestination.get(destType).remove(srcType, applicator);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <Src, Dest> Applicator<Src, Dest> findAttachedApplicator(Class<Src> srcType, Class<Dest> destType) {
+        Applicator<?, ?> applicator = applicatorsBySource.get(srcType).get(destType);
+        if(applicator == null)
+            applicator = applicatorsByDestination.get(destType).get(srcType);
+        return (Applicator<Src, Dest>)applicator;
+    }
+
+    /**
+     * Gets the class loader which applicators from the source type to the destination type load classes through. There
+     * is one such class loader for every pair of source and destination class loaders.
+     * @param srcType The source type.
+     * @param destType The destination type.
+     * @return The class loader for the partition of the source and destination class loaders.
+     */
+    private ApplicatorClassLoader partitionClassLoader(Class<?> srcType, Class<?> destType) {
+        ClassLoader srcLoader = srcType.getClassLoader();
+        ClassLoader destLoader = destType.getClassLoader();
+
+        synchronized(partitionLoaders) {
+            Map<ClassLoader, WeakReference<ApplicatorClassLoader>> destinationPartitions =
+                partitionLoaders.computeIfAbsent(srcLoader, i -> new WeakHashMap<>());
+
+            WeakReference<ApplicatorClassLoader> partitionReference = destinationPartitions.get(destLoader);
+            ApplicatorClassLoader partitionLoader = partitionReference == null ? null : partitionReference.get();
+            if(partitionLoader == null) {
+                partitionLoader = new ApplicatorClassLoader(srcLoader, destLoader);
+                destinationPartitions.put(destLoader, new WeakReference<>(partitionLoader));
+            }
+            return partitionLoader;
+        }
+    }
+
+    /**
+     * Determines which class an applicator should be attached to. An applicator holds both of its classes strongly, so
+     * it is attached to the class whose loader is expected to be discarded first. A loader is expected to outlive every
+     * loader it is an ancestor of. If the loaders are unrelated, the applicator is attached to the source type.
+     * @param srcType The source type.
+     * @param destType The destination type.
+     * @return True if the applicator should be attached to the source type, or false for the destination type.
+     */
+    static boolean attachToSource(Class<?> srcType, Class<?> destType) {
+        ClassLoader srcLoader = srcType.getClassLoader();
+        ClassLoader destLoader = destType.getClassLoader();
+        return srcLoader == destLoader || !isAncestor(srcLoader, destLoader);
+    }
+
+    private static boolean isAncestor(ClassLoader ancestor, ClassLoader loader) {
+        if(ancestor == null)
+            return true; //The bootstrap class loader is the ancestor of every class loader
+
+        for(ClassLoader current = loader; current != null; current = current.getParent()) {
+            if(current == ancestor)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Waits for a build to complete and returns the applicator it produced. Waiting is not interruptible, just like the
+     * monitor this cache used to synchronize on, however the interrupt status of the thread is preserved.
+     * @param build The in-flight or completed build.
+     * @param <Src> Source type.
+     * @param <Dest> Destination type.
+     * @return The built applicator.
+     */
+    @SuppressWarnings("unchecked")
+    private static <Src, Dest> Applicator<Src, Dest> awaitBuild(CompletableFuture<Applicator<?, ?>> build) {
+        try {
+            return (Applicator<Src, Dest>)build.join();
+        }
+        catch(CompletionException ex) {
+            Throwable cause = ex.getCause();
+            if(cause instanceof RuntimeException)
+                throw (RuntimeException)cause;
+            if(cause instanceof Error)
+                throw (Error)cause;
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Applicators attached to a class, keyed by the other class of each applicator's pair.
+     */
+    private static class AttachedApplicators extends ClassValue<Map<Class<?>, Applicator<?, ?>>> {
+        @Override
+        protected Map<Class<?>, Applicator<?, ?>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,51 @@
+package io.github.cshunsinger.japplicator.cache;
+
+import io.github.cshunsinger.japplicator.Applicator;
+
+/**
+ * An applicator which is handed out while the generated applicator of its pair is still being built. It delegates to a
+ * slower applicator until the generated applicator is ready, and then delegates to the generated applicator. Anyone
+ * holding onto a stand-in therefore gets the generated code without looking the applicator up again.
+ * @param <Src> The source type.
+ * @param <Dest> The destination type.
+ * @see GenerationMode#STAND_IN
+ * @see TieredApplicator
+ */
+class StandInApplicator<Src, Dest> extends Applicator<Src, Dest> {
+    private volatile Applicator<Src, Dest> delegate;
+    private volatile boolean replaced;
+
+    StandInApplicator(Applicator<Src, Dest> delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Dest apply(Src from, Dest to) {
+        return delegate.apply(from, to);
+    }
+
+    /**
+     * Switches this stand-in over to the generated applicator.
+     * @param applicator The generated applicator.
+     */
+    void replaceWith(Applicator<Src, Dest> applicator) {
+        delegate = applicator;
+        replaced = true;
+    }
+
+    /**
+     * Marks this stand-in as no longer being backed by a build, because the build failed. The stand-in keeps working,
+     * however caches should look the pair up again rather than keep handing it out.
+     */
+    void abandon() {
+        replaced = true;
+    }
+
+    /**
+     * Determines whether this stand-in should no longer be handed out by caches.
+     * @return True once the build behind this stand-in has finished, successfully or not.
+     */
+    boolean isReplaced() {
+        return replaced;
+    }
+}
@@ -0,0 +1,50 @@
+package io.github.cshunsinger.japplicator.cache;
+
+import io.github.cshunsinger.japplicator.Applicator;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * A stand-in applicator which interprets the mapping plan of its pair, and asks for its pair to be generated only once
+ * it has been applied often enough to be worth a generated class. Pairs which are only used a few times therefore never
+ * have a class generated for them. If generating the applicator fails, the pair keeps being interpreted and the count
+ * starts over, so the promotion is tried again once the pair has been applied as often again.
+ * @param <Src> The source type.
+ * @param <Dest> The destination type.
+ * @see GenerationMode#TIERED
+ */
+final class TieredApplicator<Src, Dest> extends StandInApplicator<Src, Dest> {
+    private final int promotionThreshold;
+    private final AtomicInteger remainingCalls;
+    private final Supplier<CompletableFuture<?>> promotion;
+
+    /**
+     * @param interpreter The applicator which interprets the mapping plan until the generated applicator is ready.
+     * @param promotionThreshold The number of calls after which the promotion is started.
+     * @param promotion Starts generating the applicator of the pair, and returns the build. This is run by the thread
+     * making the call which reaches the threshold, and is only run again after the build has failed.
+     */
+    TieredApplicator(Applicator<Src, Dest> interpreter, int promotionThreshold, Supplier<CompletableFuture<?>> promotion) {
+        super(interpreter);
+        this.promotionThreshold = promotionThreshold;
+        this.remainingCalls = new AtomicInteger(promotionThreshold);
+        this.promotion = promotion;
+    }
+
+    @Override
+    public Dest apply(Src from, Dest to) {
+        //Calls are only counted until the threshold is reached, so promoted applicators are never written to
+        if(!isReplaced() && remainingCalls.get() > 0 && remainingCalls.decrementAndGet() == 0)
+            promote();
+        return super.apply(from, to);
+    }
+
+    private void promote() {
+        promotion.get().whenComplete((applicator, ex) -> {
+            if(ex != null)
+                remainingCalls.set(promotionThreshold);
+        });
+    }
+}
@@ -0,0 +1,35 @@
+package io.github.cshunsinger.japplicator.cache;
+
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The outcome of warming up an {@link ApplicatorCache} with a collection of source/destination pairs.
+ * @see ApplicatorCache#warmUp(java.util.Collection, java.util.concurrent.Executor)
+ * @see ApplicatorCache#preGenerate(ClassLoader, java.util.Collection, java.util.concurrent.Executor)
+ */
+@Value
+public class WarmUpResult {
+    /**
+     * The pairs whose applicators are now cached.
+     */
+    List<ApplicatorPair> cachedPairs;
+    /**
+     * The pairs whose applicators could not be built, mapped to the exception their build failed with.
+     */
+    Map<ApplicatorPair, Throwable> failedPairs;
+    /**
+     * The wall time from starting the warm-up until every pair was either cached or failed.
+     */
+    Duration elapsedTime;
+
+    /**
+     * @return True if the applicator of every pair was cached, or false if any pair failed to build.
+     */
+    public boolean isSuccessful() {
+        return failedPairs.isEmpty();
+    }
+}
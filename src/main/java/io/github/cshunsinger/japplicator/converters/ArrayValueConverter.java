@@ -6,14 +6,27 @@ import io.github.cshunsinger.japplicator.exception.WildcardTypeUnsupportedExcept
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.reflect.TypeUtils;
 
+import java.lang.reflect.Array;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.Collection;
+import java.util.List;
+import java.util.function.UnaryOperator;
 
+import static io.github.cshunsinger.asmsauce.DefinitionBuilders.*;
 import static io.github.cshunsinger.asmsauce.code.CodeBuilders.*;
 
 public class ArrayValueConverter {
     public static CodeInsnBuilderLike createArrayToArrayValueConverter(String sourceArrayVar, Type sourceArrayType, Type destArrayType) throws WildcardTypeUnsupportedException, TypeVariableUnsupportedException {
+        return createArrayToArrayValueConverter(sourceArrayVar, sourceArrayType, destArrayType, null);
+    }
+
+    /**
+     * Creates the code to convert an array into another array, converting model elements with the given bean conversion
+     * methods, see {@link BeanValueConverter}.
+     */
+    public static CodeInsnBuilderLike createArrayToArrayValueConverter(String sourceArrayVar, Type sourceArrayType, Type destArrayType,
+                                                                       BeanConversionMethods beanMethods) throws WildcardTypeUnsupportedException, TypeVariableUnsupportedException {
         if(!TypeUtils.isArrayType(sourceArrayType) || !TypeUtils.isArrayType(destArrayType))
             return null; //This value converter method only handles when source and destination classes are both array types
 
@@ -25,6 +38,24 @@ public class ArrayValueConverter {
         final String arrayIndex = "arrayIndex";
         final String destinationArray = "destinationArray";
 
+        if(isBulkCopy(sourceComponentType, destComponentType)) {
+            //The elements are not converted, so they are copied all at once
+            //sourceArrayVar.length > 0 ? <thenCalculate> : <elseCalculate>
+            return ternary(getVar(sourceArrayVar).length().gt(literal(0))).thenCalculate(
+                setVar(arrayLength, getVar(sourceArrayVar).length()), //int arrayLength = sourceArrayVar.length;
+                setVar(destinationArray, newArray(destComponentClass, getVar(arrayLength))), //Value[] newArray = new Value[arrayLength];
+
+                //System.arraycopy(sourceArrayVar, 0, newArray, 0, arrayLength);
+                invokeStatic(System.class, name("arraycopy"), parameters(Object.class, int.class, Object.class, int.class, int.class), type(void.class),
+                    getVar(sourceArrayVar), literal(0), getVar(destinationArray), literal(0), getVar(arrayLength)
+                ),
+
+                getVar(destinationArray)
+            ).elseCalculate(
+                newArray(destComponentClass, literal(0))
+            );
+        }
+
         //if(sourceArrayVar.length > 0) { ... }
         return ternary(getVar(sourceArrayVar).length().gt(literal(0))).thenCalculate(
             setVar(arrayLength, getVar(sourceArrayVar).length()), //int arrayLength = sourceArrayVar.length;
@@ -39,7 +70,7 @@ public class ArrayValueConverter {
                 //newArray[arrayIndex] = ...;
                 getVar(destinationArray).set(getVar(arrayIndex),
                     //Convert the sourceValue into a destination value
-                    ValueConverters.createValueConverter(sourceValue, sourceComponentType, destComponentType)
+                    ValueConverters.createValueConverter(sourceValue, sourceComponentType, destComponentType, beanMethods)
                 ),
 
                 //arrayIndex = arrayIndex + 1;
@@ -55,6 +86,15 @@ public class ArrayValueConverter {
     }
 
     public static CodeInsnBuilderLike createCollectionToArrayValueConverter(String sourceLocalVar, Type sourceType, Type destType) throws WildcardTypeUnsupportedException, TypeVariableUnsupportedException {
+        return createCollectionToArrayValueConverter(sourceLocalVar, sourceType, destType, null);
+    }
+
+    /**
+     * Creates the code to convert a collection into an array, converting model elements with the given bean conversion
+     * methods, see {@link BeanValueConverter}.
+     */
+    public static CodeInsnBuilderLike createCollectionToArrayValueConverter(String sourceLocalVar, Type sourceType, Type destType,
+                                                                            BeanConversionMethods beanMethods) throws WildcardTypeUnsupportedException, TypeVariableUnsupportedException {
         Class<?> sourceClass = TypeUtils.getRawType(sourceType, null);
 
         if(!Collection.class.isAssignableFrom(sourceClass))
@@ -77,27 +117,38 @@ public class ArrayValueConverter {
         //Some new local variable names
         final String destArrayVar = "arrayFrom" + StringUtils.capitalize(sourceLocalVar);
         final String sourceValue = sourceLocalVar + "Value";
-        final String iterator = sourceLocalVar + "Iterator";
         final String counter = sourceLocalVar + "Counter";
         final String length = sourceLocalVar + "Length";
 
+        if(isBulkCopy(sourceComponentType, destComponentClass)) {
+            //The elements are not converted, so the collection copies them into the new array all at once
+            //!sourceLocalVar.isEmpty() ? <thenCalculate> : <elseCalculate>
+            return ternary(getVar(sourceLocalVar).invoke("isEmpty").isFalse())
+                .thenCalculate(
+                    //(DestType[])sourceLocalVar.toArray(new DestType[sourceLocalVar.size()])
+                    cast(destClass, getVar(sourceLocalVar).invoke("toArray",
+                        newArray(destComponentClass, getVar(sourceLocalVar).invoke("size"))
+                    ))
+                )
+                .elseCalculate(
+                    newArray(destComponentClass, literal(0))
+                );
+        }
+
         //!sourceLocalVar.isEmpty() ? <thenCalculate> : <elseCalculate>
         return ternary(getVar(sourceLocalVar).invoke("isEmpty").isFalse())
             .thenCalculate(
                 setVar(length, getVar(sourceLocalVar).invoke("size")), //int length = sourceLocalVar.size();
-                setVar(destArrayVar, newArray(destComponentClass, getVar(length))), //DestType[] destArrayVar = new DestType[sourceLocalVar.size()]
-                setVar(counter, literal(0)), //int counter = 0;
-                setVar(iterator, getVar(sourceLocalVar).invoke("iterator")), //Iterator<SrcType> iterator = sourceLocalVar.iterator();
-
-                //while(iterator.hasNext()) { ... }
-                while_(getVar(iterator).invoke("hasNext").isTrue()).do_(
-                    setVar(sourceValue, cast(sourceComponentClass, getVar(iterator).invoke("next"))), //SrcValue value = iterator.next();
-                    getVar(destArrayVar).set( //destArrayVar[counter] = ... converted `sourceValue` ...
+                setVar(destArrayVar, newArray(destComponentClass, getVar(length))), //DestType[] destArrayVar = new DestType[length]
+
+                //for each element: destArrayVar[counter] = ... converted `sourceValue` ...
+                CollectionValueConverter.forEachElement(sourceLocalVar, sourceComponentClass, sourceValue, length, counter,
+                    CollectionValueConverter.readsByIndex(sourceComponentType, destComponentClass), () -> new CodeInsnBuilderLike[] {
+                    getVar(destArrayVar).set(
                         getVar(counter),
-                        ValueConverters.createValueConverter(sourceValue, sourceComponentType, destComponentClass)
-                    ),
-                    setVar(counter, getVar(counter).add(literal(1))) //counter = counter + 1;
-                ),
+                        ValueConverters.createValueConverter(sourceValue, sourceComponentType, destComponentClass, beanMethods)
+                    )
+                }),
 
                 //Provide the newly generated array
                 getVar(destArrayVar)
@@ -107,4 +158,95 @@ public class ArrayValueConverter {
                 newArray(destComponentClass, literal(0))
             );
     }
-}
\ No newline at end of file
+
+    /**
+     * Creates a function which converts an array into another array the same way as the bytecode generated from
+     * {@link #createArrayToArrayValueConverter(String, Type, Type)}.
+     * @param sourceArrayType The source array type.
+     * @param destArrayType The destination array type.
+     * @return A conversion function, or null if either type is not an array type.
+     */
+    public static UnaryOperator<Object> createReflectiveArrayToArrayValueConverter(Type sourceArrayType, Type destArrayType) throws WildcardTypeUnsupportedException, TypeVariableUnsupportedException {
+        if(!TypeUtils.isArrayType(sourceArrayType) || !TypeUtils.isArrayType(destArrayType))
+            return null; //This value converter method only handles when source and destination classes are both array types
+
+        final Type sourceComponentType = TypeUtils.getArrayComponentType(sourceArrayType);
+        final Type destComponentType = TypeUtils.getArrayComponentType(destArrayType);
+        final Class<?> destComponentClass = TypeUtils.getRawType(destComponentType, null);
+        final UnaryOperator<Object> elementConverter = ValueConverters.createReflectiveValueConverter(sourceComponentType, destComponentType);
+
+        if(isBulkCopy(sourceComponentType, destComponentType)) {
+            return value -> {
+                int length = Array.getLength(value);
+                Object destinationArray = Array.newInstance(destComponentClass, length);
+                System.arraycopy(value, 0, destinationArray, 0, length);
+                return destinationArray;
+            };
+        }
+
+        return value -> {
+            int length = Array.getLength(value);
+            Object destinationArray = Array.newInstance(destComponentClass, length);
+            for(int i = 0; i < length; i++)
+                Array.set(destinationArray, i, elementConverter.apply(Array.get(value, i)));
+            return destinationArray;
+        };
+    }
+
+    /**
+     * Creates a function which converts a collection into an array the same way as the bytecode generated from
+     * {@link #createCollectionToArrayValueConverter(String, Type, Type)}.
+     * @param sourceType The source collection type.
+     * @param destType The destination array type.
+     * @return A conversion function, or null if the source type is not a collection or the destination type is not an array.
+     */
+    public static UnaryOperator<Object> createReflectiveCollectionToArrayValueConverter(Type sourceType, Type destType) throws WildcardTypeUnsupportedException, TypeVariableUnsupportedException {
+        Class<?> sourceClass = TypeUtils.getRawType(sourceType, null);
+
+        if(!Collection.class.isAssignableFrom(sourceClass))
+            return null; //If source type is not a Collection then this value converter does not apply
+
+        if(!(destType instanceof Class<?>) || !((Class<?>)destType).isArray())
+            return null; //If destination type is not an array class then this value converter does not apply
+
+        Type sourceComponentType = ((ParameterizedType)sourceType).getActualTypeArguments()[0];
+        Class<?> destComponentClass = ((Class<?>)destType).getComponentType();
+        UnaryOperator<Object> elementConverter = ValueConverters.createReflectiveValueConverter(sourceComponentType, destComponentClass);
+
+        if(isBulkCopy(sourceComponentType, destComponentClass)) {
+            return value -> {
+                Collection<?> collection = (Collection<?>)value;
+                return collection.toArray((Object[])Array.newInstance(destComponentClass, collection.size()));
+            };
+        }
+
+        return value -> {
+            Collection<?> collection = (Collection<?>)value;
+            int size = collection.size();
+            Object destinationArray = Array.newInstance(destComponentClass, size);
+            if(CollectionValueConverter.isRandomAccessList(collection)) {
+                List<?> list = (List<?>)collection;
+                for(int i = 0; i < size; i++)
+                    Array.set(destinationArray, i, elementConverter.apply(list.get(i)));
+            }
+            else {
+                int index = 0;
+                for(Object element: collection)
+                    Array.set(destinationArray, index++, elementConverter.apply(element));
+            }
+            return destinationArray;
+        };
+    }
+
+    /**
+     * An array is copied in bulk rather than element by element when both arrays have the same component type, and
+     * converting an element of that type leaves it as it is. Primitives, Strings and other immutable values, as well as
+     * any other objects which are copied by reference, are copied like this. System.arraycopy is an intrinsic of the JIT
+     * compiler, so large arrays such as byte[] or long[] payloads are copied without a loop over their elements. A
+     * collection is copied into an array of objects the same way with Collection.toArray, which copies the backing array
+     * of a list, or walks the internal structure of other collections without an iterator.
+     */
+    private static boolean isBulkCopy(Type sourceComponentType, Type destComponentType) {
+        return sourceComponentType.equals(destComponentType) && ValueConverters.isIdentityConversion(sourceComponentType, destComponentType);
+    }
+}
@@ -0,0 +1,18 @@
+package io.github.cshunsinger.japplicator.converters;
+
+/**
+ * The static methods of the class being generated which convert a model object into a new model object of another type,
+ * by mapping its values the same way as an applicator of the two types would. The conversion is generated into the same
+ * class as the code which needs it, so converting a value is a direct static call rather than an applicator lookup.
+ */
+public interface BeanConversionMethods {
+    /**
+     * Gets the name of the method which converts a source object into a new destination object, generating the method
+     * if it has not been generated yet. The method is <code>public static Dest name(Src source)</code> in the class
+     * being generated, and returns null for a null source object.
+     * @param sourceClass The source type.
+     * @param destinationClass The destination type.
+     * @return The name of the static method.
+     */
+    String methodFor(Class<?> sourceClass, Class<?> destinationClass);
+}
@@ -0,0 +1,75 @@
+package io.github.cshunsinger.japplicator.converters;
+
+import io.github.cshunsinger.asmsauce.ThisClass;
+import io.github.cshunsinger.asmsauce.code.CodeInsnBuilderLike;
+import io.github.cshunsinger.japplicator.Applicator;
+import io.github.cshunsinger.japplicator.builder.AsmUtils;
+import io.github.cshunsinger.japplicator.builder.ReflectiveApplicator;
+
+import java.lang.reflect.Type;
+import java.util.function.UnaryOperator;
+
+import static io.github.cshunsinger.asmsauce.DefinitionBuilders.*;
+import static io.github.cshunsinger.asmsauce.code.CodeBuilders.getVar;
+import static io.github.cshunsinger.asmsauce.code.CodeBuilders.invokeStatic;
+
+/**
+ * This class contains the logic for converting a model object into a new model object of another type. Both types must
+ * declare identified or nested members, and the destination type must be constructable. The values of the source object
+ * are mapped onto the new destination object the same way as an applicator of the two types would map them, including
+ * the values of model objects within collections and arrays.
+ */
+public class BeanValueConverter {
+    public static CodeInsnBuilderLike createBeanToBeanValueConverter(String sourceLocalVar, Type sourceType, Type destType, BeanConversionMethods beanMethods) {
+        if(beanMethods == null || !isBeanConversion(sourceType, destType))
+            return null;
+
+        Class<?> sourceClass = (Class<?>)sourceType;
+        Class<?> destClass = (Class<?>)destType;
+
+        //convertBeanN(sourceLocalVar);
+        String methodName = beanMethods.methodFor(sourceClass, destClass);
+        return invokeStatic(ThisClass.class, name(methodName), parameters(sourceClass), type(destClass), getVar(sourceLocalVar));
+    }
+
+    /**
+     * Creates a function which converts a model object into a new model object of another type the same way as the
+     * bytecode generated from {@link #createBeanToBeanValueConverter(String, Type, Type, BeanConversionMethods)}.
+     * @param sourceType The source model type.
+     * @param destType The destination model type.
+     * @return A conversion function, or null if the types are not model types which can be converted.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static UnaryOperator<Object> createReflectiveBeanToBeanValueConverter(Type sourceType, Type destType) {
+        if(!isBeanConversion(sourceType, destType))
+            return null;
+
+        Class sourceClass = (Class<?>)sourceType;
+        Class destClass = (Class<?>)destType;
+        return new UnaryOperator<>() {
+            //Created when first used, since a model type can hold values of its own type
+            private Applicator<Object, Object> applicator;
+
+            @Override
+            public Object apply(Object value) {
+                if(value == null)
+                    return null;
+                if(applicator == null)
+                    applicator = new ReflectiveApplicator<>(sourceClass, destClass);
+                return applicator.apply(value, null);
+            }
+        };
+    }
+
+    private static boolean isBeanConversion(Type sourceType, Type destType) {
+        if(!(sourceType instanceof Class) || !(destType instanceof Class))
+            return false; //Model types are not generic
+
+        Class<?> sourceClass = (Class<?>)sourceType;
+        Class<?> destClass = (Class<?>)destType;
+        return !sourceClass.isPrimitive() && !sourceClass.isArray()
+            && AsmUtils.declaresIdentifiedMembers(sourceClass)
+            && AsmUtils.declaresIdentifiedMembers(destClass)
+            && AsmUtils.canBeConstructed(destClass);
+    }
+}
@@ -0,0 +1,130 @@
+package io.github.cshunsinger.japplicator.converters;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.PriorityBlockingQueue;
+
+import static java.util.Map.entry;
+
+/**
+ * The rules of which concrete collection types are created when a collection is converted, and how they are created.
+ * Generated applicators create collections with these rules, see {@link CollectionValueConverter}, and so do precompiled
+ * applicators, see {@link io.github.cshunsinger.japplicator.processor.ApplicatorProcessor}.
+ *
+ * This class must not depend on the bytecode generation libraries, because the annotation processor runs without them.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class CollectionTypes {
+    /**
+     * List of entries for collection interface types, and the concrete type to instantiate by default.
+     * The keys in the list of entries should be ordered from less generic to more generic, with Collection.class
+     * being the last key since it is the most generic Collection covered by this class.
+     */
+    private static final List<Map.Entry<Class<?>, Class<?>>> DEFAULT_COLLECTIONS = List.of(
+        entry(BlockingDeque.class, LinkedBlockingDeque.class),
+        entry(BlockingQueue.class, ArrayBlockingQueue.class),
+        entry(Queue.class, ArrayDeque.class),
+        entry(Set.class, HashSet.class),
+        entry(List.class, ArrayList.class),
+        entry(Collection.class, ArrayList.class)
+    );
+
+    /**
+     * The concrete collection types which are created with a sizing constructor, because the number of elements the new
+     * collection receives is known before it is created. Subclasses of these types are created with their no-args
+     * constructor, since the int parameter of their constructors could mean anything.
+     */
+    private static final Map<String, Sizing> SIZING_CONSTRUCTORS = Map.of(
+        ArrayList.class.getName(), Sizing.CAPACITY,
+        Vector.class.getName(), Sizing.CAPACITY,
+        ArrayDeque.class.getName(), Sizing.CAPACITY,
+        HashSet.class.getName(), Sizing.HASH_CAPACITY,
+        LinkedHashSet.class.getName(), Sizing.HASH_CAPACITY,
+        PriorityQueue.class.getName(), Sizing.POSITIVE_CAPACITY,
+        PriorityBlockingQueue.class.getName(), Sizing.POSITIVE_CAPACITY,
+        ArrayBlockingQueue.class.getName(), Sizing.POSITIVE_CAPACITY
+    );
+
+    /**
+     * The concrete collection types which are created with their copy constructor when the elements of the source
+     * collection are not converted. Each of them sizes itself for the source collection, and the lists copy the array of
+     * the source collection rather than adding its elements one by one. PriorityQueue and TreeSet are left out, because
+     * their copy constructors take the ordering of a sorted source.
+     */
+    private static final Set<String> COPY_CONSTRUCTORS = Set.of(
+        ArrayList.class.getName(), Vector.class.getName(), LinkedList.class.getName(),
+        ArrayDeque.class.getName(), HashSet.class.getName(), LinkedHashSet.class.getName()
+    );
+
+    /**
+     * How the number of elements of a new collection is passed to its sizing constructor.
+     */
+    public enum Sizing {
+        /**
+         * The constructor takes the initial capacity, which is the number of elements.
+         */
+        CAPACITY,
+
+        /**
+         * The constructor takes the initial capacity of a hash table, which is resized once it is fuller than its load
+         * factor of 0.75, see {@link #hashCapacity(int)}.
+         */
+        HASH_CAPACITY,
+
+        /**
+         * The constructor takes a capacity of at least 1. The capacity of an ArrayBlockingQueue is also its bound, so the
+         * new queue is full once the elements are added.
+         */
+        POSITIVE_CAPACITY;
+
+        public int capacity(int size) {
+            switch(this) {
+                case HASH_CAPACITY: return hashCapacity(size);
+                case POSITIVE_CAPACITY: return Math.max(size, 1);
+                default: return size;
+            }
+        }
+    }
+
+    /**
+     * Gets the collection interface types, each with the concrete type created for it when neither the source nor the
+     * destination collection type is concrete. The more specific interfaces come first.
+     */
+    public static List<Map.Entry<Class<?>, Class<?>>> defaultCollections() {
+        return DEFAULT_COLLECTIONS;
+    }
+
+    /**
+     * Gets how a concrete collection type is sized when it is created.
+     * @param className The binary name of the concrete collection type.
+     * @return How its sizing constructor is called, or null if it is created with its no-args constructor.
+     */
+    public static Sizing sizing(String className) {
+        return SIZING_CONSTRUCTORS.get(className);
+    }
+
+    /**
+     * Determines whether a concrete collection type is created with its copy constructor when the elements of the
+     * source collection are not converted.
+     * @param className The binary name of the concrete collection type.
+     */
+    public static boolean hasCopyConstructor(String className) {
+        return COPY_CONSTRUCTORS.contains(className);
+    }
+
+    /**
+     * Gets the initial capacity of a hash-based collection which receives the given number of elements without being
+     * resized, given the default load factor of 0.75. This method is called by precompiled applicators.
+     * @param size The number of elements.
+     * @return The initial capacity.
+     */
+    public static int hashCapacity(int size) {
+        return (int)Math.ceil(size / 0.75d);
+    }
+}
@@ -1,41 +1,38 @@
 package io.github.cshunsinger.japplicator.converters;
 
 import io.github.cshunsinger.asmsauce.code.CodeInsnBuilderLike;
-import io.github.cshunsinger.asmsauce.definitions.TypeDefinition;
 import io.github.cshunsinger.japplicator.builder.AsmUtils;
+import io.github.cshunsinger.japplicator.converters.CollectionTypes.Sizing;
 import io.github.cshunsinger.japplicator.exception.TypeConversionException;
 import io.github.cshunsinger.japplicator.exception.TypeVariableUnsupportedException;
 import io.github.cshunsinger.japplicator.exception.WildcardTypeUnsupportedException;
+import io.github.cshunsinger.japplicator.util.ReflectionsUtils;
+import org.apache.commons.lang3.reflect.ConstructorUtils;
 import org.apache.commons.lang3.reflect.TypeUtils;
 
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.*;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingDeque;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingDeque;
+import java.util.function.IntFunction;
+import java.util.function.UnaryOperator;
 
-import static io.github.cshunsinger.asmsauce.DefinitionBuilders.type;
+import static io.github.cshunsinger.asmsauce.DefinitionBuilders.*;
 import static io.github.cshunsinger.asmsauce.code.CodeBuilders.*;
-import static java.util.Map.entry;
 
 public class CollectionValueConverter {
+    public static CodeInsnBuilderLike createCollectionToCollectionValueConverter(String sourceLocalVar, Type sourceType, Type destType) throws WildcardTypeUnsupportedException, TypeVariableUnsupportedException {
+        return createCollectionToCollectionValueConverter(sourceLocalVar, sourceType, destType, null);
+    }
+
     /**
-     * List of entries for collection interface types, and the concrete type to instantiate by default.
-     * The keys in the list of entries should be ordered from less generic to more generic, with Collection.class
-     * being the last key since it is the most generic Collection covered by this class.
+     * Creates the code to convert a collection into another collection, converting model elements with the given bean
+     * conversion methods, see {@link BeanValueConverter}.
      */
-    private static final List<Map.Entry<TypeDefinition, TypeDefinition>> DEFAULT_COLLECTIONS = List.of(
-        entry(type(BlockingDeque.class), type(LinkedBlockingDeque.class)),
-        entry(type(BlockingQueue.class), type(ArrayBlockingQueue.class)),
-        entry(type(Queue.class), type(ArrayDeque.class)),
-        entry(type(Set.class), type(HashSet.class)),
-        entry(type(List.class), type(ArrayList.class)),
-        entry(type(Collection.class), type(ArrayList.class))
-    );
-
-    public static CodeInsnBuilderLike createCollectionToCollectionValueConverter(String sourceLocalVar, Type sourceType, Type destType) throws WildcardTypeUnsupportedException, TypeVariableUnsupportedException {
+    public static CodeInsnBuilderLike createCollectionToCollectionValueConverter(String sourceLocalVar, Type sourceType, Type destType,
+                                                                                 BeanConversionMethods beanMethods) throws WildcardTypeUnsupportedException, TypeVariableUnsupportedException {
         Class<?> sourceClass = TypeUtils.getRawType(sourceType, null);
         Class<?> destClass = TypeUtils.getRawType(destType, null);
 
@@ -48,8 +45,8 @@ public class CollectionValueConverter {
         Type destElementType = ((ParameterizedType)destType).getActualTypeArguments()[0];
 
         //Determine the type of collection type which can be instantiated
-        TypeDefinition concreteCollectionType = determineCollectionType(type(sourceClass), type(destClass));
-        validateNewCollectionType(concreteCollectionType, sourceType, destType);
+        Class<?> concreteCollectionClass = determineCollectionType(sourceClass, destClass);
+        validateNewCollectionType(concreteCollectionClass, sourceType, destType);
 
         Class<?> sourceElementClass = TypeUtils.getRawType(sourceElementType, null);
         if(sourceElementClass == null)
@@ -58,30 +55,58 @@ public class CollectionValueConverter {
         //Local variable names
         final String sourceValue = sourceLocalVar + "Value";
         final String newCollection = sourceLocalVar + "NewCollection";
-        final String iterator = sourceLocalVar + "Iterator";
+        final String size = sourceLocalVar + "Size";
+        final String index = sourceLocalVar + "Index";
+
+        if(isBulkCopy(sourceElementType, destElementType)) {
+            //The elements are not converted, so they are copied all at once
+            if(CollectionTypes.hasCopyConstructor(concreteCollectionClass.getName())) //new CollectionType<>(sourceLocalVar)
+                return instantiate(type(concreteCollectionClass), parameters(Collection.class), getVar(sourceLocalVar));
+
+            //!sourceLocalVar.isEmpty() ? <thenCalculate> : <elseCalculate>
+            return ternary(getVar(sourceLocalVar).invoke("isEmpty").isFalse())
+                .thenCalculate(
+                    //CollectionType<DestType> newCollection = new CollectionType<>(sourceLocalVar.size());
+                    setVar(newCollection, instantiateCollection(concreteCollectionClass, getVar(sourceLocalVar).invoke("size"))),
+                    getVar(newCollection).invoke("addAll", getVar(sourceLocalVar)), //newCollection.addAll(sourceLocalVar);
+                    getVar(newCollection)
+                )
+                .elseCalculate(
+                    instantiateCollection(concreteCollectionClass, literal(0))
+                );
+        }
 
         //!sourceLocalVar.isEmpty() ? <thenCalculate> : <elseCalculate>
         return ternary(getVar(sourceLocalVar).invoke("isEmpty").isFalse())
             .thenCalculate( // <thenCalculate>
-                setVar(newCollection, instantiate(concreteCollectionType)), //CollectionType<DestType> newCollection = new CollectionType<>();
-                setVar(iterator, getVar(sourceLocalVar).invoke("iterator")), //Iterator<SrcType> iterator = sourceLocalVar.iterator();
+                setVar(size, getVar(sourceLocalVar).invoke("size")), //int size = sourceLocalVar.size();
+                //CollectionType<DestType> newCollection = new CollectionType<>(size);
+                setVar(newCollection, instantiateCollection(concreteCollectionClass, getVar(size))),
 
-                //while(iterator.hasNext()) { ... }
-                while_(getVar(iterator).invoke("hasNext").isTrue()).do_(
-                    setVar(sourceValue, cast(sourceElementClass, getVar(iterator).invoke("next"))), //Value sourceValue = (Value)iterator.next();
-                    getVar(newCollection).invoke("add", ValueConverters.createValueConverter(sourceValue, sourceElementType, destElementType))
-                ),
+                //for each element: newCollection.add(...converted sourceValue...);
+                forEachElement(sourceLocalVar, sourceElementClass, sourceValue, size, index, readsByIndex(sourceElementType, destElementType), () -> new CodeInsnBuilderLike[] {
+                    getVar(newCollection).invoke("add", ValueConverters.createValueConverter(sourceValue, sourceElementType, destElementType, beanMethods))
+                }),
 
                 //Provide/"return" the newCollection from this side of the ternary statement
                 getVar(newCollection)
             )
             .elseCalculate( // <elseCalculate>
                 //Source collection is empty so create a new empty collection for the destination field
-                instantiate(concreteCollectionType)
+                instantiateCollection(concreteCollectionClass, literal(0))
             );
     }
 
     public static CodeInsnBuilderLike createArrayToCollectionValueConverter(String sourceLocalVar, Type sourceType, Type destType) throws WildcardTypeUnsupportedException, TypeVariableUnsupportedException {
+        return createArrayToCollectionValueConverter(sourceLocalVar, sourceType, destType, null);
+    }
+
+    /**
+     * Creates the code to convert an array into a collection, converting model elements with the given bean conversion
+     * methods, see {@link BeanValueConverter}.
+     */
+    public static CodeInsnBuilderLike createArrayToCollectionValueConverter(String sourceLocalVar, Type sourceType, Type destType,
+                                                                            BeanConversionMethods beanMethods) throws WildcardTypeUnsupportedException, TypeVariableUnsupportedException {
         Class<?> sourceClass = TypeUtils.getRawType(sourceType, null);
         Class<?> destinationClass = TypeUtils.getRawType(destType, null);
 
@@ -93,8 +118,8 @@ public class CollectionValueConverter {
         Type destElementType = ((ParameterizedType)destType).getActualTypeArguments()[0];
 
         //Determine the type of collection type which can be instantiated
-        TypeDefinition concreteCollectionType = determineCollectionType(type(sourceClass), type(destinationClass));
-        validateNewCollectionType(concreteCollectionType, sourceType, destType);
+        Class<?> concreteCollectionClass = determineCollectionType(sourceClass, destinationClass);
+        validateNewCollectionType(concreteCollectionClass, sourceType, destType);
 
         //Local variable names
         final String sourceValue = sourceLocalVar + "Value";
@@ -107,13 +132,13 @@ public class CollectionValueConverter {
             .thenCalculate( // <thenCalculate>
                 setVar(length, getVar(sourceLocalVar).length()), //int length = sourceLocalVar.length;
                 setVar(counter, literal(0)), //int counter = 0;
-                setVar(newCollection, instantiate(concreteCollectionType)), //Collection newCollection = new CollectionType()
+                setVar(newCollection, instantiateCollection(concreteCollectionClass, getVar(length))), //Collection newCollection = new CollectionType(length)
 
                 //while(counter < length) { ... }
                 while_(getVar(counter).lt(getVar(length))).do_(
                     setVar(sourceValue, getVar(sourceLocalVar).get(getVar(counter))), //SrcType sourceValue = sourceLocalVar[counter];
                     getVar(newCollection).invoke("add", //newCollection.add(...)
-                        ValueConverters.createValueConverter(sourceValue, sourceElementClass, destElementType)
+                        ValueConverters.createValueConverter(sourceValue, sourceElementClass, destElementType, beanMethods)
                     ),
 
                     setVar(counter, getVar(counter).add(literal(1))) //counter = counter + 1;
@@ -123,36 +148,289 @@ public class CollectionValueConverter {
             )
             .elseCalculate( // <elseCalculate>
                 //Source array is empty so create a new empty collection
-                instantiate(concreteCollectionType)
+                instantiateCollection(concreteCollectionClass, literal(0))
+            );
+    }
+
+    /**
+     * Creates a function which converts a collection into another collection the same way as the bytecode generated from
+     * {@link #createCollectionToCollectionValueConverter(String, Type, Type)}.
+     * @param sourceType The source collection type.
+     * @param destType The destination collection type.
+     * @return A conversion function, or null if either type is not a collection type.
+     */
+    public static UnaryOperator<Object> createReflectiveCollectionToCollectionValueConverter(Type sourceType, Type destType) throws WildcardTypeUnsupportedException, TypeVariableUnsupportedException {
+        Class<?> sourceClass = TypeUtils.getRawType(sourceType, null);
+        Class<?> destClass = TypeUtils.getRawType(destType, null);
+
+        if(!Collection.class.isAssignableFrom(sourceClass) || !Collection.class.isAssignableFrom(destClass))
+            return null; //This method only handles conversions from one collection to another
+
+        Type sourceElementType = ((ParameterizedType)sourceType).getActualTypeArguments()[0];
+        Type destElementType = ((ParameterizedType)destType).getActualTypeArguments()[0];
+
+        Class<?> concreteCollectionClass = determineCollectionType(sourceClass, destClass);
+        validateNewCollectionType(concreteCollectionClass, sourceType, destType);
+        IntFunction<Collection<Object>> newCollection = collectionConstructor(concreteCollectionClass);
+        UnaryOperator<Object> elementConverter = ValueConverters.createReflectiveValueConverter(sourceElementType, destElementType);
+
+        if(isBulkCopy(sourceElementType, destElementType)) {
+            if(CollectionTypes.hasCopyConstructor(concreteCollectionClass.getName())) {
+                Constructor<?> copyConstructor = ConstructorUtils.getAccessibleConstructor(concreteCollectionClass, Collection.class);
+                return value -> ReflectionsUtils.newInstance(copyConstructor, value);
+            }
+
+            return value -> {
+                Collection<?> source = (Collection<?>)value;
+                Collection<Object> collection = newCollection.apply(source.size());
+                collection.addAll(source);
+                return collection;
+            };
+        }
+
+        return value -> {
+            Collection<?> source = (Collection<?>)value;
+            int size = source.size();
+            Collection<Object> collection = newCollection.apply(size);
+            if(isRandomAccessList(source)) {
+                List<?> list = (List<?>)source;
+                for(int i = 0; i < size; i++)
+                    collection.add(elementConverter.apply(list.get(i)));
+            }
+            else {
+                for(Object element: source)
+                    collection.add(elementConverter.apply(element));
+            }
+            return collection;
+        };
+    }
+
+    /**
+     * Creates a function which converts an array into a collection the same way as the bytecode generated from
+     * {@link #createArrayToCollectionValueConverter(String, Type, Type)}.
+     * @param sourceType The source array type.
+     * @param destType The destination collection type.
+     * @return A conversion function, or null if the source type is not an array or the destination type is not a collection.
+     */
+    public static UnaryOperator<Object> createReflectiveArrayToCollectionValueConverter(Type sourceType, Type destType) throws WildcardTypeUnsupportedException, TypeVariableUnsupportedException {
+        Class<?> sourceClass = TypeUtils.getRawType(sourceType, null);
+        Class<?> destinationClass = TypeUtils.getRawType(destType, null);
+
+        if(!sourceClass.isArray() || !Collection.class.isAssignableFrom(destinationClass))
+            return null; //This converter only works for array -> collection type
+
+        Class<?> sourceElementClass = sourceClass.getComponentType();
+        Type destElementType = ((ParameterizedType)destType).getActualTypeArguments()[0];
+
+        Class<?> concreteCollectionClass = determineCollectionType(sourceClass, destinationClass);
+        validateNewCollectionType(concreteCollectionClass, sourceType, destType);
+        IntFunction<Collection<Object>> newCollection = collectionConstructor(concreteCollectionClass);
+        UnaryOperator<Object> elementConverter = ValueConverters.createReflectiveValueConverter(sourceElementClass, destElementType);
+
+        return value -> {
+            int length = Array.getLength(value);
+            Collection<Object> collection = newCollection.apply(length);
+            for(int i = 0; i < length; i++)
+                collection.add(elementConverter.apply(Array.get(value, i)));
+            return collection;
+        };
+    }
+
+    /**
+     * Gets the initial capacity of a hash-based collection which receives the given number of elements without being
+     * resized, given the default load factor of 0.75. This method is called by generated applicators.
+     * @param size The number of elements.
+     * @return The initial capacity.
+     */
+    public static int hashCapacity(int size) {
+        return CollectionTypes.hashCapacity(size);
+    }
+
+    /**
+     * Determines whether the elements of a collection are read by index rather than with an iterator, which is the case
+     * for lists which are {@link RandomAccess}, such as ArrayList or the lists of List.of and Arrays.asList. Reading them
+     * by index does not allocate an iterator, and leaves a counted loop for the JIT compiler to optimize. This method is
+     * called by generated applicators.
+     * @param collection The collection.
+     * @return True if the collection is a random access list.
+     */
+    public static boolean isRandomAccessList(Collection<?> collection) {
+        return collection instanceof RandomAccess && collection instanceof List;
+    }
+
+    /**
+     * Determines whether a collection whose elements are converted from one type into another is read by index when it
+     * is a random access list. Reading by index needs a loop of its own next to the iterator loop, and the element
+     * conversion is generated into both loops. An element which is a collection or an array itself is converted with
+     * loops of its own, so generating it twice at every level of nesting would double the generated code at each
+     * level. Such collections are therefore only read with their iterator, and only the innermost level, whose elements
+     * are converted without a loop, is read by index.
+     * @param sourceElementType The element type of the source collection.
+     * @param destElementType The element or component type of the destination collection or array.
+     * @return True if random access lists are read by index.
+     */
+    static boolean readsByIndex(Type sourceElementType, Type destElementType) throws WildcardTypeUnsupportedException, TypeVariableUnsupportedException {
+        ConverterKind elementConverter = ValueConverters.findConverterKind(sourceElementType, destElementType);
+        return elementConverter != ConverterKind.COLLECTION_TO_COLLECTION
+            && elementConverter != ConverterKind.ARRAY_TO_ARRAY
+            && elementConverter != ConverterKind.COLLECTION_TO_ARRAY
+            && elementConverter != ConverterKind.ARRAY_TO_COLLECTION;
+    }
+
+    /**
+     * Creates the code which reads each element of a collection into a local variable and runs the given steps for it.
+     * Random access lists are read by index and any other collection with its iterator, see
+     * {@link #isRandomAccessList(Collection)}. Either way the index variable counts the elements from 0 up to the size.
+     * @param collectionVar The local variable holding the collection.
+     * @param elementClass The class the elements are cast to.
+     * @param elementVar The local variable each element is read into.
+     * @param sizeVar The local variable already holding the size of the collection.
+     * @param indexVar The local variable holding the index of the current element.
+     * @param readByIndex Whether random access lists are read by index, see {@link #readsByIndex(Type, Type)}. If not,
+     *                    every collection is read with its iterator.
+     * @param steps Creates the steps run for each element. They are created once for each loop, so twice if random
+     *              access lists are read by index.
+     */
+    static CodeInsnBuilderLike forEachElement(String collectionVar, Class<?> elementClass, String elementVar, String sizeVar, String indexVar,
+                                              boolean readByIndex, ElementSteps steps) throws WildcardTypeUnsupportedException, TypeVariableUnsupportedException {
+        final String list = collectionVar + "List";
+        final String iterator = collectionVar + "Iterator";
+        final String randomAccess = collectionVar + "RandomAccess";
+
+        if(!readByIndex) {
+            return block(
+                setVar(indexVar, literal(0)), //int index = 0;
+                setVar(iterator, getVar(collectionVar).invoke("iterator")), //Iterator iterator = collectionVar.iterator();
+
+                //while(iterator.hasNext()) { ... }
+                while_(getVar(iterator).invoke("hasNext").isTrue()).do_(
+                    setVar(elementVar, cast(elementClass, getVar(iterator).invoke("next"))), //Value element = (Value)iterator.next();
+                    block(steps.create()),
+                    setVar(indexVar, getVar(indexVar).add(literal(1))) //index = index + 1;
+                )
             );
+        }
+
+        return block(
+            setVar(indexVar, literal(0)), //int index = 0;
+
+            //boolean randomAccess = CollectionValueConverter.isRandomAccessList(collectionVar);
+            setVar(randomAccess, invokeStatic(CollectionValueConverter.class, name("isRandomAccessList"),
+                parameters(Collection.class), type(boolean.class), getVar(collectionVar))),
+
+            //if(randomAccess) { ... }
+            if_(getVar(randomAccess).isTrue()).then(
+                setVar(list, cast(List.class, getVar(collectionVar))), //List list = (List)collectionVar;
+
+                //while(index < size) { ... }
+                while_(getVar(indexVar).lt(getVar(sizeVar))).do_(
+                    setVar(elementVar, cast(elementClass, getVar(list).invoke("get", getVar(indexVar)))), //Value element = (Value)list.get(index);
+                    block(steps.create()),
+                    setVar(indexVar, getVar(indexVar).add(literal(1))) //index = index + 1;
+                )
+            ),
+
+            //if(!randomAccess) { ... }
+            if_(getVar(randomAccess).isFalse()).then(
+                setVar(iterator, getVar(collectionVar).invoke("iterator")), //Iterator iterator = collectionVar.iterator();
+
+                //while(iterator.hasNext()) { ... }
+                while_(getVar(iterator).invoke("hasNext").isTrue()).do_(
+                    setVar(elementVar, cast(elementClass, getVar(iterator).invoke("next"))), //Value element = (Value)iterator.next();
+                    block(steps.create()),
+                    setVar(indexVar, getVar(indexVar).add(literal(1))) //index = index + 1;
+                )
+            )
+        );
     }
 
-    private static void validateNewCollectionType(TypeDefinition concreteCollectionType, Type sourceType, Type destType) {
-        if(!AsmUtils.containsEmptyConstructor(concreteCollectionType.getType())) {
+    /**
+     * Creates the steps run for each element of a collection, see
+     * {@link #forEachElement(String, Class, String, String, String, boolean, ElementSteps)}.
+     */
+    @FunctionalInterface
+    interface ElementSteps {
+        CodeInsnBuilderLike[] create() throws WildcardTypeUnsupportedException, TypeVariableUnsupportedException;
+    }
+
+    /**
+     * A collection is copied in bulk rather than element by element when converting an element leaves it as it is, see
+     * {@link ValueConverters#isIdentityConversion(Type, Type)}. The new collection is then created with its copy
+     * constructor, or created empty and filled with addAll, either of which copies the backing array of a list source
+     * at once rather than adding and casting its elements one by one.
+     */
+    private static boolean isBulkCopy(Type sourceElementType, Type destElementType) {
+        return ValueConverters.isIdentityConversion(sourceElementType, destElementType);
+    }
+
+    /**
+     * Creates the code which instantiates a new collection of the concrete collection type, using its sizing
+     * constructor if it has one.
+     * @param size The code providing the number of elements the new collection receives.
+     */
+    private static CodeInsnBuilderLike instantiateCollection(Class<?> concreteCollectionClass, CodeInsnBuilderLike size) {
+        Sizing sizing = CollectionTypes.sizing(concreteCollectionClass.getName());
+        if(sizing == null)
+            return instantiate(type(concreteCollectionClass)); //new CollectionType()
+        return instantiate(type(concreteCollectionClass), parameters(int.class), capacityStep(sizing, size)); //new CollectionType(capacity)
+    }
+
+    /**
+     * Creates the code which calculates the argument of a sizing constructor the same way as {@link Sizing#capacity(int)}.
+     */
+    private static CodeInsnBuilderLike capacityStep(Sizing sizing, CodeInsnBuilderLike size) {
+        switch(sizing) {
+            case HASH_CAPACITY: //CollectionValueConverter.hashCapacity(size)
+                return invokeStatic(CollectionValueConverter.class, name("hashCapacity"), parameters(int.class), type(int.class), size);
+            case POSITIVE_CAPACITY: //Math.max(size, 1)
+                return invokeStatic(Math.class, name("max"), parameters(int.class, int.class), type(int.class), size, literal(1));
+            default:
+                return size;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static IntFunction<Collection<Object>> collectionConstructor(Class<?> concreteCollectionClass) {
+        Sizing sizing = CollectionTypes.sizing(concreteCollectionClass.getName());
+        if(sizing == null) {
+            Constructor<?> constructor = ConstructorUtils.getAccessibleConstructor(concreteCollectionClass);
+            return size -> (Collection<Object>)ReflectionsUtils.newInstance(constructor);
+        }
+
+        Constructor<?> constructor = ConstructorUtils.getAccessibleConstructor(concreteCollectionClass, int.class);
+        return size -> (Collection<Object>)ReflectionsUtils.newInstance(constructor, sizing.capacity(size));
+    }
+
+    private static void validateNewCollectionType(Class<?> concreteCollectionType, Type sourceType, Type destType) {
+        if(!AsmUtils.containsEmptyConstructor(concreteCollectionType) && CollectionTypes.sizing(concreteCollectionType.getName()) == null) {
             //Throw exception because the desired collection type cannot be instantiated
             String badCollectionReason = "Collection type %s does not have a no-args constructor."
-                .formatted(concreteCollectionType.getType().getName());
+                .formatted(concreteCollectionType.getName());
             throw new TypeConversionException(badCollectionReason, sourceType, destType, null);
         }
     }
 
     @SuppressWarnings("OptionalGetWithoutIsPresent")
-    private static TypeDefinition determineCollectionType(TypeDefinition sourceType, TypeDefinition destType) {
-        if(destType.isConcreteClass()) {
+    private static Class<?> determineCollectionType(Class<?> sourceType, Class<?> destType) {
+        if(isConcreteClass(destType)) {
             //If destType is a concrete class then it is an ideal candidate.
             return destType;
         }
 
-        if(sourceType.isConcreteClass() && destType.isAssignableFrom(sourceType)) {
+        if(isConcreteClass(sourceType) && destType.isAssignableFrom(sourceType)) {
             //If sourceType is a concrete class and can be assigned to the destination then use that type
             return sourceType;
         }
 
         //Neither the source nor destination collection types are concrete. Must find at least one concrete type.
-        return DEFAULT_COLLECTIONS.stream()
+        return CollectionTypes.defaultCollections().stream()
             .filter(entry -> destType.isAssignableFrom(entry.getKey()))
             .map(Map.Entry::getValue)
             .findFirst()
             .get(); //Guaranteed to have a value
     }
-}
\ No newline at end of file
+
+    private static boolean isConcreteClass(Class<?> type) {
+        return !type.isInterface() && !type.isArray() && !type.isPrimitive() && !Modifier.isAbstract(type.getModifiers());
+    }
+}
@@ -0,0 +1,43 @@
+package io.github.cshunsinger.japplicator.converters;
+
+/**
+ * The kind of conversion which {@link ValueConverters} chooses to convert a source value into a destination value.
+ */
+public enum ConverterKind {
+    /**
+     * Each element of a source collection is converted and added to a new destination collection.
+     */
+    COLLECTION_TO_COLLECTION,
+
+    /**
+     * Each element of a source array is converted and stored in a new destination array.
+     */
+    ARRAY_TO_ARRAY,
+
+    /**
+     * Each element of a source collection is converted and stored in a new destination array.
+     */
+    COLLECTION_TO_ARRAY,
+
+    /**
+     * Each element of a source array is converted and added to a new destination collection.
+     */
+    ARRAY_TO_COLLECTION,
+
+    /**
+     * A single value is cast, boxed, unboxed, or converted to a String.
+     */
+    SINGLE_VALUE,
+
+    /**
+     * A model object is converted into a new model object of another type, by mapping its values the same way as an
+     * applicator of the two types would.
+     */
+    BEAN_TO_BEAN,
+
+    /**
+     * The source value itself is set on a destination member annotated with
+     * {@link io.github.cshunsinger.japplicator.annotation.ShareReference}, without being copied.
+     */
+    SHARED_REFERENCE
+}
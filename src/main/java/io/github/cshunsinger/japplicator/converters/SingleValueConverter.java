@@ -3,6 +3,7 @@ package io.github.cshunsinger.japplicator.converters;
 import io.github.cshunsinger.asmsauce.code.CodeInsnBuilderLike;
 
 import java.lang.reflect.Type;
+import java.util.function.UnaryOperator;
 
 import static io.github.cshunsinger.asmsauce.DefinitionBuilders.*;
 import static io.github.cshunsinger.asmsauce.code.CodeBuilders.cast;
@@ -45,6 +46,75 @@ public class SingleValueConverter {
         return null;
     }
 
+    /**
+     * Creates a function which converts a single value the same way as the bytecode generated from
+     * {@link #createSingletonValueConverter(CodeInsnBuilderLike, Type, Type)}. Primitive values are passed to and
+     * returned from the function in their boxed form.
+     * @param sourceType The source value type.
+     * @param destType The desired type to convert the source value in to.
+     * @return A function which converts a source value into a destination value, or null if the conversion is not possible.
+     */
+    public static UnaryOperator<Object> createReflectiveSingletonValueConverter(Type sourceType, Type destType) {
+        if(!(sourceType instanceof Class) || !(destType instanceof Class))
+            return null; //This converter only deals with classes, not types
+
+        Class<?> sourceClass = (Class<?>)sourceType;
+        Class<?> destClass = (Class<?>)destType;
+
+        //Primitives and wrappers are converted to the primitive type of the destination, then boxed again if needed
+        if(isPrimitiveOrWrapper(sourceClass) && isPrimitiveOrWrapper(destClass)) {
+            Class<?> destPrimitive = destClass.isPrimitive() ? destClass : wrapperToPrimitive(destClass);
+            Class<?> sourcePrimitive = sourceClass.isPrimitive() ? sourceClass : wrapperToPrimitive(sourceClass);
+            return sourcePrimitive == destPrimitive ? UnaryOperator.identity() : value -> convertPrimitive(value, destPrimitive);
+        }
+
+        //A boxed primitive is already an instance of its wrapper type
+        if(sourceClass.isPrimitive() && destClass.isAssignableFrom(primitiveToWrapper(sourceClass)))
+            return UnaryOperator.identity();
+
+        if(destClass.isAssignableFrom(sourceClass))
+            return UnaryOperator.identity();
+
+        if(destClass.isAssignableFrom(String.class)) {
+            if(sourceClass == char[].class)
+                return value -> String.valueOf((char[])value);
+            return String::valueOf;
+        }
+
+        return null;
+    }
+
+    /**
+     * Converts a boxed primitive value into the boxed value of another primitive type, with the same results as a
+     * primitive cast in the JVM. Booleans are treated as the integers 0 and 1.
+     */
+    private static Object convertPrimitive(Object value, Class<?> destPrimitive) {
+        Number number;
+        if(value instanceof Boolean)
+            number = (Boolean)value ? 1 : 0;
+        else if(value instanceof Character)
+            number = (int)(Character)value;
+        else
+            number = (Number)value; //A null wrapper value fails to unbox here, just like it does in generated bytecode
+
+        if(destPrimitive == int.class)
+            return number.intValue();
+        else if(destPrimitive == long.class)
+            return number.longValue();
+        else if(destPrimitive == double.class)
+            return number.doubleValue();
+        else if(destPrimitive == float.class)
+            return number.floatValue();
+        else if(destPrimitive == short.class)
+            return (short)number.intValue();
+        else if(destPrimitive == byte.class)
+            return (byte)number.intValue();
+        else if(destPrimitive == char.class)
+            return (char)number.intValue();
+        else
+            return (number.intValue() & 1) != 0;
+    }
+
     /**
      * Any value can be converted into a String or any type assignable-from String.
      * All primitives have a String form.
@@ -7,8 +7,11 @@ import io.github.cshunsinger.japplicator.exception.WildcardTypeUnsupportedExcept
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.lang.reflect.WildcardType;
+import java.util.Collection;
+import java.util.function.UnaryOperator;
 
 import static io.github.cshunsinger.asmsauce.code.CodeBuilders.getVar;
+import static org.apache.commons.lang3.ClassUtils.isPrimitiveOrWrapper;
 
 /**
  * Contains code for generating asmsauce code builders which will generate the JVM bytecode for converting values
@@ -28,6 +31,26 @@ public class ValueConverters {
      * @throws TypeVariableUnsupportedException If a type variable is encountered.
      */
     public static CodeInsnBuilderLike createValueConverter(String sourceLocalVar, Type sourceType, Type destType) throws WildcardTypeUnsupportedException, TypeVariableUnsupportedException {
+        return createValueConverter(sourceLocalVar, sourceType, destType, null);
+    }
+
+    /**
+     * Create the asmsauce code builders to handle the conversion of one type of data into another type of data, see
+     * {@link #createValueConverter(String, Type, Type)}. Model objects, including the model elements of collections and
+     * arrays, are converted into model objects of another type by calling the bean conversion methods of the class being
+     * generated.
+     * @param sourceLocalVar The name of the local variable containing the source value.
+     * @param sourceType The source value type.
+     * @param destType The desired type to convert the source value in to.
+     * @param beanMethods The bean conversion methods of the class being generated, or null if model objects cannot be
+     *                    converted into model objects of another type.
+     * @return A code builder, which will generate bytecode to convert a source value into a destination value of a
+     * desired type.
+     * @throws WildcardTypeUnsupportedException If a wildcard type is encountered.
+     * @throws TypeVariableUnsupportedException If a type variable is encountered.
+     */
+    public static CodeInsnBuilderLike createValueConverter(String sourceLocalVar, Type sourceType, Type destType,
+                                                           BeanConversionMethods beanMethods) throws WildcardTypeUnsupportedException, TypeVariableUnsupportedException {
         //Wildcards and variable generic types are not supported
         if(sourceType instanceof WildcardType || destType instanceof WildcardType)
             throw new WildcardTypeUnsupportedException();
@@ -37,22 +60,121 @@ public class ValueConverters {
         CodeInsnBuilderLike codeBuilder;
 
         //Collection -> Collection conversion
-        if((codeBuilder = CollectionValueConverter.createCollectionToCollectionValueConverter(sourceLocalVar, sourceType, destType)) != null)
+        if((codeBuilder = CollectionValueConverter.createCollectionToCollectionValueConverter(sourceLocalVar, sourceType, destType, beanMethods)) != null)
             return codeBuilder;
 
         //Array -> Array conversion
-        if((codeBuilder = ArrayValueConverter.createArrayToArrayValueConverter(sourceLocalVar, sourceType, destType)) != null)
+        if((codeBuilder = ArrayValueConverter.createArrayToArrayValueConverter(sourceLocalVar, sourceType, destType, beanMethods)) != null)
             return codeBuilder;
 
         //Collection -> Array conversion
-        if((codeBuilder = ArrayValueConverter.createCollectionToArrayValueConverter(sourceLocalVar, sourceType, destType)) != null)
+        if((codeBuilder = ArrayValueConverter.createCollectionToArrayValueConverter(sourceLocalVar, sourceType, destType, beanMethods)) != null)
             return codeBuilder;
 
         //Array -> Collection conversion
-        if((codeBuilder = CollectionValueConverter.createArrayToCollectionValueConverter(sourceLocalVar, sourceType, destType)) != null)
+        if((codeBuilder = CollectionValueConverter.createArrayToCollectionValueConverter(sourceLocalVar, sourceType, destType, beanMethods)) != null)
             return codeBuilder;
 
         //Single value -> single value conversion
-        return SingleValueConverter.createSingletonValueConverter(getVar(sourceLocalVar), sourceType, destType);
+        if((codeBuilder = SingleValueConverter.createSingletonValueConverter(getVar(sourceLocalVar), sourceType, destType)) != null)
+            return codeBuilder;
+
+        //Model object -> model object conversion
+        return BeanValueConverter.createBeanToBeanValueConverter(sourceLocalVar, sourceType, destType, beanMethods);
+    }
+
+    /**
+     * Creates a function which converts one type of data into another type of data, using the same conversions as the
+     * bytecode created by {@link #createValueConverter(String, Type, Type)}. Functions are slower than generated bytecode,
+     * however they are available right away without generating any classes.
+     * @param sourceType The source value type.
+     * @param destType The desired type to convert the source value in to.
+     * @return A function which converts a source value into a destination value, or null if the conversion is not possible.
+     * @throws WildcardTypeUnsupportedException If a wildcard type is encountered.
+     * @throws TypeVariableUnsupportedException If a type variable is encountered.
+     */
+    public static UnaryOperator<Object> createReflectiveValueConverter(Type sourceType, Type destType) throws WildcardTypeUnsupportedException, TypeVariableUnsupportedException {
+        //Wildcards and variable generic types are not supported
+        if(sourceType instanceof WildcardType || destType instanceof WildcardType)
+            throw new WildcardTypeUnsupportedException();
+        else if(sourceType instanceof TypeVariable || destType instanceof TypeVariable)
+            throw new TypeVariableUnsupportedException();
+
+        UnaryOperator<Object> converter;
+
+        //Collection -> Collection conversion
+        if((converter = CollectionValueConverter.createReflectiveCollectionToCollectionValueConverter(sourceType, destType)) != null)
+            return converter;
+
+        //Array -> Array conversion
+        if((converter = ArrayValueConverter.createReflectiveArrayToArrayValueConverter(sourceType, destType)) != null)
+            return converter;
+
+        //Collection -> Array conversion
+        if((converter = ArrayValueConverter.createReflectiveCollectionToArrayValueConverter(sourceType, destType)) != null)
+            return converter;
+
+        //Array -> Collection conversion
+        if((converter = CollectionValueConverter.createReflectiveArrayToCollectionValueConverter(sourceType, destType)) != null)
+            return converter;
+
+        //Single value -> single value conversion
+        if((converter = SingleValueConverter.createReflectiveSingletonValueConverter(sourceType, destType)) != null)
+            return converter;
+
+        //Model object -> model object conversion
+        return BeanValueConverter.createReflectiveBeanToBeanValueConverter(sourceType, destType);
+    }
+
+    /**
+     * Determines which kind of conversion {@link #createValueConverter(String, Type, Type)} and
+     * {@link #createReflectiveValueConverter(Type, Type)} use to convert one type of data into another type of data.
+     * @param sourceType The source value type.
+     * @param destType The desired type to convert the source value in to.
+     * @return The kind of conversion, or null if the conversion is not possible.
+     * @throws WildcardTypeUnsupportedException If a wildcard type is encountered.
+     * @throws TypeVariableUnsupportedException If a type variable is encountered.
+     */
+    public static ConverterKind findConverterKind(Type sourceType, Type destType) throws WildcardTypeUnsupportedException, TypeVariableUnsupportedException {
+        //Wildcards and variable generic types are not supported
+        if(sourceType instanceof WildcardType || destType instanceof WildcardType)
+            throw new WildcardTypeUnsupportedException();
+        else if(sourceType instanceof TypeVariable || destType instanceof TypeVariable)
+            throw new TypeVariableUnsupportedException();
+
+        if(CollectionValueConverter.createReflectiveCollectionToCollectionValueConverter(sourceType, destType) != null)
+            return ConverterKind.COLLECTION_TO_COLLECTION;
+        if(ArrayValueConverter.createReflectiveArrayToArrayValueConverter(sourceType, destType) != null)
+            return ConverterKind.ARRAY_TO_ARRAY;
+        if(ArrayValueConverter.createReflectiveCollectionToArrayValueConverter(sourceType, destType) != null)
+            return ConverterKind.COLLECTION_TO_ARRAY;
+        if(CollectionValueConverter.createReflectiveArrayToCollectionValueConverter(sourceType, destType) != null)
+            return ConverterKind.ARRAY_TO_COLLECTION;
+        if(SingleValueConverter.createReflectiveSingletonValueConverter(sourceType, destType) != null)
+            return ConverterKind.SINGLE_VALUE;
+        if(BeanValueConverter.createReflectiveBeanToBeanValueConverter(sourceType, destType) != null)
+            return ConverterKind.BEAN_TO_BEAN;
+        return null;
+    }
+
+    /**
+     * Determines whether converting a value of one type into another type leaves the value as it is, because the value
+     * is at most cast. Collections and arrays are never left as they are, since they are converted into new collections
+     * and arrays, and neither are primitives and wrappers which are converted into another primitive or wrapper type.
+     * @param sourceType The source value type.
+     * @param destType The desired type to convert the source value in to.
+     * @return True if a source value is converted into itself.
+     */
+    public static boolean isIdentityConversion(Type sourceType, Type destType) {
+        if(!(sourceType instanceof Class) || !(destType instanceof Class))
+            return false;
+
+        Class<?> sourceClass = (Class<?>)sourceType;
+        Class<?> destClass = (Class<?>)destType;
+        if(sourceClass.isArray() || destClass.isArray() || Collection.class.isAssignableFrom(sourceClass) || Collection.class.isAssignableFrom(destClass))
+            return false;
+        if(isPrimitiveOrWrapper(sourceClass) && isPrimitiveOrWrapper(destClass))
+            return sourceClass == destClass;
+        return !sourceClass.isPrimitive() && destClass.isAssignableFrom(sourceClass);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,12 @@
+package io.github.cshunsinger.japplicator.processor;
+
+/**
+ * Thrown while generating the source code of a precompiled applicator when the pair cannot be mapped, for example
+ * because a value cannot be converted into the type of its destination. The annotation processor reports the message
+ * as a compilation error.
+ */
+class ApplicatorGenerationException extends RuntimeException {
+    ApplicatorGenerationException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,131 @@
+package io.github.cshunsinger.japplicator.processor;
+
+import io.github.cshunsinger.japplicator.annotation.GenerateApplicator;
+import io.github.cshunsinger.japplicator.annotation.GenerateApplicators;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.MirroredTypeException;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Generates the applicators of the pairs declared with {@link GenerateApplicator} at compile time. The generated
+ * applicators are regular classes compiled along with the rest of the project, so no bytecode has to be generated for
+ * these pairs at runtime, see {@link io.github.cshunsinger.japplicator.builder.PrecompiledApplicators}.
+ *
+ * Only members which are visible to the compiler are mapped. If accessor methods are generated by another annotation
+ * processor, such as Lombok, that processor has to run before this one.
+ *
+ * The processor is not registered as a service, so it never runs in projects which do not ask for it. A project which
+ * precompiles applicators enables it explicitly, for example with
+ * <code>-processor io.github.cshunsinger.japplicator.processor.ApplicatorProcessor</code> (along with any other
+ * processors the project runs) and the J-Applicator jar on the processor path. The processor does not need the bytecode
+ * generation libraries of J-Applicator, so they can be left off the processor path.
+ */
+@SupportedAnnotationTypes({
+    "io.github.cshunsinger.japplicator.annotation.GenerateApplicator",
+    "io.github.cshunsinger.japplicator.annotation.GenerateApplicators"
+})
+public class ApplicatorProcessor extends AbstractProcessor {
+    private final Set<String> generatedClasses = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for(Element element: roundEnv.getElementsAnnotatedWithAny(Set.of(GenerateApplicator.class, GenerateApplicators.class))) {
+            for(GenerateApplicator pair: element.getAnnotationsByType(GenerateApplicator.class))
+                generateApplicator(element, typeElement(pair::source), typeElement(pair::destination));
+        }
+        return true;
+    }
+
+    private void generateApplicator(Element annotatedElement, TypeElement sourceType, TypeElement destinationType) {
+        if(sourceType == null || destinationType == null) {
+            error(annotatedElement, "The source and destination of a precompiled applicator must be classes.");
+            return;
+        }
+
+        ApplicatorSourceWriter writer = new ApplicatorSourceWriter(
+            processingEnv.getElementUtils(), processingEnv.getTypeUtils(), sourceType, destinationType
+        );
+        String className = writer.packageName().isEmpty() ?
+            writer.simpleClassName() :
+            writer.packageName() + "." + writer.simpleClassName();
+        if(!generatedClasses.add(className))
+            return; //The same pair was declared more than once
+
+        for(TypeElement type: new TypeElement[] {sourceType, destinationType}) {
+            if(!isAccessibleFrom(type, writer.packageName())) {
+                error(annotatedElement, String.format("Cannot precompile an applicator from %s to %s because %s is not accessible from package %s.",
+                    sourceType.getQualifiedName(), destinationType.getQualifiedName(), type.getQualifiedName(), writer.packageName()));
+                return;
+            }
+        }
+
+        try {
+            String source = writer.write();
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(className, annotatedElement, sourceType, destinationType);
+            try(Writer out = file.openWriter()) {
+                out.write(source);
+            }
+        }
+        catch(ApplicatorGenerationException ex) {
+            error(annotatedElement, String.format("Cannot precompile an applicator from %s to %s. %s",
+                sourceType.getQualifiedName(), destinationType.getQualifiedName(), ex.getMessage()));
+        }
+        catch(IOException ex) {
+            error(annotatedElement, "Could not write precompiled applicator " + className + ": " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Reads a class value of an annotation. Class values cannot be loaded during compilation, so reading one throws an
+     * exception holding the type of the class instead.
+     */
+    private static TypeElement typeElement(Supplier<Class<?>> annotationValue) {
+        TypeMirror type;
+        try {
+            annotationValue.get();
+            return null; //Only reachable if the class was already compiled and loaded, which does not happen in javac
+        }
+        catch(MirroredTypeException ex) {
+            type = ex.getTypeMirror();
+        }
+
+        if(type.getKind() != TypeKind.DECLARED)
+            return null;
+        return (TypeElement)((DeclaredType)type).asElement();
+    }
+
+    private boolean isAccessibleFrom(TypeElement type, String packageName) {
+        String typePackage = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        for(Element enclosing = type; enclosing instanceof TypeElement; enclosing = enclosing.getEnclosingElement()) {
+            Set<Modifier> modifiers = enclosing.getModifiers();
+            if(modifiers.contains(Modifier.PRIVATE))
+                return false;
+            if(!modifiers.contains(Modifier.PUBLIC) && !typePackage.equals(packageName))
+                return false;
+        }
+        return true;
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -0,0 +1,859 @@
+package io.github.cshunsinger.japplicator.processor;
+
+import io.github.cshunsinger.japplicator.Applicator;
+import io.github.cshunsinger.japplicator.annotation.FieldIdentifier;
+import io.github.cshunsinger.japplicator.annotation.Nested;
+import io.github.cshunsinger.japplicator.builder.ApplicatorBuilder;
+import io.github.cshunsinger.japplicator.builder.MappingTrees;
+import io.github.cshunsinger.japplicator.builder.PrecompiledApplicators;
+import io.github.cshunsinger.japplicator.converters.CollectionTypes;
+import io.github.cshunsinger.japplicator.util.ReflectionsUtils;
+
+import javax.lang.model.element.*;
+import javax.lang.model.type.*;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.apache.commons.lang3.StringUtils.capitalize;
+
+/**
+ * Writes the Java source code of a precompiled applicator. The members of the source and destination types are found
+ * by the same introspected models and mapping trees as {@link io.github.cshunsinger.japplicator.builder.SourceNode} and
+ * {@link io.github.cshunsinger.japplicator.builder.DestinationNode}, read from the compiler's model of the types rather
+ * than from their classes, see {@link CompilerModelElements}, and the generated source does the same thing as the
+ * bytecode generated by the applicator builder. Like generated applicators, precompiled applicators map in a static
+ * method which takes the exact source and destination types, and their other entry points delegate to it. The values of
+ * @Nested source objects are mapped by one private static method per nested type, identifier prefix and destination
+ * type, which every place that reads them calls, and a recursive @Nested member calls the method it is mapped in. The
+ * @Nested destination objects which are created when they are missing are read by one private static method per
+ * member.
+ *
+ * Every value is converted in the generated source itself. Single values are converted inline, and collections, arrays,
+ * and model objects which are converted into model objects of another type are converted by private static methods of
+ * the precompiled applicator, one per pair of types, the same way as the converters of generated applicators.
+ *
+ * The writer must not use the bytecode generation classes of the library, because the annotation processor runs
+ * without them.
+ */
+class ApplicatorSourceWriter {
+    private static final String INDENT = "    ";
+
+    /*
+     * Javac does not measure the bytecode it writes, so a mapping is split into part methods once it maps more values
+     * than fit in HotSpot's HugeMethodLimit at a typical size of ~20 bytes per value, with parts of about FreqInlineSize.
+     */
+    private static final int MAX_SOURCES_PER_METHOD = 256;
+    private static final int SOURCES_PER_PART_METHOD = 16;
+
+    private static final MappingTrees.SourceNodes<TypeElement, ExecutableElement, SourceMember> SOURCE_NODES = new MappingTrees.SourceNodes<>() {
+        @Override
+        public SourceMember value(String identifierName, ExecutableElement getter) {
+            return new SourceMember(identifierName, getter, null, null);
+        }
+
+        @Override
+        public SourceMember nested(ExecutableElement getter, TypeElement nestedType, String nestedPrefix, List<SourceMember> nestedNodes) {
+            return new SourceMember(null, getter, nestedNodes, nestedPrefix);
+        }
+
+        @Override
+        public SourceMember recursive(ExecutableElement getter, TypeElement nestedType, String nestedPrefix) {
+            return new SourceMember(null, getter, null, nestedPrefix);
+        }
+    };
+
+    private static final MappingTrees.DestinationNodes<ExecutableElement, DestinationMember> DESTINATION_NODES = new MappingTrees.DestinationNodes<>() {
+        @Override
+        public DestinationMember value(ExecutableElement setter, boolean sharesReference) {
+            return new DestinationMember(setter, null, null, sharesReference);
+        }
+
+        @Override
+        public DestinationMember nested(ExecutableElement getter, ExecutableElement setter, List<DestinationMember> nestedNodes) {
+            return new DestinationMember(setter, getter, nestedNodes, false);
+        }
+    };
+
+    private final Elements elements;
+    private final Types types;
+    private final CompilerModelElements models;
+    private final TypeElement sourceType;
+    private final TypeElement destinationType;
+    private final TypeMirror collectionType;
+    private final TypeMirror stringType;
+
+    private final Set<String> localVariables = new HashSet<>();
+    private final Map<String, String> nestedMethodNames = new HashMap<>(); //The name is null if nothing nested is mapped
+    private final Map<String, String> destinationMethodNames = new HashMap<>();
+    private final Map<String, String> conversionMethodNames = new HashMap<>();
+    private final List<String> nestedMethods = new ArrayList<>();
+    private final List<String> partMethods = new ArrayList<>();
+    private final List<String> conversionMethods = new ArrayList<>();
+
+    ApplicatorSourceWriter(Elements elements, Types types, TypeElement sourceType, TypeElement destinationType) {
+        this.elements = elements;
+        this.types = types;
+        this.models = new CompilerModelElements(elements, types);
+        this.sourceType = sourceType;
+        this.destinationType = destinationType;
+        this.collectionType = types.erasure(elements.getTypeElement(Collection.class.getName()).asType());
+        this.stringType = elements.getTypeElement(String.class.getName()).asType();
+    }
+
+    /**
+     * Gets the package of the precompiled applicator, which is the package of the source type.
+     */
+    String packageName() {
+        return elements.getPackageOf(sourceType).getQualifiedName().toString();
+    }
+
+    /**
+     * Gets the simple name of the precompiled applicator class, see
+     * {@link PrecompiledApplicators#precompiledClassName(String, String)}.
+     */
+    String simpleClassName() {
+        String className = PrecompiledApplicators.precompiledClassName(
+            elements.getBinaryName(sourceType).toString(),
+            elements.getBinaryName(destinationType).toString()
+        );
+        String packageName = packageName();
+        return packageName.isEmpty() ? className : className.substring(packageName.length() + 1);
+    }
+
+    /**
+     * Writes the complete source code of the precompiled applicator class.
+     * @return The source code.
+     * @throws ApplicatorGenerationException If the pair cannot be mapped.
+     */
+    String write() {
+        String sourceName = typeName(sourceType.asType());
+        String destinationName = typeName(destinationType.asType());
+
+        List<String> body = new ArrayList<>();
+        body.add("if(to == null)");
+        body.add(INDENT + (canBeConstructed(destinationType.asType()) ? "to = new " + destinationName + "();" : "return null;"));
+        body.add("if(from == null)");
+        body.add(INDENT + "return to;");
+        body.addAll(writeMapping("applyPart", sourceType, destinationType));
+        body.add("return to;");
+
+        StringBuilder code = new StringBuilder();
+        if(!packageName().isEmpty())
+            code.append("package ").append(packageName()).append(";\n\n");
+        code.append("@javax.annotation.processing.Generated(\"").append(ApplicatorProcessor.class.getName()).append("\")\n");
+        code.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+        code.append("public final class ").append(simpleClassName())
+            .append(" extends ").append(Applicator.class.getName())
+            .append('<').append(sourceName).append(", ").append(destinationName).append("> {\n");
+        code.append(INDENT).append("@Override\n");
+        code.append(INDENT).append("public ").append(destinationName).append(" apply(")
+            .append(sourceName).append(" from, ").append(destinationName).append(" to) {\n");
+        code.append(INDENT).append(INDENT).append("return ").append(ApplicatorBuilder.STATIC_METHOD_NAME).append("(from, to);\n");
+        code.append(INDENT).append("}\n\n");
+        code.append(INDENT).append("public ").append(destinationName).append(' ').append(ApplicatorBuilder.TYPED_METHOD_NAME).append('(')
+            .append(sourceName).append(" from, ").append(destinationName).append(" to) {\n");
+        code.append(INDENT).append(INDENT).append("return ").append(ApplicatorBuilder.STATIC_METHOD_NAME).append("(from, to);\n");
+        code.append(INDENT).append("}\n\n");
+        code.append(INDENT).append("public static ").append(destinationName).append(' ').append(ApplicatorBuilder.STATIC_METHOD_NAME).append('(')
+            .append(sourceName).append(" from, ").append(destinationName).append(" to) {\n");
+        for(String line: body)
+            code.append(INDENT).append(INDENT).append(line).append('\n');
+        code.append(INDENT).append("}\n");
+        for(String partMethod: partMethods)
+            code.append('\n').append(partMethod);
+        for(String nestedMethod: nestedMethods)
+            code.append('\n').append(nestedMethod);
+        for(String conversionMethod: conversionMethods)
+            code.append('\n').append(conversionMethod);
+        code.append("}\n");
+        return code.toString();
+    }
+
+    /**
+     * Writes the steps which map every value of a source object, held in "from", onto a destination object, held in "to".
+     * @param partNamePrefix The prefix of the names of the part methods, if the steps are split into parts.
+     */
+    private List<String> writeMapping(String partNamePrefix, TypeElement fromType, TypeElement toType) {
+        List<List<String>> sourceSteps = createSources(fromType, "").stream()
+            .map(source -> writeSource(source, toType, "from"))
+            .filter(steps -> !steps.isEmpty())
+            .collect(Collectors.toList());
+        return splitIntoParts(partNamePrefix, fromType.asType(), toType.asType(), sourceSteps);
+    }
+
+    /*
+     * Source side, built like SourceNode
+     */
+
+    private static class SourceMember {
+        final String identifierName; //Null for a nested member
+        final ExecutableElement getter;
+        final List<SourceMember> nestedMembers; //Null for a recursive nested member
+        final String nestedPrefix; //Only non-null for a nested member
+
+        SourceMember(String identifierName, ExecutableElement getter, List<SourceMember> nestedMembers, String nestedPrefix) {
+            this.identifierName = identifierName;
+            this.getter = getter;
+            this.nestedMembers = nestedMembers;
+            this.nestedPrefix = nestedPrefix;
+        }
+    }
+
+    private List<SourceMember> createSources(TypeElement type, String fieldIdentifiedPrefix) {
+        return MappingTrees.<TypeElement, ExecutableElement, SourceMember>sources(models::model, type, fieldIdentifiedPrefix, new HashMap<>(), null, SOURCE_NODES);
+    }
+
+    private List<String> writeSource(SourceMember source, TypeElement toType, String fromVar) {
+        String nextFromVar = localVariable(fromVar + capitalize(fieldNameFromMethodName(source.getter)));
+        List<String> steps = new ArrayList<>();
+
+        if(source.identifierName == null) {
+            //This is a nested step, which calls the shared method of the nested type
+            String methodName = nestedMethodFor(source, toType);
+            if(methodName != null)
+                steps.add(methodName + "(" + nextFromVar + ", to);");
+        }
+        else {
+            //This is not a nested step
+            for(DestinationMember destination: createDestinationsForField(source.identifierName, toType))
+                steps.addAll(writeDestination(destination, "to", source, nextFromVar));
+        }
+
+        if(steps.isEmpty()) {
+            localVariables.remove(nextFromVar);
+            return steps;
+        }
+
+        List<String> lines = new ArrayList<>();
+        lines.add("var " + nextFromVar + " = " + fromVar + "." + source.getter.getSimpleName() + "();");
+        if(source.getter.getReturnType().getKind().isPrimitive())
+            lines.addAll(steps);
+        else
+            lines.addAll(ifBlock(nextFromVar + " != null", steps));
+        return lines;
+    }
+
+    /**
+     * Gets the name of the private static method which maps the values of a nested source object onto a destination
+     * object, writing the method if it has not been written yet, see NestedMappingMethods.
+     * @return The method name, or null if no value of the nested source object is mapped.
+     */
+    private String nestedMethodFor(SourceMember source, TypeElement toType) {
+        TypeMirror nestedType = source.getter.getReturnType();
+        String key = typeName(nestedType) + ' ' + source.nestedPrefix + ' ' + typeName(toType.asType());
+        if(nestedMethodNames.containsKey(key))
+            return nestedMethodNames.get(key);
+
+        //The name is reserved before the body is written, because the body can need methods of its own
+        String methodName = "applyNested" + nestedMethodNames.size();
+        nestedMethodNames.put(key, methodName);
+
+        //The members of a recursive member are created again, the same as for the enclosing member which reads the same type
+        List<SourceMember> nestedMembers = source.nestedMembers != null ? source.nestedMembers
+            : createSources(asTypeElement(nestedType), source.nestedPrefix);
+        List<List<String>> sourceSteps = nestedMembers.stream()
+            .map(nestedSource -> writeSource(nestedSource, toType, "from"))
+            .filter(steps -> !steps.isEmpty())
+            .collect(Collectors.toList());
+        if(sourceSteps.isEmpty()) {
+            nestedMethodNames.put(key, null);
+            return null;
+        }
+
+        List<String> body = splitIntoParts(methodName + "Part", nestedType, toType.asType(), sourceSteps);
+        nestedMethods.add(privateStaticMethod(methodName, nestedType, toType.asType(), body));
+        return methodName;
+    }
+
+    /**
+     * Writes the body of a mapping method from the steps of its sources. If there are too many sources for one method,
+     * the steps are split into private static part methods and the body calls them in order, see
+     * ApplicatorBuilder#generateBytecode().
+     * @param partNamePrefix The prefix of the names of the part methods, which are numbered from 0.
+     * @param fromType The type of the source object of the mapping method.
+     * @param toType The type of the destination object of the mapping method.
+     * @param sourceSteps The steps of each source.
+     * @return The lines of the body.
+     */
+    private List<String> splitIntoParts(String partNamePrefix, TypeMirror fromType, TypeMirror toType, List<List<String>> sourceSteps) {
+        List<String> body = new ArrayList<>();
+        if(sourceSteps.size() <= MAX_SOURCES_PER_METHOD) {
+            sourceSteps.forEach(body::addAll);
+            return body;
+        }
+
+        for(int i = 0; i < sourceSteps.size(); i += SOURCES_PER_PART_METHOD) {
+            String partName = partNamePrefix + (i / SOURCES_PER_PART_METHOD);
+            List<String> partBody = sourceSteps.subList(i, Math.min(i + SOURCES_PER_PART_METHOD, sourceSteps.size())).stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+            partMethods.add(privateStaticMethod(partName, fromType, toType, partBody));
+            body.add(partName + "(from, to);");
+        }
+        return body;
+    }
+
+    /**
+     * Writes a private static method which maps values from a source object of the given type onto a destination object.
+     */
+    private String privateStaticMethod(String methodName, TypeMirror fromType, TypeMirror toType, List<String> body) {
+        return method("private static void " + methodName + "(" + typeName(fromType) + " from, " + typeName(toType) + " to)", body);
+    }
+
+    /*
+     * Destination side, built like DestinationNode
+     */
+
+    private static class DestinationMember {
+        final ExecutableElement setter;
+        final ExecutableElement getter; //Only non-null when nestedMembers is non-null
+        final List<DestinationMember> nestedMembers; //If non-null, there is nesting
+        final boolean sharesReference; //The setter receives source values themselves, see @ShareReference
+
+        DestinationMember(ExecutableElement setter, ExecutableElement getter, List<DestinationMember> nestedMembers, boolean sharesReference) {
+            this.setter = setter;
+            this.getter = getter;
+            this.nestedMembers = nestedMembers;
+            this.sharesReference = sharesReference;
+        }
+    }
+
+    private List<DestinationMember> createDestinationsForField(String fieldName, TypeElement type) {
+        return MappingTrees.<TypeElement, ExecutableElement, DestinationMember>destinations(models::model, fieldName, type, new HashSet<>(), DESTINATION_NODES);
+    }
+
+    private List<String> writeDestination(DestinationMember destination, String toVar, SourceMember source, String fromVar) {
+        if(destination.nestedMembers != null) {
+            //Nested situation
+            String nextToVar = localVariable(toVar + capitalize(fieldNameFromMethodName(destination.getter)));
+            TypeMirror nestedType = destination.getter.getReturnType();
+
+            List<String> nextSteps = new ArrayList<>();
+            for(DestinationMember nestedDestination: destination.nestedMembers)
+                nextSteps.addAll(writeDestination(nestedDestination, nextToVar, source, fromVar));
+
+            if(nextSteps.isEmpty()) {
+                localVariables.remove(nextToVar);
+                return nextSteps;
+            }
+
+            List<String> lines = new ArrayList<>();
+            if(canBeConstructed(nestedType) && destination.setter != null) {
+                lines.add("var " + nextToVar + " = " + destinationMethodFor(destination) + "(" + toVar + ");");
+                lines.addAll(nextSteps);
+            }
+            else {
+                lines.add("var " + nextToVar + " = " + toVar + "." + destination.getter.getSimpleName() + "();");
+                lines.addAll(ifBlock(nextToVar + " != null", nextSteps));
+            }
+            return lines;
+        }
+        else {
+            //Non-nested situation
+            TypeMirror fromType = source.getter.getReturnType();
+            TypeMirror setterType = destination.setter.getParameters().get(0).asType();
+            //Neither side may be primitive, the same as in DestinationNode, so a shared value is never boxed or unboxed
+            if(destination.sharesReference && !fromType.getKind().isPrimitive() && !setterType.getKind().isPrimitive()
+                && types.isAssignable(fromType, setterType))
+                return List.of(toVar + "." + destination.setter.getSimpleName() + "(" + fromVar + ");"); //Mirrors @ShareReference
+
+            String convertedValue = convertValue(fromVar, fromType, setterType);
+            return List.of(toVar + "." + destination.setter.getSimpleName() + "(" + convertedValue + ");");
+        }
+    }
+
+    /**
+     * Gets the name of the private static method which gets a nested destination object, creating and setting it if it
+     * is null, writing the method if it has not been written yet, see NestedMappingMethods.
+     */
+    private String destinationMethodFor(DestinationMember destination) {
+        //The getter and setter are both members of the more specific of their declaring types
+        TypeMirror getterOwner = destination.getter.getEnclosingElement().asType();
+        TypeMirror setterOwner = destination.setter.getEnclosingElement().asType();
+        TypeMirror holderType = types.isSubtype(types.erasure(setterOwner), types.erasure(getterOwner)) ? setterOwner : getterOwner;
+
+        String key = typeName(holderType) + ' ' + destination.getter.getSimpleName() + ' ' + destination.setter.getSimpleName();
+        String methodName = destinationMethodNames.get(key);
+        if(methodName != null)
+            return methodName;
+
+        methodName = "nestedDestination" + destinationMethodNames.size();
+        destinationMethodNames.put(key, methodName);
+
+        String nestedTypeName = typeName(destination.getter.getReturnType());
+        nestedMethods.add(method("private static " + nestedTypeName + " " + methodName + "(" + typeName(holderType) + " to)", List.of(
+            "var nested = to." + destination.getter.getSimpleName() + "();",
+            "if(nested == null) {",
+            INDENT + "nested = new " + nestedTypeName + "();",
+            INDENT + "to." + destination.setter.getSimpleName() + "(nested);",
+            "}",
+            "return nested;"
+        )));
+        return methodName;
+    }
+
+    /*
+     * Value conversions, mirrors ValueConverters
+     */
+
+    /**
+     * Writes the expression which converts a value. Collections, arrays, and model objects are converted by a private
+     * static method of the precompiled applicator, which is written the first time the pair of types is converted.
+     * @param valueVar The variable holding the value.
+     * @return The expression of the converted value.
+     */
+    private String convertValue(String valueVar, TypeMirror fromType, TypeMirror destType) {
+        if(fromType.getKind() == TypeKind.WILDCARD || destType.getKind() == TypeKind.WILDCARD)
+            throw conversionError("Wildcard generic types are unsupported", fromType, destType);
+        if(fromType.getKind() == TypeKind.TYPEVAR || destType.getKind() == TypeKind.TYPEVAR)
+            throw conversionError("Type variable generic types are unsupported", fromType, destType);
+
+        String conversionMethod = null;
+        if(isCollection(fromType) && isCollection(destType))
+            conversionMethod = conversionMethod("convertValue", fromType, destType, () -> convertCollectionToCollection(fromType, destType));
+        else if(isArray(fromType) && isArray(destType))
+            conversionMethod = conversionMethod("convertValue", fromType, destType, () -> convertArrayToArray(fromType, destType));
+        else if(isCollection(fromType) && isArray(destType))
+            conversionMethod = conversionMethod("convertValue", fromType, destType, () -> convertCollectionToArray(fromType, destType));
+        else if(isArray(fromType) && isCollection(destType))
+            conversionMethod = conversionMethod("convertValue", fromType, destType, () -> convertArrayToCollection(fromType, destType));
+        if(conversionMethod != null)
+            return conversionMethod + "(" + valueVar + ")";
+
+        String converted = convertSingleValue(valueVar, fromType, destType);
+        if(converted != null)
+            return converted;
+
+        if(isBeanConversion(fromType, destType))
+            return conversionMethod("convertBean", fromType, destType, () -> convertBean(fromType, destType)) + "(" + valueVar + ")";
+
+        throw conversionError("Cannot convert type", fromType, destType);
+    }
+
+    /**
+     * Gets the name of the private static method which converts values of one type into another, writing the method if it
+     * has not been written yet.
+     * @param namePrefix The prefix of the method name.
+     * @param body Writes the body of the method, which converts the value "from" and returns the converted value.
+     */
+    private String conversionMethod(String namePrefix, TypeMirror fromType, TypeMirror destType, Supplier<List<String>> body) {
+        String key = namePrefix + ' ' + fromType + ' ' + destType;
+        String methodName = conversionMethodNames.get(key);
+        if(methodName != null)
+            return methodName;
+
+        //The name is reserved before the body is written, since a model type can hold values of its own type
+        methodName = namePrefix + conversionMethodNames.size();
+        conversionMethodNames.put(key, methodName);
+
+        List<String> lines = new ArrayList<>();
+        lines.add("if(from == null)");
+        lines.add(INDENT + "return null;");
+        lines.addAll(body.get());
+        conversionMethods.add(method("private static " + typeName(destType) + " " + methodName + "(" + typeName(fromType) + " from)", lines));
+        return methodName;
+    }
+
+    /**
+     * Mirrors CollectionValueConverter#createCollectionToCollectionValueConverter.
+     */
+    private List<String> convertCollectionToCollection(TypeMirror fromType, TypeMirror destType) {
+        TypeMirror fromElementType = elementType(fromType);
+        TypeMirror destElementType = elementType(destType);
+        TypeElement concreteType = concreteCollectionType(fromType, destType);
+        String concreteName = typeName(concreteType.asType());
+
+        List<String> lines = new ArrayList<>();
+        if(isIdentityConversion(fromElementType, destElementType)) {
+            //The elements are not converted, so they are copied all at once
+            if(CollectionTypes.hasCopyConstructor(elements.getBinaryName(concreteType).toString()))
+                return List.of("return new " + concreteName + "(from);");
+
+            lines.add(concreteName + " to = " + newCollection(concreteType, "from.size()") + ";");
+            lines.add("to.addAll(from);");
+            lines.add("return to;");
+            return lines;
+        }
+
+        lines.add("int size = from.size();");
+        lines.add(concreteName + " to = " + newCollection(concreteType, "size") + ";");
+        lines.addAll(forEachElement(fromElementType, destElementType, false,
+            "to.add(" + convertValue("value", fromElementType, destElementType) + ");"));
+        lines.add("return to;");
+        return lines;
+    }
+
+    /**
+     * Mirrors ArrayValueConverter#createArrayToArrayValueConverter.
+     */
+    private List<String> convertArrayToArray(TypeMirror fromType, TypeMirror destType) {
+        TypeMirror fromComponentType = ((ArrayType)fromType).getComponentType();
+        TypeMirror destComponentType = ((ArrayType)destType).getComponentType();
+
+        List<String> lines = new ArrayList<>();
+        lines.add(typeName(destType) + " to = " + newArray(destComponentType, "from.length") + ";");
+        if(isIdentityConversion(fromComponentType, destComponentType)) //The elements are not converted, so they are copied all at once
+            lines.add("System.arraycopy(from, 0, to, 0, from.length);");
+        else {
+            lines.add("for(int i = 0; i < from.length; i++) {");
+            lines.add(INDENT + typeName(fromComponentType) + " value = from[i];");
+            lines.add(INDENT + "to[i] = " + convertValue("value", fromComponentType, destComponentType) + ";");
+            lines.add("}");
+        }
+        lines.add("return to;");
+        return lines;
+    }
+
+    /**
+     * Mirrors ArrayValueConverter#createCollectionToArrayValueConverter.
+     */
+    private List<String> convertCollectionToArray(TypeMirror fromType, TypeMirror destType) {
+        TypeMirror fromElementType = elementType(fromType);
+        TypeMirror destComponentType = ((ArrayType)destType).getComponentType();
+        if(isIdentityConversion(fromElementType, destComponentType)) //The collection copies its elements into the new array all at once
+            return List.of("return (" + typeName(destType) + ")from.toArray(" + newArray(destComponentType, "from.size()") + ");");
+
+        List<String> lines = new ArrayList<>();
+        lines.add("int size = from.size();");
+        lines.add(typeName(destType) + " to = " + newArray(destComponentType, "size") + ";");
+        lines.addAll(forEachElement(fromElementType, destComponentType, true,
+            "to[i] = " + convertValue("value", fromElementType, destComponentType) + ";"));
+        lines.add("return to;");
+        return lines;
+    }
+
+    /**
+     * Mirrors CollectionValueConverter#createArrayToCollectionValueConverter.
+     */
+    private List<String> convertArrayToCollection(TypeMirror fromType, TypeMirror destType) {
+        TypeMirror fromComponentType = ((ArrayType)fromType).getComponentType();
+        TypeMirror destElementType = elementType(destType);
+        TypeElement concreteType = concreteCollectionType(fromType, destType);
+        String concreteName = typeName(concreteType.asType());
+
+        List<String> lines = new ArrayList<>();
+        lines.add(concreteName + " to = " + newCollection(concreteType, "from.length") + ";");
+        lines.add("for(int i = 0; i < from.length; i++) {");
+        lines.add(INDENT + typeName(fromComponentType) + " value = from[i];");
+        lines.add(INDENT + "to.add(" + convertValue("value", fromComponentType, destElementType) + ");");
+        lines.add("}");
+        lines.add("return to;");
+        return lines;
+    }
+
+    /**
+     * Mirrors BeanValueConverter. The values of the source object are mapped onto a new destination object the same way
+     * as a precompiled applicator of the two types would map them.
+     */
+    private List<String> convertBean(TypeMirror fromType, TypeMirror destType) {
+        String destName = typeName(destType);
+        String methodName = conversionMethodNames.get("convertBean " + fromType + ' ' + destType);
+
+        List<String> lines = new ArrayList<>();
+        lines.add(destName + " to = new " + destName + "();");
+        lines.addAll(writeMapping(methodName + "Part", asTypeElement(fromType), asTypeElement(destType)));
+        lines.add("return to;");
+        return lines;
+    }
+
+    /**
+     * Writes the loop which reads each element of the collection "from" into the variable "value" and runs a step for
+     * it, the same way as CollectionValueConverter#forEachElement. Random access lists are read by index and any other
+     * collection with its iterator, unless the elements are collections or arrays themselves, see
+     * CollectionValueConverter#readsByIndex. The variable "size" must already hold the size of the collection.
+     * @param counted Whether the variable "i" counts the elements from 0 in either loop.
+     */
+    private List<String> forEachElement(TypeMirror fromElementType, TypeMirror destElementType, boolean counted, String step) {
+        String elementName = typeName(fromElementType);
+        List<String> iteratorLoop = new ArrayList<>();
+        if(counted)
+            iteratorLoop.add("int i = 0;");
+        iteratorLoop.add("for(Object element: from) {");
+        iteratorLoop.add(INDENT + elementName + " value = (" + elementName + ")element;");
+        iteratorLoop.add(INDENT + step);
+        if(counted)
+            iteratorLoop.add(INDENT + "i++;");
+        iteratorLoop.add("}");
+
+        boolean readsByIndex = !(isMultiple(fromElementType) && isMultiple(destElementType));
+        if(!readsByIndex)
+            return iteratorLoop;
+
+        List<String> lines = new ArrayList<>();
+        lines.add("if(from instanceof " + RandomAccess.class.getName() + " && from instanceof " + List.class.getName() + ") {");
+        lines.add(INDENT + List.class.getName() + " list = (" + List.class.getName() + ")from;");
+        lines.add(INDENT + "for(int i = 0; i < size; i++) {");
+        lines.add(INDENT + INDENT + elementName + " value = (" + elementName + ")list.get(i);");
+        lines.add(INDENT + INDENT + step);
+        lines.add(INDENT + "}");
+        lines.add("}");
+        lines.add("else {");
+        iteratorLoop.forEach(line -> lines.add(INDENT + line));
+        lines.add("}");
+        return lines;
+    }
+
+    /**
+     * Mirrors CollectionValueConverter#determineCollectionType. The destination collection type is created if it is
+     * concrete, otherwise the source collection type if it is concrete and can be assigned to the destination, and
+     * otherwise the default concrete type of the most specific collection interface the destination accepts.
+     */
+    private TypeElement concreteCollectionType(TypeMirror fromType, TypeMirror destType) {
+        TypeElement concreteType = null;
+        if(isConcreteClass(asTypeElement(destType)))
+            concreteType = asTypeElement(destType);
+        else if(fromType.getKind() == TypeKind.DECLARED && isConcreteClass(asTypeElement(fromType)) && types.isAssignable(types.erasure(fromType), types.erasure(destType)))
+            concreteType = asTypeElement(fromType);
+        else {
+            for(Map.Entry<Class<?>, Class<?>> defaultCollection: CollectionTypes.defaultCollections()) {
+                TypeMirror collectionInterface = types.erasure(elements.getTypeElement(defaultCollection.getKey().getName()).asType());
+                if(types.isAssignable(collectionInterface, types.erasure(destType))) {
+                    concreteType = elements.getTypeElement(defaultCollection.getValue().getName());
+                    break;
+                }
+            }
+        }
+
+        if(concreteType == null || (CollectionTypes.sizing(elements.getBinaryName(concreteType).toString()) == null && !canBeConstructed(concreteType.asType()))) {
+            String typeName = concreteType == null ? destType.toString() : elements.getBinaryName(concreteType).toString();
+            throw conversionError("Collection type " + typeName + " does not have a no-args constructor", fromType, destType);
+        }
+        return concreteType;
+    }
+
+    /**
+     * Writes the expression which creates a new collection of a concrete type, using its sizing constructor if it has
+     * one, see CollectionTypes#sizing.
+     */
+    private String newCollection(TypeElement concreteType, String size) {
+        String concreteName = typeName(concreteType.asType());
+        CollectionTypes.Sizing sizing = CollectionTypes.sizing(elements.getBinaryName(concreteType).toString());
+        if(sizing == null)
+            return "new " + concreteName + "()";
+
+        switch(sizing) {
+            case HASH_CAPACITY:
+                return "new " + concreteName + "(" + CollectionTypes.class.getName() + ".hashCapacity(" + size + "))";
+            case POSITIVE_CAPACITY:
+                return "new " + concreteName + "(Math.max(" + size + ", 1))";
+            default:
+                return "new " + concreteName + "(" + size + ")";
+        }
+    }
+
+    /**
+     * Writes the expression which creates a new array. The length of an array whose components are arrays themselves
+     * is given in the first dimension.
+     */
+    private String newArray(TypeMirror componentType, String length) {
+        String componentName = typeName(componentType);
+        int dimensions = 0;
+        while(componentName.endsWith("[]")) {
+            componentName = componentName.substring(0, componentName.length() - 2);
+            dimensions++;
+        }
+        return "new " + componentName + "[" + length + "]" + "[]".repeat(dimensions);
+    }
+
+    /**
+     * Mirrors ValueConverters#isIdentityConversion. A value is left as it is when both types are the same primitive or
+     * wrapper type, or when the source type is any other non-generic type which can be assigned to the destination type.
+     * Collections and arrays are never left as they are.
+     */
+    private boolean isIdentityConversion(TypeMirror fromType, TypeMirror destType) {
+        for(TypeMirror type: new TypeMirror[] {fromType, destType}) {
+            if((type.getKind() != TypeKind.DECLARED && !type.getKind().isPrimitive()) || isParameterized(type) || isCollection(type))
+                return false;
+        }
+
+        if(primitiveKind(fromType) != null && primitiveKind(destType) != null)
+            return types.isSameType(fromType, destType);
+        return !fromType.getKind().isPrimitive() && types.isAssignable(fromType, destType);
+    }
+
+    /**
+     * Mirrors BeanValueConverter. Both types must declare identified or nested members, and the destination type must
+     * be constructable.
+     */
+    private boolean isBeanConversion(TypeMirror fromType, TypeMirror destType) {
+        if(fromType.getKind() != TypeKind.DECLARED || isParameterized(fromType) || isParameterized(destType))
+            return false;
+        return canBeConstructed(destType)
+            && declaresIdentifiedMembers(asTypeElement(fromType))
+            && declaresIdentifiedMembers(asTypeElement(destType));
+    }
+
+    /**
+     * Mirrors AsmUtils#declaresIdentifiedMembers.
+     */
+    private static boolean declaresIdentifiedMembers(TypeElement type) {
+        return type.getAnnotation(FieldIdentifier.class) != null || type.getEnclosedElements().stream()
+            .filter(member -> member.getKind() == ElementKind.FIELD || member.getKind() == ElementKind.METHOD)
+            .anyMatch(member -> member.getAnnotation(FieldIdentifier.class) != null || member.getAnnotation(Nested.class) != null);
+    }
+
+    /**
+     * Mirrors SingleValueConverter. Like the converters working on generic types, only non-generic types are converted.
+     */
+    private String convertSingleValue(String valueVar, TypeMirror fromType, TypeMirror destType) {
+        if(isParameterized(fromType) || isParameterized(destType))
+            return null;
+
+        TypeKind fromPrimitive = primitiveKind(fromType);
+        TypeKind destPrimitive = primitiveKind(destType);
+        if(fromPrimitive != null && destPrimitive != null) {
+            String primitiveValue = fromType.getKind().isPrimitive() ?
+                valueVar :
+                valueVar + "." + fromPrimitive.name().toLowerCase() + "Value()";
+            //The primitive value is boxed again when passed to a setter taking a wrapper
+            return convertPrimitive(primitiveValue, fromPrimitive, destPrimitive);
+        }
+
+        if(fromType.getKind().isPrimitive() && types.isAssignable(types.boxedClass((PrimitiveType)fromType).asType(), destType))
+            return valueVar;
+
+        if(types.isAssignable(fromType, destType))
+            return valueVar;
+
+        if(types.isAssignable(stringType, destType)) {
+            if(fromType.getKind().isPrimitive() || isCharArray(fromType))
+                return "String.valueOf(" + valueVar + ")";
+            return "String.valueOf((Object)" + valueVar + ")";
+        }
+
+        return null;
+    }
+
+    /**
+     * Converts a primitive value with the same results as a primitive cast in the JVM. Booleans are treated as the
+     * integers 0 and 1.
+     */
+    private static String convertPrimitive(String value, TypeKind fromPrimitive, TypeKind destPrimitive) {
+        if(fromPrimitive == destPrimitive)
+            return value;
+        if(fromPrimitive == TypeKind.BOOLEAN)
+            return "(" + destPrimitive.name().toLowerCase() + ")(" + value + " ? 1 : 0)";
+        if(destPrimitive == TypeKind.BOOLEAN)
+            return "(((int)" + value + ") & 1) != 0";
+        return "(" + destPrimitive.name().toLowerCase() + ")" + value;
+    }
+
+    private TypeKind primitiveKind(TypeMirror type) {
+        if(type.getKind().isPrimitive())
+            return type.getKind();
+        if(type.getKind() != TypeKind.DECLARED)
+            return null;
+
+        try {
+            return types.unboxedType(type).getKind();
+        }
+        catch(IllegalArgumentException ex) {
+            return null; //Not a wrapper type
+        }
+    }
+
+    /**
+     * Gets the element type of a collection type, which is its only type argument.
+     */
+    private TypeMirror elementType(TypeMirror collection) {
+        List<? extends TypeMirror> typeArguments = ((DeclaredType)collection).getTypeArguments();
+        if(typeArguments.size() != 1)
+            throw conversionError("Collection types must have exactly one type argument", collection, collection);
+        return typeArguments.get(0);
+    }
+
+    private boolean isCollection(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED && types.isAssignable(types.erasure(type), collectionType);
+    }
+
+    private static boolean isArray(TypeMirror type) {
+        return type.getKind() == TypeKind.ARRAY;
+    }
+
+    private boolean isMultiple(TypeMirror type) {
+        return isCollection(type) || isArray(type);
+    }
+
+    private static boolean isParameterized(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED && !((DeclaredType)type).getTypeArguments().isEmpty();
+    }
+
+    private static boolean isCharArray(TypeMirror type) {
+        return type.getKind() == TypeKind.ARRAY && ((ArrayType)type).getComponentType().getKind() == TypeKind.CHAR;
+    }
+
+    private static boolean isConcreteClass(TypeElement type) {
+        return type.getKind() == ElementKind.CLASS && !type.getModifiers().contains(Modifier.ABSTRACT);
+    }
+
+    private ApplicatorGenerationException conversionError(String reason, TypeMirror fromType, TypeMirror destType) {
+        return new ApplicatorGenerationException(String.format("%s. Source type: %s, Destination type: %s", reason, fromType, destType));
+    }
+
+    /**
+     * Mirrors AsmUtils#canBeConstructed. The type and every class enclosing it must be public, since the constructor
+     * must be accessible.
+     */
+    private boolean canBeConstructed(TypeMirror type) {
+        if(type.getKind() != TypeKind.DECLARED)
+            return false;
+
+        TypeElement typeElement = asTypeElement(type);
+        if(!isConcreteClass(typeElement))
+            return false;
+        if(typeElement.getNestingKind() == NestingKind.MEMBER && !typeElement.getModifiers().contains(Modifier.STATIC))
+            return false; //The constructor of an inner class takes the enclosing instance
+
+        for(Element enclosing = typeElement; enclosing instanceof TypeElement; enclosing = enclosing.getEnclosingElement()) {
+            if(!enclosing.getModifiers().contains(Modifier.PUBLIC))
+                return false;
+        }
+
+        return ElementFilter.constructorsIn(typeElement.getEnclosedElements()).stream()
+            .anyMatch(constructor -> constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC));
+    }
+
+    /*
+     * Source code helpers
+     */
+
+    private static String fieldNameFromMethodName(ExecutableElement method) {
+        return ReflectionsUtils.fieldNameFromMethodName(method.getSimpleName().toString());
+    }
+
+    private String localVariable(String name) {
+        String variable = name;
+        for(int i = 2; !localVariables.add(variable); i++)
+            variable = name + i;
+        return variable;
+    }
+
+    private static List<String> ifBlock(String condition, List<String> steps) {
+        List<String> lines = new ArrayList<>();
+        lines.add("if(" + condition + ") {");
+        steps.forEach(step -> lines.add(INDENT + step));
+        lines.add("}");
+        return lines;
+    }
+
+    private static String method(String declaration, List<String> body) {
+        StringBuilder code = new StringBuilder();
+        code.append(INDENT).append(declaration).append(" {\n");
+        for(String line: body)
+            code.append(INDENT).append(INDENT).append(line).append('\n');
+        code.append(INDENT).append("}\n");
+        return code.toString();
+    }
+
+    private TypeElement asTypeElement(TypeMirror type) {
+        return (TypeElement)types.asElement(type);
+    }
+
+    private String typeName(TypeMirror type) {
+        return types.erasure(type).toString();
+    }
+}
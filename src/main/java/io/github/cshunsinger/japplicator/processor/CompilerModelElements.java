@@ -0,0 +1,147 @@
+package io.github.cshunsinger.japplicator.processor;
+
+import io.github.cshunsinger.japplicator.builder.IntrospectedModel;
+import io.github.cshunsinger.japplicator.builder.ModelElements;
+import io.github.cshunsinger.japplicator.util.ReflectionsUtils;
+
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.lang.annotation.Annotation;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Reads the members of model types from the compiler's model of the types, so precompiled applicators are built from the
+ * same introspected models as generated applicators, see {@link IntrospectedModel}. The models are introspected once per
+ * type and kept for as long as this object is used.
+ */
+class CompilerModelElements implements ModelElements<TypeElement, VariableElement, ExecutableElement> {
+    private final Elements elements;
+    private final Types types;
+    private final Map<TypeElement, IntrospectedModel<TypeElement, ExecutableElement>> models = new HashMap<>();
+
+    CompilerModelElements(Elements elements, Types types) {
+        this.elements = elements;
+        this.types = types;
+    }
+
+    /**
+     * Gets the introspected model of a type, introspecting the type if it has not been introspected yet.
+     */
+    IntrospectedModel<TypeElement, ExecutableElement> model(TypeElement type) {
+        return models.computeIfAbsent(type, modelType -> new IntrospectedModel<>(modelType, this));
+    }
+
+    @Override
+    public String typeName(TypeElement type) {
+        return elements.getBinaryName(type).toString();
+    }
+
+    @Override
+    public String packageName(TypeElement type) {
+        return elements.getPackageOf(type).getQualifiedName().toString();
+    }
+
+    @Override
+    public <A extends Annotation> A typeAnnotation(TypeElement type, Class<A> annotationType) {
+        return type.getAnnotation(annotationType);
+    }
+
+    @Override
+    public List<VariableElement> declaredFields(TypeElement type) {
+        return ElementFilter.fieldsIn(type.getEnclosedElements());
+    }
+
+    @Override
+    public List<ExecutableElement> declaredMethods(TypeElement type) {
+        return ElementFilter.methodsIn(type.getEnclosedElements());
+    }
+
+    @Override
+    public List<ExecutableElement> publicMethods(TypeElement type) {
+        return ElementFilter.methodsIn(elements.getAllMembers(type)).stream()
+            .filter(method -> method.getModifiers().contains(Modifier.PUBLIC))
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public String fieldName(VariableElement field) {
+        return field.getSimpleName().toString();
+    }
+
+    @Override
+    public <A extends Annotation> A fieldAnnotation(VariableElement field, Class<A> annotationType) {
+        return field.getAnnotation(annotationType);
+    }
+
+    @Override
+    public TypeElement fieldType(VariableElement field) {
+        return memberType(field.asType());
+    }
+
+    @Override
+    public ExecutableElement findGetter(TypeElement type, VariableElement field) {
+        String methodName = ReflectionsUtils.getterMethodName(fieldName(field), field.asType().getKind() == TypeKind.BOOLEAN);
+        return publicMethods(type).stream()
+            .filter(method -> method.getSimpleName().contentEquals(methodName) && method.getParameters().isEmpty())
+            .findFirst()
+            .filter(method -> invalidGetterReason(method) == null)
+            .orElse(null);
+    }
+
+    @Override
+    public ExecutableElement findSetter(TypeElement type, VariableElement field) {
+        String methodName = ReflectionsUtils.setterMethodName(fieldName(field));
+        List<ExecutableElement> candidates = publicMethods(type).stream()
+            .filter(method -> method.getSimpleName().contentEquals(methodName) && method.getParameters().size() == 1)
+            .filter(method -> types.isAssignable(field.asType(), method.getParameters().get(0).asType()))
+            .collect(Collectors.toList());
+
+        //An exact match of the field type is preferred over any other setter which accepts the field type
+        ExecutableElement setter = candidates.stream()
+            .filter(method -> types.isSameType(field.asType(), method.getParameters().get(0).asType()))
+            .findFirst()
+            .orElse(candidates.isEmpty() ? null : candidates.get(0));
+        return setter != null && invalidSetterReason(setter) == null ? setter : null;
+    }
+
+    @Override
+    public String methodName(ExecutableElement method) {
+        return method.getSimpleName().toString();
+    }
+
+    @Override
+    public <A extends Annotation> A methodAnnotation(ExecutableElement method, Class<A> annotationType) {
+        return method.getAnnotation(annotationType);
+    }
+
+    @Override
+    public TypeElement returnType(ExecutableElement method) {
+        return memberType(method.getReturnType());
+    }
+
+    @Override
+    public String invalidGetterReason(ExecutableElement method) {
+        return ReflectionsUtils.getInvalidGetterMethodReason(methodName(method), method.getReturnType().getKind() == TypeKind.VOID,
+            method.getModifiers().contains(Modifier.STATIC), method.getModifiers().contains(Modifier.PUBLIC), method.getParameters().size());
+    }
+
+    @Override
+    public String invalidSetterReason(ExecutableElement method) {
+        return ReflectionsUtils.getInvalidSetterMethodReason(methodName(method), method.getReturnType().getKind() == TypeKind.VOID,
+            method.getModifiers().contains(Modifier.STATIC), method.getModifiers().contains(Modifier.PUBLIC), method.getParameters().size());
+    }
+
+    private TypeElement memberType(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED ? (TypeElement)types.asElement(type) : null;
+    }
+}
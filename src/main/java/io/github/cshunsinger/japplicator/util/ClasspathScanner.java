@@ -0,0 +1,99 @@
+package io.github.cshunsinger.japplicator.util;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Slf4j
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ClasspathScanner {
+    private static final String CLASS_FILE_SUFFIX = ".class";
+
+    /**
+     * Finds every class in a package and its sub-packages which is visible to a class loader. Both directories and jar
+     * files on the classpath are scanned. Classes are loaded without being initialized, and classes which fail to load
+     * are skipped.
+     * @param loader The class loader to find and load classes with.
+     * @param packageName The name of the package to scan, such as "com.example.model".
+     * @return The classes found in the package, sorted by name.
+     */
+    public static List<Class<?>> findClasses(ClassLoader loader, String packageName) {
+        String packagePath = packageName.replace('.', '/');
+        Set<String> classNames = new TreeSet<>();
+
+        try {
+            Enumeration<URL> packageUrls = loader.getResources(packagePath);
+            while(packageUrls.hasMoreElements()) {
+                URL packageUrl = packageUrls.nextElement();
+                if("file".equals(packageUrl.getProtocol()))
+                    findClassNamesInDirectory(Paths.get(packageUrl.toURI()), packageName, classNames);
+                else if("jar".equals(packageUrl.getProtocol()))
+                    findClassNamesInJar(packageUrl, packagePath, classNames);
+                else
+                    log.info("Skipping {} because classes cannot be listed from it.", packageUrl);
+            }
+        }
+        catch(IOException ex) {
+            throw new UncheckedIOException("Failed to scan package " + packageName + ".", ex);
+        }
+        catch(URISyntaxException ex) {
+            throw new IllegalStateException("Failed to scan package " + packageName + ".", ex);
+        }
+
+        return classNames.stream()
+            .map(className -> loadClass(loader, className))
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    }
+
+    private static void findClassNamesInDirectory(Path directory, String packageName, Set<String> classNames) throws IOException {
+        try(Stream<Path> files = Files.walk(directory)) {
+            files.filter(file -> file.toString().endsWith(CLASS_FILE_SUFFIX)).forEach(file -> {
+                String relativeName = directory.relativize(file).toString().replace(file.getFileSystem().getSeparator(), ".");
+                classNames.add(packageName + "." + relativeName.substring(0, relativeName.length() - CLASS_FILE_SUFFIX.length()));
+            });
+        }
+    }
+
+    private static void findClassNamesInJar(URL packageUrl, String packagePath, Set<String> classNames) throws IOException {
+        URLConnection connection = packageUrl.openConnection();
+        if(!(connection instanceof JarURLConnection))
+            return;
+
+        JarURLConnection jarConnection = (JarURLConnection)connection;
+        jarConnection.setUseCaches(false);
+        try(JarFile jar = jarConnection.getJarFile()) {
+            String prefix = packagePath + "/";
+            jar.stream()
+                .map(JarEntry::getName)
+                .filter(name -> name.startsWith(prefix) && name.endsWith(CLASS_FILE_SUFFIX))
+                .map(name -> name.substring(0, name.length() - CLASS_FILE_SUFFIX.length()).replace('/', '.'))
+                .forEach(classNames::add);
+        }
+    }
+
+    private static Class<?> loadClass(ClassLoader loader, String className) {
+        try {
+            return Class.forName(className, false, loader);
+        }
+        catch(ClassNotFoundException | LinkageError ex) {
+            log.info("Skipping class {} because it could not be loaded: {}", className, ex.toString());
+            return null;
+        }
+    }
+}
@@ -2,21 +2,22 @@ package io.github.cshunsinger.japplicator.util;
 
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.reflect.MethodUtils;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.Parameter;
+import java.lang.reflect.UndeclaredThrowableException;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
-@Slf4j
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class ReflectionsUtils {
     private static final Map<Class<?>, String> TYPE_MAPPINGS = new HashMap<>();
@@ -107,32 +108,42 @@ public class ReflectionsUtils {
      * none could be found.
      */
     public static Method findGetterMethodForField(Class<?> type, Field field) {
-        String fieldName = field.getName();
-        String methodName = (field.getType() == boolean.class ? "is" : "get") + StringUtils.capitalize(fieldName);
+        String methodName = getterMethodName(field.getName(), field.getType() == boolean.class);
 
-        log.info("Attempting to find getter method named " + methodName);
         Method getterMethod = MethodUtils.getMatchingAccessibleMethod(type, methodName);
 
         boolean valid = isValidGetterMethod(getterMethod, methodName);
         return valid ? getterMethod : null;
     }
 
+    /**
+     * Gets the name of the getter method of a field, which is isFieldName for a primitive boolean field and getFieldName
+     * for any other field.
+     * @param fieldName The name of the field.
+     * @param booleanField Whether the field is a primitive boolean.
+     * @return The name of the getter method.
+     */
+    public static String getterMethodName(String fieldName, boolean booleanField) {
+        return (booleanField ? "is" : "get") + StringUtils.capitalize(fieldName);
+    }
+
+    /**
+     * Gets the name of the setter method of a field, which is setFieldName.
+     * @param fieldName The name of the field.
+     * @return The name of the setter method.
+     */
+    public static String setterMethodName(String fieldName) {
+        return "set" + StringUtils.capitalize(fieldName);
+    }
+
     /**
      * Given a method, determines if that method is a valid getter method.
      * @param getterMethod The method to test.
-     * @param methodName The name of the method, for logging purposes when getterMethod is null.
+     * @param methodName The name of the method, used in the reason when getterMethod is null.
      * @return True if the provided method meets the criteria for being a valid getter method. False otherwise.
      */
     public static boolean isValidGetterMethod(Method getterMethod, String methodName) {
-        String reason = getInvalidGetterMethodReason(getterMethod, methodName);
-        if(reason == null) {
-            log.info("Found getter method named " + getterMethod.getName());
-            return true;
-        }
-        else {
-            log.info(reason);
-            return false;
-        }
+        return getInvalidGetterMethodReason(getterMethod, methodName) == null;
     }
 
     /**
@@ -149,10 +160,8 @@ public class ReflectionsUtils {
      */
     public static Method findSetterMethodForField(Class<?> type, Field field) {
         Class<?> fieldType = field.getType();
-        String fieldName = field.getName();
-        String methodName = "set" + StringUtils.capitalize(fieldName);
+        String methodName = setterMethodName(field.getName());
 
-        log.info("Attempting to find setter method named " + methodName);
         Method setterMethod = MethodUtils.getMatchingAccessibleMethod(type, methodName, fieldType);
 
         boolean valid = isValidSetterMethod(setterMethod, methodName);
@@ -175,22 +184,14 @@ public class ReflectionsUtils {
     /**
      * Determines if a setter method is actually a valid setter method by meeting the criteria of a setter method.
      * @param setterMethod The method to test.
-     * @param setterName The name of the setter method, for logging purposes when setterMethod is null.
+     * @param setterName The name of the setter method, used in the reason when setterMethod is null.
      * @return True if the method is a valid setter method. False otherwise.
      * @see #isValidSetterMethod(Method)
      * @see #getInvalidSetterMethodReason(Method)
      * @see #getInvalidSetterMethodReason(Method, String)
      */
     public static boolean isValidSetterMethod(Method setterMethod, String setterName) {
-        String reason = getInvalidSetterMethodReason(setterMethod, setterName);
-        if(reason == null) {
-            log.info("Found setter method named " + setterName);
-            return true;
-        }
-        else {
-            log.info(reason);
-            return false;
-        }
+        return getInvalidSetterMethodReason(setterMethod, setterName) == null;
     }
 
     /**
@@ -214,7 +215,7 @@ public class ReflectionsUtils {
      * Determines if a method is a valid setter method, and determines why said method is an invalid setter method if
      * the method is not a valid setter.
      * @param setterMethod The method to test.
-     * @param setterName The name of the setter method, for logging reasons since setterMethod can be null.
+     * @param setterName The name of the setter method, used in the reason since setterMethod can be null.
      * @return Null if the provided method is a valid setter method, otherwise a String explaining why the provided
      * method is not a valid setter method is returned.
      * @see #isValidSetterMethod(Method)
@@ -224,13 +225,32 @@ public class ReflectionsUtils {
     public static String getInvalidSetterMethodReason(Method setterMethod, String setterName) {
         if(setterMethod == null)
             return "No setter method named " + setterName + " found.";
-        else if(setterMethod.getReturnType() != void.class)
+
+        int modifiers = setterMethod.getModifiers();
+        return getInvalidSetterMethodReason(setterName, setterMethod.getReturnType() == void.class,
+            Modifier.isStatic(modifiers), Modifier.isPublic(modifiers), setterMethod.getParameterCount());
+    }
+
+    /**
+     * Determines why a method is not a valid setter method from its signature, for methods which are not available as
+     * Method objects, such as the methods the compiler reads while precompiling applicators.
+     * @param setterName The name of the method.
+     * @param returnsVoid Whether the method has a void return type.
+     * @param isStatic Whether the method is static.
+     * @param isPublic Whether the method is public.
+     * @param parameterCount The number of parameters of the method.
+     * @return Null if the method is a valid setter method, otherwise a String explaining why it is not.
+     * @see #getInvalidSetterMethodReason(Method, String)
+     */
+    public static String getInvalidSetterMethodReason(String setterName, boolean returnsVoid, boolean isStatic, boolean isPublic, int parameterCount) {
+        if(!returnsVoid)
             return "Setter method " + setterName + " must have a void return type.";
-        else if(Modifier.isStatic(setterMethod.getModifiers())) {
+        else if(isStatic)
             return "Setter method " + setterName + " cannot be static.";
-        }
-        else if(!Modifier.isPublic(setterMethod.getModifiers()))
+        else if(!isPublic)
             return "Setter method " + setterName + " must be public.";
+        else if(parameterCount != 1)
+            return "Setter method " + setterName + " must have exactly one parameter.";
         else
             return null;
     }
@@ -255,7 +275,7 @@ public class ReflectionsUtils {
      * Determines if a method is a valid getter method, and determines why said method is an invalid getter
      * method if the method is not a valid getter.
      * @param getterMethod The method to test.
-     * @param methodName The name of the getter method, for logging reasons since getterMethod can be null.
+     * @param methodName The name of the getter method, used in the reason since getterMethod can be null.
      * @return Null if the provided getterMethod is a valid getterMethod, otherwise a String explaining why the
      * provided method is not a valid getter method is returned.
      * @see #isValidGetterMethod(Method, String)
@@ -264,13 +284,31 @@ public class ReflectionsUtils {
     public static String getInvalidGetterMethodReason(Method getterMethod, String methodName) {
         if(getterMethod == null)
             return "No getter method named " + methodName + " found.";
-        else if(getterMethod.getReturnType() == void.class)
+
+        int modifiers = getterMethod.getModifiers();
+        return getInvalidGetterMethodReason(methodName, getterMethod.getReturnType() == void.class,
+            Modifier.isStatic(modifiers), Modifier.isPublic(modifiers), getterMethod.getParameterCount());
+    }
+
+    /**
+     * Determines why a method is not a valid getter method from its signature, for methods which are not available as
+     * Method objects, such as the methods the compiler reads while precompiling applicators.
+     * @param methodName The name of the method.
+     * @param returnsVoid Whether the method has a void return type.
+     * @param isStatic Whether the method is static.
+     * @param isPublic Whether the method is public.
+     * @param parameterCount The number of parameters of the method.
+     * @return Null if the method is a valid getter method, otherwise a String explaining why it is not.
+     * @see #getInvalidGetterMethodReason(Method, String)
+     */
+    public static String getInvalidGetterMethodReason(String methodName, boolean returnsVoid, boolean isStatic, boolean isPublic, int parameterCount) {
+        if(returnsVoid)
             return "Getter method " + methodName + " cannot be void.";
-        else if(Modifier.isStatic(getterMethod.getModifiers()))
+        else if(isStatic)
             return "Getter method " + methodName + " cannot be static.";
-        else if(!Modifier.isPublic(getterMethod.getModifiers()))
+        else if(!isPublic)
             return "Getter method " + methodName + " must be public.";
-        else if(getterMethod.getParameters().length > 0)
+        else if(parameterCount > 0)
             return "Getter method " + methodName + " must not contain any parameters.";
         else
             return null;
@@ -284,7 +322,15 @@ public class ReflectionsUtils {
      * @return Returns the name of the field being accessed by the given accessor method.
      */
     public static String fieldNameFromMethodName(Method method) {
-        String methodName = method.getName();
+        return fieldNameFromMethodName(method.getName());
+    }
+
+    /**
+     * Attempts to determine the name of a field based on the name of a method, see {@link #fieldNameFromMethodName(Method)}.
+     * @param methodName The name of the accessor method.
+     * @return Returns the name of the field being accessed by the accessor method.
+     */
+    public static String fieldNameFromMethodName(String methodName) {
         if(methodName.startsWith("get") || methodName.startsWith("set"))
             methodName = methodName.substring(3);
         else if(methodName.startsWith("is"))
@@ -292,4 +338,54 @@ public class ReflectionsUtils {
 
         return StringUtils.uncapitalize(methodName);
     }
-}
\ No newline at end of file
+
+    /**
+     * Invokes a method reflectively. Exceptions thrown by the method itself are rethrown as they are, rather than being
+     * wrapped in an {@link InvocationTargetException}. Checked exceptions are wrapped in an
+     * {@link UndeclaredThrowableException}.
+     * @param method The method to invoke.
+     * @param target The object to invoke the method on.
+     * @param args The arguments to pass to the method.
+     * @return The value returned by the method, or null for a void method.
+     */
+    public static Object invoke(Method method, Object target, Object... args) {
+        try {
+            return method.invoke(target, args);
+        }
+        catch(InvocationTargetException ex) {
+            throw unwrapInvocationTargetException(ex);
+        }
+        catch(IllegalAccessException ex) {
+            throw new IllegalStateException("Method " + method + " is not accessible.", ex);
+        }
+    }
+
+    /**
+     * Invokes a constructor reflectively. Exceptions are handled the same way as {@link #invoke(Method, Object, Object...)}.
+     * @param constructor The constructor to invoke.
+     * @param args The arguments to pass to the constructor.
+     * @param <T> The type being constructed.
+     * @return The newly constructed object.
+     */
+    public static <T> T newInstance(Constructor<T> constructor, Object... args) {
+        try {
+            return constructor.newInstance(args);
+        }
+        catch(InvocationTargetException ex) {
+            throw unwrapInvocationTargetException(ex);
+        }
+        catch(InstantiationException | IllegalAccessException ex) {
+            throw new IllegalStateException("Constructor " + constructor + " cannot be invoked.", ex);
+        }
+    }
+
+    private static RuntimeException unwrapInvocationTargetException(InvocationTargetException ex) {
+        Throwable cause = ex.getCause();
+        if(cause instanceof RuntimeException)
+            return (RuntimeException)cause;
+        else if(cause instanceof Error)
+            throw (Error)cause;
+        else
+            return new UndeclaredThrowableException(cause);
+    }
+}
@@ -1,6 +1,7 @@
 package io.github.cshunsinger.japplicator;
 
 import io.github.cshunsinger.japplicator.annotation.FieldIdentifier;
+import io.github.cshunsinger.japplicator.cache.ApplicatorCache;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -28,6 +29,17 @@ public class ApplicatorTest {
         private String testValue;
     }
 
+    /**
+     * Stands in for a runtime subclass of a model type, such as a Hibernate proxy.
+     */
+    public static class TestSourceModelProxy extends TestSourceModel {
+        public TestSourceModelProxy(String testValue) {
+            super(testValue);
+        }
+    }
+
+    public static class TestDestinationModelProxy extends TestDestinationModel {}
+
     @Test
     public void applicatorInstance_createNewInstanceOfDestinationModel_withoutPassingNullParameter() {
         Applicator<TestSourceModel, TestDestinationModel> applicator = Applicator.getInstance(TestSourceModel.class, TestDestinationModel.class);
@@ -65,4 +77,19 @@ public class ApplicatorTest {
             hasProperty("testValue", is(testValue))
         ));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void applicatorInStaticContext_applyValuesBetweenProxies_withTheApplicatorOfTheirModelTypes() {
+        String testValue = randomAlphanumeric(32);
+        TestSourceModel source = new TestSourceModelProxy(testValue);
+        TestDestinationModel destination = new TestDestinationModelProxy();
+
+        destination = Applicator.applyValues(source, destination);
+        assertThat(destination, hasProperty("testValue", is(testValue)));
+
+        //No applicator was ever requested for the proxy classes themselves
+        assertThat(ApplicatorCache.instance.getPairStatistics(), everyItem(
+            hasProperty("pair", not(containsString("Proxy")))
+        ));
+    }
+}
@@ -0,0 +1,42 @@
+package io.github.cshunsinger.japplicator;
+
+import lombok.SneakyThrows;
+
+import java.io.InputStream;
+import java.util.Set;
+
+/**
+ * A class loader for tests which defines its own copy of the named classes, instead of delegating to its parent.
+ * Every other class is loaded from the parent class loader.
+ */
+public class IsolatedClassLoader extends ClassLoader {
+    private final Set<String> isolatedClassNames;
+
+    public IsolatedClassLoader(ClassLoader parent, String... isolatedClassNames) {
+        super(parent);
+        this.isolatedClassNames = Set.of(isolatedClassNames);
+    }
+
+    @Override
+    @SneakyThrows
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        if(!isolatedClassNames.contains(name))
+            return super.loadClass(name, resolve);
+
+        synchronized(getClassLoadingLock(name)) {
+            Class<?> type = findLoadedClass(name);
+            if(type == null) {
+                try(InputStream classFile = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+                    if(classFile == null)
+                        throw new ClassNotFoundException(name);
+
+                    byte[] bytecode = classFile.readAllBytes();
+                    type = defineClass(name, bytecode, 0, bytecode.length);
+                }
+            }
+            if(resolve)
+                resolveClass(type);
+            return type;
+        }
+    }
+}
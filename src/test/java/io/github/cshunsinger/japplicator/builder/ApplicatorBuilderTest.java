@@ -1,20 +1,52 @@
 package io.github.cshunsinger.japplicator.builder;
 
 import io.github.cshunsinger.japplicator.BaseUnitTest;
+import io.github.cshunsinger.japplicator.IsolatedClassLoader;
 import io.github.cshunsinger.japplicator.annotation.FieldIdentifier;
 import io.github.cshunsinger.japplicator.Applicator;
 import io.github.cshunsinger.japplicator.annotation.Nested;
+import io.github.cshunsinger.japplicator.annotation.ShareReference;
+import io.github.cshunsinger.japplicator.cache.UnloadableTestModel;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.util.CheckClassAdapter;
+
+import javax.tools.ToolProvider;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 
 public class ApplicatorBuilderTest extends BaseUnitTest {
+    /**
+     * Tests which start another virtual machine to see what its JIT compiler does. They are left out of the default test
+     * task, since they depend on the JIT compiler of the virtual machine, and are run by the jitTest task instead, which
+     * the check task runs as well.
+     */
+    static final String JIT_TAG = "jit";
+
     /**
      * These test classes are the most basic: can one class with one field have that field set on to another class
      * that contains a field with a matching identifier???
@@ -102,6 +134,26 @@ public class ApplicatorBuilderTest extends BaseUnitTest {
         private String unidentifiedField;
     }
 
+    @Test
+    @DisplayName("Map through the strongly typed and static entry points without going through the erased apply method.")
+    public void mapThroughTypedAndStaticEntryPoints() throws Throwable {
+        Applicator<BasicTestFromClass, BasicTestToClass> applicator = new ApplicatorBuilder<>(BasicTestFromClass.class, BasicTestToClass.class).build();
+
+        BasicTestFromClass from = new BasicTestFromClass();
+        from.setTestString("TypedTestString");
+
+        BasicTestToClass typedTo = (BasicTestToClass)applicator.getClass()
+            .getMethod(ApplicatorBuilder.TYPED_METHOD_NAME, BasicTestFromClass.class, BasicTestToClass.class)
+            .invoke(applicator, from, null);
+        assertThat(typedTo, hasProperty("testString", is("TypedTestString")));
+
+        MethodHandle staticApply = ApplicatorBuilder.findStaticApplyMethod(applicator);
+        assertThat(staticApply.type(), is(MethodType.methodType(BasicTestToClass.class, BasicTestFromClass.class, BasicTestToClass.class)));
+        BasicTestToClass staticTo = new BasicTestToClass();
+        assertThat((BasicTestToClass)staticApply.invokeExact(from, staticTo), sameInstance(staticTo));
+        assertThat(staticTo, hasProperty("testString", is("TypedTestString")));
+    }
+
     @Test
     @DisplayName("Return the destination parameter if the source object parameter is null.")
     public void returnDestinationParameterValueWhenSourceParameterIsNull() {
@@ -470,4 +522,326 @@ public class ApplicatorBuilderTest extends BaseUnitTest {
             hasProperty("nestedNonConstructable", nullValue()) //Cannot automatically construct these so the field is skipped
         ));
     }
-}
\ No newline at end of file
+
+    /**
+     * These tests cover defining applicator classes as hidden classes next to one of their model classes.
+     */
+
+    @SuppressWarnings("unused")
+    static class PackagePrivateModel {
+        private String value;
+
+        @FieldIdentifier("value")
+        public String getValue() {
+            return value;
+        }
+
+        @FieldIdentifier("value")
+        public void setValue(String value) {
+            this.value = value;
+        }
+    }
+
+    @Test
+    @DisplayName("Define the applicator class as a hidden class in the package of a model class.")
+    public void defineApplicatorClassAsHiddenClass() {
+        Applicator<BasicTestFromClass, BasicTestToClass> applicator = new ApplicatorBuilder<>(
+            ApplicatorClassLoader.forTypes(BasicTestFromClass.class, BasicTestToClass.class),
+            BasicTestFromClass.class, BasicTestToClass.class, ClassDefinitionMode.HIDDEN_CLASS
+        ).build();
+
+        Class<?> applicatorClass = applicator.getClass();
+        assertThat(applicatorClass.isHidden(), is(true));
+        assertThat(applicatorClass.getPackageName(), is(BasicTestFromClass.class.getPackageName()));
+        assertThat(applicatorClass.getNestHost(), sameInstance(applicatorClass));
+    }
+
+    @Test
+    @DisplayName("Define the applicator class as a hidden nestmate of a model class.")
+    public void defineApplicatorClassAsHiddenNestmate() {
+        Applicator<BasicTestFromClass, BasicTestToClass> applicator = new ApplicatorBuilder<>(
+            ApplicatorClassLoader.forTypes(BasicTestFromClass.class, BasicTestToClass.class),
+            BasicTestFromClass.class, BasicTestToClass.class, ClassDefinitionMode.HIDDEN_NESTMATE
+        ).build();
+
+        assertThat(applicator.getClass().isHidden(), is(true));
+        assertThat(applicator.getClass().getNestHost(), sameInstance(ApplicatorBuilderTest.class));
+    }
+
+    @Test
+    @DisplayName("Fall back to a class loader of its own when neither model class loader can see the other model class.")
+    public void defineApplicatorClassUnderItsOwnLoaderWhenNoModelClassCanHostIt() throws Exception {
+        ClassLoader testLoader = ApplicatorBuilderTest.class.getClassLoader();
+        String modelName = UnloadableTestModel.class.getName();
+        Class<?> sourceClass = new IsolatedClassLoader(testLoader, modelName).loadClass(modelName);
+        Class<?> destinationClass = new IsolatedClassLoader(testLoader, modelName).loadClass(modelName);
+
+        Applicator<?, ?> applicator = new ApplicatorBuilder<>(
+            ApplicatorClassLoader.forTypes(sourceClass, destinationClass), sourceClass, destinationClass, ClassDefinitionMode.HIDDEN_CLASS
+        ).build();
+
+        assertThat(applicator.getClass().isHidden(), is(false));
+        assertThat(applicator.getClass().getClassLoader(), instanceOf(SingleApplicatorClassLoader.class));
+    }
+
+    @Test
+    @DisplayName("Apply values between model classes which are not public from a hidden applicator class.")
+    public void applyValuesBetweenPackagePrivateModelsFromHiddenClass() {
+        Applicator<PackagePrivateModel, PackagePrivateModel> applicator = new ApplicatorBuilder<>(
+            ApplicatorClassLoader.forTypes(PackagePrivateModel.class, PackagePrivateModel.class),
+            PackagePrivateModel.class, PackagePrivateModel.class, ClassDefinitionMode.HIDDEN_CLASS
+        ).build();
+
+        PackagePrivateModel source = new PackagePrivateModel();
+        source.setValue("Value");
+        PackagePrivateModel destination = applicator.apply(source, new PackagePrivateModel());
+
+        assertThat(destination.getValue(), is("Value"));
+    }
+
+    @Test
+    @DisplayName("Split the mapping of a model with 1000 fields into methods small enough for HotSpot to compile.")
+    @SuppressWarnings("unchecked")
+    public void splitWideMappingsBelowTheHugeMethodLimit(@TempDir Path tempDir) throws Exception {
+        compileWideModel(tempDir);
+
+        try(URLClassLoader loader = new URLClassLoader(new URL[] {tempDir.toUri().toURL()}, getClass().getClassLoader())) {
+            Class<Object> wideClass = (Class<Object>)loader.loadClass("wide.WideModel");
+            ApplicatorBuilder<Object, Object> builder = new ApplicatorBuilder<>(wideClass, wideClass);
+
+            //HotSpot never compiles methods above the HugeMethodLimit, so every generated method must stay below it
+            Map<String, Integer> methodSizes = AsmUtils.methodCodeSizes(builder.generateBytecode());
+            assertThat(methodSizes.values(), everyItem(lessThanOrEqualTo(JitThreshold.HUGE_METHOD_LIMIT.getLimit())));
+
+            Object source = wideClass.getConstructor().newInstance();
+            wideClass.getMethod("setField0", String.class).invoke(source, "first");
+            wideClass.getMethod("setField999", String.class).invoke(source, "last");
+            assertThat(builder.build().apply(source, null), allOf(
+                hasProperty("field0", is("first")),
+                hasProperty("field500", nullValue()),
+                hasProperty("field999", is("last"))
+            ));
+        }
+    }
+
+    @Test
+    @Tag(JIT_TAG)
+    @DisplayName("The split mapping of a model with 1000 fields is compiled by C2 once it is hot.")
+    public void compileSplitWideMappingsWithC2(@TempDir Path tempDir) throws Exception {
+        compileWideModel(tempDir);
+
+        //-Xbatch compiles in the foreground, so the hot mapping is compiled before the loop finishes
+        Process process = new ProcessBuilder(
+            Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+            "-Xbatch", "-XX:+PrintCompilation",
+            "-cp", System.getProperty("java.class.path") + File.pathSeparator + tempDir,
+            WideMappingLoop.class.getName()
+        ).redirectErrorStream(true).start();
+        List<String> output;
+        try(BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            output = reader.lines().collect(Collectors.toList());
+        }
+        assertThat(process.waitFor(), is(0));
+
+        //A PrintCompilation line lists the compilation tier right before the method, and tier 4 is C2
+        assertThat(output, hasItem(matchesPattern(".*\\s4\\s+\\S+::" + ApplicatorBuilder.STATIC_METHOD_NAME + " \\(.*")));
+    }
+
+    /**
+     * Calls the applicator of the wide model until it is hot, run in its own virtual machine by
+     * {@link #compileSplitWideMappingsWithC2(Path)}.
+     */
+    public static class WideMappingLoop {
+        @SuppressWarnings("unchecked")
+        public static void main(String[] args) throws Exception {
+            Class<Object> wideClass = (Class<Object>)Class.forName("wide.WideModel");
+            Applicator<Object, Object> applicator = new ApplicatorBuilder<>(wideClass, wideClass).build();
+            Object source = wideClass.getConstructor().newInstance();
+            wideClass.getMethod("setField0", String.class).invoke(source, "first");
+            wideClass.getMethod("setField999", String.class).invoke(source, "last");
+
+            Object destination = wideClass.getConstructor().newInstance();
+            for(int i = 0; i < 100_000; i++)
+                applicator.apply(source, destination);
+        }
+    }
+
+    /**
+     * Compiles wide.WideModel, a model of 1000 identified String fields, into a directory.
+     */
+    private static void compileWideModel(Path directory) throws Exception {
+        StringBuilder wideModel = new StringBuilder("package wide;\n\n")
+            .append("@").append(FieldIdentifier.class.getName()).append("\n")
+            .append("public class WideModel {\n");
+        for(int i = 0; i < 1000; i++) {
+            wideModel.append("    private String field").append(i).append(";\n")
+                .append("    public String getField").append(i).append("() { return field").append(i).append("; }\n")
+                .append("    public void setField").append(i).append("(String value) { field").append(i).append(" = value; }\n");
+        }
+        wideModel.append("}\n");
+
+        Path sourceFile = Files.createDirectories(directory.resolve("wide")).resolve("WideModel.java");
+        Files.writeString(sourceFile, wideModel);
+        String classpath = Path.of(FieldIdentifier.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+        int result = ToolProvider.getSystemJavaCompiler().run(null, null, null,
+            "-proc:none", "-classpath", classpath, "-d", directory.toString(), sourceFile.toString());
+        assertThat(result, is(0));
+    }
+
+    @Getter @Setter
+    public static class BeanAddress {
+        @FieldIdentifier
+        private String street;
+        @FieldIdentifier
+        private int number;
+    }
+
+    @Getter @Setter
+    public static class BeanAddressDto {
+        @FieldIdentifier
+        private String street;
+        @FieldIdentifier
+        private long number;
+    }
+
+    @Getter @Setter
+    public static class BeanPerson {
+        @FieldIdentifier
+        private String name;
+        @FieldIdentifier
+        private BeanAddress address;
+        @FieldIdentifier
+        private List<BeanAddress> previousAddresses;
+        @FieldIdentifier
+        private BeanAddress[] otherAddresses;
+        @FieldIdentifier
+        private BeanPerson partner;
+    }
+
+    @Getter @Setter
+    public static class BeanPersonDto {
+        @FieldIdentifier
+        private String name;
+        @FieldIdentifier
+        private BeanAddressDto address;
+        @FieldIdentifier
+        private Set<BeanAddressDto> previousAddresses;
+        @FieldIdentifier
+        private BeanAddressDto[] otherAddresses;
+        @FieldIdentifier
+        private BeanPersonDto partner;
+    }
+
+    /**
+     * Creates a person with an address, previous addresses, other addresses, and a partner who has an address of their own.
+     */
+    static BeanPerson createBeanPerson() {
+        BeanPerson partner = new BeanPerson();
+        partner.setName("Partner");
+        partner.setAddress(beanAddress("Partner Street", 3));
+
+        BeanPerson person = new BeanPerson();
+        person.setName("Person");
+        person.setAddress(beanAddress("Main Street", 1));
+        person.setPreviousAddresses(new ArrayList<>(List.of(beanAddress("Old Street", 2))));
+        person.setOtherAddresses(new BeanAddress[] {beanAddress("Other Street", 4), null});
+        person.setPartner(partner);
+        return person;
+    }
+
+    private static BeanAddress beanAddress(String street, int number) {
+        BeanAddress address = new BeanAddress();
+        address.setStreet(street);
+        address.setNumber(number);
+        return address;
+    }
+
+    @Test
+    @DisplayName("Convert model values, and model elements of collections and arrays, into new model objects of another type.")
+    public void convertModelValuesIntoModelsOfAnotherType() {
+        BeanPerson person = createBeanPerson();
+        BeanPersonDto dto = new ApplicatorBuilder<>(BeanPerson.class, BeanPersonDto.class).build().apply(person, null);
+
+        assertThat(dto.getName(), is("Person"));
+        assertThat(dto.getAddress(), allOf(hasProperty("street", is("Main Street")), hasProperty("number", is(1L))));
+        assertThat(dto.getPreviousAddresses(), contains(allOf(hasProperty("street", is("Old Street")), hasProperty("number", is(2L)))));
+        assertThat(dto.getOtherAddresses(), arrayContaining(
+            allOf(hasProperty("street", is("Other Street")), hasProperty("number", is(4L))),
+            nullValue()
+        ));
+        assertThat(dto.getPartner(), allOf(
+            hasProperty("name", is("Partner")),
+            hasProperty("address", hasProperty("street", is("Partner Street"))),
+            hasProperty("partner", nullValue())
+        ));
+    }
+
+    @Getter @Setter
+    @FieldIdentifier
+    public static class SharingSource {
+        private List<String> tags;
+        private int[] scores;
+        private List<Integer> numbers;
+        private Integer count;
+    }
+
+    @Getter @Setter
+    @FieldIdentifier
+    public static class SharingDestination {
+        @ShareReference
+        private List<String> tags;
+        @ShareReference
+        private int[] scores;
+        @ShareReference
+        private List<Long> numbers;
+        @FieldIdentifier("tags")
+        private List<String> copiedTags;
+        @ShareReference
+        private int count;
+    }
+
+    static SharingSource createSharingSource() {
+        SharingSource source = new SharingSource();
+        source.setTags(List.of("a", "b"));
+        source.setScores(new int[] {1, 2});
+        source.setNumbers(List.of(3, 4));
+        source.setCount(5);
+        return source;
+    }
+
+    @Test
+    @DisplayName("Share the source values with members annotated with @ShareReference, unless the values need converting.")
+    public void shareSourceValuesWithMembersAnnotatedWithShareReference() {
+        SharingSource source = createSharingSource();
+        SharingDestination destination = new ApplicatorBuilder<>(SharingSource.class, SharingDestination.class).build().apply(source, null);
+
+        assertThat(destination.getTags(), sameInstance(source.getTags()));
+        assertThat(destination.getScores(), sameInstance(source.getScores()));
+        assertThat(destination.getNumbers(), contains(3L, 4L));
+        assertThat(destination.getCopiedTags(), allOf(contains("a", "b"), not(sameInstance(source.getTags()))));
+        //A boxed value is unboxed for a primitive member rather than shared with it
+        assertThat(destination.getCount(), is(5));
+    }
+
+    @Test
+    @DisplayName("Generate applicator classes which pass the bytecode verifier of ASM.")
+    public void generateApplicatorClassesWhichPassTheBytecodeVerifier() {
+        assertPassesTheBytecodeVerifier(BasicTestFromClass.class, BasicTestToClass.class);
+        assertPassesTheBytecodeVerifier(BasicTestFromClass.class, NonCooperativeBasicTestClass.class);
+        assertPassesTheBytecodeVerifier(BasicSourceWithNested.class, BasicDestinationWithNested.class);
+        assertPassesTheBytecodeVerifier(ObjectWithDeepNesting.class, ObjectWithDeepNesting.class);
+        assertPassesTheBytecodeVerifier(BeanPerson.class, BeanPersonDto.class);
+        assertPassesTheBytecodeVerifier(SharingSource.class, SharingDestination.class);
+    }
+
+    /**
+     * Verifies the bytecode generated for a pair with the data flow analysis of ASM, which reports the offending
+     * instruction of a malformed method rather than only failing once the class is loaded.
+     */
+    private <Src, Dest> void assertPassesTheBytecodeVerifier(Class<Src> sourceClass, Class<Dest> destinationClass) {
+        byte[] bytecode = new ApplicatorBuilder<>(sourceClass, destinationClass).generateBytecode();
+        StringWriter problems = new StringWriter();
+        CheckClassAdapter.verify(new ClassReader(bytecode), getClass().getClassLoader(), false, new PrintWriter(problems));
+        assertThat(sourceClass.getSimpleName() + " to " + destinationClass.getSimpleName(), problems.toString(), emptyString());
+    }
+}
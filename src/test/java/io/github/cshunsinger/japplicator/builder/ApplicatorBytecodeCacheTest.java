@@ -0,0 +1,139 @@
+package io.github.cshunsinger.japplicator.builder;
+
+import io.github.cshunsinger.japplicator.IsolatedClassLoader;
+import io.github.cshunsinger.japplicator.annotation.FieldIdentifier;
+import io.github.cshunsinger.japplicator.builder.ApplicatorBuilderTest.BasicTestFromClass;
+import io.github.cshunsinger.japplicator.builder.ApplicatorBuilderTest.BasicTestToClass;
+import io.github.cshunsinger.japplicator.cache.UnloadableTestModel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.ToolProvider;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ApplicatorBytecodeCacheTest {
+    private static final byte[] BYTECODE = {(byte)0xCA, (byte)0xFE, (byte)0xBA, (byte)0xBE, 1, 2, 3};
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void loadStoredBytecodeOnlyForTheSameStructuralHash() {
+        ApplicatorBytecodeCache cache = new ApplicatorBytecodeCache(directory);
+        String structuralHash = ModelStructureHash.of(BasicTestFromClass.class, BasicTestToClass.class);
+
+        assertThat(cache.load(BasicTestFromClass.class, BasicTestToClass.class, structuralHash), nullValue());
+        cache.store(BasicTestFromClass.class, BasicTestToClass.class, structuralHash, BYTECODE);
+
+        //A second cache in the same directory stands in for another JVM
+        ApplicatorBytecodeCache otherCache = new ApplicatorBytecodeCache(directory);
+        assertThat(otherCache.load(BasicTestFromClass.class, BasicTestToClass.class, structuralHash), is(BYTECODE));
+        assertThat(otherCache.load(BasicTestFromClass.class, BasicTestToClass.class, "0".repeat(64)), nullValue());
+        assertThat(otherCache.load(BasicTestToClass.class, BasicTestFromClass.class, structuralHash), nullValue());
+    }
+
+    @Test
+    public void replaceStaleEntriesWhenStoringAPairAgain() throws Exception {
+        ApplicatorBytecodeCache cache = new ApplicatorBytecodeCache(directory);
+        String staleHash = "0".repeat(64);
+        String currentHash = ModelStructureHash.of(BasicTestFromClass.class, BasicTestToClass.class);
+
+        cache.store(BasicTestFromClass.class, BasicTestToClass.class, staleHash, BYTECODE);
+        cache.store(BasicTestToClass.class, BasicTestFromClass.class, staleHash, BYTECODE);
+        cache.store(BasicTestFromClass.class, BasicTestToClass.class, currentHash, BYTECODE);
+
+        assertThat(cache.load(BasicTestFromClass.class, BasicTestToClass.class, staleHash), nullValue());
+        assertThat(cache.load(BasicTestFromClass.class, BasicTestToClass.class, currentHash), is(BYTECODE));
+        //Only the entries of the stored pair are replaced
+        assertThat(cache.load(BasicTestToClass.class, BasicTestFromClass.class, staleHash), is(BYTECODE));
+        assertThat(entryFiles(), hasSize(2));
+    }
+
+    @Test
+    public void ignoreTruncatedEntries() throws Exception {
+        ApplicatorBytecodeCache cache = new ApplicatorBytecodeCache(directory);
+        String structuralHash = ModelStructureHash.of(BasicTestFromClass.class, BasicTestToClass.class);
+        cache.store(BasicTestFromClass.class, BasicTestToClass.class, structuralHash, BYTECODE);
+
+        Path entry = entryFiles().get(0);
+        byte[] contents = Files.readAllBytes(entry);
+        Files.write(entry, Arrays.copyOf(contents, contents.length - 2));
+
+        assertThat(cache.load(BasicTestFromClass.class, BasicTestToClass.class, structuralHash), nullValue());
+    }
+
+    @Test
+    public void structuralHashDependsOnTheStructureOfTheModelsRatherThanTheirClassLoader() throws Exception {
+        Class<?> isolatedModel = new IsolatedClassLoader(getClass().getClassLoader(), UnloadableTestModel.class.getName())
+            .loadClass(UnloadableTestModel.class.getName());
+
+        assertThat(ModelStructureHash.of(isolatedModel, isolatedModel), is(ModelStructureHash.of(UnloadableTestModel.class, UnloadableTestModel.class)));
+        assertThat(ModelStructureHash.of(BasicTestFromClass.class, BasicTestToClass.class),
+            not(ModelStructureHash.of(BasicTestToClass.class, BasicTestFromClass.class)));
+        assertThat(ModelStructureHash.of(BasicTestFromClass.class, BasicTestToClass.class),
+            not(ModelStructureHash.of(BasicTestFromClass.class, UnloadableTestModel.class)));
+    }
+
+    @Test
+    public void treatEntriesAsStaleWhenAModelTypeReachedThroughAGenericArgumentChanges(@TempDir Path classes) throws Exception {
+        String holder = "package stale;\n\n"
+            + "@" + FieldIdentifier.class.getName() + "\n"
+            + "public class Holder {\n"
+            + "    private java.util.Map<String, java.util.List<Item>> items;\n"
+            + "    public java.util.Map<String, java.util.List<Item>> getItems() { return items; }\n"
+            + "    public void setItems(java.util.Map<String, java.util.List<Item>> items) { this.items = items; }\n"
+            + "}\n";
+        String item = "package stale;\n\n"
+            + "@" + FieldIdentifier.class.getName() + "\n"
+            + "public class Item {\n"
+            + "    private String name;\n"
+            + "    public String getName() { return name; }\n"
+            + "    public void setName(String name) { this.name = name; }\n"
+            + "}\n";
+        //The next version of the item has another field, while the holder stays exactly the same
+        String changedItem = item.substring(0, item.lastIndexOf('}')) + "    private String code;\n"
+            + "    public String getCode() { return code; }\n"
+            + "    public void setCode(String code) { this.code = code; }\n"
+            + "}\n";
+
+        Class<?> oldHolder = compileHolder(classes.resolve("old"), holder, item);
+        Class<?> newHolder = compileHolder(classes.resolve("new"), holder, changedItem);
+        String oldHash = ModelStructureHash.of(oldHolder, oldHolder);
+        String newHash = ModelStructureHash.of(newHolder, newHolder);
+        assertThat(newHash, not(oldHash));
+
+        ApplicatorBytecodeCache cache = new ApplicatorBytecodeCache(directory);
+        cache.store(oldHolder, oldHolder, oldHash, BYTECODE);
+        assertThat(cache.load(newHolder, newHolder, newHash), nullValue());
+    }
+
+    private static Class<?> compileHolder(Path directory, String holder, String item) throws Exception {
+        Path sources = Files.createDirectories(directory.resolve("stale"));
+        Files.writeString(sources.resolve("Holder.java"), holder);
+        Files.writeString(sources.resolve("Item.java"), item);
+        String classpath = Path.of(FieldIdentifier.class.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+        int result = ToolProvider.getSystemJavaCompiler().run(null, null, null, "-proc:none", "-classpath", classpath,
+            "-d", directory.toString(), sources.resolve("Holder.java").toString(), sources.resolve("Item.java").toString());
+        assertThat(result, is(0));
+
+        //The class loader is left open, the same way a model class loader of an application stays open
+        return new URLClassLoader(new URL[] {directory.toUri().toURL()}, ApplicatorBytecodeCacheTest.class.getClassLoader())
+            .loadClass("stale.Holder");
+    }
+
+    private List<Path> entryFiles() throws Exception {
+        try(Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".applicator")).collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package io.github.cshunsinger.japplicator.builder;
+
+import io.github.cshunsinger.japplicator.Applicator;
+import io.github.cshunsinger.japplicator.IsolatedClassLoader;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ApplicatorClassLoaderTest {
+    public static class SourceModel {}
+    public static class DestinationModel {}
+
+    private final ClassLoader testLoader = ApplicatorClassLoaderTest.class.getClassLoader();
+    private final ClassLoader sourceLoader = new IsolatedClassLoader(testLoader, SourceModel.class.getName());
+    private final ClassLoader destinationLoader = new IsolatedClassLoader(testLoader, DestinationModel.class.getName());
+
+    @Test
+    public void loadModelClassesFromTheSourceAndDestinationLoaders() throws Exception {
+        Class<?> sourceType = sourceLoader.loadClass(SourceModel.class.getName());
+        Class<?> destinationType = destinationLoader.loadClass(DestinationModel.class.getName());
+        ApplicatorClassLoader loader = ApplicatorClassLoader.forTypes(sourceType, destinationType);
+
+        assertThat(loader.loadClass(SourceModel.class.getName()), allOf(sameInstance(sourceType), not(SourceModel.class)));
+        assertThat(loader.loadClass(String.class.getName()), sameInstance(String.class));
+    }
+
+    @Test
+    public void loadClassesFromTheDestinationLoaderWhenTheSourceLoaderCannotSeeThem() throws Exception {
+        Class<?> destinationType = destinationLoader.loadClass(DestinationModel.class.getName());
+        ApplicatorClassLoader loader = ApplicatorClassLoader.forTypes(String.class, destinationType);
+
+        assertThat(loader.loadClass(DestinationModel.class.getName()), allOf(sameInstance(destinationType), not(DestinationModel.class)));
+    }
+
+    @Test
+    public void alwaysLoadLibraryClassesFromTheLibraryLoader() throws Exception {
+        ClassLoader isolatedLibraryLoader = new IsolatedClassLoader(testLoader, Applicator.class.getName());
+        ApplicatorClassLoader loader = new ApplicatorClassLoader(isolatedLibraryLoader, isolatedLibraryLoader);
+
+        assertThat(loader.loadClass(Applicator.class.getName()), sameInstance(Applicator.class));
+    }
+
+    @Test
+    public void failToLoadClassesWhichNoLoaderCanSee() {
+        ApplicatorClassLoader loader = new ApplicatorClassLoader(sourceLoader, destinationLoader);
+
+        assertThrows(ClassNotFoundException.class, () -> loader.loadClass("io.github.cshunsinger.DoesNotExist"));
+    }
+}
@@ -0,0 +1,102 @@
+package io.github.cshunsinger.japplicator.builder;
+
+import io.github.cshunsinger.japplicator.annotation.FieldIdentifier;
+import io.github.cshunsinger.japplicator.annotation.Nested;
+import io.github.cshunsinger.japplicator.annotation.ShareReference;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class IntrospectedModelTest {
+    @Getter
+    @Setter
+    @FieldIdentifier
+    public static class IntrospectedTestModel {
+        private String name;
+        @FieldIdentifier("alias")
+        private Integer count;
+        @Setter(AccessLevel.NONE)
+        private String readOnly;
+        @Nested(prefix = "nested")
+        private NestedTestModel nested;
+
+        @FieldIdentifier("name")
+        public void setDisplayName(String displayName) {}
+    }
+
+    @Getter
+    @Setter
+    @FieldIdentifier
+    public static class NestedTestModel {
+        private String value;
+    }
+
+    @Test
+    public void introspectEachModelClassOnce() {
+        assertThat(IntrospectedModel.of(IntrospectedTestModel.class), sameInstance(IntrospectedModel.of(IntrospectedTestModel.class)));
+        assertThat(IntrospectedModel.of(NestedTestModel.class), not(sameInstance(IntrospectedModel.of(IntrospectedTestModel.class))));
+    }
+
+    @Test
+    public void indexSettersByIdentifierName() throws Exception {
+        IntrospectedModel<Class<?>, Method> model = IntrospectedModel.of(IntrospectedTestModel.class);
+
+        assertThat(model.settersFor("name"), contains(
+            IntrospectedTestModel.class.getMethod("setName", String.class),
+            IntrospectedTestModel.class.getMethod("setDisplayName", String.class)
+        ));
+        assertThat(model.settersFor("alias"), contains(IntrospectedTestModel.class.getMethod("setCount", Integer.class)));
+        assertThat(model.settersFor("count"), empty());
+        assertThat(model.settersFor("readOnly"), empty());
+
+        List<String> getterIdentifiers = model.getIdentifiedGetters().stream()
+            .map(IntrospectedModel.IdentifiedGetter::getIdentifierName)
+            .collect(Collectors.toList());
+        assertThat(getterIdentifiers, containsInAnyOrder("name", "alias", "readOnly", "nested"));
+    }
+
+    @Test
+    public void findNestedMembersWithTheirPrefixes() throws Exception {
+        IntrospectedModel<Class<?>, Method> model = IntrospectedModel.of(IntrospectedTestModel.class);
+        Method getter = IntrospectedTestModel.class.getMethod("getNested");
+        Method setter = IntrospectedTestModel.class.getMethod("setNested", NestedTestModel.class);
+
+        IntrospectedModel.NestedMember<Class<?>, Method> expected = new IntrospectedModel.NestedMember<>("nested", getter, setter, NestedTestModel.class);
+        assertThat(model.getNestedSources(), contains(expected));
+        assertThat(model.getNestedDestinations(), contains(expected));
+        assertThat(DestinationNode.hasDestinationsForField("nestedvalue", IntrospectedTestModel.class), is(true));
+        assertThat(DestinationNode.hasDestinationsForField("value", IntrospectedTestModel.class), is(false));
+    }
+
+    @Getter
+    @Setter
+    @FieldIdentifier
+    public static class SharingTestModel {
+        @ShareReference
+        private List<String> shared;
+        private List<String> copied;
+
+        @ShareReference
+        @FieldIdentifier("sharedByMethod")
+        public void setSharedValues(List<String> values) {}
+    }
+
+    @Test
+    public void findSettersWhichShareTheReferenceOfSourceValues() throws Exception {
+        IntrospectedModel<Class<?>, Method> model = IntrospectedModel.of(SharingTestModel.class);
+
+        assertTrue(model.sharesReference(SharingTestModel.class.getMethod("setShared", List.class)));
+        assertTrue(model.sharesReference(SharingTestModel.class.getMethod("setSharedValues", List.class)));
+        assertFalse(model.sharesReference(SharingTestModel.class.getMethod("setCopied", List.class)));
+    }
+}
@@ -0,0 +1,165 @@
+package io.github.cshunsinger.japplicator.builder;
+
+import io.github.cshunsinger.japplicator.annotation.FieldIdentifier;
+import io.github.cshunsinger.japplicator.annotation.Nested;
+import io.github.cshunsinger.japplicator.converters.ConverterKind;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class MappingPlanTest {
+    @Getter
+    @Setter
+    @FieldIdentifier
+    public static class PlanSourceModel {
+        private String name;
+        private int count;
+        private List<Integer> numbers;
+        private String unmatched;
+        @Getter(AccessLevel.NONE)
+        private String unreadable;
+        @Nested(prefix = "address")
+        private PlanAddress address;
+    }
+
+    @Getter
+    @Setter
+    @FieldIdentifier
+    public static class PlanAddress {
+        private String city;
+    }
+
+    @Getter
+    @Setter
+    @FieldIdentifier
+    public static class PlanDestinationModel {
+        private String name;
+        private Long count;
+        private Set<Long> numbers;
+        @FieldIdentifier("addresscity")
+        private Thread city;
+    }
+
+    @Test
+    public void reportMappedValuesWithTheirConverters() {
+        MappingPlan plan = MappingPlan.of(PlanSourceModel.class, PlanDestinationModel.class);
+
+        assertThat(plan.getSourceType(), equalTo(PlanSourceModel.class));
+        assertThat(plan.getDestinationType(), equalTo(PlanDestinationModel.class));
+        assertThat(plan.getMappings(), containsInAnyOrder(
+            allOf(
+                hasProperty("identifierName", is("name")),
+                hasProperty("sourcePath", is("getName()")),
+                hasProperty("destinationPath", is("setName()")),
+                hasProperty("converter", is(ConverterKind.SINGLE_VALUE))
+            ),
+            allOf(
+                hasProperty("identifierName", is("count")),
+                hasProperty("destinationValueType", equalTo(Long.class)),
+                hasProperty("converter", is(ConverterKind.SINGLE_VALUE))
+            ),
+            allOf(
+                hasProperty("identifierName", is("numbers")),
+                hasProperty("converter", is(ConverterKind.COLLECTION_TO_COLLECTION))
+            )
+        ));
+    }
+
+    @Test
+    public void reportSkippedMembersWithTheirReasons() {
+        MappingPlan plan = MappingPlan.of(PlanSourceModel.class, PlanDestinationModel.class);
+
+        assertThat(plan.getSkippedMembers(), hasItems(
+            allOf(
+                hasProperty("declaringType", equalTo(PlanSourceModel.class)),
+                hasProperty("member", is("unreadable")),
+                hasProperty("reason", containsString("No getter method"))
+            ),
+            allOf(
+                hasProperty("member", is("getUnmatched")),
+                hasProperty("reason", containsString("identified as unmatched"))
+            ),
+            allOf(
+                hasProperty("declaringType", equalTo(PlanDestinationModel.class)),
+                hasProperty("member", is("setCity")),
+                hasProperty("reason", containsString("getAddress().getCity()"))
+            )
+        ));
+        assertThat(plan.describe(), allOf(
+            containsString("mapped name: getName() -> setName() (SINGLE_VALUE)"),
+            containsString("skipped " + PlanDestinationModel.class.getName() + ".setCity: Cannot convert")
+        ));
+    }
+
+    @Getter
+    @Setter
+    public static class CycleLeft {
+        @FieldIdentifier
+        private String name;
+        @Nested
+        private CycleRight right;
+    }
+
+    @Getter
+    @Setter
+    public static class CycleRight {
+        @FieldIdentifier
+        private String label;
+        @Nested
+        private CycleLeft left;
+    }
+
+    @Test
+    public void planRecursiveNestedTypesOnce() {
+        MappingPlan plan = MappingPlan.of(CycleLeft.class, CycleLeft.class);
+
+        //The unprefixed cycle reads CycleLeft again with the same identifier names, so its values are planned once
+        assertThat(plan.getMappings(), containsInAnyOrder(
+            allOf(
+                hasProperty("sourcePath", is("getName()")),
+                hasProperty("destinationPath", is("setName()"))
+            ),
+            allOf(
+                hasProperty("sourcePath", is("getRight().getLabel()")),
+                hasProperty("destinationPath", is("getRight().setLabel()"))
+            )
+        ));
+        assertThat(plan.getSkippedMembers(), not(hasItem(hasProperty("member", is("getLeft")))));
+    }
+
+    @Getter
+    @Setter
+    public static class PrefixedCycleLeft {
+        @FieldIdentifier
+        private String name;
+        @Nested(prefix = "right")
+        private PrefixedCycleRight right;
+    }
+
+    @Getter
+    @Setter
+    public static class PrefixedCycleRight {
+        @FieldIdentifier
+        private String label;
+        @Nested(prefix = "left")
+        private PrefixedCycleLeft left;
+    }
+
+    @Test
+    public void skipPrefixedCyclicNestedTypes() {
+        MappingPlan plan = MappingPlan.of(PrefixedCycleLeft.class, PrefixedCycleLeft.class);
+
+        assertThat(plan.getSkippedMembers(), hasItem(allOf(
+            hasProperty("declaringType", equalTo(PrefixedCycleRight.class)),
+            hasProperty("member", is("getLeft")),
+            hasProperty("reason", containsString("already read from by an enclosing @Nested member, with the prefix \"\" rather than \"rightleft\""))
+        )));
+    }
+}
@@ -0,0 +1,182 @@
+package io.github.cshunsinger.japplicator.builder;
+
+import io.github.cshunsinger.japplicator.Applicator;
+import io.github.cshunsinger.japplicator.BaseUnitTest;
+import io.github.cshunsinger.japplicator.annotation.FieldIdentifier;
+import io.github.cshunsinger.japplicator.builder.ApplicatorBuilderTest.*;
+import io.github.cshunsinger.japplicator.exception.TypeConversionException;
+import lombok.Getter;
+import lombok.Setter;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ReflectiveApplicatorTest extends BaseUnitTest {
+    @Test
+    @DisplayName("Create a new destination object when null is provided as the destination object.")
+    public void createNewDestinationObjectWithValueFromOtherObject() {
+        Applicator<BasicTestFromClass, BasicTestToClass> applicator = new ReflectiveApplicator<>(BasicTestFromClass.class, BasicTestToClass.class);
+
+        BasicTestFromClass from = new BasicTestFromClass();
+        from.setTestString("MyTestString");
+
+        assertThat(applicator.apply(from), hasProperty("testString", is("MyTestString")));
+    }
+
+    @Test
+    @DisplayName("Return the destination parameter if the source object parameter is null, or null if the destination cannot be constructed.")
+    public void returnDestinationParameterValueWhenSourceParameterIsNull() {
+        Applicator<BasicTestFromClass, BasicTestToClass> applicator =
+            new ReflectiveApplicator<>(BasicTestFromClass.class, BasicTestToClass.class);
+        Applicator<BasicTestFromClass, NonCooperativeBasicTestClass> nonCooperativeApplicator =
+            new ReflectiveApplicator<>(BasicTestFromClass.class, NonCooperativeBasicTestClass.class);
+
+        assertThat(applicator.apply(null, null), notNullValue(BasicTestToClass.class));
+        assertThat(nonCooperativeApplicator.apply(null, null), nullValue());
+
+        BasicTestToClass to = new BasicTestToClass();
+        assertThat(applicator.apply(null, to), is(to));
+        assertThat(nonCooperativeApplicator.apply(new BasicTestFromClass(), null), nullValue());
+    }
+
+    @Test
+    @DisplayName("Do not set fields of the destination object to null if the field in the from object is null.")
+    public void doNotOverwriteDestinationFieldWithNull() {
+        Applicator<BasicTestFromClass, BasicTestToClass> applicator = new ReflectiveApplicator<>(BasicTestFromClass.class, BasicTestToClass.class);
+
+        BasicTestToClass to = new BasicTestToClass();
+        to.setTestString("NonNullTestString");
+
+        applicator.apply(new BasicTestFromClass(), to);
+        assertThat(to, hasProperty("testString", is("NonNullTestString")));
+    }
+
+    @Test
+    @DisplayName("Construct nested destination objects when constructable and skip null non-constructable nested objects.")
+    public void handleNullConstructableAndNullNonConstructableFieldValues() {
+        Applicator<BasicSourceWithNested, BasicDestinationWithNested> applicator =
+            new ReflectiveApplicator<>(BasicSourceWithNested.class, BasicDestinationWithNested.class);
+
+        Object third = new Object();
+        BasicSourceWithNested source = new BasicSourceWithNested();
+        source.setFirst("FirstValue");
+        source.setSecond(1234);
+        source.setNested(new BasicSourceNested());
+        source.getNested().setThird(third);
+        source.getNested().setFourth("FourthValue");
+
+        BasicDestinationWithNested destination = applicator.apply(source, null);
+        assertThat(destination, allOf(
+            hasProperty("first", is("FirstValue")),
+            hasProperty("third", is(third)),
+            hasProperty("nested", allOf(
+                notNullValue(),
+                hasProperty("first", is("FirstValue")),
+                hasProperty("second", is(1234)),
+                hasProperty("fourth", is("FourthValue"))
+            )),
+            hasProperty("nestedNonConstructable", nullValue())
+        ));
+    }
+
+    @Getter @Setter
+    public static class ConversionSource {
+        @FieldIdentifier
+        private int number;
+        @FieldIdentifier
+        private List<Integer> numbers;
+        @FieldIdentifier
+        private char[] characters;
+    }
+
+    @Getter @Setter
+    public static class ConversionDestination {
+        @FieldIdentifier
+        private Long number;
+        @FieldIdentifier
+        private Set<Long> numbers;
+        @FieldIdentifier
+        private String characters;
+    }
+
+    @Getter @Setter
+    public static class ArrayConversionDestination {
+        @FieldIdentifier("number")
+        private String number;
+        @FieldIdentifier("numbers")
+        private long[] numbers;
+        @FieldIdentifier("characters")
+        private LinkedList<Character> characters;
+    }
+
+    @Test
+    @DisplayName("Convert values between primitives, wrappers, strings, collections, and arrays the same way as generated applicators.")
+    public void convertValuesBetweenTypes() {
+        ConversionSource source = new ConversionSource();
+        source.setNumber(42);
+        source.setNumbers(new ArrayList<>(List.of(1, 2, 3)));
+        source.setCharacters(new char[] {'a', 'b'});
+
+        ConversionDestination destination = new ReflectiveApplicator<>(ConversionSource.class, ConversionDestination.class).apply(source);
+        assertThat(destination.getNumber(), is(42L));
+        assertThat(destination.getNumbers(), containsInAnyOrder(1L, 2L, 3L));
+        assertThat(destination.getCharacters(), is("ab"));
+
+        ArrayConversionDestination arrayDestination = new ReflectiveApplicator<>(ConversionSource.class, ArrayConversionDestination.class).apply(source);
+        assertThat(arrayDestination.getNumber(), is("42"));
+        assertThat(arrayDestination.getNumbers(), is(new long[] {1L, 2L, 3L}));
+        assertThat(arrayDestination.getCharacters(), contains('a', 'b'));
+    }
+
+    @Test
+    @DisplayName("Convert model values, and model elements of collections and arrays, the same way as generated applicators.")
+    public void convertModelValuesIntoModelsOfAnotherType() {
+        BeanPersonDto dto = new ReflectiveApplicator<>(BeanPerson.class, BeanPersonDto.class).apply(ApplicatorBuilderTest.createBeanPerson());
+
+        assertThat(dto.getName(), is("Person"));
+        assertThat(dto.getAddress(), allOf(hasProperty("street", is("Main Street")), hasProperty("number", is(1L))));
+        assertThat(dto.getPreviousAddresses(), contains(allOf(hasProperty("street", is("Old Street")), hasProperty("number", is(2L)))));
+        assertThat(dto.getOtherAddresses(), arrayContaining(
+            allOf(hasProperty("street", is("Other Street")), hasProperty("number", is(4L))),
+            nullValue()
+        ));
+        assertThat(dto.getPartner(), allOf(
+            hasProperty("name", is("Partner")),
+            hasProperty("address", hasProperty("street", is("Partner Street"))),
+            hasProperty("partner", nullValue())
+        ));
+    }
+
+    @Test
+    @DisplayName("Share the source values with members annotated with @ShareReference, unless the values need converting.")
+    public void shareSourceValuesWithMembersAnnotatedWithShareReference() {
+        SharingSource source = ApplicatorBuilderTest.createSharingSource();
+        SharingDestination destination = new ReflectiveApplicator<>(SharingSource.class, SharingDestination.class).apply(source);
+
+        assertThat(destination.getTags(), sameInstance(source.getTags()));
+        assertThat(destination.getScores(), sameInstance(source.getScores()));
+        assertThat(destination.getNumbers(), contains(3L, 4L));
+        assertThat(destination.getCopiedTags(), allOf(contains("a", "b"), not(sameInstance(source.getTags()))));
+        assertThat(destination.getCount(), is(5));
+    }
+
+    @Getter @Setter
+    public static class UnconvertibleDestination {
+        @FieldIdentifier
+        private Thread number;
+    }
+
+    @Test
+    @DisplayName("Fail to create a reflective applicator for values which cannot be converted.")
+    public void failWhenValuesCannotBeConverted() {
+        assertThrows(TypeConversionException.class, () -> new ReflectiveApplicator<>(ConversionSource.class, UnconvertibleDestination.class));
+    }
+}
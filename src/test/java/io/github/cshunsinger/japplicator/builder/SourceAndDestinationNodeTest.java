@@ -4,10 +4,19 @@ import io.github.cshunsinger.japplicator.BaseUnitTest;
 import io.github.cshunsinger.japplicator.annotation.FieldIdentifier;
 import io.github.cshunsinger.japplicator.Applicator;
 import io.github.cshunsinger.japplicator.annotation.Nested;
+import io.github.cshunsinger.japplicator.builder.ApplicatorBuilderTest.BeanAddress;
+import io.github.cshunsinger.japplicator.builder.ApplicatorBuilderTest.BeanAddressDto;
+import io.github.cshunsinger.japplicator.builder.ApplicatorBuilderTest.BeanPerson;
+import io.github.cshunsinger.japplicator.builder.ApplicatorBuilderTest.BeanPersonDto;
 import lombok.*;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.Test;
 
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 
@@ -320,4 +329,142 @@ public class SourceAndDestinationNodeTest extends BaseUnitTest {
             ))
         ));
     }
-}
\ No newline at end of file
+
+    @Getter @Setter
+    public static class CyclicParent {
+        @FieldIdentifier
+        private String name;
+        @Nested(prefix = "child")
+        private CyclicChild child;
+    }
+
+    @Getter @Setter
+    public static class CyclicChild {
+        @FieldIdentifier
+        private String name;
+        @Nested(prefix = "parent")
+        private CyclicParent parent;
+    }
+
+    @Test
+    public void doNotFollowCyclicNestedTypes() {
+        CyclicParent source = new CyclicParent();
+        source.setName("parent");
+        source.setChild(new CyclicChild());
+        source.getChild().setName("child");
+        source.getChild().setParent(source);
+
+        Applicator<CyclicParent, CyclicParent> applicator = new ApplicatorBuilder<>(CyclicParent.class, CyclicParent.class).build();
+        CyclicParent result = applicator.apply(source, null);
+
+        assertThat(result, allOf(
+            notNullValue(),
+            hasProperty("name", is("parent")),
+            hasProperty("child", allOf(
+                not(source.getChild()),
+                hasProperty("name", is("child")),
+                hasProperty("parent", nullValue())
+            ))
+        ));
+    }
+
+    @Getter @Setter
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class RecursiveSource {
+        @FieldIdentifier
+        private String name;
+        @FieldIdentifier
+        private String title;
+        @Nested
+        private RecursiveSource next;
+    }
+
+    @Getter @Setter
+    @FieldIdentifier
+    public static class RecursiveDestination {
+        private String name;
+        private String title;
+    }
+
+    @Test
+    public void mapRecursiveNestedTypesByCallingTheSharedMethodAgain() {
+        RecursiveSource source = new RecursiveSource("first", "title", new RecursiveSource(null, null, new RecursiveSource("last", null, null)));
+
+        //Every level maps onto the same identifier names, so the values of the deepest level which has them are kept
+        Applicator<RecursiveSource, RecursiveDestination> applicator = new ApplicatorBuilder<>(RecursiveSource.class, RecursiveDestination.class).build();
+        Applicator<RecursiveSource, RecursiveDestination> reflectiveApplicator = new ReflectiveApplicator<>(RecursiveSource.class, RecursiveDestination.class);
+        for(RecursiveDestination result: List.of(applicator.apply(source, null), reflectiveApplicator.apply(source, null))) {
+            assertThat(result, allOf(
+                hasProperty("name", is("last")),
+                hasProperty("title", is("title"))
+            ));
+        }
+
+        assertThat(declaredMethodNames(applicator, NestedMappingMethods.METHOD_NAME_PREFIX), hasSize(1));
+    }
+
+    @Test
+    public void shareOneNestedDestinationMethodPerNestedMember() {
+        FlatDestinationFromNested source = new FlatDestinationFromNested();
+        source.setNestedFirst("first");
+        source.setNestedSecond("second");
+        source.setOtherNestedFirst("third");
+
+        Applicator<FlatDestinationFromNested, SourceWithPrefixedNested> applicator =
+            new ApplicatorBuilder<>(FlatDestinationFromNested.class, SourceWithPrefixedNested.class).build();
+        assertThat(applicator.apply(source, null), allOf(
+            hasProperty("nested", allOf(
+                hasProperty("first", is("first")),
+                hasProperty("second", is("second"))
+            )),
+            hasProperty("otherNested", allOf(
+                hasProperty("first", is("third")),
+                hasProperty("second", nullValue())
+            ))
+        ));
+
+        //Each nested destination object receives two values, and is created by one method
+        assertThat(declaredMethodNames(applicator, NestedMappingMethods.DESTINATION_METHOD_NAME_PREFIX), hasSize(2));
+    }
+
+    private static List<String> declaredMethodNames(Applicator<?, ?> applicator, String prefix) {
+        return Arrays.stream(applicator.getClass().getDeclaredMethods())
+            .map(Method::getName)
+            .filter(name -> name.startsWith(prefix))
+            .collect(Collectors.toList());
+    }
+
+    @Test
+    public void shareOneNestedMappingMethodPerNestedTypeAndPrefix() {
+        NestedMappingMethods nestedMethods = new NestedMappingMethods();
+        List<SourceNode> nestedNodes = SourceNode.createSources(SourceNestedPrefix.class, "nested");
+        List<SourceNode> otherNestedNodes = SourceNode.createSources(SourceNestedPrefix.class, "otherNested");
+
+        String methodName = nestedMethods.methodFor(SourceNestedPrefix.class, "nested", nestedNodes, FlatDestinationFromNested.class);
+        assertThat(nestedMethods.methodFor(SourceNestedPrefix.class, "nested", nestedNodes, FlatDestinationFromNested.class), is(methodName));
+        assertThat(nestedMethods.methodFor(SourceNestedPrefix.class, "otherNested", otherNestedNodes, FlatDestinationFromNested.class), not(methodName));
+        assertThat(nestedMethods.getMethods(), hasSize(2));
+    }
+
+    @Test
+    public void shareOneBeanConversionMethodPerPairOfTypes() {
+        NestedMappingMethods nestedMethods = new NestedMappingMethods();
+
+        //The person refers to its own pair, and to the address pair, which are generated once each
+        String methodName = nestedMethods.methodFor(BeanPerson.class, BeanPersonDto.class);
+        assertThat(nestedMethods.methodFor(BeanPerson.class, BeanPersonDto.class), is(methodName));
+        assertThat(nestedMethods.methodFor(BeanAddress.class, BeanAddressDto.class), not(methodName));
+        assertThat(nestedMethods.getMethods(), hasSize(2));
+    }
+
+    @Test
+    public void splitSharedMethodsWhichMapMoreSourceNodesThanTheLimit() {
+        NestedMappingMethods nestedMethods = new NestedMappingMethods(1);
+
+        //The address maps two values, so its conversion method calls two part methods of one value each
+        String methodName = nestedMethods.methodFor(BeanAddress.class, BeanAddressDto.class);
+        assertThat(nestedMethods.getStepCounts(), hasEntry(methodName, 2));
+        assertThat(nestedMethods.getMethods(), hasSize(3));
+    }
+}
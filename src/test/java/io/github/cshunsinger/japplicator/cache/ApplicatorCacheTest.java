@@ -1,13 +1,51 @@
 package io.github.cshunsinger.japplicator.cache;
 
 import io.github.cshunsinger.japplicator.Applicator;
+import io.github.cshunsinger.japplicator.IsolatedClassLoader;
+import io.github.cshunsinger.japplicator.annotation.FieldIdentifier;
+import io.github.cshunsinger.japplicator.builder.ApplicatorClassInfo;
+import io.github.cshunsinger.japplicator.cache.scanned.PersonDto;
+import io.github.cshunsinger.japplicator.cache.scanned.PersonEntity;
+import lombok.Getter;
+import lombok.Setter;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 
 public class ApplicatorCacheTest {
+    /**
+     * Tests which can only pass once the garbage collector has run. They are left out of the default test task, since
+     * System.gc() is only a request, and are run by the gcTest task instead, which the check task runs as well.
+     */
+    static final String GC_TAG = "gc";
+
     public static class TestModel {}
+    public static class OtherTestModel {}
+
+    @Getter @Setter
+    public static class WildcardTestModel {
+        @FieldIdentifier
+        private List<?> values;
+    }
 
     @Test
     public void findOrCreateApplicatorInstanceInCache() {
@@ -16,4 +54,337 @@ public class ApplicatorCacheTest {
 
         assertThat(firstApplicator, sameInstance(cachedApplicator));
     }
-}
\ No newline at end of file
+
+    @Test
+    @Tag(GC_TAG)
+    public void discardedClassLoaderIsReclaimedWhileItsApplicatorsAreCached() throws Exception {
+        ApplicatorCache cache = new ApplicatorCache();
+        ReferenceQueue<ClassLoader> queue = new ReferenceQueue<>();
+        WeakReference<ClassLoader> loaderReference = cacheApplicatorFromDiscardedClassLoader(cache, queue);
+
+        assertThat(awaitReclaimed(queue), sameInstance(loaderReference));
+    }
+
+    @Test
+    @Tag(GC_TAG)
+    public void evictedApplicatorIsReclaimed() throws Exception {
+        ApplicatorCache cache = new ApplicatorCache();
+        cache.setMaximumSize(1);
+        ReferenceQueue<Applicator<?, ?>> queue = new ReferenceQueue<>();
+        WeakReference<Applicator<?, ?>> applicatorReference = new WeakReference<>(cache.getApplicator(TestModel.class, TestModel.class), queue);
+
+        //Caching a second applicator evicts the first
+        cache.getApplicator(UnloadableTestModel.class, UnloadableTestModel.class);
+        assertThat(cache.getEvictionCount(), is(1L));
+
+        assertThat(awaitReclaimed(queue), sameInstance(applicatorReference));
+    }
+
+    /**
+     * Requests garbage collection until a reference registered with the queue is enqueued. Collection is requested at
+     * most 10 times, waiting up to 500 milliseconds each time, so the test fails after about 5 seconds rather than
+     * waiting indefinitely.
+     * @return The enqueued reference, or null if nothing was enqueued.
+     */
+    private static Reference<?> awaitReclaimed(ReferenceQueue<?> queue) throws InterruptedException {
+        for(int attempt = 0; attempt < 10; attempt++) {
+            System.gc();
+            Reference<?> reference = queue.remove(500);
+            if(reference != null)
+                return reference;
+        }
+        return null;
+    }
+
+    @Test
+    public void recordStatisticsOfLookupsAndGeneratedApplicators() {
+        ApplicatorCache cache = new ApplicatorCache();
+        cache.getApplicator(TestModel.class, OtherTestModel.class);
+        cache.getApplicator(TestModel.class, OtherTestModel.class);
+
+        assertThat(cache.getMissCount(), is(1L));
+        assertThat(cache.getSharedHitCount(), is(1L));
+        assertThat(cache.getParentHitCount(), is(0L));
+        assertThat(cache.getGeneratedClassCount(), is(1L));
+        assertThat(cache.getGeneratedBytecodeSize(), greaterThan(0L));
+        assertThat(cache.getBuildTimeHistogram().stream().mapToLong(BuildTimeBucket::getCount).sum(), is(1L));
+
+        PairStatistics pairStatistics = cache.getPairStatistics().get(0);
+        assertThat(pairStatistics.getPair(), is(TestModel.class.getName() + " -> " + OtherTestModel.class.getName()));
+        assertThat(pairStatistics.getGeneratedClassCount(), is(1L));
+        assertThat(pairStatistics.getGeneratedBytecodeSize(), is(cache.getGeneratedBytecodeSize()));
+    }
+
+    @Test
+    public void listTheClassInfoOfGeneratedApplicators() {
+        ApplicatorCache cache = new ApplicatorCache();
+        Applicator<TestModel, OtherTestModel> applicator = cache.getApplicator(TestModel.class, OtherTestModel.class);
+
+        assertThat(cache.getApplicatorClasses(), contains(allOf(
+            hasProperty("className", is(applicator.getClass().getName())),
+            hasProperty("sourceTypeName", is(TestModel.class.getName())),
+            hasProperty("destinationTypeName", is(OtherTestModel.class.getName())),
+            hasProperty("definingLoader", is(String.valueOf(applicator.getClass().getClassLoader()))),
+            hasProperty("bytecodeLength", is((int)cache.getGeneratedBytecodeSize())),
+            hasProperty("constantPoolSize", greaterThan(0)),
+            hasProperty("methods", hasItem(allOf(
+                hasProperty("name", is("apply")),
+                hasProperty("codeSize", greaterThan(0)),
+                hasProperty("maxLocals", greaterThanOrEqualTo(3))
+            )))
+        )));
+    }
+
+    @Test
+    public void tellTheListenerAboutMethodsWhichCrossJitThresholds() {
+        ApplicatorClassInfo classInfo = new ApplicatorClassInfo("WideApplicator", "WideSource", "WideDestination", "loader", false, 12000, 40, List.of(
+            new ApplicatorClassInfo.MethodInfo("apply", "(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;", 12, 3, 2),
+            new ApplicatorClassInfo.MethodInfo("applyStatic", "(LWideSource;LWideDestination;)LWideDestination;", 9000, 3, 3)
+        ));
+        List<String> notifications = new ArrayList<>();
+
+        ParentApplicatorCacheTable.notifyJitThresholds(classInfo, (applicatorClass, method, threshold) ->
+            notifications.add(method.getName() + " " + threshold));
+
+        assertThat(notifications, contains("applyStatic FREQ_INLINE_SIZE", "applyStatic HUGE_METHOD_LIMIT"));
+    }
+
+    @Test
+    public void loadApplicatorsGeneratedByAnEarlierRunFromTheBytecodeCacheDirectory(@TempDir Path directory) {
+        ApplicatorCache firstRun = new ApplicatorCache();
+        firstRun.setBytecodeCacheDirectory(directory);
+        firstRun.getApplicator(TestModel.class, OtherTestModel.class);
+        assertThat(firstRun.getGeneratedClassCount(), is(1L));
+        assertThat(firstRun.getBytecodeCacheLoadCount(), is(0L));
+
+        ApplicatorCache secondRun = new ApplicatorCache();
+        secondRun.setBytecodeCacheDirectory(directory);
+        Applicator<TestModel, OtherTestModel> applicator = secondRun.getApplicator(TestModel.class, OtherTestModel.class);
+
+        OtherTestModel destination = new OtherTestModel();
+        assertThat(applicator.apply(new TestModel(), destination), sameInstance(destination));
+        assertThat(secondRun.getBytecodeCacheDirectory(), is(directory.toAbsolutePath().normalize()));
+        assertThat(secondRun.getGeneratedClassCount(), is(0L));
+        assertThat(secondRun.getBytecodeCacheLoadCount(), is(1L));
+        assertThat(secondRun.getPairStatistics().get(0).getBytecodeCacheLoadCount(), is(1L));
+    }
+
+    @Test
+    public void publishStatisticsThroughThePlatformMBeanServerOnlyWhileRegistered() throws Exception {
+        ApplicatorCache cache = new ApplicatorCache();
+        cache.getApplicator(OtherTestModel.class, TestModel.class);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        assertThat(server.queryNames(new ObjectName(ApplicatorCache.OBJECT_NAME + ",*"), null), is(empty()));
+
+        ObjectName name = cache.registerMBean();
+        try {
+            assertThat(name.getKeyProperty("loader"), is(notNullValue()));
+            assertThat(cache.registerMBean(), is(name));
+            assertThat(server.getAttribute(name, "GeneratedClassCount"), is(cache.getGeneratedClassCount()));
+            assertThat(cache.getGeneratedClassCount(), greaterThan(0L));
+        }
+        finally {
+            cache.unregisterMBean();
+        }
+        assertThat(server.isRegistered(name), is(false));
+    }
+
+    @Test
+    public void warmUpPairsInParallelAndReportFailuresWithoutAbortingTheRest() throws Exception {
+        ApplicatorCache cache = new ApplicatorCache();
+        ApplicatorPair pair = new ApplicatorPair(TestModel.class, OtherTestModel.class);
+        ApplicatorPair otherPair = new ApplicatorPair(OtherTestModel.class, TestModel.class);
+        ApplicatorPair failingPair = new ApplicatorPair(WildcardTestModel.class, WildcardTestModel.class);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            WarmUpResult result = cache.warmUp(List.of(pair, failingPair, otherPair), executor).get(5, TimeUnit.SECONDS);
+
+            assertThat(result.isSuccessful(), is(false));
+            assertThat(result.getCachedPairs(), containsInAnyOrder(pair, otherPair));
+            assertThat(result.getFailedPairs().keySet(), contains(failingPair));
+            assertThat(result.getFailedPairs().get(failingPair), notNullValue());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        //The warmed up applicators are served from the cache without being generated again
+        cache.getApplicator(TestModel.class, OtherTestModel.class);
+        cache.getApplicator(OtherTestModel.class, TestModel.class);
+        assertThat(cache.getGeneratedClassCount(), is(2L));
+        assertThat(cache.getSharedHitCount(), is(2L));
+    }
+
+    @Test
+    public void preGenerateEveryPairFoundInScannedPackages() throws Exception {
+        ApplicatorCache cache = new ApplicatorCache();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            WarmUpResult result = cache.preGenerate(
+                ApplicatorCacheTest.class.getClassLoader(),
+                List.of(ApplicatorPairScannerTest.SCANNED_PACKAGE),
+                executor
+            ).get(5, TimeUnit.SECONDS);
+
+            assertThat(result.isSuccessful(), is(true));
+            assertThat(result.getCachedPairs(), hasSize(8));
+            assertThat(result.getElapsedTime().isNegative(), is(false));
+            assertThat(cache.getGeneratedClassCount(), is(8L));
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void replayTheProfileRecordedByAnEarlierRun(@TempDir Path directory) throws Exception {
+        ApplicatorCache firstRun = new ApplicatorCache();
+        ApplicatorProfile profile = firstRun.startRecordingProfile();
+        firstRun.getApplicator(TestModel.class, OtherTestModel.class);
+        firstRun.getApplicator(TestModel.class, OtherTestModel.class);
+        firstRun.getApplicatorAsync(OtherTestModel.class, TestModel.class).get(5, TimeUnit.SECONDS);
+        assertThat(firstRun.stopRecordingProfile(), sameInstance(profile));
+        firstRun.getApplicator(PersonEntity.class, PersonDto.class);
+        assertThat(profile.size(), is(2));
+
+        Path file = directory.resolve("applicators.profile");
+        profile.write(file);
+        //A pair whose classes no longer exist is skipped rather than failing the replay
+        Files.writeString(file, "com.example.Removed " + TestModel.class.getName() + "\n", StandardOpenOption.APPEND);
+
+        ApplicatorCache secondRun = new ApplicatorCache();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            WarmUpResult result = secondRun.replayProfile(file, ApplicatorCacheTest.class.getClassLoader(), executor)
+                .get(5, TimeUnit.SECONDS);
+
+            assertThat(result.isSuccessful(), is(true));
+            assertThat(result.getCachedPairs(), contains(
+                new ApplicatorPair(TestModel.class, OtherTestModel.class),
+                new ApplicatorPair(OtherTestModel.class, TestModel.class)
+            ));
+            assertThat(secondRun.getGeneratedClassCount(), is(2L));
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void recordOnlyThePairsLookedUpAfterReplayingAProfile(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("applicators.profile");
+        ApplicatorProfile oldProfile = new ApplicatorProfile();
+        oldProfile.record(TestModel.class, OtherTestModel.class);
+        oldProfile.record(OtherTestModel.class, TestModel.class);
+        oldProfile.write(file);
+
+        ApplicatorCache cache = new ApplicatorCache();
+        //Recording before the replay must not record the replayed pairs themselves
+        ApplicatorProfile profileBeforeReplay = cache.startRecordingProfile();
+        cache.replayProfile(file, ApplicatorCacheTest.class.getClassLoader(), Runnable::run).get(5, TimeUnit.SECONDS);
+        assertThat(profileBeforeReplay.size(), is(0));
+
+        //Recording after the replay must record pairs which were already cached by it, and drop the unused one
+        ApplicatorProfile profileAfterReplay = cache.startRecordingProfile();
+        cache.getApplicator(TestModel.class, OtherTestModel.class);
+        cache.getApplicator(TestModel.class, OtherTestModel.class);
+        assertThat(profileAfterReplay.size(), is(1));
+
+        profileAfterReplay.write(file);
+        assertThat(ApplicatorProfile.read(file, ApplicatorCacheTest.class.getClassLoader()), contains(
+            new ApplicatorPair(TestModel.class, OtherTestModel.class)
+        ));
+        assertThat(cache.getGeneratedClassCount(), is(2L));
+    }
+
+    @Test
+    public void getApplicatorAsynchronouslyOnTheGivenExecutor() throws Exception {
+        ApplicatorCache cache = new ApplicatorCache();
+        List<Runnable> pendingTasks = new ArrayList<>();
+
+        CompletableFuture<Applicator<TestModel, OtherTestModel>> future = cache.getApplicatorAsync(TestModel.class, OtherTestModel.class, pendingTasks::add);
+        assertThat(future.isDone(), is(false));
+        assertThat(pendingTasks, hasSize(1));
+
+        pendingTasks.get(0).run();
+        Applicator<TestModel, OtherTestModel> applicator = future.get(5, TimeUnit.SECONDS);
+        assertThat(cache.getApplicator(TestModel.class, OtherTestModel.class), sameInstance(applicator));
+        assertThat(cache.getApplicatorAsync(TestModel.class, OtherTestModel.class).get(5, TimeUnit.SECONDS), sameInstance(applicator));
+        assertThat(cache.getGeneratedClassCount(), is(1L));
+    }
+
+    @Test
+    public void standInApplicatorIsReturnedUntilTheGeneratedApplicatorIsReady() {
+        ApplicatorCache cache = new ApplicatorCache();
+        List<Runnable> pendingTasks = new ArrayList<>();
+        cache.setGenerationMode(GenerationMode.STAND_IN);
+        cache.setGenerationExecutor(pendingTasks::add);
+
+        PersonEntity entity = new PersonEntity();
+        entity.setName("Name");
+
+        //The stand-in applies values before anything is generated
+        Applicator<PersonEntity, PersonDto> standIn = cache.getApplicator(PersonEntity.class, PersonDto.class);
+        assertThat(standIn, instanceOf(StandInApplicator.class));
+        assertThat(standIn.apply(entity), hasProperty("name", is("Name")));
+        assertThat(cache.getApplicator(PersonEntity.class, PersonDto.class), sameInstance(standIn));
+        assertThat(cache.getGeneratedClassCount(), is(0L));
+
+        //Once generated, the stand-in is replaced in the cache
+        assertThat(pendingTasks, hasSize(1));
+        pendingTasks.get(0).run();
+        Applicator<PersonEntity, PersonDto> generated = cache.getApplicator(PersonEntity.class, PersonDto.class);
+        assertThat(generated, not(instanceOf(StandInApplicator.class)));
+        assertThat(cache.getApplicator(PersonEntity.class, PersonDto.class), sameInstance(generated));
+        assertThat(cache.getGeneratedClassCount(), is(1L));
+        assertThat(cache.getSize(), is(1L));
+    }
+
+    @Test
+    public void tieredApplicatorIsPromotedToAGeneratedApplicatorAfterThePromotionThreshold() {
+        ApplicatorCache cache = new ApplicatorCache();
+        List<Runnable> pendingTasks = new ArrayList<>();
+        cache.setGenerationMode(GenerationMode.TIERED);
+        cache.setGenerationExecutor(pendingTasks::add);
+        cache.setPromotionThreshold(3);
+
+        PersonEntity entity = new PersonEntity();
+        entity.setName("Name");
+
+        //Nothing is generated for a pair until it has been applied as often as the promotion threshold
+        Applicator<PersonEntity, PersonDto> tiered = cache.getApplicator(PersonEntity.class, PersonDto.class);
+        assertThat(tiered, instanceOf(TieredApplicator.class));
+        assertThat(tiered.apply(entity), hasProperty("name", is("Name")));
+        tiered.apply(entity);
+        assertThat(pendingTasks, empty());
+        assertThat(cache.getApplicator(PersonEntity.class, PersonDto.class), sameInstance(tiered));
+
+        tiered.apply(entity);
+        assertThat(pendingTasks, hasSize(1));
+        assertThat(cache.getGeneratedClassCount(), is(0L));
+
+        //Once generated, the tiered applicator is replaced in the cache
+        pendingTasks.get(0).run();
+        Applicator<PersonEntity, PersonDto> generated = cache.getApplicator(PersonEntity.class, PersonDto.class);
+        assertThat(generated, not(instanceOf(StandInApplicator.class)));
+        assertThat(cache.getGeneratedClassCount(), is(1L));
+
+        //Applying the tiered applicator more often never generates the pair again
+        tiered.apply(entity);
+        assertThat(pendingTasks, hasSize(1));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static WeakReference<ClassLoader> cacheApplicatorFromDiscardedClassLoader(ApplicatorCache cache, ReferenceQueue<ClassLoader> queue) throws ClassNotFoundException {
+        ClassLoader loader = new IsolatedClassLoader(ApplicatorCacheTest.class.getClassLoader(), UnloadableTestModel.class.getName());
+        Class<Object> modelType = (Class<Object>)loader.loadClass(UnloadableTestModel.class.getName());
+        assertThat(modelType, not(UnloadableTestModel.class));
+
+        Applicator<Object, Object> applicator = cache.getApplicator(modelType, modelType);
+        assertThat(cache.getApplicator(modelType, modelType), sameInstance(applicator));
+
+        return new WeakReference<>(loader, queue);
+    }
+}
@@ -0,0 +1,42 @@
+package io.github.cshunsinger.japplicator.cache;
+
+import io.github.cshunsinger.japplicator.cache.scanned.*;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ApplicatorPairScannerTest {
+    static final String SCANNED_PACKAGE = PersonEntity.class.getPackageName();
+
+    @Test
+    public void findEveryPairOfModelTypesWhichShareAnIdentifiedValue() {
+        List<ApplicatorPair> pairs = ApplicatorPairScanner.findCompatiblePairs(
+            ApplicatorPairScannerTest.class.getClassLoader(),
+            List.of(SCANNED_PACKAGE)
+        );
+
+        assertThat(pairs, containsInAnyOrder(
+            new ApplicatorPair(PersonEntity.class, PersonEntity.class),
+            new ApplicatorPair(PersonEntity.class, PersonDto.class),
+            new ApplicatorPair(PersonDto.class, PersonEntity.class),
+            new ApplicatorPair(PersonDto.class, PersonDto.class),
+            new ApplicatorPair(Address.class, Address.class),
+            new ApplicatorPair(Address.class, AddressHolder.class),
+            new ApplicatorPair(AddressHolder.class, Address.class),
+            new ApplicatorPair(AddressHolder.class, AddressHolder.class)
+        ));
+    }
+
+    @Test
+    public void findNothingInPackagesWithoutModelTypes() {
+        List<ApplicatorPair> pairs = ApplicatorPairScanner.findCompatiblePairs(
+            ApplicatorPairScannerTest.class.getClassLoader(),
+            List.of("io.github.cshunsinger.japplicator.does.not.exist")
+        );
+
+        assertThat(pairs, empty());
+    }
+}
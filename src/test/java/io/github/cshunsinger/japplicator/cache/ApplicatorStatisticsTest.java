@@ -0,0 +1,82 @@
+package io.github.cshunsinger.japplicator.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ApplicatorStatisticsTest {
+    public static class TestModel {}
+    public static class OtherTestModel {}
+
+    private final ApplicatorStatistics statistics = new ApplicatorStatistics();
+
+    @Test
+    public void sortBuildTimesIntoHistogramBuckets() {
+        ApplicatorStatistics.PairCounters counters = statistics.countersFor(TestModel.class, OtherTestModel.class);
+        statistics.recordBuild(counters, TimeUnit.MICROSECONDS.toNanos(500), 100);
+        statistics.recordBuild(counters, TimeUnit.MILLISECONDS.toNanos(1), 100);
+        statistics.recordBuild(counters, TimeUnit.MILLISECONDS.toNanos(7), 100);
+        statistics.recordBuild(counters, TimeUnit.SECONDS.toNanos(10), 100);
+
+        List<BuildTimeBucket> histogram = statistics.getBuildTimeHistogram();
+
+        assertThat(histogram, contains(
+            new BuildTimeBucket(1, 1),
+            new BuildTimeBucket(5, 1),
+            new BuildTimeBucket(10, 1),
+            new BuildTimeBucket(50, 0),
+            new BuildTimeBucket(100, 0),
+            new BuildTimeBucket(500, 0),
+            new BuildTimeBucket(1000, 0),
+            new BuildTimeBucket(Long.MAX_VALUE, 1)
+        ));
+    }
+
+    @Test
+    public void keepStatisticsPerPairAndSumThemUp() {
+        ApplicatorStatistics.PairCounters counters = statistics.countersFor(TestModel.class, OtherTestModel.class);
+        ApplicatorStatistics.PairCounters otherCounters = statistics.countersFor(OtherTestModel.class, TestModel.class);
+        statistics.recordBuild(counters, TimeUnit.MILLISECONDS.toNanos(2), 100);
+        statistics.recordBuild(counters, TimeUnit.MILLISECONDS.toNanos(3), 150);
+        statistics.recordBuild(otherCounters, TimeUnit.MILLISECONDS.toNanos(1), 200);
+
+        assertThat(statistics.countersFor(TestModel.class, OtherTestModel.class), sameInstance(counters));
+        assertThat(statistics.getGeneratedClassCount(), is(3L));
+        assertThat(statistics.getGeneratedBytecodeSize(), is(450L));
+
+        PairStatistics pairStatistics = statistics.getPairStatistics().stream()
+            .filter(pair -> pair.getPair().startsWith(TestModel.class.getName()))
+            .findFirst()
+            .orElseThrow();
+        assertThat(pairStatistics.getGeneratedClassCount(), is(2L));
+        assertThat(pairStatistics.getGeneratedBytecodeSize(), is(250L));
+        assertThat(pairStatistics.getTotalBuildTimeMicros(), is(5000L));
+        assertThat(pairStatistics.getMaxBuildTimeMicros(), is(3000L));
+    }
+
+    @Test
+    public void stopTrackingRetiredPairsButKeepTheirTotals() {
+        ApplicatorStatistics.PairCounters counters = statistics.countersFor(TestModel.class, OtherTestModel.class);
+        statistics.recordBuild(counters, TimeUnit.MILLISECONDS.toNanos(2), 100);
+        counters.sharedHits.increment();
+
+        statistics.retire(counters);
+
+        assertThat(statistics.getPairStatistics(), is(empty()));
+        assertThat(statistics.getGeneratedClassCount(), is(1L));
+        assertThat(statistics.getGeneratedBytecodeSize(), is(100L));
+        assertThat(statistics.getSharedHitCount(), is(1L));
+
+        //Retiring the same counters again never counts them twice
+        statistics.retire(counters);
+        assertThat(statistics.getGeneratedClassCount(), is(1L));
+
+        ApplicatorStatistics.PairCounters newCounters = statistics.countersFor(TestModel.class, OtherTestModel.class);
+        assertThat(newCounters, not(sameInstance(counters)));
+        assertThat(statistics.getPairStatistics().get(0).getGeneratedClassCount(), is(0L));
+    }
+}
@@ -0,0 +1,221 @@
+package io.github.cshunsinger.japplicator.cache;
+
+import io.github.cshunsinger.japplicator.Applicator;
+import io.github.cshunsinger.japplicator.BaseUnitTest;
+import io.github.cshunsinger.japplicator.builder.ApplicatorClassInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+class ClassValueApplicatorCacheTableTest extends BaseUnitTest {
+    public static class TestModel {}
+    public static class OtherTestModel {}
+    public static class ThirdTestModel {}
+
+    @Mock
+    private Applicator<?, ?> mockApplicatorInstance;
+    @Mock
+    private Applicator<?, ?> otherMockApplicatorInstance;
+    @Mock
+    private Applicator<?, ?> thirdMockApplicatorInstance;
+    @Mock
+    private ParentApplicatorCacheTable mockParentCache;
+
+    private ApplicatorStatistics statistics;
+    private ClassValueApplicatorCacheTable cache;
+
+    @BeforeEach
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public void init() {
+        statistics = new ApplicatorStatistics();
+        cache = new ClassValueApplicatorCacheTable(mockParentCache, statistics);
+        lenient().when(mockParentCache.getApplicator(TestModel.class, OtherTestModel.class)).thenReturn((Applicator)mockApplicatorInstance);
+    }
+
+    @Test
+    public void fetchApplicatorFromParentCacheOnlyOnceForTheSamePair() {
+        Applicator<TestModel, OtherTestModel> first = cache.getApplicator(TestModel.class, OtherTestModel.class);
+        Applicator<TestModel, OtherTestModel> second = cache.getApplicator(TestModel.class, OtherTestModel.class);
+
+        assertThat(first, sameInstance(mockApplicatorInstance));
+        assertThat(second, sameInstance(mockApplicatorInstance));
+        verify(mockParentCache, times(1)).getApplicator(TestModel.class, OtherTestModel.class);
+    }
+
+    @Test
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public void keepDifferentPairsApart() {
+        when(mockParentCache.getApplicator(OtherTestModel.class, TestModel.class)).thenReturn((Applicator)otherMockApplicatorInstance);
+
+        assertThat(cache.getApplicator(TestModel.class, OtherTestModel.class), sameInstance(mockApplicatorInstance));
+        assertThat(cache.getApplicator(OtherTestModel.class, TestModel.class), sameInstance(otherMockApplicatorInstance));
+    }
+
+    @Test
+    public void shareCachedApplicatorsBetweenThreads() throws Exception {
+        Applicator<TestModel, OtherTestModel> applicator = cache.getApplicator(TestModel.class, OtherTestModel.class);
+
+        Applicator<TestModel, OtherTestModel> otherThreadApplicator = CompletableFuture
+            .supplyAsync(() -> cache.getApplicator(TestModel.class, OtherTestModel.class))
+            .get(5, TimeUnit.SECONDS);
+
+        assertThat(otherThreadApplicator, is(sameInstance(applicator)));
+        verify(mockParentCache, times(1)).getApplicator(TestModel.class, OtherTestModel.class);
+    }
+
+    @Test
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public void evictTheLeastRecentlyUsedApplicatorWhenTheMaximumSizeIsExceeded() {
+        when(mockParentCache.getApplicator(OtherTestModel.class, TestModel.class)).thenReturn((Applicator)otherMockApplicatorInstance);
+        when(mockParentCache.getApplicator(ThirdTestModel.class, TestModel.class)).thenReturn((Applicator)thirdMockApplicatorInstance);
+        cache.setMaximumSize(2);
+
+        cache.getApplicator(TestModel.class, OtherTestModel.class);
+        cache.getApplicator(OtherTestModel.class, TestModel.class);
+        //Using the first applicator again makes the second one the least recently used
+        cache.getApplicator(TestModel.class, OtherTestModel.class);
+        cache.getApplicator(ThirdTestModel.class, TestModel.class);
+
+        assertThat(cache.getSize(), is(2L));
+        assertThat(cache.getEvictionCount(), is(1L));
+        verify(mockParentCache).detachApplicator(OtherTestModel.class, TestModel.class, otherMockApplicatorInstance);
+
+        //The evicted applicator is fetched from the parent cache again, while the others are still cached
+        cache.getApplicator(TestModel.class, OtherTestModel.class);
+        cache.getApplicator(ThirdTestModel.class, TestModel.class);
+        cache.getApplicator(OtherTestModel.class, TestModel.class);
+        verify(mockParentCache, times(1)).getApplicator(TestModel.class, OtherTestModel.class);
+        verify(mockParentCache, times(1)).getApplicator(ThirdTestModel.class, TestModel.class);
+        verify(mockParentCache, times(2)).getApplicator(OtherTestModel.class, TestModel.class);
+    }
+
+    @Test
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public void shrinkingTheMaximumSizeEvictsRightAway() {
+        when(mockParentCache.getApplicator(OtherTestModel.class, TestModel.class)).thenReturn((Applicator)otherMockApplicatorInstance);
+        cache.getApplicator(TestModel.class, OtherTestModel.class);
+        cache.getApplicator(OtherTestModel.class, TestModel.class);
+        assertThat(cache.getSize(), is(2L));
+
+        cache.setMaximumSize(1);
+
+        assertThat(cache.getSize(), is(1L));
+        assertThat(cache.getEvictionCount(), is(1L));
+        verify(mockParentCache).detachApplicator(TestModel.class, OtherTestModel.class, mockApplicatorInstance);
+    }
+
+    @Test
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public void evictApplicatorsWhenTheMaximumBytecodeSizeIsExceeded() {
+        when(mockParentCache.getApplicator(OtherTestModel.class, TestModel.class)).thenReturn((Applicator)otherMockApplicatorInstance);
+        when(mockParentCache.getApplicator(ThirdTestModel.class, TestModel.class)).thenReturn((Applicator)thirdMockApplicatorInstance);
+        recordClassSize(TestModel.class, OtherTestModel.class, 1000);
+        recordClassSize(OtherTestModel.class, TestModel.class, 3000);
+        recordClassSize(ThirdTestModel.class, TestModel.class, 5000);
+        cache.setMaximumBytecodeSize(6000);
+
+        cache.getApplicator(TestModel.class, OtherTestModel.class);
+        cache.getApplicator(OtherTestModel.class, TestModel.class);
+        assertThat(cache.getBytecodeSize(), is(4000L));
+
+        cache.getApplicator(ThirdTestModel.class, TestModel.class);
+
+        //Both older applicators have to go to make room for the largest one
+        assertThat(cache.getSize(), is(1L));
+        assertThat(cache.getBytecodeSize(), is(5000L));
+        assertThat(cache.getEvictionCount(), is(2L));
+        verify(mockParentCache, never()).detachApplicator(ThirdTestModel.class, TestModel.class, thirdMockApplicatorInstance);
+    }
+
+    @Test
+    public void keepTheNewestApplicatorEvenIfItIsLargerThanTheMaximumBytecodeSize() {
+        recordClassSize(TestModel.class, OtherTestModel.class, 1000);
+        cache.setMaximumBytecodeSize(500);
+
+        cache.getApplicator(TestModel.class, OtherTestModel.class);
+        cache.getApplicator(TestModel.class, OtherTestModel.class);
+
+        assertThat(cache.getSize(), is(1L));
+        assertThat(cache.getEvictionCount(), is(0L));
+        verify(mockParentCache, times(1)).getApplicator(TestModel.class, OtherTestModel.class);
+    }
+
+    @Test
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public void replaceAnEvictedApplicatorOnlyOnceWhenLookedUpFromManyThreads() throws Exception {
+        when(mockParentCache.getApplicator(OtherTestModel.class, TestModel.class)).thenReturn((Applicator)otherMockApplicatorInstance);
+        cache.setMaximumSize(1);
+        cache.getApplicator(TestModel.class, OtherTestModel.class);
+        cache.getApplicator(OtherTestModel.class, TestModel.class);
+
+        List<CompletableFuture<Applicator<TestModel, OtherTestModel>>> lookups = List.of(
+            CompletableFuture.supplyAsync(() -> cache.getApplicator(TestModel.class, OtherTestModel.class)),
+            CompletableFuture.supplyAsync(() -> cache.getApplicator(TestModel.class, OtherTestModel.class)),
+            CompletableFuture.supplyAsync(() -> cache.getApplicator(TestModel.class, OtherTestModel.class))
+        );
+        for(CompletableFuture<Applicator<TestModel, OtherTestModel>> lookup: lookups)
+            assertThat(lookup.get(5, TimeUnit.SECONDS), is(sameInstance(mockApplicatorInstance)));
+
+        //The applicator cached again by one thread is never dropped by another thread replacing the evicted one
+        assertThat(cache.getSize(), is(1L));
+        cache.getApplicator(TestModel.class, OtherTestModel.class);
+        assertThat(cache.getSize(), is(1L));
+    }
+
+    @Test
+    public void rejectMaximumBytecodeSizesBelowOne() {
+        assertThrows(IllegalArgumentException.class, () -> cache.setMaximumBytecodeSize(0));
+        assertThat(cache.getMaximumBytecodeSize(), is(ClassValueApplicatorCacheTable.UNBOUNDED));
+    }
+
+    @Test
+    public void rejectMaximumSizesBelowOne() {
+        assertThrows(IllegalArgumentException.class, () -> cache.setMaximumSize(0));
+        assertThrows(IllegalArgumentException.class, () -> cache.setMaximumSize(-1));
+        assertThat(cache.getMaximumSize(), is(ClassValueApplicatorCacheTable.UNBOUNDED));
+    }
+
+    @Test
+    public void countLookupsAnsweredWithoutTheParentCacheAsSharedHits() {
+        cache.getApplicator(TestModel.class, OtherTestModel.class);
+        cache.getApplicator(TestModel.class, OtherTestModel.class);
+        cache.getApplicator(TestModel.class, OtherTestModel.class);
+
+        assertThat(statistics.getSharedHitCount(), is(2L));
+        assertThat(statistics.getPairStatistics().get(0).getSharedHitCount(), is(2L));
+    }
+
+    @Test
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public void retireTheStatisticsOfEvictedPairs() {
+        when(mockParentCache.getApplicator(OtherTestModel.class, TestModel.class)).thenReturn((Applicator)otherMockApplicatorInstance);
+        cache.setMaximumSize(1);
+
+        cache.getApplicator(TestModel.class, OtherTestModel.class);
+        cache.getApplicator(OtherTestModel.class, TestModel.class);
+        cache.getApplicator(OtherTestModel.class, TestModel.class);
+
+        assertThat(cache.getEvictionCount(), is(1L));
+        verify(mockParentCache).detachApplicator(TestModel.class, OtherTestModel.class, mockApplicatorInstance);
+        assertThat(statistics.getPairStatistics(), hasSize(1));
+        assertThat(statistics.getPairStatistics().get(0).getPair(), is(new ApplicatorPair(OtherTestModel.class, TestModel.class).toString()));
+        assertThat(statistics.getSharedHitCount(), is(1L));
+    }
+
+    private void recordClassSize(Class<?> srcType, Class<?> destType, int bytecodeLength) {
+        statistics.recordClass(statistics.countersFor(srcType, destType), new ApplicatorClassInfo(
+            srcType.getSimpleName() + "Applicator", srcType.getName(), destType.getName(), "loader", false, bytecodeLength, 10, List.of()
+        ));
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.cshunsinger.japplicator.cache;
+
+import io.github.cshunsinger.japplicator.annotation.FieldIdentifier;
+import io.github.cshunsinger.japplicator.annotation.Nested;
+import lombok.Getter;
+import lombok.Setter;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.mock;
+
+public class ModelTypeResolverTest {
+    @Getter @Setter
+    public static class TestModel {
+        @FieldIdentifier
+        private String testValue;
+    }
+
+    public static class TestModelSubclass extends TestModel {}
+    public static class TestModelSubclassOfSubclass extends TestModelSubclass {}
+
+    @Getter @Setter
+    public static class TestModelSubclassWithNestedMember extends TestModel {
+        @Nested
+        private TestModel nested;
+    }
+
+    public static class NotAModel {}
+    public static class NotAModelSubclass extends NotAModel {}
+
+    @Test
+    public void resolveSubclassesWithoutIdentifiedMembersToTheirNearestModelType() {
+        assertThat(ModelTypeResolver.resolve(TestModelSubclass.class), is(TestModel.class));
+        assertThat(ModelTypeResolver.resolve(TestModelSubclassOfSubclass.class), is(TestModel.class));
+    }
+
+    @Test
+    public void resolveRuntimeGeneratedSubclassesToTheirModelType() {
+        Class<?> proxyType = mock(TestModel.class).getClass();
+
+        assertThat(proxyType, not(TestModel.class));
+        assertThat(ModelTypeResolver.resolve(proxyType), is(TestModel.class));
+    }
+
+    @Test
+    public void keepTypesWhichDeclareIdentifiedMembers() {
+        assertThat(ModelTypeResolver.resolve(TestModel.class), is(TestModel.class));
+        assertThat(ModelTypeResolver.resolve(TestModelSubclassWithNestedMember.class), is(TestModelSubclassWithNestedMember.class));
+    }
+
+    @Test
+    public void keepTypesWithoutAnyModelTypeInTheirHierarchy() {
+        assertThat(ModelTypeResolver.resolve(NotAModelSubclass.class), is(NotAModelSubclass.class));
+        assertThat(ModelTypeResolver.resolve(String.class), is(String.class));
+    }
+}
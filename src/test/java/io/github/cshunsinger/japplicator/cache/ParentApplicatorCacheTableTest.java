@@ -2,16 +2,28 @@ package io.github.cshunsinger.japplicator.cache;
 
 import io.github.cshunsinger.japplicator.Applicator;
 import io.github.cshunsinger.japplicator.BaseUnitTest;
+import io.github.cshunsinger.japplicator.IsolatedClassLoader;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class ParentApplicatorCacheTableTest extends BaseUnitTest {
     public static class TestModel {}
     public static class OtherTestModel {}
 
+    @Mock
+    private Applicator<?, ?> mockApplicatorInstance;
+
     private ParentApplicatorCacheTable cache;
     private Applicator<TestModel, TestModel> preCachedInstance;
 
@@ -34,4 +46,108 @@ public class ParentApplicatorCacheTableTest extends BaseUnitTest {
 
         assertThat(result, not(sameInstance(preCachedInstance)));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void threadsMissingOnTheSamePairShareASingleBuild() throws Exception {
+        AtomicInteger buildCount = new AtomicInteger();
+        CountDownLatch buildStarted = new CountDownLatch(1);
+        CountDownLatch releaseBuild = new CountDownLatch(1);
+        ParentApplicatorCacheTable countingCache = new ParentApplicatorCacheTable() {
+            @Override
+            @SuppressWarnings("unchecked")
+            <Src, Dest> Applicator<Src, Dest> createApplicator(Class<Src> srcType, Class<Dest> destType) {
+                buildCount.incrementAndGet();
+                buildStarted.countDown();
+                await(releaseBuild);
+                return (Applicator<Src, Dest>)mockApplicatorInstance;
+            }
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Applicator<TestModel, OtherTestModel>>> results = IntStream.range(0, 8)
+                .mapToObj(i -> executor.submit(() -> countingCache.getApplicator(TestModel.class, OtherTestModel.class)))
+                .collect(Collectors.toList());
+
+            assertThat(buildStarted.await(5, TimeUnit.SECONDS), is(true));
+            releaseBuild.countDown();
+
+            for(Future<Applicator<TestModel, OtherTestModel>> result: results)
+                assertThat(result.get(5, TimeUnit.SECONDS), sameInstance(mockApplicatorInstance));
+            assertThat(buildCount.get(), is(1));
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void applicatorsForDifferentPairsAreBuiltInParallel() throws Exception {
+        //Each build waits until both builds are running at the same time. This would never happen with a global lock.
+        CountDownLatch bothBuildsRunning = new CountDownLatch(2);
+        ParentApplicatorCacheTable parallelCache = new ParentApplicatorCacheTable() {
+            @Override
+            @SuppressWarnings("unchecked")
+            <Src, Dest> Applicator<Src, Dest> createApplicator(Class<Src> srcType, Class<Dest> destType) {
+                bothBuildsRunning.countDown();
+                await(bothBuildsRunning);
+                return (Applicator<Src, Dest>)mockApplicatorInstance;
+            }
+        };
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = executor.submit(() -> parallelCache.getApplicator(TestModel.class, OtherTestModel.class));
+            Future<?> second = executor.submit(() -> parallelCache.getApplicator(OtherTestModel.class, TestModel.class));
+
+            assertThat(first.get(5, TimeUnit.SECONDS), sameInstance(mockApplicatorInstance));
+            assertThat(second.get(5, TimeUnit.SECONDS), sameInstance(mockApplicatorInstance));
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void failedBuildsAreNotCached() {
+        AtomicInteger buildCount = new AtomicInteger();
+        ParentApplicatorCacheTable failingCache = new ParentApplicatorCacheTable() {
+            @Override
+            @SuppressWarnings("unchecked")
+            <Src, Dest> Applicator<Src, Dest> createApplicator(Class<Src> srcType, Class<Dest> destType) {
+                if(buildCount.incrementAndGet() == 1)
+                    throw new IllegalStateException("First build fails");
+                return (Applicator<Src, Dest>)mockApplicatorInstance;
+            }
+        };
+
+        assertThrows(IllegalStateException.class, () -> failingCache.getApplicator(TestModel.class, OtherTestModel.class));
+        assertThat(failingCache.getApplicator(TestModel.class, OtherTestModel.class), sameInstance(mockApplicatorInstance));
+        assertThat(buildCount.get(), is(2));
+    }
+
+    @Test
+    public void attachApplicatorsToTheClassOfTheShorterLivedClassLoader() throws Exception {
+        ClassLoader testLoader = ParentApplicatorCacheTableTest.class.getClassLoader();
+        Class<?> childModel = new IsolatedClassLoader(testLoader, OtherTestModel.class.getName()).loadClass(OtherTestModel.class.getName());
+
+        //Same class loader, so attach to the source type
+        assertThat(ParentApplicatorCacheTable.attachToSource(TestModel.class, OtherTestModel.class), is(true));
+        //The source loader is a child of the destination loader, so attach to the source type
+        assertThat(ParentApplicatorCacheTable.attachToSource(childModel, TestModel.class), is(true));
+        //The destination loader is a child of the source loader, so attach to the destination type
+        assertThat(ParentApplicatorCacheTable.attachToSource(TestModel.class, childModel), is(false));
+        //The bootstrap loader outlives every other loader
+        assertThat(ParentApplicatorCacheTable.attachToSource(String.class, TestModel.class), is(false));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if(!latch.await(5, TimeUnit.SECONDS))
+                throw new IllegalStateException("Timed out waiting for latch.");
+        }
+        catch(InterruptedException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package io.github.cshunsinger.japplicator.cache;
+
+import io.github.cshunsinger.japplicator.Applicator;
+import io.github.cshunsinger.japplicator.BaseUnitTest;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.Mockito.*;
+
+public class TieredApplicatorTest extends BaseUnitTest {
+    public static class TestModel {}
+
+    @Mock
+    private Applicator<TestModel, TestModel> mockInterpreter;
+
+    @Test
+    public void retryAFailedPromotionOnceThePairReachesTheThresholdAgain() {
+        List<CompletableFuture<?>> promotions = new ArrayList<>();
+        TieredApplicator<TestModel, TestModel> tiered = new TieredApplicator<>(mockInterpreter, 2, () -> {
+            CompletableFuture<?> promotion = new CompletableFuture<>();
+            promotions.add(promotion);
+            return promotion;
+        });
+
+        tiered.apply(new TestModel(), new TestModel());
+        tiered.apply(new TestModel(), new TestModel());
+        assertThat(promotions, hasSize(1));
+
+        //The build is still in flight, so more calls never start another one
+        tiered.apply(new TestModel(), new TestModel());
+        promotions.get(0).completeExceptionally(new IllegalStateException("Failed to generate."));
+        tiered.apply(new TestModel(), new TestModel());
+        assertThat(promotions, hasSize(1));
+
+        tiered.apply(new TestModel(), new TestModel());
+        assertThat(promotions, hasSize(2));
+        verify(mockInterpreter, times(5)).apply(any(TestModel.class), any(TestModel.class));
+    }
+}
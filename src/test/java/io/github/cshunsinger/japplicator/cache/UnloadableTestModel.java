@@ -0,0 +1,14 @@
+package io.github.cshunsinger.japplicator.cache;
+
+import io.github.cshunsinger.japplicator.annotation.FieldIdentifier;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * A model which tests load in their own class loader, so that they can check whether that class loader is reclaimed.
+ */
+@Getter @Setter
+public class UnloadableTestModel {
+    @FieldIdentifier
+    private String testValue;
+}
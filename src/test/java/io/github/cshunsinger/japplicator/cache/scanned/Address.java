@@ -0,0 +1,11 @@
+package io.github.cshunsinger.japplicator.cache.scanned;
+
+import io.github.cshunsinger.japplicator.annotation.FieldIdentifier;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter @Setter
+@FieldIdentifier
+public class Address {
+    private String street;
+}
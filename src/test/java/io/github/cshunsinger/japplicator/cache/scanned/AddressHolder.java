@@ -0,0 +1,11 @@
+package io.github.cshunsinger.japplicator.cache.scanned;
+
+import io.github.cshunsinger.japplicator.annotation.Nested;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter @Setter
+public class AddressHolder {
+    @Nested
+    private Address address;
+}
@@ -0,0 +1,12 @@
+package io.github.cshunsinger.japplicator.cache.scanned;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * A class in the scanned package which is not annotated, and which therefore never takes part in a pair.
+ */
+@Getter @Setter
+public class NotAModel {
+    private String name;
+}
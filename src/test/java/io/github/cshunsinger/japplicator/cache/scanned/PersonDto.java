@@ -0,0 +1,11 @@
+package io.github.cshunsinger.japplicator.cache.scanned;
+
+import io.github.cshunsinger.japplicator.annotation.FieldIdentifier;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter @Setter
+public class PersonDto {
+    @FieldIdentifier
+    private String name;
+}
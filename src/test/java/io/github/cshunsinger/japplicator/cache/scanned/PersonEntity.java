@@ -0,0 +1,13 @@
+package io.github.cshunsinger.japplicator.cache.scanned;
+
+import io.github.cshunsinger.japplicator.annotation.FieldIdentifier;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter @Setter
+public class PersonEntity {
+    @FieldIdentifier
+    private String name;
+    @FieldIdentifier
+    private int age;
+}
@@ -4,6 +4,7 @@ import io.github.cshunsinger.japplicator.BaseUnitTest;
 import io.github.cshunsinger.japplicator.Applicator;
 import io.github.cshunsinger.japplicator.annotation.FieldIdentifier;
 import io.github.cshunsinger.japplicator.builder.ApplicatorBuilder;
+import io.github.cshunsinger.japplicator.builder.ReflectiveApplicator;
 import io.github.cshunsinger.japplicator.converters.ArrayValueConverter;
 import io.github.cshunsinger.japplicator.converters.CollectionValueConverter;
 import io.github.cshunsinger.japplicator.exception.TypeVariableUnsupportedException;
@@ -17,6 +18,7 @@ import org.mockito.Mock;
 
 import java.lang.reflect.Type;
 import java.util.Collection;
+import java.util.LinkedList;
 import java.util.List;
 
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -96,4 +98,52 @@ public class ArrayToAndFromCollectionValueConverterTest extends BaseUnitTest {
             hasProperty("values", contains(1, 2, 3, 4, 5))
         ));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void reflectivelyConvertRandomAccessAndSequentialCollectionsToArrays() {
+        Applicator<CollectionValue, ArrayValue> applicator = new ReflectiveApplicator<>(CollectionValue.class, ArrayValue.class);
+
+        ArrayValue fromList = applicator.apply(new CollectionValue(List.of(1, 2, 3)), null);
+        assertThat(fromList, hasProperty("values", is(new double[] { 1.0, 2.0, 3.0 })));
+
+        ArrayValue fromLinkedList = applicator.apply(new CollectionValue(new LinkedList<>(List.of(1, 2, 3))), null);
+        assertThat(fromLinkedList, hasProperty("values", is(new double[] { 1.0, 2.0, 3.0 })));
+    }
+
+    @Getter @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StringArrayValue {
+        @FieldIdentifier
+        private String[] values;
+    }
+
+    @Getter @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StringCollectionValue {
+        @FieldIdentifier
+        private Collection<String> values;
+    }
+
+    @Test
+    public void copyCollectionOfStringsIntoArrayOfStrings() {
+        Applicator<StringCollectionValue, StringArrayValue> applicator =
+            new ApplicatorBuilder<>(StringCollectionValue.class, StringArrayValue.class).build();
+
+        StringArrayValue destination = applicator.apply(new StringCollectionValue(new LinkedList<>(List.of("a", "b", "c"))), null);
+        assertThat(destination.getValues(), is(new String[] { "a", "b", "c" }));
+
+        StringArrayValue emptyDestination = applicator.apply(new StringCollectionValue(List.of()), null);
+        assertThat(emptyDestination.getValues(), is(new String[0]));
+    }
+
+    @Test
+    public void reflectivelyCopyCollectionOfStringsIntoArrayOfStrings() {
+        Applicator<StringCollectionValue, StringArrayValue> applicator =
+            new ReflectiveApplicator<>(StringCollectionValue.class, StringArrayValue.class);
+
+        StringArrayValue destination = applicator.apply(new StringCollectionValue(new LinkedList<>(List.of("a", "b", "c"))), null);
+        assertThat(destination.getValues(), is(new String[] { "a", "b", "c" }));
+    }
+}
@@ -59,4 +59,55 @@ public class ArrayValueConverterTest {
         assertThat(result.getInts().length, is(0));
         assertThat(result.getStrings().length, is(0));
     }
-}
\ No newline at end of file
+
+    @Getter @Setter
+    @NoArgsConstructor
+    public static class TestArrayPayload {
+        @FieldIdentifier
+        private byte[] bytes;
+        @FieldIdentifier
+        private long[] longs;
+        @FieldIdentifier
+        private String[] strings;
+        @FieldIdentifier
+        private Integer[] integers;
+    }
+
+    private static TestArrayPayload createArrayPayload() {
+        TestArrayPayload payload = new TestArrayPayload();
+        payload.setBytes(new byte[] {1, 2, 3});
+        payload.setLongs(new long[] {4L, 5L});
+        payload.setStrings(new String[] {"a", null, "c"});
+        payload.setIntegers(new Integer[] {6, null});
+        return payload;
+    }
+
+    @Test
+    public void test_arraysOfTheSameComponentTypeAreCopiedIntoNewArrays() {
+        Applicator<TestArrayPayload, TestArrayPayload> applicator =
+            new ApplicatorBuilder<>(TestArrayPayload.class, TestArrayPayload.class).build();
+
+        TestArrayPayload source = createArrayPayload();
+        TestArrayPayload result = applicator.apply(source, null);
+        assertThat(result, allOf(
+            notNullValue(),
+            hasProperty("bytes", allOf(is(source.getBytes()), not(sameInstance(source.getBytes())))),
+            hasProperty("longs", allOf(is(source.getLongs()), not(sameInstance(source.getLongs())))),
+            hasProperty("strings", allOf(is(source.getStrings()), not(sameInstance(source.getStrings())))),
+            hasProperty("integers", arrayContaining(is(6), nullValue()))
+        ));
+    }
+
+    @Test
+    public void test_reflectiveConversionCopiesArraysOfTheSameComponentTypeIntoNewArrays() throws Exception {
+        TestArrayPayload source = createArrayPayload();
+
+        Object bytes = ArrayValueConverter.createReflectiveArrayToArrayValueConverter(byte[].class, byte[].class).apply(source.getBytes());
+        Object strings = ArrayValueConverter.createReflectiveArrayToArrayValueConverter(String[].class, String[].class).apply(source.getStrings());
+        Object integers = ArrayValueConverter.createReflectiveArrayToArrayValueConverter(Integer[].class, Integer[].class).apply(source.getIntegers());
+
+        assertThat(bytes, allOf(is(source.getBytes()), not(sameInstance(source.getBytes()))));
+        assertThat(strings, allOf(is(source.getStrings()), not(sameInstance(source.getStrings()))));
+        assertThat(integers, is(new Integer[] {6, null}));
+    }
+}
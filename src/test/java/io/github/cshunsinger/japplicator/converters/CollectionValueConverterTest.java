@@ -4,6 +4,9 @@ import io.github.cshunsinger.japplicator.BaseUnitTest;
 import io.github.cshunsinger.japplicator.Applicator;
 import io.github.cshunsinger.japplicator.annotation.FieldIdentifier;
 import io.github.cshunsinger.japplicator.builder.ApplicatorBuilder;
+import io.github.cshunsinger.japplicator.builder.ApplicatorBuilderTest.BeanAddress;
+import io.github.cshunsinger.japplicator.builder.ApplicatorBuilderTest.BeanAddressDto;
+import io.github.cshunsinger.japplicator.builder.ReflectiveApplicator;
 import io.github.cshunsinger.japplicator.converters.CollectionValueConverter;
 import io.github.cshunsinger.japplicator.exception.TypeConversionException;
 import io.github.cshunsinger.japplicator.exception.TypeVariableUnsupportedException;
@@ -12,12 +15,14 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.apache.commons.lang3.reflect.TypeUtils;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
 
 import static java.util.Collections.emptyList;
 import static org.junit.jupiter.api.Assertions.*;
@@ -368,4 +373,130 @@ public class CollectionValueConverterTest extends BaseUnitTest {
 
         assertThat(ex, hasProperty("cause", instanceOf(TypeVariableUnsupportedException.class)));
     }
-}
\ No newline at end of file
+
+    @Getter @Setter
+    public static class DestinationWithArrayBlockingQueue {
+        @FieldIdentifier
+        private ArrayBlockingQueue<Integer> list;
+    }
+
+    @Test
+    public void createArrayBlockingQueueWithTheCapacityOfTheSourceCollection() {
+        Applicator<SourceWithSimpleCollection, DestinationWithArrayBlockingQueue> applicator =
+            new ApplicatorBuilder<>(SourceWithSimpleCollection.class, DestinationWithArrayBlockingQueue.class).build();
+
+        DestinationWithArrayBlockingQueue result = applicator.apply(new SourceWithSimpleCollection(List.of(1, 2, 3)), null);
+        assertThat(result.getList(), allOf(instanceOf(ArrayBlockingQueue.class), contains(1, 2, 3)));
+
+        DestinationWithArrayBlockingQueue emptyResult = applicator.apply(new SourceWithSimpleCollection(emptyList()), null);
+        assertThat(emptyResult.getList(), allOf(instanceOf(ArrayBlockingQueue.class), empty()));
+    }
+
+    @Test
+    public void reflectivelyCreateArrayBlockingQueueWithTheCapacityOfTheSourceCollection() {
+        Applicator<SourceWithSimpleCollection, DestinationWithArrayBlockingQueue> applicator =
+            new ReflectiveApplicator<>(SourceWithSimpleCollection.class, DestinationWithArrayBlockingQueue.class);
+
+        DestinationWithArrayBlockingQueue result = applicator.apply(new SourceWithSimpleCollection(List.of(1, 2, 3)), null);
+        assertThat(result.getList(), allOf(instanceOf(ArrayBlockingQueue.class), contains(1, 2, 3)));
+        assertThat(result.getList().remainingCapacity(), is(0));
+
+        DestinationWithArrayBlockingQueue emptyResult = applicator.apply(new SourceWithSimpleCollection(emptyList()), null);
+        assertThat(emptyResult.getList(), allOf(instanceOf(ArrayBlockingQueue.class), empty()));
+    }
+
+    @Test
+    public void hashCapacityHoldsTheElementsWithoutResizing() {
+        //A HashMap resizes once it holds more than 3/4 of its capacity, which is rounded up to a power of two
+        assertThat(CollectionValueConverter.hashCapacity(0), is(0));
+        assertThat(CollectionValueConverter.hashCapacity(12), is(16));
+        assertThat(CollectionValueConverter.hashCapacity(13), is(18));
+        assertThat(CollectionValueConverter.hashCapacity(1_000_000), greaterThanOrEqualTo(1_333_334));
+    }
+
+    @Test
+    public void generateTheElementConversionOfNestedCollectionsTwiceAtMost() throws Exception {
+        //Each loop over the innermost lists needs the bean conversion method, once for each of its two loops
+        List<String> conversions = new ArrayList<>();
+        BeanConversionMethods beanMethods = (sourceClass, destinationClass) -> {
+            conversions.add(sourceClass.getSimpleName() + " -> " + destinationClass.getSimpleName());
+            return "convertBean0";
+        };
+        Type sourceType = TypeUtils.parameterize(List.class, TypeUtils.parameterize(List.class, TypeUtils.parameterize(List.class, BeanAddress.class)));
+        Type destType = TypeUtils.parameterize(List.class, TypeUtils.parameterize(List.class, TypeUtils.parameterize(List.class, BeanAddressDto.class)));
+
+        assertNotNull(CollectionValueConverter.createCollectionToCollectionValueConverter("source", sourceType, destType, beanMethods));
+        //Reading every level by index as well would generate the innermost conversion 2^3 times
+        assertThat(conversions, hasSize(2));
+    }
+
+    @Test
+    public void onlyTheInnermostLevelOfNestedCollectionsIsReadByIndex() throws Exception {
+        Type listOfIntegers = TypeUtils.parameterize(List.class, Integer.class);
+        assertTrue(CollectionValueConverter.readsByIndex(BeanAddress.class, BeanAddressDto.class));
+        assertTrue(CollectionValueConverter.readsByIndex(Integer.class, Long.class));
+        assertFalse(CollectionValueConverter.readsByIndex(listOfIntegers, listOfIntegers));
+        assertFalse(CollectionValueConverter.readsByIndex(listOfIntegers, Integer[].class));
+    }
+
+    @Test
+    public void onlyRandomAccessListsAreReadByIndex() {
+        assertTrue(CollectionValueConverter.isRandomAccessList(new ArrayList<>()));
+        assertTrue(CollectionValueConverter.isRandomAccessList(List.of(1, 2)));
+        assertTrue(CollectionValueConverter.isRandomAccessList(Arrays.asList(1, 2)));
+        assertFalse(CollectionValueConverter.isRandomAccessList(new LinkedList<>()));
+        assertFalse(CollectionValueConverter.isRandomAccessList(new HashSet<>()));
+        assertFalse(CollectionValueConverter.isRandomAccessList(new ArrayDeque<>()));
+    }
+
+    @Test
+    public void reflectivelyConvertSequentialCollections() {
+        Applicator<SourceWithSimpleCollection, DestinationWithArrayBlockingQueue> applicator =
+            new ReflectiveApplicator<>(SourceWithSimpleCollection.class, DestinationWithArrayBlockingQueue.class);
+
+        DestinationWithArrayBlockingQueue result = applicator.apply(new SourceWithSimpleCollection(new LinkedList<>(List.of(1, 2, 3))), null);
+        assertThat(result.getList(), contains(1, 2, 3));
+    }
+
+    @Getter @Setter
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class SourceWithLinkedList {
+        @FieldIdentifier
+        private LinkedList<String> list;
+    }
+
+    @Getter @Setter
+    public static class DestinationWithCopiedCollections {
+        @FieldIdentifier("list")
+        private List<String> list;
+        @FieldIdentifier("list")
+        private Set<String> set;
+        @FieldIdentifier("list")
+        private TreeSet<String> sorted;
+    }
+
+    @Test
+    public void copyCollectionsWhoseElementsAreNotConvertedAllAtOnce() {
+        Applicator<SourceWithLinkedList, DestinationWithCopiedCollections> applicator =
+            new ApplicatorBuilder<>(SourceWithLinkedList.class, DestinationWithCopiedCollections.class).build();
+
+        SourceWithLinkedList source = new SourceWithLinkedList(new LinkedList<>(List.of("b", "a", "c")));
+        DestinationWithCopiedCollections result = applicator.apply(source, null);
+        assertThat(result.getList(), allOf(instanceOf(LinkedList.class), contains("b", "a", "c"), not(sameInstance(source.getList()))));
+        assertThat(result.getSet(), allOf(instanceOf(HashSet.class), containsInAnyOrder("a", "b", "c")));
+        assertThat(result.getSorted(), contains("a", "b", "c"));
+    }
+
+    @Test
+    public void reflectivelyCopyCollectionsWhoseElementsAreNotConvertedAllAtOnce() {
+        Applicator<SourceWithLinkedList, DestinationWithCopiedCollections> applicator =
+            new ReflectiveApplicator<>(SourceWithLinkedList.class, DestinationWithCopiedCollections.class);
+
+        SourceWithLinkedList source = new SourceWithLinkedList(new LinkedList<>(List.of("b", "a", "c")));
+        DestinationWithCopiedCollections result = applicator.apply(source, null);
+        assertThat(result.getList(), allOf(instanceOf(LinkedList.class), contains("b", "a", "c"), not(sameInstance(source.getList()))));
+        assertThat(result.getSet(), allOf(instanceOf(HashSet.class), containsInAnyOrder("a", "b", "c")));
+        assertThat(result.getSorted(), contains("a", "b", "c"));
+    }
+}
@@ -0,0 +1,294 @@
+package io.github.cshunsinger.japplicator.processor;
+
+import io.github.cshunsinger.japplicator.Applicator;
+import io.github.cshunsinger.japplicator.builder.ApplicatorBuilder;
+import io.github.cshunsinger.japplicator.builder.PrecompiledApplicators;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.*;
+import java.io.File;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ApplicatorProcessorTest {
+    private static final String SOURCE_MODEL = """
+        package precompiled;
+
+        import io.github.cshunsinger.japplicator.annotation.FieldIdentifier;
+        import io.github.cshunsinger.japplicator.annotation.GenerateApplicator;
+        import io.github.cshunsinger.japplicator.annotation.Nested;
+        import java.util.List;
+
+        @FieldIdentifier
+        @GenerateApplicator(source = SourceModel.class, destination = DestinationModel.class)
+        @GenerateApplicator(source = SourceModel.class, destination = DestinationModel.class)
+        public class SourceModel {
+            private String name;
+            private int age;
+            private List<Integer> numbers;
+            private Integer count;
+            @Nested(prefix = "address")
+            private SourceAddress address;
+            private SourceAddress home;
+            private int[] scores;
+            private String[] tags;
+            private List<SourceAddress> addresses;
+
+            public String getName() { return name; }
+            public void setName(String name) { this.name = name; }
+            public int getAge() { return age; }
+            public void setAge(int age) { this.age = age; }
+            public List<Integer> getNumbers() { return numbers; }
+            public void setNumbers(List<Integer> numbers) { this.numbers = numbers; }
+            public Integer getCount() { return count; }
+            public void setCount(Integer count) { this.count = count; }
+            public SourceAddress getAddress() { return address; }
+            public void setAddress(SourceAddress address) { this.address = address; }
+            public SourceAddress getHome() { return home; }
+            public void setHome(SourceAddress home) { this.home = home; }
+            public int[] getScores() { return scores; }
+            public void setScores(int[] scores) { this.scores = scores; }
+            public String[] getTags() { return tags; }
+            public void setTags(String[] tags) { this.tags = tags; }
+            public List<SourceAddress> getAddresses() { return addresses; }
+            public void setAddresses(List<SourceAddress> addresses) { this.addresses = addresses; }
+
+            public static class SourceAddress {
+                @FieldIdentifier("City")
+                private String city;
+                @Nested
+                private SourceAddress forwardedTo;
+
+                public String getCity() { return city; }
+                public void setCity(String city) { this.city = city; }
+                public SourceAddress getForwardedTo() { return forwardedTo; }
+                public void setForwardedTo(SourceAddress forwardedTo) { this.forwardedTo = forwardedTo; }
+            }
+        }
+        """;
+
+    private static final String DESTINATION_MODEL = """
+        package precompiled;
+
+        import io.github.cshunsinger.japplicator.annotation.FieldIdentifier;
+        import io.github.cshunsinger.japplicator.annotation.Nested;
+        import io.github.cshunsinger.japplicator.annotation.ShareReference;
+        import java.util.List;
+        import java.util.Set;
+
+        public class DestinationModel {
+            @FieldIdentifier("name")
+            private String fullName;
+            @FieldIdentifier
+            private Long age;
+            @FieldIdentifier
+            private Set<Long> numbers;
+            @FieldIdentifier("addressCity")
+            private String city;
+            @FieldIdentifier
+            private DestinationAddress home;
+            @FieldIdentifier("numbers")
+            @ShareReference
+            private List<Integer> sharedNumbers;
+            @FieldIdentifier
+            @ShareReference
+            private int count;
+            @FieldIdentifier
+            private long[] scores;
+            @FieldIdentifier
+            private List<String> tags;
+            @FieldIdentifier
+            private DestinationAddress[] addresses;
+            @Nested(prefix = "address")
+            private DestinationAddress mailing;
+
+            public String getFullName() { return fullName; }
+            public void setFullName(String fullName) { this.fullName = fullName; }
+            public Long getAge() { return age; }
+            public void setAge(Long age) { this.age = age; }
+            public Set<Long> getNumbers() { return numbers; }
+            public void setNumbers(Set<Long> numbers) { this.numbers = numbers; }
+            public String getCity() { return city; }
+            public void setCity(String city) { this.city = city; }
+            public DestinationAddress getHome() { return home; }
+            public void setHome(DestinationAddress home) { this.home = home; }
+            public List<Integer> getSharedNumbers() { return sharedNumbers; }
+            public void setSharedNumbers(List<Integer> sharedNumbers) { this.sharedNumbers = sharedNumbers; }
+            public int getCount() { return count; }
+            public void setCount(int count) { this.count = count; }
+            public long[] getScores() { return scores; }
+            public void setScores(long[] scores) { this.scores = scores; }
+            public List<String> getTags() { return tags; }
+            public void setTags(List<String> tags) { this.tags = tags; }
+            public DestinationAddress[] getAddresses() { return addresses; }
+            public void setAddresses(DestinationAddress[] addresses) { this.addresses = addresses; }
+            public DestinationAddress getMailing() { return mailing; }
+            public void setMailing(DestinationAddress mailing) { this.mailing = mailing; }
+
+            public static class DestinationAddress {
+                @FieldIdentifier("City")
+                private String city;
+
+                public String getCity() { return city; }
+                public void setCity(String city) { this.city = city; }
+            }
+        }
+        """;
+
+    private static final String UNCONVERTIBLE_MODEL = """
+        package precompiled;
+
+        import io.github.cshunsinger.japplicator.annotation.FieldIdentifier;
+        import io.github.cshunsinger.japplicator.annotation.GenerateApplicator;
+
+        @GenerateApplicator(source = SourceModel.class, destination = UnconvertibleModel.class)
+        public class UnconvertibleModel {
+            @FieldIdentifier
+            private Thread age;
+
+            public Thread getAge() { return age; }
+            public void setAge(Thread age) { this.age = age; }
+        }
+        """;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void precompiledApplicatorIsFoundAndCopiesValues() throws Throwable {
+        List<Diagnostic<? extends JavaFileObject>> errors = compile(Map.of(
+            "SourceModel", SOURCE_MODEL,
+            "DestinationModel", DESTINATION_MODEL
+        ));
+        assertThat(errors, empty());
+
+        try(URLClassLoader loader = new URLClassLoader(new URL[] {tempDir.resolve("classes").toUri().toURL()}, getClass().getClassLoader())) {
+            Class<Object> sourceClass = (Class<Object>)loader.loadClass("precompiled.SourceModel");
+            Class<Object> destinationClass = (Class<Object>)loader.loadClass("precompiled.DestinationModel");
+            Class<?> addressClass = loader.loadClass("precompiled.SourceModel$SourceAddress");
+
+            Class<?> precompiledClass = PrecompiledApplicators.findPrecompiledClass(sourceClass, destinationClass);
+            assertThat(precompiledClass, notNullValue());
+            assertThat(precompiledClass.getName(), is("precompiled.SourceModel$$precompiled_DestinationModel$$Applicator"));
+            assertThat(PrecompiledApplicators.findPrecompiledClass(destinationClass, sourceClass), nullValue());
+
+            Applicator<Object, Object> applicator = Applicator.getInstance(sourceClass, destinationClass);
+            assertThat(applicator, instanceOf(precompiledClass));
+
+            Object address = addressClass.getConstructor().newInstance();
+            addressClass.getMethod("setCity", String.class).invoke(address, "Springfield");
+            //The recursive @Nested member maps the city of the address it is forwarded to over the city of the address
+            Object forwardingAddress = addressClass.getConstructor().newInstance();
+            addressClass.getMethod("setCity", String.class).invoke(forwardingAddress, "Shelbyville");
+            addressClass.getMethod("setForwardedTo", addressClass).invoke(forwardingAddress, address);
+            Object source = sourceClass.getConstructor().newInstance();
+            sourceClass.getMethod("setName", String.class).invoke(source, "Homer");
+            sourceClass.getMethod("setAge", int.class).invoke(source, 39);
+            List<Integer> numbers = List.of(1, 2, 3);
+            sourceClass.getMethod("setNumbers", List.class).invoke(source, numbers);
+            sourceClass.getMethod("setAddress", addressClass).invoke(source, forwardingAddress);
+            sourceClass.getMethod("setHome", addressClass).invoke(source, address);
+            sourceClass.getMethod("setScores", int[].class).invoke(source, (Object)new int[] {4, 5});
+            sourceClass.getMethod("setTags", String[].class).invoke(source, (Object)new String[] {"a", "b"});
+            sourceClass.getMethod("setAddresses", List.class).invoke(source, List.of(address, address));
+
+            Object destination = applicator.apply(source);
+            assertThat(destination, allOf(
+                hasProperty("fullName", is("Homer")),
+                hasProperty("age", is(39L)),
+                hasProperty("numbers", containsInAnyOrder(1L, 2L, 3L)),
+                hasProperty("city", is("Springfield")),
+                hasProperty("mailing", hasProperty("city", is("Springfield"))),
+                hasProperty("home", hasProperty("city", is("Springfield"))),
+                hasProperty("scores", is(new long[] {4L, 5L})),
+                hasProperty("tags", contains("a", "b")),
+                hasProperty("addresses", arrayContaining(hasProperty("city", is("Springfield")), hasProperty("city", is("Springfield")))),
+                hasProperty("sharedNumbers", sameInstance(numbers)),
+                //A boxed value is never shared with a primitive member, so a null count is not unboxed
+                hasProperty("count", is(0))
+            ));
+            sourceClass.getMethod("setCount", Integer.class).invoke(source, 7);
+            assertThat(applicator.apply(source), hasProperty("count", is(7)));
+            assertThat(applicator.apply(null, destination), sameInstance(destination));
+
+            //The static entry point maps without going through the erased apply method
+            MethodHandle staticApply = ApplicatorBuilder.findStaticApplyMethod(applicator);
+            assertThat(staticApply, notNullValue());
+            assertThat(staticApply.type(), is(MethodType.methodType(destinationClass, sourceClass, destinationClass)));
+            assertThat(staticApply.invoke(source, null), hasProperty("fullName", is("Homer")));
+            assertThat(precompiledClass.getMethod(ApplicatorBuilder.TYPED_METHOD_NAME, sourceClass, destinationClass).invoke(applicator, source, null),
+                hasProperty("city", is("Springfield")));
+        }
+    }
+
+    @Test
+    public void unconvertibleValuesFailCompilation() throws Exception {
+        List<Diagnostic<? extends JavaFileObject>> errors = compile(Map.of(
+            "SourceModel", SOURCE_MODEL,
+            "DestinationModel", DESTINATION_MODEL,
+            "UnconvertibleModel", UNCONVERTIBLE_MODEL
+        ));
+
+        assertThat(errors, hasSize(1));
+        assertThat(errors.get(0).getMessage(null), allOf(
+            containsString("Cannot precompile an applicator from precompiled.SourceModel to precompiled.UnconvertibleModel"),
+            containsString("java.lang.Thread")
+        ));
+    }
+
+    private List<Diagnostic<? extends JavaFileObject>> compile(Map<String, String> sources) throws Exception {
+        Path sourceDir = Files.createDirectories(tempDir.resolve("src/precompiled"));
+        Path classesDir = Files.createDirectories(tempDir.resolve("classes"));
+        List<File> sourceFiles = new ArrayList<>();
+        for(Map.Entry<String, String> source: sources.entrySet()) {
+            Path file = sourceDir.resolve(source.getKey() + ".java");
+            Files.writeString(file, source.getValue());
+            sourceFiles.add(file.toFile());
+        }
+
+        //The library classes may be loaded from a directory which is not on java.class.path, such as an IDE output dir
+        List<String> classpathEntries = Stream.concat(
+            Stream.of(System.getProperty("java.class.path").split(File.pathSeparator)),
+            Stream.of(codeSourcePath(Applicator.class), codeSourcePath(ApplicatorProcessor.class))
+        ).distinct().collect(Collectors.toList());
+        String classpath = String.join(File.pathSeparator, classpathEntries);
+        //The processor runs without the bytecode generation libraries
+        String processorpath = classpathEntries.stream()
+            .filter(entry -> !Path.of(entry).getFileName().toString().startsWith("asm"))
+            .collect(Collectors.joining(File.pathSeparator));
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try(StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+            List<String> options = List.of(
+                "-classpath", classpath,
+                "-processorpath", processorpath,
+                "-processor", ApplicatorProcessor.class.getName(),
+                "-d", classesDir.toString()
+            );
+            compiler.getTask(null, fileManager, diagnostics, options, null, fileManager.getJavaFileObjectsFromFiles(sourceFiles)).call();
+        }
+
+        return diagnostics.getDiagnostics().stream()
+            .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+            .collect(Collectors.toList());
+    }
+
+    private static String codeSourcePath(Class<?> type) throws Exception {
+        return Path.of(type.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+    }
+}
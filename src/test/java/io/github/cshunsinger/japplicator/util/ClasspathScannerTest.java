@@ -0,0 +1,66 @@
+package io.github.cshunsinger.japplicator.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ClasspathScannerTest {
+    public static class ScannedModel {
+        public static class InnerScannedModel {}
+    }
+
+    @Test
+    public void findClassesInDirectories() {
+        List<Class<?>> classes = ClasspathScanner.findClasses(ClasspathScannerTest.class.getClassLoader(), ClasspathScannerTest.class.getPackageName());
+
+        assertThat(classes, hasItems(ClasspathScannerTest.class, ScannedModel.class, ScannedModel.InnerScannedModel.class));
+    }
+
+    @Test
+    public void findClassesInJarFiles(@TempDir Path tempDir) throws Exception {
+        Path jar = tempDir.resolve("models.jar");
+        try(JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            addDirectories(out, ClasspathScannerTest.class.getPackageName());
+            addClass(out, ScannedModel.class);
+            addClass(out, ScannedModel.InnerScannedModel.class);
+        }
+
+        try(URLClassLoader jarLoader = new URLClassLoader(new URL[] {jar.toUri().toURL()}, null)) {
+            List<Class<?>> classes = ClasspathScanner.findClasses(jarLoader, ClasspathScannerTest.class.getPackageName());
+
+            assertThat(classes, hasSize(2));
+            assertThat(classes.get(0).getName(), is(ScannedModel.class.getName()));
+            assertThat(classes.get(0).getClassLoader(), sameInstance(jarLoader));
+            assertThat(classes.get(1).getName(), is(ScannedModel.InnerScannedModel.class.getName()));
+        }
+    }
+
+    private static void addDirectories(JarOutputStream out, String packageName) throws Exception {
+        String directory = "";
+        for(String part: packageName.split("\\.")) {
+            directory += part + "/";
+            out.putNextEntry(new JarEntry(directory));
+            out.closeEntry();
+        }
+    }
+
+    private static void addClass(JarOutputStream out, Class<?> type) throws Exception {
+        String resourceName = type.getName().replace('.', '/') + ".class";
+        out.putNextEntry(new JarEntry(resourceName));
+        try(InputStream classFile = type.getClassLoader().getResourceAsStream(resourceName)) {
+            classFile.transferTo(out);
+        }
+        out.closeEntry();
+    }
+}